@@ -263,6 +263,10 @@ class PerformanceEvaluator {
     private final SimilarityFlooding similarityFlooding;
     private final TablePairsGenerator tablePairsGenerator;
     private final List<Metric> metrics;
+    // Scenarios of the last evaluated dataset are kept, so with a single dataset all evaluations reuse them (and
+    // Similarity Flooding their graphs), while memory stays bounded by the largest dataset.
+    private Configuration.DatasetConfiguration lastDatasetConfig;
+    private List<MatchTask> lastMatchTasks;
 
     /**
      * Constructs a PerformanceEvaluator.
@@ -279,6 +283,39 @@ class PerformanceEvaluator {
         this.metrics = List.of(new F1Score());
     }
 
+    /**
+     * @return The match tasks of all scenarios of the dataset, releasing those of the previously evaluated dataset.
+     */
+    private List<MatchTask> getMatchTasks(Configuration.DatasetConfiguration datasetConfig) {
+        if (lastMatchTasks == null || !datasetConfig.equals(lastDatasetConfig)) {
+            lastMatchTasks = null;
+            lastMatchTasks = prepareMatchTasks(datasetConfig);
+            lastDatasetConfig = datasetConfig;
+        }
+        return lastMatchTasks;
+    }
+
+    /**
+     * Prepares a match task with table pairs and ground truth for each scenario of a dataset.
+     *
+     * @param datasetConfig The dataset configuration.
+     * @return The match tasks of all scenarios of the dataset.
+     */
+    private List<MatchTask> prepareMatchTasks(Configuration.DatasetConfiguration datasetConfig) {
+        Dataset dataset = new Dataset(datasetConfig);
+        List<MatchTask> datasetMatchTasks = new ArrayList<>();
+        for (String scenarioName : dataset.getScenarioNames()) {
+            Scenario scenario = new Scenario(dataset.getPath() + File.separator + scenarioName);
+            // Initialize a new MatchTask with an empty list of match steps.
+            MatchTask matchTask = new MatchTask(dataset, scenario, new ArrayList<MatchStep>(), metrics);
+            List<TablePair> tablePairs = tablePairsGenerator.generateCandidates(scenario);
+            matchTask.setTablePairs(tablePairs);
+            matchTask.readGroundTruth();
+            datasetMatchTasks.add(matchTask);
+        }
+        return datasetMatchTasks;
+    }
+
     /**
      * Evaluates and returns the average performance score across all dataset configurations.
      *
@@ -290,24 +327,16 @@ class PerformanceEvaluator {
 
         // Iterate over each dataset configuration.
         for (Configuration.DatasetConfiguration datasetConfig : config.getDatasetConfigurations()) {
-            Dataset dataset = new Dataset(datasetConfig);
             List<Float> scenarioPerformances = new ArrayList<>();
 
             // Process each scenario within the dataset.
-            for (String scenarioName : dataset.getScenarioNames()) {
-                Scenario scenario = new Scenario(dataset.getPath() + File.separator + scenarioName);
-                // Initialize a new MatchTask with an empty list of match steps.
-                MatchTask matchTask = new MatchTask(dataset, scenario, new ArrayList<MatchStep>(), metrics);
-                List<TablePair> tablePairs = tablePairsGenerator.generateCandidates(scenario);
-                matchTask.setTablePairs(tablePairs);
-                matchTask.readGroundTruth();
-
+            for (MatchTask matchTask : getMatchTasks(datasetConfig)) {
                 // Run Similarity Flooding and boosting.
                 float[][] results = similarityFlooding.match(matchTask, null);
                 results = thresholdBoosting.run(matchTask, null, results);
 
                 // Evaluate performance using the first metric (F1Score).
-                Evaluator evaluator = new Evaluator(metrics, scenario, matchTask.getGroundTruthMatrix());
+                Evaluator evaluator = new Evaluator(metrics, matchTask.getScenario(), matchTask.getGroundTruthMatrix());
                 Performance performance = evaluator.evaluate(results).get(metrics.get(0));
                 scenarioPerformances.add(performance.getGlobalScore());
             }
@@ -18,6 +18,10 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class Main {
     final static Logger log = LogManager.getLogger(Main.class);
@@ -70,12 +74,45 @@ public class Main {
         MetricFactory metricFactory = new MetricFactory();
         List<Metric> metrics = metricFactory.createMetricsFromConfig();
 
-        EvalWriter evalWriter = null;
+        EvalWriter evalWriter = ConfigUtils.anyEvaluate() ? new EvalWriter(matchSteps, metrics) : null;
+
+        int numScenarioThreads = ConfigUtils.getNumScenarioThreads();
+        log.info("Running up to " + numScenarioThreads + " scenarios in parallel");
+        ExecutorService scenarioExecutor = Executors.newFixedThreadPool(numScenarioThreads);
+
+        START_TIMESTAMP = new Date(); //Start time measurement before SimilarityFlooding Algorithm runs
+        try {
+            runDatasets(config, matchSteps, metrics, evalWriter, scenarioExecutor);
+        } finally {
+            scenarioExecutor.shutdown();
+        }
+
+        if (ConfigUtils.anyReadCache() || ConfigUtils.anyWriteCache()) {
+            CacheIndex cacheIndex = CacheIndex.getInstance();
+            log.info("Cache: " + cacheIndex.getNumHits() + " hits, " + cacheIndex.getNumMisses() + " misses, " +
+                    cacheIndex.getNumEvictions() + " evictions, " + cacheIndex.getNumEntries() + " entries (" +
+                    cacheIndex.getSizeBytes() / (1024 * 1024) + " MB)");
+        }
+
         if (ConfigUtils.anyEvaluate()) {
-            evalWriter = new EvalWriter(matchSteps, metrics);
+            assert evalWriter != null;
+            evalWriter.writeOverallPerformance(config.getDatasetConfigurations().size());
         }
 
-        START_TIMESTAMP = new Date(); //Start time measurement before SimilarityFlooding Algorithm runs
+        Date END_TIMESTAMP = new Date(); //End time measurement after last SelectThreshold
+        log.info("See results directory for more detailed performance and similarity matrices results.");
+
+        long durationInMillis = END_TIMESTAMP.getTime() - START_TIMESTAMP.getTime();
+        log.info("Total time: " + DurationFormatUtils.formatDuration(durationInMillis, "HH:mm:ss:SSS"));
+
+        log.info("Ending Schematch");
+
+        // Workaround for {@link de.hpi.isg.pyro.util.MemoryWatchdog} not stopping the JVM if Pyro ran in this JVM (profileInWorkers: false)
+        System.exit(0);
+    }
+
+    private static void runDatasets(Configuration config, List<MatchStep> matchSteps, List<Metric> metrics,
+                                    EvalWriter evalWriter, ExecutorService scenarioExecutor) {
         // loop over datasets
         for (Configuration.DatasetConfiguration datasetConfiguration : config.getDatasetConfigurations()) {
             Dataset dataset = new Dataset(datasetConfiguration);
@@ -85,39 +122,54 @@ public class Main {
 //            log.info("Dataset stats: ");
 //            log.info(dataset.getStats());
 
-            // loop over scenarios
+            // scenarios are independent of each other, so run them on the worker pool
+            // and wait for all of them before aggregating dataset performance
+            List<Future<?>> scenarioFutures = new ArrayList<>();
             for (String scenarioName : dataset.getScenarioNames()) {
-                Scenario scenario = new Scenario(dataset.getPath() + File.separator + scenarioName);
-                log.debug("Starting experiments for dataset " + dataset.getName() + ", scenario: " + scenario.getPath());
-
-                MatchTask matchTask = new MatchTask(dataset, scenario, matchSteps, metrics);
-                matchTask.runSteps();
-                if (ConfigUtils.anyEvaluate()) {
-                    assert evalWriter != null;
-                    evalWriter.writeScenarioPerformance(matchTask);
-                }
+                scenarioFutures.add(scenarioExecutor.submit(() ->
+                        runScenario(dataset, scenarioName, matchSteps, metrics, evalWriter)));
             }
+            awaitScenarios(scenarioFutures, scenarioExecutor);
 
             if (ConfigUtils.anyEvaluate()) {
                 assert evalWriter != null;
                 evalWriter.writeDatasetPerformance(dataset);
             }
         }
+    }
 
+    private static void runScenario(Dataset dataset, String scenarioName, List<MatchStep> matchSteps,
+                                    List<Metric> metrics, EvalWriter evalWriter) {
+        Scenario scenario = new Scenario(dataset.getPath() + File.separator + scenarioName);
+        log.debug("Starting experiments for dataset " + dataset.getName() + ", scenario: " + scenario.getPath());
+
+        MatchTask matchTask = new MatchTask(dataset, scenario, matchSteps, metrics);
+        matchTask.runSteps();
         if (ConfigUtils.anyEvaluate()) {
             assert evalWriter != null;
-            evalWriter.writeOverallPerformance(config.getDatasetConfigurations().size());
+            evalWriter.writeScenarioPerformance(matchTask);
         }
+    }
 
-        Date END_TIMESTAMP = new Date(); //End time measurement after last SelectThreshold
-        log.info("See results directory for more detailed performance and similarity matrices results.");
-
-        long durationInMillis = END_TIMESTAMP.getTime() - START_TIMESTAMP.getTime();
-        log.info("Total time: " + DurationFormatUtils.formatDuration(durationInMillis, "HH:mm:ss:SSS"));
-
-        log.info("Ending Schematch");
-
-        // Workaround for {@link de.hpi.isg.pyro.util.MemoryWatchdog} not stopping the JVM
-        System.exit(0);
+    /**
+     * Waits for all submitted scenarios to finish. If one of them fails, the pool is shut down and the
+     * failure is rethrown so that the run aborts just like it would when running scenarios sequentially.
+     */
+    private static void awaitScenarios(List<Future<?>> scenarioFutures, ExecutorService scenarioExecutor) {
+        try {
+            for (Future<?> scenarioFuture : scenarioFutures) {
+                scenarioFuture.get();
+            }
+        } catch (InterruptedException e) {
+            scenarioExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            scenarioExecutor.shutdownNow();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,35 +2,62 @@ package de.uni_marburg.schematch.data;
 
 import de.uni_marburg.schematch.preprocessing.tokenization.Tokenizer;
 import de.uni_marburg.schematch.data.metadata.Datatype;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Data
 public class Column {
     private Table table;
     private final String label;
-    private Datatype datatype;
-    private HashMap<Datatype, Double> dataTypeScores;
+    private volatile Datatype datatype;
+    private volatile HashMap<Datatype, Double> dataTypeScores;
     /**
      * All values are represented as String.
      * See {@link #datatype} for more specific interpretation.
      */
     private final List<String> values;
+    /**
+     * Dictionary encoding of {@link #values}, either passed on construction (then {@link #values} is a view
+     * on it) or computed on first access.
+     */
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private volatile DictionaryEncoding encoding;
     private Map<Tokenizer, Set<String>> tokenizedLabel;
     private Map<Tokenizer, Set<String>> tokenizedValues;
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private Map<RowSampling, Column> samples;
 
     //Column wird angelegt indem Name der Columns und enthaltene Werte übergeben werden
     public Column(String label, List<String> values) {
         this.label = label;
         this.values = values;
+        this.encoding = null;
+        this.datatype = null;
+        this.dataTypeScores = null;
+        this.tokenizedLabel = new ConcurrentHashMap<>();
+        this.tokenizedValues = new ConcurrentHashMap<>();
+        this.samples = new ConcurrentHashMap<>();
+    }
+
+    public Column(String label, DictionaryEncoding encoding) {
+        this.label = label;
+        this.values = encoding.getValues();
+        this.encoding = encoding;
         this.datatype = null;
         this.dataTypeScores = null;
-        this.tokenizedLabel = new HashMap<>();
-        this.tokenizedValues = new HashMap<>();
+        this.tokenizedLabel = new ConcurrentHashMap<>();
+        this.tokenizedValues = new ConcurrentHashMap<>();
+        this.samples = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -43,33 +70,68 @@ public class Column {
         return this.label + "___" + this.table.getName();
     }
 
+    // datatype, datatype scores and tokens are computed once on first access, matchers may request them concurrently
     public Datatype getDatatype() {
         if (this.datatype == null) {
-            this.datatype = Datatype.determineDatatype(getDataTypeScores());
+            synchronized (this) {
+                if (this.datatype == null) {
+                    this.datatype = Datatype.determineDatatype(getDataTypeScores());
+                }
+            }
         }
         return this.datatype;
     }
 
     public HashMap<Datatype, Double> getDataTypeScores() {
         if (this.dataTypeScores == null) {
-            this.dataTypeScores = Datatype.calculateScores(this);
-            this.datatype = Datatype.determineDatatype(dataTypeScores);
+            synchronized (this) {
+                if (this.dataTypeScores == null) {
+                    HashMap<Datatype, Double> scores = Datatype.calculateScores(this);
+                    this.datatype = Datatype.determineDatatype(scores);
+                    this.dataTypeScores = scores;
+                }
+            }
         }
-        return dataTypeScores;
+        return this.dataTypeScores;
     }
 
-    public Set<String> getLabelTokens(Tokenizer tokenizer) {
-        if (tokenizedLabel.get(tokenizer) == null) {
-            this.addLabelTokens(tokenizer, tokenizer.tokenize(this.label));
+    public DictionaryEncoding getEncoding() {
+        if (this.encoding == null) {
+            synchronized (this) {
+                if (this.encoding == null) {
+                    this.encoding = DictionaryEncoding.encode(this.values);
+                }
+            }
         }
-        return tokenizedLabel.get(tokenizer);
+        return this.encoding;
     }
 
-    public Set<String> getValuesTokens(Tokenizer tokenizer) {
-        if (tokenizedValues.get(tokenizer) == null) {
-            this.addValuesTokens(tokenizer, tokenizer.tokenize(this.values));
+    public int getNumDistinctValues() {
+        return getEncoding().getNumDistinct();
+    }
+
+    /**
+     * @return Column holding only the sampled rows (with the same label and table), or this column if the
+     * sampling keeps all of its rows. Samples are computed once per sampling.
+     */
+    public Column getSample(RowSampling sampling) {
+        if (!sampling.isSampling(this.values.size())) {
+            return this;
         }
-        return tokenizedValues.get(tokenizer);
+        return this.samples.computeIfAbsent(sampling, s -> {
+            DictionaryEncoding encoding = getEncoding();
+            Column sample = new Column(this.label, encoding.select(s.sampleRows(encoding)));
+            sample.setTable(this.table);
+            return sample;
+        });
+    }
+
+    public Set<String> getLabelTokens(Tokenizer tokenizer) {
+        return this.tokenizedLabel.computeIfAbsent(tokenizer, t -> t.tokenize(this.label));
+    }
+
+    public Set<String> getValuesTokens(Tokenizer tokenizer) {
+        return this.tokenizedValues.computeIfAbsent(tokenizer, t -> t.tokenize(this.values));
     }
 
     public void addLabelTokens(Tokenizer tokenizer, Set<String> tokens) {
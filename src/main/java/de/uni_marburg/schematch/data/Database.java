@@ -1,7 +1,6 @@
 package de.uni_marburg.schematch.data;
 
 import de.uni_marburg.schematch.data.metadata.DatabaseMetadata;
-import de.uni_marburg.schematch.utils.Configuration;
 import de.uni_marburg.schematch.utils.InputReader;
 import lombok.Data;
 
@@ -22,10 +21,8 @@ public class Database {
         this.path = path;
         this.tables = InputReader.readDataDir(this.path, this);
 
-        // TODO: read dependencies on demand
-        if (Configuration.getInstance().isReadDependencies()) {
-            this.metadata = InputReader.readDatabaseMetadata(this);
-        }
+        // dependencies are read on first access
+        this.metadata = new DatabaseMetadata(this);
 
         // set matrix offsets for tables
         int currentOffset = 0;
@@ -72,4 +69,4 @@ public class Database {
         }
         return null;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
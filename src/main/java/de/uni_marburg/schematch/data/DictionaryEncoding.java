@@ -0,0 +1,162 @@
+package de.uni_marburg.schematch.data;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * Dictionary encoded representation of column values. Every distinct value is stored once in
+ * {@link #dictionary} (in order of first occurrence) and each row is represented by the index of
+ * its value in the dictionary. Frequencies of the distinct values are computed once while encoding.
+ */
+@Getter
+public class DictionaryEncoding {
+    private final String[] dictionary;
+    private final int[] codes;
+    private final int[] frequencies;
+    // reverse lookup, built on first use since it is as large as the dictionary
+    @Getter(AccessLevel.NONE)
+    private volatile Map<String, Integer> codesByValue;
+    @Getter(AccessLevel.NONE)
+    private final List<String> values;
+
+    private DictionaryEncoding(String[] dictionary, int[] codes, int[] frequencies) {
+        this.dictionary = dictionary;
+        this.codes = codes;
+        this.frequencies = frequencies;
+        this.values = new ValuesView();
+    }
+
+    public static DictionaryEncoding encode(List<String> values) {
+        Builder builder = new Builder(values.size());
+        for (String value : values) {
+            builder.add(value);
+        }
+        return builder.build();
+    }
+
+    public int getNumRows() {
+        return this.codes.length;
+    }
+
+    public int getNumDistinct() {
+        return this.dictionary.length;
+    }
+
+    public String getValue(int row) {
+        return this.dictionary[this.codes[row]];
+    }
+
+    /**
+     * @return Dictionary index of the given value or -1 if the value does not occur
+     */
+    public int getCode(String value) {
+        Integer code = getCodesByValue().get(value);
+        return code == null ? -1 : code;
+    }
+
+    public boolean contains(String value) {
+        return getCodesByValue().containsKey(value);
+    }
+
+    // built once on first lookup, encodings of a column are shared by concurrent matchers
+    private Map<String, Integer> getCodesByValue() {
+        if (this.codesByValue == null) {
+            synchronized (this) {
+                if (this.codesByValue == null) {
+                    Map<String, Integer> codesByValue = new HashMap<>(Math.max((int) (this.dictionary.length / 0.75f) + 1, 16));
+                    for (int code = 0; code < this.dictionary.length; code++) {
+                        codesByValue.put(this.dictionary[code], code);
+                    }
+                    this.codesByValue = codesByValue;
+                }
+            }
+        }
+        return this.codesByValue;
+    }
+
+    /**
+     * @param rows Indices of the rows to keep, in the order they should appear in the result
+     * @return Encoding of only the given rows, the dictionary keeps the order of first occurrence in the result
+     */
+    public DictionaryEncoding select(int[] rows) {
+        int[] newCodes = new int[this.dictionary.length];
+        Arrays.fill(newCodes, -1);
+        List<String> newDictionary = new ArrayList<>();
+        int[] newFrequencies = new int[this.dictionary.length];
+        int[] selectedCodes = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int code = this.codes[rows[i]];
+            if (newCodes[code] == -1) {
+                newCodes[code] = newDictionary.size();
+                newDictionary.add(this.dictionary[code]);
+            }
+            selectedCodes[i] = newCodes[code];
+            newFrequencies[newCodes[code]]++;
+        }
+        return new DictionaryEncoding(newDictionary.toArray(new String[0]), selectedCodes,
+                Arrays.copyOf(newFrequencies, newDictionary.size()));
+    }
+
+    /**
+     * @return Read-only view of the decoded values in row order
+     */
+    public List<String> getValues() {
+        return this.values;
+    }
+
+    private class ValuesView extends AbstractList<String> implements RandomAccess {
+        @Override
+        public String get(int index) {
+            return dictionary[codes[index]];
+        }
+
+        @Override
+        public int size() {
+            return codes.length;
+        }
+    }
+
+    /**
+     * Encodes values incrementally, e.g., while reading a table row by row.
+     */
+    public static class Builder {
+        private final Map<String, Integer> codesByValue = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int[] frequencies = new int[16];
+        private int[] codes;
+        private int numRows = 0;
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int expectedNumRows) {
+            this.codes = new int[Math.max(expectedNumRows, 1)];
+        }
+
+        public void add(String value) {
+            Integer code = this.codesByValue.get(value);
+            if (code == null) {
+                code = this.dictionary.size();
+                this.codesByValue.put(value, code);
+                this.dictionary.add(value);
+                if (code == this.frequencies.length) {
+                    this.frequencies = Arrays.copyOf(this.frequencies, 2 * this.frequencies.length);
+                }
+            }
+            if (this.numRows == this.codes.length) {
+                this.codes = Arrays.copyOf(this.codes, 2 * this.codes.length);
+            }
+            this.codes[this.numRows++] = code;
+            this.frequencies[code]++;
+        }
+
+        public DictionaryEncoding build() {
+            return new DictionaryEncoding(this.dictionary.toArray(new String[0]),
+                    Arrays.copyOf(this.codes, this.numRows),
+                    Arrays.copyOf(this.frequencies, this.dictionary.size()));
+        }
+    }
+}
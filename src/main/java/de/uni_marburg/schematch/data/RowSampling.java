@@ -0,0 +1,151 @@
+package de.uni_marburg.schematch.data;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Describes which rows of a column are used by instance-based matchers and dependency scorers.
+ * Random samples are drawn with a fixed seed, so the same sampling always selects the same rows.
+ */
+@Getter
+@EqualsAndHashCode
+public class RowSampling {
+    public static final RowSampling ALL = new RowSampling(Strategy.ALL, 0, 0);
+
+    public enum Strategy {
+        // use all rows
+        ALL,
+        // first sampleSize rows
+        FIRST_N,
+        // uniform random sample of sampleSize rows
+        RESERVOIR,
+        // random sample per distinct value, proportional to the frequency of the value
+        STRATIFIED
+    }
+
+    private final Strategy strategy;
+    private final int sampleSize;
+    private final long seed;
+
+    public RowSampling(Strategy strategy, int sampleSize, long seed) {
+        if (strategy != Strategy.ALL && sampleSize < 1) {
+            throw new IllegalArgumentException("Sample size must be positive for sampling strategy " + strategy);
+        }
+        this.strategy = strategy;
+        this.sampleSize = sampleSize;
+        this.seed = seed;
+    }
+
+    /**
+     * @param strategy Name of the sampling strategy (case-insensitive), null or empty to use all rows
+     */
+    public static RowSampling of(String strategy, int sampleSize, long seed) {
+        if (strategy == null || strategy.isEmpty()) {
+            return ALL;
+        }
+        Strategy s = Strategy.valueOf(strategy.toUpperCase());
+        return s == Strategy.ALL ? ALL : new RowSampling(s, sampleSize, seed);
+    }
+
+    /**
+     * @return True if only a sample of a column with the given number of rows is used
+     */
+    public boolean isSampling(int numRows) {
+        return this.strategy != Strategy.ALL && numRows > this.sampleSize;
+    }
+
+    /**
+     * @param encoding Encoding of the column to sample, stratified sampling uses its distinct values as strata
+     * @return Sorted indices of the sampled rows
+     */
+    public int[] sampleRows(DictionaryEncoding encoding) {
+        int numRows = encoding.getNumRows();
+        if (!isSampling(numRows)) {
+            return IntStream.range(0, numRows).toArray();
+        }
+        return switch (this.strategy) {
+            case FIRST_N -> IntStream.range(0, this.sampleSize).toArray();
+            case RESERVOIR -> reservoirSample(numRows);
+            case STRATIFIED -> stratifiedSample(encoding);
+            default -> throw new IllegalStateException("Unexpected value: " + this.strategy);
+        };
+    }
+
+    private int[] reservoirSample(int numRows) {
+        Random random = new Random(this.seed);
+        int[] rows = IntStream.range(0, this.sampleSize).toArray();
+        for (int i = this.sampleSize; i < numRows; i++) {
+            int j = random.nextInt(i + 1);
+            if (j < this.sampleSize) {
+                rows[j] = i;
+            }
+        }
+        Arrays.sort(rows);
+        return rows;
+    }
+
+    private int[] stratifiedSample(DictionaryEncoding encoding) {
+        int numRows = encoding.getNumRows();
+        int numDistinct = encoding.getNumDistinct();
+        int[] frequencies = encoding.getFrequencies();
+
+        // proportional quota per distinct value, rows left over by rounding go to the largest remainders
+        int[] quotas = new int[numDistinct];
+        long[] remainders = new long[numDistinct];
+        int numAssigned = 0;
+        for (int code = 0; code < numDistinct; code++) {
+            long share = (long) frequencies[code] * this.sampleSize;
+            quotas[code] = (int) (share / numRows);
+            remainders[code] = share % numRows;
+            numAssigned += quotas[code];
+        }
+        Integer[] codesByRemainder = new Integer[numDistinct];
+        Arrays.setAll(codesByRemainder, code -> code);
+        Arrays.sort(codesByRemainder, Comparator.comparingLong((Integer code) -> remainders[code]).reversed());
+        for (int k = 0; numAssigned < this.sampleSize; k++) {
+            quotas[codesByRemainder[k]]++;
+            numAssigned++;
+        }
+
+        // rows grouped by their value
+        int[] start = new int[numDistinct + 1];
+        for (int code = 0; code < numDistinct; code++) {
+            start[code + 1] = start[code] + frequencies[code];
+        }
+        int[] rowsByCode = new int[numRows];
+        int[] next = Arrays.copyOf(start, numDistinct);
+        int[] codes = encoding.getCodes();
+        for (int row = 0; row < numRows; row++) {
+            rowsByCode[next[codes[row]]++] = row;
+        }
+
+        // partial shuffle of each group, the first quota rows of a group are its sample
+        Random random = new Random(this.seed);
+        int[] rows = new int[this.sampleSize];
+        int numSampled = 0;
+        for (int code = 0; code < numDistinct; code++) {
+            for (int k = 0; k < quotas[code]; k++) {
+                int j = start[code] + k + random.nextInt(frequencies[code] - k);
+                int row = rowsByCode[j];
+                rowsByCode[j] = rowsByCode[start[code] + k];
+                rowsByCode[start[code] + k] = row;
+                rows[numSampled++] = row;
+            }
+        }
+        Arrays.sort(rows);
+        return rows;
+    }
+
+    @Override
+    public String toString() {
+        if (this.strategy == Strategy.ALL) {
+            return "all";
+        }
+        return this.strategy.name().toLowerCase() + "(" + this.sampleSize + "," + this.seed + ")";
+    }
+}
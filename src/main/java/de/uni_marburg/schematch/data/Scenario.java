@@ -2,7 +2,6 @@ package de.uni_marburg.schematch.data;
 
 import de.uni_marburg.schematch.data.metadata.ScenarioMetadata;
 import de.uni_marburg.schematch.utils.Configuration;
-import de.uni_marburg.schematch.utils.InputReader;
 import de.uni_marburg.schematch.utils.StringUtils;
 import lombok.Data;
 
@@ -21,9 +20,5 @@ public class Scenario {
         this.name = StringUtils.getFolderName(path);
         this.sourceDatabase = new Database(this.path + File.separator + Configuration.getInstance().getDefaultSourceDatabaseDir());
         this.targetDatabase = new Database(this.path + File.separator + Configuration.getInstance().getDefaultTargetDatabaseDir());
-        // Scenario metadata disabled by PR #20
-        /*if (Configuration.getInstance().isReadDependencies()) {
-            this.metadata = InputReader.readScenarioMetadata(this.path, sourceDatabase, targetDatabase);
-        }*/
     }
 }
\ No newline at end of file
@@ -1,34 +1,163 @@
 package de.uni_marburg.schematch.data.metadata;
 
 import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.Database;
+import de.uni_marburg.schematch.data.RowSampling;
+import de.uni_marburg.schematch.data.Table;
 import de.uni_marburg.schematch.data.metadata.dependency.FunctionalDependency;
+import de.uni_marburg.schematch.data.metadata.dependency.FunctionalDependencyScorer;
 import de.uni_marburg.schematch.data.metadata.dependency.InclusionDependency;
+import de.uni_marburg.schematch.data.metadata.dependency.TupleValueCache;
 import de.uni_marburg.schematch.data.metadata.dependency.UniqueColumnCombination;
-import lombok.AllArgsConstructor;
+import de.uni_marburg.schematch.utils.InputReader;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Dependencies of a database. Metadata of a database ({@link #DatabaseMetadata(Database)}) reads its dependencies
+ * from the metadata folder on first access: INDs at once, FDs and UCCs per table, so runs without matchers that use
+ * dependencies never read them.
+ */
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class DatabaseMetadata {
-    Collection<UniqueColumnCombination> uccs;
-    Collection<FunctionalDependency> fds;
-    Collection<InclusionDependency> inds;
-    final Map<Column, Collection<UniqueColumnCombination>> uccMap = new HashMap<>();
-    final Map<Column, Collection<FunctionalDependency>> fdMap = new HashMap<>();
-    final Map<Column, Collection<InclusionDependency>> indMap = new HashMap<>();
+    volatile Collection<UniqueColumnCombination> uccs;
+    volatile Collection<FunctionalDependency> fds;
+    volatile Collection<InclusionDependency> inds;
+    final Map<Column, Collection<UniqueColumnCombination>> uccMap = new ConcurrentHashMap<>();
+    final Map<Column, Collection<FunctionalDependency>> fdMap = new ConcurrentHashMap<>();
+    final Map<Column, Collection<InclusionDependency>> indMap = new ConcurrentHashMap<>();
+    final Map<RowSampling, FunctionalDependencyScorer> fdScorers = new ConcurrentHashMap<>();
+    final Map<RowSampling, TupleValueCache> tupleValueCaches = new ConcurrentHashMap<>();
+
+    // database the dependencies are read from on first access, null if they were given
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Database database;
+    // dependencies read so far per table name
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final Map<String, Collection<FunctionalDependency>> tableFds = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final Map<String, Collection<UniqueColumnCombination>> tableUccs = new ConcurrentHashMap<>();
+
+    public DatabaseMetadata(Collection<UniqueColumnCombination> uccs, Collection<FunctionalDependency> fds, Collection<InclusionDependency> inds) {
+        this.uccs = uccs;
+        this.fds = fds;
+        this.inds = inds;
+    }
+
+    public DatabaseMetadata(Database database) {
+        this.database = database;
+    }
+
+    private boolean isReadOnDemand() {
+        return this.database != null;
+    }
+
+    //Concurrent first accesses may collect all dependencies twice, dependencies of a table are read once
+    public Collection<UniqueColumnCombination> getUccs() {
+        if (this.uccs == null && isReadOnDemand()) {
+            List<UniqueColumnCombination> uccs = new ArrayList<>();
+            for (Table table : this.database.getTables()) {
+                uccs.addAll(getTableUccs(table));
+            }
+            this.uccs = uccs;
+        }
+        return this.uccs;
+    }
+
+    public Collection<FunctionalDependency> getFds() {
+        if (this.fds == null && isReadOnDemand()) {
+            List<FunctionalDependency> fds = new ArrayList<>();
+            for (Table table : this.database.getTables()) {
+                fds.addAll(getTableFds(table));
+            }
+            this.fds = fds;
+        }
+        return this.fds;
+    }
+
+    public Collection<InclusionDependency> getInds() {
+        if (this.inds == null && isReadOnDemand()) {
+            synchronized (this) {
+                if (this.inds == null) {
+                    Map<Column, Collection<InclusionDependency>> map = new HashMap<>();
+                    Collection<InclusionDependency> inds = read(() -> InputReader.readINDs(
+                            InputReader.getMetadataFolderPath(this.database).resolve("inds.txt"), this.database, this.database, map));
+                    this.indMap.putAll(map);
+                    this.inds = inds;
+                }
+            }
+        }
+        return this.inds;
+    }
+
+    private Collection<FunctionalDependency> getTableFds(Table table) {
+        return this.tableFds.computeIfAbsent(table.getName(), name -> {
+            Map<Column, Collection<FunctionalDependency>> map = new HashMap<>();
+            Collection<FunctionalDependency> fds = read(() -> InputReader.readFDs(
+                    getTableMetadataPath(table).resolve("FD_results.txt"), table, map));
+            this.fdMap.putAll(map);
+            return fds;
+        });
+    }
+
+    private Collection<UniqueColumnCombination> getTableUccs(Table table) {
+        return this.tableUccs.computeIfAbsent(table.getName(), name -> {
+            Map<Column, Collection<UniqueColumnCombination>> map = new HashMap<>();
+            Collection<UniqueColumnCombination> uccs = read(() -> InputReader.readUCCs(
+                    getTableMetadataPath(table).resolve("UCC_results.txt"), table, map));
+            this.uccMap.putAll(map);
+            return uccs;
+        });
+    }
+
+    private Path getTableMetadataPath(Table table) {
+        return InputReader.getMetadataFolderPath(this.database).resolve(table.getName());
+    }
+
+    @FunctionalInterface
+    private interface DependencyReader<T> {
+        Collection<T> read() throws IOException;
+    }
+
+    private static <T> Collection<T> read(DependencyReader<T> reader) {
+        try {
+            return reader.read();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
     public Collection<FunctionalDependency> getFunctionalDependencies(Column columnName){
+        if (isReadOnDemand()) {
+            getTableFds(columnName.getTable());
+        }
         return fdMap.get(columnName);
     }
 
     public Collection<FunctionalDependency> getFunctionalDependenciesWithGivenDependent(Column dependent){
-        return fds.stream().filter(fd -> fd.getDependant().equals(dependent)).toList();
+        return getFds().stream().filter(fd -> fd.getDependant().equals(dependent)).toList();
     }
 
 //    public Collection<FunctionalDependency> getGpdepFDs(double lowerBound){
@@ -39,29 +168,47 @@ public class DatabaseMetadata {
 //        return fdMap.get(columnName).stream().filter(fd -> fd.getPdepTriple().gpdep >= lowerBound).toList();
 //    }
 
+    /**
+     * @return Scorer of the FDs of this database on the given rows, scores are computed once per sampling
+     */
+    public FunctionalDependencyScorer getFunctionalDependencyScorer(RowSampling sampling) {
+        return fdScorers.computeIfAbsent(sampling, s -> new FunctionalDependencyScorer(this, s));
+    }
+
+    /**
+     * @return Values of the column combinations of the INDs of this database on the given rows, shared by all INDs
+     */
+    public TupleValueCache getTupleValueCache(RowSampling sampling) {
+        return tupleValueCaches.computeIfAbsent(sampling, TupleValueCache::new);
+    }
+
     public Collection<UniqueColumnCombination> getUniqueColumnCombinations(Column columnName){
+        if (isReadOnDemand()) {
+            getTableUccs(columnName.getTable());
+        }
         return uccMap.get(columnName);
     }
     public Collection<InclusionDependency> getInclusionDependencies(Column columnName){
+        getInds();
         return indMap.get(columnName);
     }
 
     public Collection<FunctionalDependency> getFunctionalDependencies(Column columnName, int size){
-        return fdMap.get(columnName).stream().filter(e -> e.getDeterminant().size() <= size).toList();
+        return getFunctionalDependencies(columnName).stream().filter(e -> e.getDeterminant().size() <= size).toList();
     }
     public Collection<UniqueColumnCombination> getUniqueColumnCombinations(Column columnName, int size){
-        return uccMap.get(columnName).stream().filter(e -> e.getColumnCombination().size() <= size).toList();
+        return getUniqueColumnCombinations(columnName).stream().filter(e -> e.getColumnCombination().size() <= size).toList();
     }
     public Collection<InclusionDependency> getInclusionDependencies(Column columnName, int size){
-        return indMap.get(columnName).stream().filter(e -> e.getDependant().size() <= size).toList();
+        return getInclusionDependencies(columnName).stream().filter(e -> e.getDependant().size() <= size).toList();
     }
 
     public Collection<FunctionalDependency> getMeaningfulFunctionalDependencies() {
-        return fds.stream().filter(fd -> !getUccs().contains(new UniqueColumnCombination(fd.getDeterminant()))).toList();
+        return getFds().stream().filter(fd -> !getUccs().contains(new UniqueColumnCombination(fd.getDeterminant()))).toList();
     }
 
     public Collection<FunctionalDependency> getMeaningfulFunctionalDependencies(int size) {
-        return fds.stream()
+        return getFds().stream()
                 .filter(fd -> fd.getDeterminant().size() <= size
                         && !getUccs().contains(new UniqueColumnCombination(fd.getDeterminant()))
                 ).toList();
@@ -1,6 +1,7 @@
 package de.uni_marburg.schematch.data.metadata;
 
 import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.DictionaryEncoding;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -25,11 +26,9 @@ public enum Datatype {
     final static List<String> booleanPatterns = Stream.concat(patternsT.stream(), patternsF.stream()).toList();
     // geolocation pattern
     final static Pattern geoLocationPattern = Pattern.compile("-?[0-9]+.[0-9]+,-?[0-9]+.[0-9]+");
-    // date formats
-    final static SimpleDateFormat sdfDashes = new SimpleDateFormat("dd-MM");
-    final static SimpleDateFormat sdfSlashes = new SimpleDateFormat("dd/MM");
-    final static SimpleDateFormat sdfDots = new SimpleDateFormat("dd.MM");
-    final static SimpleDateFormat[] sdfs = {sdfDashes, sdfSlashes, sdfDots};
+    // date formats (SimpleDateFormat is not thread-safe, so each thread gets its own instances)
+    final static ThreadLocal<SimpleDateFormat[]> sdfs = ThreadLocal.withInitial(() -> new SimpleDateFormat[]{
+            new SimpleDateFormat("dd-MM"), new SimpleDateFormat("dd/MM"), new SimpleDateFormat("dd.MM")});
 
     /**
      * Determines the definitive data type from a list of scores
@@ -85,12 +84,14 @@ public enum Datatype {
      * @return a HashMap mapping the datatype to its score
      */
     public static HashMap<Datatype, Double> calculateScores(Column column) {
+        // every distinct value is only parsed once and counted with its frequency
+        DictionaryEncoding encoding = column.getEncoding();
         HashMap<Datatype, Double> scores = new HashMap<>();
-        scores.put(INTEGER, isInteger(column));
-        scores.put(FLOAT, isFloat(column));
-        scores.put(BOOLEAN, isBoolean(column));
-        scores.put(DATE, isDate(column));
-        scores.put(GEO_LOCATION, isGeoLocation(column));
+        scores.put(INTEGER, isInteger(encoding));
+        scores.put(FLOAT, isFloat(encoding));
+        scores.put(BOOLEAN, isBoolean(encoding));
+        scores.put(DATE, isDate(encoding));
+        scores.put(GEO_LOCATION, isGeoLocation(encoding));
         scores.put(STRING, 1.0d);
 
         return scores;
@@ -178,7 +179,7 @@ public enum Datatype {
             }
             if (value.contains("+")) value = value.substring(0, value.indexOf("+"));
             boolean isDate = false;
-            for (SimpleDateFormat sdf : sdfs) {
+            for (SimpleDateFormat sdf : sdfs.get()) {
                 try {
                     dates.add(sdf.parse(value));
                     isDate = true;
@@ -210,15 +211,17 @@ public enum Datatype {
         }
     }
 
-    private static double isInteger(Column column) {
-        List<String> values = column.getValues();
+    private static double isInteger(DictionaryEncoding encoding) {
+        String[] values = encoding.getDictionary();
+        int[] frequencies = encoding.getFrequencies();
 
         int nullCounter = 0;
         int exceptionCounter = 0;
 
-        for (String value : values) {
+        for (int k = 0; k < values.length; k++) {
+            String value = values[k];
             if (isNull(value)) {
-                nullCounter++;
+                nullCounter += frequencies[k];
                 continue;
             }
             if (value.endsWith(".0")) value = value.replace(".0", "");
@@ -226,55 +229,59 @@ public enum Datatype {
             try {
                 Integer.parseInt(value);
             } catch (NumberFormatException e) {
-                exceptionCounter++;
+                exceptionCounter += frequencies[k];
             }
 
         }
 
-        int fullSize = values.size();
+        int fullSize = encoding.getNumRows();
         int nonNullSize = fullSize - nullCounter;
 
         return 1 - ((double) exceptionCounter / nonNullSize);
     }
 
-    private static double isFloat(Column column) {
-        List<String> values = column.getValues();
+    private static double isFloat(DictionaryEncoding encoding) {
+        String[] values = encoding.getDictionary();
+        int[] frequencies = encoding.getFrequencies();
 
         int nullCounter = 0;
         int exceptionCounter = 0;
 
-        for (String value : values) {
-            if (isNull(value)) nullCounter++;
+        for (int k = 0; k < values.length; k++) {
+            String value = values[k];
+            if (isNull(value)) nullCounter += frequencies[k];
             else {
                 value = value.replace(",", ".");
                 try {
                     Float.parseFloat(value);
                 } catch (NumberFormatException e) {
-                    exceptionCounter++;
+                    exceptionCounter += frequencies[k];
                 }
             }
         }
 
-        int fullSize = values.size();
+        int fullSize = encoding.getNumRows();
         int nonNullSize = fullSize - nullCounter;
 
         return 1 - ((double) exceptionCounter / nonNullSize);
     }
 
-    private static double isDate(Column column) {
-        List<String> values = column.getValues();
+    private static double isDate(DictionaryEncoding encoding) {
+        String[] values = encoding.getDictionary();
+        int[] frequencies = encoding.getFrequencies();
 
         int nullCounter = 0;
         int exceptionCounter = 0;
 
-        for (String value : values) {
+        for (int k = 0; k < values.length; k++) {
+            String value = values[k];
             if (isNull(value)) {
-                nullCounter++;
+                nullCounter += frequencies[k];
                 continue;
             }
             if (value.contains("+")) value = value.substring(0, value.indexOf("+"));
             boolean isDate = false;
-            for (SimpleDateFormat sdf : sdfs) {
+            for (SimpleDateFormat sdf : sdfs.get()) {
                 try {
                     sdf.parse(value);
                     isDate = true;
@@ -283,42 +290,46 @@ public enum Datatype {
                 }
             }
             if (!isDate) {
-                exceptionCounter++;
+                exceptionCounter += frequencies[k];
             }
         }
 
-        final int fullSize = values.size();
+        final int fullSize = encoding.getNumRows();
         final int nonNullSize = fullSize - nullCounter;
 
         return 1 - (double) exceptionCounter / nonNullSize;
     }
 
-    private static double isBoolean(Column column) {
-        List<String> values = column.getValues();
+    private static double isBoolean(DictionaryEncoding encoding) {
+        String[] values = encoding.getDictionary();
+        int[] frequencies = encoding.getFrequencies();
 
         int nullCounter = 0;
         int parseCounter = 0;
 
-        for (String value : values) {
-            if (isNull(value)) nullCounter++;
-            else if (booleanPatterns.contains(value)) parseCounter++;
+        for (int k = 0; k < values.length; k++) {
+            String value = values[k];
+            if (isNull(value)) nullCounter += frequencies[k];
+            else if (booleanPatterns.contains(value)) parseCounter += frequencies[k];
         }
 
-        return (double) parseCounter / (values.size() - nullCounter);
+        return (double) parseCounter / (encoding.getNumRows() - nullCounter);
     }
 
-    private static double isGeoLocation(Column column) {
-        List<String> values = column.getValues();
+    private static double isGeoLocation(DictionaryEncoding encoding) {
+        String[] values = encoding.getDictionary();
+        int[] frequencies = encoding.getFrequencies();
 
         int nullCounter = 0;
         int parseCounter = 0;
 
-        for (String value : values) {
-            if (isNull(value)) nullCounter++;
-            else if (geoLocationPattern.matcher(value).find()) parseCounter++;
+        for (int k = 0; k < values.length; k++) {
+            String value = values[k];
+            if (isNull(value)) nullCounter += frequencies[k];
+            else if (geoLocationPattern.matcher(value).find()) parseCounter += frequencies[k];
         }
 
-        return (double) parseCounter / (values.size() - nullCounter);
+        return (double) parseCounter / (encoding.getNumRows() - nullCounter);
     }
 
     private static boolean isNull(String value) {
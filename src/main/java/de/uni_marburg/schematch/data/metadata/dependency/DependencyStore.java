@@ -0,0 +1,299 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.Table;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Binary file of dependencies, stored next to the text file of the metadata folder with the extension .bin.
+ * Columns are written once into a dictionary of table name and label, dependencies refer to them by index. For each
+ * column the file holds a posting list of the dependencies it occurs in, so reading resolves every column once and
+ * fills the column maps without looking at the columns of each dependency. Counts and indices are validated while
+ * reading, a corrupt store fails with an {@link IOException} like a missing one.
+ */
+public class DependencyStore {
+    private static final int MAGIC = 0x53444550;
+    private static final int VERSION = 1;
+
+    private static final byte FD = 0;
+    private static final byte UCC = 1;
+    private static final byte IND = 2;
+
+    /**
+     * @return Path of the store of the given text file, e.g., FD_results.bin for FD_results.txt
+     */
+    public static Path getStorePath(Path textFile) {
+        String fileName = textFile.getFileName().toString().replaceFirst("[.][^.]+$", "");
+        return textFile.resolveSibling(fileName + ".bin");
+    }
+
+    /**
+     * @return True if the store of the text file exists and is not older than the text file
+     */
+    public static boolean isUpToDate(Path textFile) throws IOException {
+        Path storeFile = getStorePath(textFile);
+        if (!Files.exists(storeFile)) {
+            return false;
+        }
+        return !Files.exists(textFile) ||
+                Files.getLastModifiedTime(storeFile).compareTo(Files.getLastModifiedTime(textFile)) >= 0;
+    }
+
+    /**
+     * Writes the dependencies to a temporary file first, so concurrent readers never see a partially written store.
+     */
+    public static void write(Path storeFile, Collection<? extends Dependency> dependencies) throws IOException {
+        Map<Column, Integer> columnIds = new IdentityHashMap<>();
+        List<Column> columns = new ArrayList<>();
+        List<Integer> columnParts = new ArrayList<>();
+        List<List<Integer>> postings = new ArrayList<>();
+        List<int[][]> encoded = new ArrayList<>(dependencies.size());
+        byte[] types = new byte[dependencies.size()];
+
+        int index = 0;
+        for (Dependency dependency : dependencies) {
+            int[][] parts;
+            if (dependency instanceof FunctionalDependency fd) {
+                types[index] = FD;
+                parts = new int[][]{encode(List.of(fd.getDependant()), 0, columnIds, columns, columnParts, postings, index),
+                        encode(fd.getDeterminant(), 1, columnIds, columns, columnParts, postings, index)};
+            } else if (dependency instanceof UniqueColumnCombination ucc) {
+                types[index] = UCC;
+                parts = new int[][]{encode(ucc.getColumnCombination(), 0, columnIds, columns, columnParts, postings, index)};
+            } else if (dependency instanceof InclusionDependency ind) {
+                types[index] = IND;
+                parts = new int[][]{encode(ind.getDependant(), 0, columnIds, columns, columnParts, postings, index),
+                        encode(ind.getReferenced(), 1, columnIds, columns, columnParts, postings, index)};
+            } else {
+                throw new IllegalArgumentException("Unsupported dependency " + dependency.getClass().getSimpleName());
+            }
+            encoded.add(parts);
+            index += 1;
+        }
+
+        Files.createDirectories(storeFile.toAbsolutePath().getParent());
+        Path tempFile = Files.createTempFile(storeFile.toAbsolutePath().getParent(), storeFile.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+
+                out.writeInt(columns.size());
+                for (int i = 0; i < columns.size(); i++) {
+                    out.writeUTF(columns.get(i).getTable().getName());
+                    out.writeUTF(columns.get(i).getLabel());
+                    out.writeByte(columnParts.get(i));
+                }
+
+                out.writeInt(encoded.size());
+                for (int i = 0; i < encoded.size(); i++) {
+                    out.writeByte(types[i]);
+                    for (int[] part : encoded.get(i)) {
+                        writeInts(out, part);
+                    }
+                }
+
+                for (List<Integer> posting : postings) {
+                    out.writeInt(posting.size());
+                    for (int dependencyIndex : posting) {
+                        out.writeInt(dependencyIndex);
+                    }
+                }
+            }
+            try {
+                Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * @param part Part of the dependency the columns belong to, columns are resolved against the tables of the part
+     *             they first occur in
+     */
+    private static int[] encode(Collection<Column> columnCombination, int part, Map<Column, Integer> columnIds, List<Column> columns,
+                                List<Integer> columnParts, List<List<Integer>> postings, int dependencyIndex) {
+        int[] ids = new int[columnCombination.size()];
+        int i = 0;
+        for (Column column : columnCombination) {
+            int id = columnIds.computeIfAbsent(column, c -> {
+                columns.add(c);
+                columnParts.add(part);
+                postings.add(new ArrayList<>());
+                return columns.size() - 1;
+            });
+            postings.get(id).add(dependencyIndex);
+            ids[i++] = id;
+        }
+        return ids;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * @param maxCount Maximum valid count, larger or negative counts mean the store is corrupt
+     */
+    private static int readCount(DataInputStream in, long maxCount) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > maxCount) {
+            throw new IOException("Corrupt dependency store, invalid count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * @param bound Values must be in {@code [0, bound)}
+     */
+    private static int[] readInts(DataInputStream in, long maxCount, int bound) throws IOException {
+        int[] values = new int[readCount(in, maxCount)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+            if (values[i] < 0 || values[i] >= bound) {
+                throw new IOException("Corrupt dependency store, index " + values[i] + " out of range " + bound);
+            }
+        }
+        return values;
+    }
+
+    public static List<FunctionalDependency> readFDs(Path storeFile, Table table, Map<Column, Collection<FunctionalDependency>> map) throws IOException {
+        ColumnResolver columns = new ColumnResolver(storeFile, List.of(table));
+        return read(storeFile, FD, map, ids -> {
+            if (ids[0].length != 1) {
+                throw new IOException("Corrupt dependency store, FD with " + ids[0].length + " dependant columns");
+            }
+            return new FunctionalDependency(columns.resolve(ids[1]), columns.resolve(ids[0][0]));
+        }, columns, columns);
+    }
+
+    public static List<UniqueColumnCombination> readUCCs(Path storeFile, Table table, Map<Column, Collection<UniqueColumnCombination>> map) throws IOException {
+        ColumnResolver columns = new ColumnResolver(storeFile, List.of(table));
+        return read(storeFile, UCC, map, ids -> new UniqueColumnCombination(columns.resolve(ids[0])), columns);
+    }
+
+    /**
+     * @param referencedTables Tables of the referenced column combinations
+     * @param dependantTables Tables of the dependant column combinations
+     */
+    public static List<InclusionDependency> readINDs(Path storeFile, List<Table> referencedTables, List<Table> dependantTables,
+                                                     Map<Column, Collection<InclusionDependency>> map) throws IOException {
+        ColumnResolver dependantColumns = new ColumnResolver(storeFile, dependantTables);
+        ColumnResolver referencedColumns = new ColumnResolver(storeFile, referencedTables);
+        return read(storeFile, IND, map, ids -> new InclusionDependency(dependantColumns.resolve(ids[0]),
+                referencedColumns.resolve(ids[1])), dependantColumns, referencedColumns);
+    }
+
+    @FunctionalInterface
+    private interface DependencyDecoder<T> {
+        T decode(int[][] ids) throws IOException;
+    }
+
+    private static <T extends Dependency> List<T> read(Path storeFile, byte type, Map<Column, Collection<T>> map,
+                                                       DependencyDecoder<T> decoder, ColumnResolver... partResolvers) throws IOException {
+        //No count can exceed the number of bytes of the file
+        long fileSize = Files.size(storeFile);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(storeFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(storeFile + " is not a dependency store of version " + VERSION);
+            }
+
+            int numColumns = readCount(in, fileSize);
+            String[][] dictionary = new String[numColumns][];
+            int[] columnParts = new int[numColumns];
+            for (int i = 0; i < numColumns; i++) {
+                dictionary[i] = new String[]{in.readUTF(), in.readUTF()};
+                columnParts[i] = in.readByte();
+                if (columnParts[i] < 0 || columnParts[i] >= partResolvers.length) {
+                    throw new IOException("Corrupt dependency store, column of part " + columnParts[i]);
+                }
+            }
+            for (ColumnResolver resolver : partResolvers) {
+                resolver.setDictionary(dictionary);
+            }
+
+            int numDependencies = readCount(in, fileSize);
+            List<T> dependencies = new ArrayList<>(numDependencies);
+            for (int i = 0; i < numDependencies; i++) {
+                if (in.readByte() != type) {
+                    throw new IOException(storeFile + " holds dependencies of another type");
+                }
+                int[][] ids = new int[partResolvers.length][];
+                for (int j = 0; j < ids.length; j++) {
+                    ids[j] = readInts(in, fileSize, numColumns);
+                }
+                dependencies.add(decoder.decode(ids));
+            }
+
+            for (int i = 0; i < numColumns; i++) {
+                int[] posting = readInts(in, fileSize, numDependencies);
+                if (posting.length == 0) {
+                    continue;
+                }
+                Column column = partResolvers[columnParts[i]].resolve(i);
+                Collection<T> columnDependencies = map.computeIfAbsent(column, k -> new ArrayList<>());
+                for (int dependencyIndex : posting) {
+                    columnDependencies.add(dependencies.get(dependencyIndex));
+                }
+            }
+            return dependencies;
+        }
+    }
+
+    /**
+     * Resolves column ids of the dictionary against tables once, on first use.
+     */
+    private static class ColumnResolver {
+        private final Path storeFile;
+        private final Map<String, Table> tables = new HashMap<>();
+        private String[][] dictionary;
+        private Column[] columns;
+
+        ColumnResolver(Path storeFile, List<Table> tables) {
+            this.storeFile = storeFile;
+            for (Table table : tables) {
+                this.tables.putIfAbsent(table.getName(), table);
+            }
+        }
+
+        void setDictionary(String[][] dictionary) {
+            this.dictionary = dictionary;
+            this.columns = new Column[dictionary.length];
+        }
+
+        List<Column> resolve(int[] ids) {
+            List<Column> result = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                result.add(resolve(id));
+            }
+            return result;
+        }
+
+        Column resolve(int id) {
+            if (this.columns[id] == null) {
+                Table table = this.tables.get(this.dictionary[id][0]);
+                if (table == null) {
+                    throw new IllegalStateException("While reading in metadata from " + this.storeFile + " an error occurred, table " + this.dictionary[id][0] + " cannot be found!");
+                }
+                int columnIndex = table.getLabels().indexOf(this.dictionary[id][1]);
+                if (columnIndex < 0) {
+                    throw new IllegalStateException("While reading in metadata from " + this.storeFile + " an error occurred, column " + this.dictionary[id][1] + " cannot be found in table " + table.getName() + "!");
+                }
+                this.columns[id] = table.getColumn(columnIndex);
+            }
+            return this.columns[id];
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package de.uni_marburg.schematch.data.metadata.dependency;
 
 import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.DictionaryEncoding;
+import de.uni_marburg.schematch.data.RowSampling;
 import lombok.Data;
 import java.util.*;
 
@@ -22,109 +24,62 @@ public class FunctionalDependency implements Dependency {
         return left + " --> " + right;
     }
 
-    private List<String> getRowsAsStrings(Collection<Column> columns, int rowCount) {
-
-        List<String> rowsAsString = new ArrayList<>(rowCount);
-        StringBuilder stringBuilder = new StringBuilder();
-
-        for (int i = 0; i < rowCount; i++) {
-            for (Column column : columns) {
-                stringBuilder.append(column.getValues().get(i)).append("|"); //use delimiter to avoid ambiguities
-            }
-
-            stringBuilder.setLength(stringBuilder.length() - 1); //remove last delimiter
-            String rowAsString = stringBuilder.toString();
-            rowsAsString.add(rowAsString);
-            stringBuilder.setLength(0);
-        }
-
-        return rowsAsString;
+    public double calculateGPDEPScore() {
+        return calculateGPDEPScore(RowSampling.ALL);
     }
 
-    private Map<String, Double> getProbabilityMap(List<String> rowsAsString, int rowCount) {
-
-        Map<String, Double> probabilityMap = new HashMap<>();
-
-        for (String rowAsString : rowsAsString) {
-            probabilityMap.merge(rowAsString, 1.0, Double::sum);
-        }
-
-        probabilityMap.replaceAll((k, v) -> v / rowCount);
-        return probabilityMap;
+    /**
+     * @param sampling Rows to score on, the sample is stratified by the values of the dependant and the same rows
+     *                 are used for all determinant columns
+     */
+    public double calculateGPDEPScore(RowSampling sampling) {
+        return calculateGPDEPScore(new PartitionCache(getSampledRows(this.dependant, sampling)));
     }
 
-    private Map<String, Map<String, Double>> getProbabilityMapGivenX(List<String> rowsAsStringX, List<String> rowsAsStringA, int rowCount) {
-
-        Map<String, Map<String, Double>> probabilityMapGivenX = new HashMap<>();
-
-        for (int i = 0; i < rowCount; i++) {
-            String x = rowsAsStringX.get(i);
-            String a = rowsAsStringA.get(i);
-
-            Map<String, Double> innerMap = probabilityMapGivenX.computeIfAbsent(x, k -> new HashMap<>());
-            innerMap.merge(a, 1.0, Double::sum);
-        }
-
-        for (Map<String, Double> map : probabilityMapGivenX.values()) {
-            double total = map.values().stream().mapToDouble(Double::doubleValue).sum();
-            map.replaceAll((k, v) -> v / total);
-        }
-
-        return probabilityMapGivenX;
+    /**
+     * @return Rows the FDs with the given dependant are scored on, null for all rows
+     */
+    static int[] getSampledRows(Column dependant, RowSampling sampling) {
+        DictionaryEncoding encodingA = dependant.getEncoding();
+        return sampling.isSampling(encodingA.getNumRows()) ? sampling.sampleRows(encodingA) : null;
     }
 
-    public double calculateGPDEPScore() {
-
-        int rowCount = this.dependant.getValues().size();
-
-        List<String> rowsForXAsStrings = getRowsAsStrings(this.determinant, rowCount);
-        List<String> rowsForAAsStrings = this.getDependant().getValues();
-
-        Map<String, Double> probabilitiesForX = getProbabilityMap(rowsForXAsStrings, rowCount);
-        Map<String, Double> probabilitiesForA = getProbabilityMap(rowsForAAsStrings, rowCount);
-        Map<String, Map<String, Double>> probabilitiesForAGivenX = getProbabilityMapGivenX(rowsForXAsStrings, rowsForAAsStrings, rowCount);
+    /**
+     * @param partitions Partitions of the determinant columns on the rows sampled for the dependant
+     */
+    double calculateGPDEPScore(PartitionCache partitions) {
 
-        double pdepXA = 0.0;
+        DictionaryEncoding encodingA = partitions.getEncoding(this.dependant);
+        int rowCount = encodingA.getNumRows();
 
-        for(String x : probabilitiesForX.keySet()) {
+        PositionListIndex partitionX = partitions.getPartition(this.determinant, rowCount);
+        int numX = partitionX.getNumDistinct();
 
-            double probabilityForX = probabilitiesForX.get(x);
-            double pdepAGivenX = 0;
-            Map<String, Double> probabilitiesForAGivenXMap = probabilitiesForAGivenX.get(x);
+        double pdepXA = partitionX.getProbabilisticDependency(encodingA);
 
-            for(String a : probabilitiesForA.keySet()) {
-                double probabilityForAGivenX = probabilitiesForAGivenXMap.getOrDefault(a, 0.0);
-                pdepAGivenX = pdepAGivenX + probabilityForAGivenX * probabilityForAGivenX;
-            }
-
-            pdepXA = pdepXA + probabilityForX * pdepAGivenX;
+        double selfDependencyScoreA = 0.0;
+        for (int frequency : encodingA.getFrequencies()) {
+            double probabilityForA = (double) frequency / rowCount;
+            selfDependencyScoreA = selfDependencyScoreA + probabilityForA * probabilityForA;
         }
 
-        double selfDependencyScoreA = probabilitiesForA.values().stream()
-                .mapToDouble(p -> p * p)
-                .sum();
-
-        double epdepXA = selfDependencyScoreA + ((probabilitiesForX.keySet().size() - 1.0) / (rowCount - 1.0)) * (1 - selfDependencyScoreA);
+        double epdepXA = selfDependencyScoreA + ((numX - 1.0) / (rowCount - 1.0)) * (1 - selfDependencyScoreA);
 
         return pdepXA - epdepXA;
     }
 
     public double calculateNGPDEPScore() {
+        return calculateNGPDEPScore(RowSampling.ALL);
+    }
+
+    public double calculateNGPDEPScore(RowSampling sampling) {
         if (this.getDeterminant().isEmpty()) {
             return 0.0;
         }
 
+        //GPDEP scores of all FDs with the same dependant are computed once per database
         Column A = this.getDependant();
-        double gpdepXA = this.calculateGPDEPScore();
-
-        Collection<FunctionalDependency> fdsWithDependentA =
-                A.getTable().getDatabase().getMetadata().getFunctionalDependenciesWithGivenDependent(A);
-
-        double sum = fdsWithDependentA.stream()
-                .mapToDouble(FunctionalDependency::calculateGPDEPScore)
-                .sum();
-
-        return sum == 0.0 ? 0.0 : Math.max(gpdepXA / sum, 0.0);
+        return A.getTable().getDatabase().getMetadata().getFunctionalDependencyScorer(sampling).getNGPDEPScore(this);
     }
 
 }
@@ -0,0 +1,97 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.RowSampling;
+import de.uni_marburg.schematch.data.metadata.DatabaseMetadata;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoized GPDEP and NGPDEP scores of the functional dependencies of one database for one row sampling.
+ * The NGPDEP of X --> A normalizes its GPDEP by the sum of the GPDEPs of all FDs with dependant A, so the GPDEP of
+ * every FD is computed once and the sum once per dependant. Partitions of determinant columns are shared by all FDs
+ * scored on the same rows: all FDs if all rows are used, the FDs of one dependant otherwise. Obtained from
+ * {@link DatabaseMetadata#getFunctionalDependencyScorer(RowSampling)}, so the scores are cached per database.
+ */
+public class FunctionalDependencyScorer {
+    private final DatabaseMetadata metadata;
+    private final RowSampling sampling;
+    private final Map<FunctionalDependency, Double> gpdepScores = new ConcurrentHashMap<>();
+    // sum of the GPDEP scores of all FDs of the database with the dependant
+    private final Map<Column, Double> gpdepSums = new ConcurrentHashMap<>();
+    // FDs of the database grouped by dependant, built on first access
+    private Map<Column, List<FunctionalDependency>> fdsByDependant;
+    private final PartitionCache allRowsPartitions = new PartitionCache(null);
+    // partitions on the rows sampled for a dependant
+    private final Map<Column, PartitionCache> sampledPartitions = new ConcurrentHashMap<>();
+
+    public FunctionalDependencyScorer(DatabaseMetadata metadata, RowSampling sampling) {
+        this.metadata = metadata;
+        this.sampling = sampling;
+    }
+
+    private synchronized Map<Column, List<FunctionalDependency>> getFdsByDependant() {
+        if (this.fdsByDependant == null) {
+            Map<Column, List<FunctionalDependency>> fdsByDependant = new HashMap<>();
+            for (FunctionalDependency fd : this.metadata.getFds()) {
+                fdsByDependant.computeIfAbsent(fd.getDependant(), dependant -> new ArrayList<>()).add(fd);
+            }
+            this.fdsByDependant = fdsByDependant;
+        }
+        return this.fdsByDependant;
+    }
+
+    public double getGPDEPScore(FunctionalDependency fd) {
+        Double score = this.gpdepScores.get(fd);
+        if (score == null) {
+            // computed outside of the map, concurrent callers may compute the same score twice
+            score = fd.calculateGPDEPScore(getPartitions(fd.getDependant()));
+            this.gpdepScores.putIfAbsent(fd, score);
+        }
+        return score;
+    }
+
+    private PartitionCache getPartitions(Column dependant) {
+        if (!this.sampling.isSampling(dependant.getEncoding().getNumRows())) {
+            return this.allRowsPartitions;
+        }
+        return this.sampledPartitions.computeIfAbsent(dependant,
+                a -> new PartitionCache(FunctionalDependency.getSampledRows(a, this.sampling)));
+    }
+
+    private double getGPDEPSum(Column dependant) {
+        Double sum = this.gpdepSums.get(dependant);
+        if (sum == null) {
+            sum = getFdsByDependant().getOrDefault(dependant, List.of()).stream()
+                    .mapToDouble(this::getGPDEPScore)
+                    .sum();
+            this.gpdepSums.putIfAbsent(dependant, sum);
+        }
+        return sum;
+    }
+
+    public double getNGPDEPScore(FunctionalDependency fd) {
+        if (fd.getDeterminant().isEmpty()) {
+            return 0.0;
+        }
+
+        double gpdepXA = getGPDEPScore(fd);
+        double sum = getGPDEPSum(fd.getDependant());
+
+        return sum == 0.0 ? 0.0 : Math.max(gpdepXA / sum, 0.0);
+    }
+
+    /**
+     * Scores the given FDs, the FDs of different dependants are scored in parallel
+     * @return NGPDEP score per FD, in the order of the given FDs
+     */
+    public double[] getNGPDEPScores(List<FunctionalDependency> fds) {
+        List<Column> dependants = fds.stream().map(FunctionalDependency::getDependant).distinct().toList();
+        dependants.parallelStream().forEach(this::getGPDEPSum);
+
+        double[] scores = new double[fds.size()];
+        Arrays.setAll(scores, i -> getNGPDEPScore(fds.get(i)));
+        return scores;
+    }
+}
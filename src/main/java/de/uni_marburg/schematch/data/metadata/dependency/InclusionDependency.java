@@ -1,6 +1,9 @@
 package de.uni_marburg.schematch.data.metadata.dependency;
 
 import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.DictionaryEncoding;
+import de.uni_marburg.schematch.data.RowSampling;
+import de.uni_marburg.schematch.data.Table;
 import de.uni_marburg.schematch.similarity.string.Levenshtein;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,14 +19,6 @@ public class InclusionDependency implements Dependency {
     Collection<Column> dependant; //Untermenge //In FKC ist Foreign Key
     Collection<Column> referenced; //Übermenge //dependent ist enthalten in referenced //In FKC ist Primary Key
 
-    private static List<String> getTupleValuesForColumns(Collection<Column> columnCombination, int N) {
-
-        List<Column> sortedColumns = new ArrayList<>(columnCombination);
-        sortedColumns.sort(Comparator.comparing(Column::getLabel));
-
-        return Util.getDistinctValues(sortedColumns, N);
-    }
-
     private static String getLabel(Collection<Column> columnCombination, boolean withTablePrefix) {
 
         List<String> columnLabels = new ArrayList<>(columnCombination.size());
@@ -67,32 +62,42 @@ public class InclusionDependency implements Dependency {
 
 
     public double getForeignKeyScore() {
-        double coverageScore = coverageScore();
+        return getForeignKeyScore(RowSampling.ALL);
+    }
+
+    /**
+     * @param sampling Rows of the foreign key columns to score on, primary keys are never sampled. Sampled foreign key
+     *                 values are looked up in all primary key values, so an IND that holds keeps a coverage of 1. The
+     *                 out of range score is estimated from the sample (see {@link #outOfRangeScore(RowSampling)}), so
+     *                 no foreign key values of all rows are read.
+     */
+    public double getForeignKeyScore(RowSampling sampling) {
+        TupleValueCache foreignKeyCache = getTupleValueCache(sampling);
+        TupleValueCache allRowsCache = getTupleValueCache(RowSampling.ALL);
+        double coverageScore = coverageScore(foreignKeyCache, allRowsCache);
         double columnNameSimilarityScore = columnNameSimilarityScore();
-        double valueLengthDifferenceScore = valueLengthDifferenceScore();
-        double outOfRangeScore = outOfRangeScore();
+        double valueLengthDifferenceScore = valueLengthDifferenceScore(foreignKeyCache, allRowsCache);
+        double outOfRangeScore = outOfRangeScore(foreignKeyCache, allRowsCache);
 
         return (coverageScore + columnNameSimilarityScore + valueLengthDifferenceScore + outOfRangeScore) / 4.0;
     }
 
-    private Set<String> getDistinctForeignKeyValues() {
-        return new HashSet<>(getForeignKeyValues());
-    }
-
-    private Set<String> getDistinctPrimaryKeyValues() {
-        return new HashSet<>(getPrimaryKeyValues());
+    // values of column combinations are shared by all INDs of the database, INDs of tables without one use their own
+    private TupleValueCache getTupleValueCache(RowSampling sampling) {
+        Table table = this.dependant.iterator().next().getTable();
+        if (table == null || table.getDatabase() == null || table.getDatabase().getMetadata() == null) {
+            return new TupleValueCache(sampling);
+        }
+        return table.getDatabase().getMetadata().getTupleValueCache(sampling);
     }
 
-    private List<String> getForeignKeyValues() {
-        Collection<Column> foreignKey = this.getDependant();
-        int tupleCountForeignKey = foreignKey.iterator().next().getValues().size();
-        return getTupleValuesForColumns(foreignKey, tupleCountForeignKey);
+    private TupleValues getForeignKeyValues(TupleValueCache cache) {
+        return cache.getValues(this.getDependant());
     }
 
-    private List<String> getPrimaryKeyValues() {
-        Collection<Column> primaryKey = this.getReferenced();
-        int tupleCountPrimaryKey = primaryKey.iterator().next().getValues().size();
-        return getTupleValuesForColumns(primaryKey, tupleCountPrimaryKey);
+    // primary key values are never sampled, see getForeignKeyScore
+    private TupleValues getPrimaryKeyValues(TupleValueCache allRowsCache) {
+        return allRowsCache.getValues(this.getReferenced());
     }
 
     private String getPrimaryKeyName(boolean withTablePrefix) {
@@ -105,25 +110,67 @@ public class InclusionDependency implements Dependency {
         return getLabel(foreignKey, withTablePrefix);
     }
 
-    public double coverageScore() { //Range [0,1]: 1 best, every FK value has a match in PK, 0 worst
+    // unary INDs are scored on the dictionary encodings of both columns instead of building tuple values
+    private boolean isUnary() {
+        return this.dependant.size() == 1 && this.referenced.size() == 1;
+    }
 
-        Set<String> distinctForeignKeyValues = this.getDistinctForeignKeyValues();
-        Set<String> distinctPrimaryKeyValues = this.getDistinctPrimaryKeyValues();
+    private DictionaryEncoding getForeignKeyEncoding(RowSampling sampling) {
+        return this.dependant.iterator().next().getSample(sampling).getEncoding();
+    }
 
-        if (distinctForeignKeyValues.isEmpty()) {
-            return 0.0;
-        } else {
+    private DictionaryEncoding getPrimaryKeyEncoding() {
+        return this.referenced.iterator().next().getEncoding();
+    }
 
-            int commonValueCount = 0;
+    private static int countDistinctValuesContainedIn(DictionaryEncoding values, DictionaryEncoding other) {
+        int count = 0;
+        for (String value : values.getDictionary()) {
+            if (other.contains(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
 
-            for (String value : distinctForeignKeyValues) { //Values of foreign Key that are also in primary Key
-                if (distinctPrimaryKeyValues.contains(value)) {
-                    commonValueCount++;
-                }
+    private static double getAverageValueLength(DictionaryEncoding encoding) {
+        String[] dictionary = encoding.getDictionary();
+        int[] frequencies = encoding.getFrequencies();
+        long sumLength = 0;
+        for (int k = 0; k < dictionary.length; k++) {
+            sumLength += (long) dictionary[k].length() * frequencies[k];
+        }
+        return (double) sumLength / encoding.getNumRows();
+    }
+
+    public double coverageScore() {
+        return coverageScore(RowSampling.ALL);
+    }
+
+    public double coverageScore(RowSampling sampling) {
+        return coverageScore(getTupleValueCache(sampling), getTupleValueCache(RowSampling.ALL));
+    }
+
+    private double coverageScore(TupleValueCache foreignKeyCache, TupleValueCache allRowsCache) { //Range [0,1]: 1 best, every FK value has a match in PK, 0 worst
+        if (isUnary()) {
+            DictionaryEncoding foreignKeyEncoding = getForeignKeyEncoding(foreignKeyCache.getSampling());
+            if (foreignKeyEncoding.getNumDistinct() == 0) {
+                return 0.0;
             }
+            int commonValueCount = countDistinctValuesContainedIn(foreignKeyEncoding, getPrimaryKeyEncoding());
+            return (double) commonValueCount / (double) foreignKeyEncoding.getNumDistinct();
+        }
+
+        TupleValues foreignKeyValues = getForeignKeyValues(foreignKeyCache);
+
+        if (foreignKeyValues.getNumDistinct() == 0) {
+            return 0.0;
+        } else {
+            //Values of foreign Key that are also in primary Key
+            int commonValueCount = foreignKeyValues.countDistinctValuesContainedIn(getPrimaryKeyValues(allRowsCache));
 
             //Ratio to all values in Foreign Key
-            return (double) commonValueCount / (double) distinctForeignKeyValues.size();
+            return (double) commonValueCount / (double) foreignKeyValues.getNumDistinct();
         }
     }
 
@@ -136,42 +183,120 @@ public class InclusionDependency implements Dependency {
         return levenshtein.compare(foreignKeyName.toLowerCase(), primaryKeyName.toLowerCase());
     } //The higher the better
 
-    public double valueLengthDifferenceScore() { //Range [0,1]: 1 indicating that both have the same average length, 0 that column(s) do not have values
+    public double valueLengthDifferenceScore() {
+        return valueLengthDifferenceScore(RowSampling.ALL);
+    }
 
-        List<String> foreignKeyValues = getForeignKeyValues();
-        List<String> primaryKeyValues = getPrimaryKeyValues();
+    public double valueLengthDifferenceScore(RowSampling sampling) {
+        return valueLengthDifferenceScore(getTupleValueCache(sampling), getTupleValueCache(RowSampling.ALL));
+    }
 
-        if (foreignKeyValues.isEmpty() || primaryKeyValues.isEmpty()) {
-            return 0.0;
-        } else {
-            double avgValueLengthForeignKey = foreignKeyValues.stream().mapToInt(String::length).average().orElse(0.0);
-            double avgValueLengthPrimaryKey = primaryKeyValues.stream().mapToInt(String::length).average().orElse(0.0);
+    private double valueLengthDifferenceScore(TupleValueCache foreignKeyCache, TupleValueCache allRowsCache) { //Range [0,1]: 1 indicating that both have the same average length, 0 that column(s) do not have values
+        double avgValueLengthForeignKey;
+        double avgValueLengthPrimaryKey;
 
-            double differenceInLength = Math.abs(avgValueLengthForeignKey - avgValueLengthPrimaryKey);
-            double maxAvgLength = Math.max(Math.max(avgValueLengthForeignKey, avgValueLengthPrimaryKey), 1.0);
+        if (isUnary()) {
+            DictionaryEncoding foreignKeyEncoding = getForeignKeyEncoding(foreignKeyCache.getSampling());
+            DictionaryEncoding primaryKeyEncoding = getPrimaryKeyEncoding();
+            if (foreignKeyEncoding.getNumRows() == 0 || primaryKeyEncoding.getNumRows() == 0) {
+                return 0.0;
+            }
+            avgValueLengthForeignKey = getAverageValueLength(foreignKeyEncoding);
+            avgValueLengthPrimaryKey = getAverageValueLength(primaryKeyEncoding);
+        } else {
+            TupleValues foreignKeyValues = getForeignKeyValues(foreignKeyCache);
+            TupleValues primaryKeyValues = getPrimaryKeyValues(allRowsCache);
 
-            return 1.0 - (differenceInLength / maxAvgLength);
+            if (foreignKeyValues.getNumRows() == 0 || primaryKeyValues.getNumRows() == 0) {
+                return 0.0;
+            }
+            avgValueLengthForeignKey = foreignKeyValues.getAverageLength();
+            avgValueLengthPrimaryKey = primaryKeyValues.getAverageLength();
         }
-    }
 
-    public double outOfRangeScore() {
+        double differenceInLength = Math.abs(avgValueLengthForeignKey - avgValueLengthPrimaryKey);
+        double maxAvgLength = Math.max(Math.max(avgValueLengthForeignKey, avgValueLengthPrimaryKey), 1.0);
 
-        Set<String> distinctForeignKeyValues = getDistinctForeignKeyValues();
-        Set<String> distinctPrimaryKeyValues = getDistinctPrimaryKeyValues();
+        return 1.0 - (differenceInLength / maxAvgLength);
+    }
 
-        if (distinctPrimaryKeyValues.isEmpty()) {
-            return 0.0;
-        }
+    public double outOfRangeScore() {
+        return outOfRangeScore(RowSampling.ALL);
+    }
 
-        int countValuesOnlyInPrimaryKey = 0;
+    /**
+     * If the foreign key is sampled, the number of primary key values that occur in the foreign key is estimated as
+     * the coverage of the sample times the estimated number of distinct foreign key values of all rows. The latter is
+     * the GEE estimator sqrt(N / n) * f1 + (d - f1) for n sampled of N rows with d distinct values of which f1 occur
+     * once (Charikar et al., Towards Estimation Error Guarantees for Distinct Values, PODS 2000). It is at least the
+     * number of distinct values of each foreign key column and at most N.
+     */
+    public double outOfRangeScore(RowSampling sampling) {
+        return outOfRangeScore(getTupleValueCache(sampling), getTupleValueCache(RowSampling.ALL));
+    }
 
-        for (String value : distinctPrimaryKeyValues) { //Values from primary Key that are not in foreign Key
-            if (!distinctForeignKeyValues.contains(value)) {
-                countValuesOnlyInPrimaryKey++;
+    private double outOfRangeScore(TupleValueCache foreignKeyCache, TupleValueCache allRowsCache) {
+        Column firstForeignKeyColumn = this.dependant.iterator().next();
+        int numRows = firstForeignKeyColumn.getEncoding().getNumRows();
+        boolean sampled = foreignKeyCache.getSampling().isSampling(numRows);
+
+        int numPrimaryKeyValues;
+        double countValuesAlsoInForeignKey;
+        if (isUnary()) {
+            DictionaryEncoding primaryKeyEncoding = getPrimaryKeyEncoding();
+            DictionaryEncoding foreignKeyEncoding = getForeignKeyEncoding(foreignKeyCache.getSampling());
+            numPrimaryKeyValues = primaryKeyEncoding.getNumDistinct();
+            if (numPrimaryKeyValues == 0) {
+                return 0.0;
+            }
+            if (sampled) {
+                int numSingletons = 0;
+                for (int frequency : foreignKeyEncoding.getFrequencies()) {
+                    if (frequency == 1) {
+                        numSingletons++;
+                    }
+                }
+                countValuesAlsoInForeignKey = estimateCommonValueCount(numRows, foreignKeyEncoding.getNumRows(),
+                        foreignKeyEncoding.getNumDistinct(), numSingletons,
+                        countDistinctValuesContainedIn(foreignKeyEncoding, primaryKeyEncoding));
+            } else {
+                countValuesAlsoInForeignKey = countDistinctValuesContainedIn(primaryKeyEncoding, foreignKeyEncoding);
+            }
+        } else {
+            TupleValues primaryKeyValues = getPrimaryKeyValues(allRowsCache);
+            TupleValues foreignKeyValues = getForeignKeyValues(foreignKeyCache);
+            numPrimaryKeyValues = primaryKeyValues.getNumDistinct();
+            if (numPrimaryKeyValues == 0) {
+                return 0.0;
+            }
+            if (sampled) {
+                countValuesAlsoInForeignKey = estimateCommonValueCount(numRows, foreignKeyValues.getNumRows(),
+                        foreignKeyValues.getNumDistinct(), foreignKeyValues.getNumSingletons(),
+                        foreignKeyValues.countDistinctValuesContainedIn(primaryKeyValues));
+            } else {
+                countValuesAlsoInForeignKey = primaryKeyValues.countDistinctValuesContainedIn(foreignKeyValues);
             }
         }
 
-        return 1.0 - (double) countValuesOnlyInPrimaryKey / distinctPrimaryKeyValues.size();
+        //Values from primary Key that are not in foreign Key
+        double countValuesOnlyInPrimaryKey = Math.max(numPrimaryKeyValues - countValuesAlsoInForeignKey, 0.0);
+
+        return 1.0 - countValuesOnlyInPrimaryKey / numPrimaryKeyValues;
     } //Range [0,1]: 1 is best as all foreign Key values are contained in primary Key, 0 worst
 
+    // estimated number of distinct foreign key values of all rows that are contained in the primary key, see outOfRangeScore
+    private double estimateCommonValueCount(int numRows, int numSampledRows, int numSampledDistinct,
+                                            int numSampledSingletons, int numSampledContained) {
+        if (numSampledDistinct == 0) {
+            return 0.0;
+        }
+        double numDistinct = Math.sqrt((double) numRows / numSampledRows) * numSampledSingletons
+                + (numSampledDistinct - numSampledSingletons);
+        for (Column column : this.dependant) {
+            numDistinct = Math.max(numDistinct, column.getNumDistinctValues());
+        }
+        numDistinct = Math.min(numDistinct, numRows);
+        return numDistinct * numSampledContained / numSampledDistinct;
+    }
+
 }
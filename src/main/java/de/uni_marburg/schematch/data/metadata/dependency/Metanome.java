@@ -1,20 +1,26 @@
 package de.uni_marburg.schematch.data.metadata.dependency;
 
 import de.uni_marburg.schematch.data.Table;
+import de.uni_marburg.schematch.data.metadata.dependency.ProfilingWorker.Profiler;
+import de.uni_marburg.schematch.utils.Configuration;
 import de.uni_marburg.schematch.utils.MetadataUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.util.Collections;
 import java.util.List;
 
 public class Metanome {
+    private static final Logger log = LogManager.getLogger(Metanome.class);
 
     public static boolean SAVE = true;
 
     public static List<UniqueColumnCombination> executeUCC(List<Table> tables) {
-        return executeOperation(tables, MetanomeCache::executeUCC, MetanomeImpl::executeUCC, "UCC");
+        return executeOperation(tables, MetanomeCache::executeUCC, Metanome::profileUCC, "UCC");
     }
 
     public static List<FunctionalDependency> executeFD(List<Table> tables) {
-        return executeOperation(tables, MetanomeCache::executeFD, MetanomeImpl::executeFD, "FD");
+        return executeOperation(tables, MetanomeCache::executeFD, Metanome::profileFD, "FD");
     }
 
     public static List<InclusionDependency> executeIND(List<Table> tables) {
@@ -22,22 +28,48 @@ public class Metanome {
     }
 
     public static List<UniqueColumnCombination> executePartialUCC(List<Table> tables) {
-        return executeOperation(tables, MetanomeCache::executeUCC, MetanomeImpl::executePartialUCC, "UCC");
+        return executeOperation(tables, MetanomeCache::executeUCC, Metanome::profilePartialUCC, "UCC");
     }
 
     public static List<FunctionalDependency> executePartialFD(List<Table> tables) {
-        return executeOperation(tables, MetanomeCache::executeFD, MetanomeImpl::executePartialFD, "FD");
+        return executeOperation(tables, MetanomeCache::executeFD, Metanome::profilePartialFD, "FD");
     }
 
     public static List<InclusionDependency> executePartialIND(List<Table> tables) {
         return executeOperation(tables, MetanomeCache::executeIND, MetanomeImpl::executePartialIND, "IND");
     }
 
+    //Per-table profilers run in worker processes if configured, INDs are profiled on all tables at once in this JVM
+    private static List<UniqueColumnCombination> profileUCC(List<Table> tables) {
+        return isProfileInWorkers() ? ProfilingScheduler.fromConfiguration().executeUCC(tables, Profiler.HYUCC) : MetanomeImpl.executeUCC(tables);
+    }
+
+    private static List<FunctionalDependency> profileFD(List<Table> tables) {
+        return isProfileInWorkers() ? ProfilingScheduler.fromConfiguration().executeFD(tables, Profiler.HYFD) : MetanomeImpl.executeFD(tables);
+    }
+
+    private static List<UniqueColumnCombination> profilePartialUCC(List<Table> tables) {
+        return isProfileInWorkers() ? ProfilingScheduler.fromConfiguration().executeUCC(tables, Profiler.PYRO_UCC) : MetanomeImpl.executePartialUCC(tables);
+    }
+
+    private static List<FunctionalDependency> profilePartialFD(List<Table> tables) {
+        return isProfileInWorkers() ? ProfilingScheduler.fromConfiguration().executeFD(tables, Profiler.PYRO_FD) : MetanomeImpl.executePartialFD(tables);
+    }
+
+    private static boolean isProfileInWorkers() {
+        return Configuration.getInstance().isProfileInWorkers();
+    }
+
     private static <T extends Dependency> List<T> executeOperation(List<Table> tables, OperationExecutor<T> cacheExecutor, OperationExecutor<T> defaultExecutor, String dep) {
         if (MetadataUtils.metadataExists(tables.get(0).getPath(), dep)) {
             return cacheExecutor.execute(tables);
         }
         List<T> results = defaultExecutor.execute(tables);
+        //Profilers return null if they fail (so profiling workers exit with an error), callers get no dependencies
+        if (results == null) {
+            log.error("Could not profile {}s of {}", dep, tables.get(0).getPath());
+            return Collections.emptyList();
+        }
         return results;
     }
 
@@ -7,7 +7,6 @@ import de.hpi.mpss2015n.approxind.FAIDA;
 import de.metanome.algorithm_integration.AlgorithmConfigurationException;
 import de.metanome.algorithm_integration.AlgorithmExecutionException;
 import de.metanome.algorithm_integration.ColumnIdentifier;
-import de.metanome.algorithm_integration.configuration.ConfigurationSettingFileInput;
 import de.metanome.algorithm_integration.input.InputGenerationException;
 import de.metanome.algorithm_integration.input.RelationalInput;
 import de.metanome.algorithm_integration.input.RelationalInputGenerator;
@@ -15,7 +14,6 @@ import de.metanome.algorithm_integration.results.Result;
 import de.metanome.algorithms.binder.BINDERFile;
 import de.metanome.algorithms.hyfd.HyFD;
 import de.metanome.algorithms.hyucc.HyUCC;
-import de.metanome.backend.input.file.DefaultFileInputGenerator;
 import de.metanome.backend.result_receiver.ResultCache;
 import de.uni_marburg.schematch.data.Column;
 import de.uni_marburg.schematch.data.Table;
@@ -55,12 +53,12 @@ public class MetanomeImpl{
         return executeFAIDA(tables);
     }
 
-    //Execute Profilers
+    //Execute Profilers, null if a profiler fails (so profiling workers exit with an error)
     private static List<UniqueColumnCombination> executeHyUCC(List<Table> tables) {
         List<UniqueColumnCombination> allResults = new ArrayList<>();
         try {
             for (Table table : tables) {
-                RelationalInputGenerator input = getInputGenerator(table.getPath());
+                RelationalInputGenerator input = getInputGenerator(table);
                 ResultCache resultReceiver = new ResultCache("MetanomeMock", getAcceptedColumns(input));
 
                 HyUCC hyUCC = createHyUCC(input, resultReceiver);
@@ -81,6 +79,7 @@ public class MetanomeImpl{
         }
         catch (AlgorithmExecutionException | FileNotFoundException e) {
             e.printStackTrace();
+            return null;
         }
         return allResults;
     }
@@ -92,7 +91,7 @@ public class MetanomeImpl{
             RelationalInputGenerator[] inputs = new RelationalInputGenerator[tables.size()];
             List<ColumnIdentifier> columnIdentifiers = new ArrayList<>();
             for (int i = 0; i < tables.size(); i++) {
-                inputs[i] =  getInputGenerator(tables.get(i).getPath());
+                inputs[i] =  getInputGenerator(tables.get(i));
                 columnIdentifiers.addAll(getAcceptedColumns(inputs[i]));
             }
 
@@ -128,7 +127,7 @@ public class MetanomeImpl{
         List<FunctionalDependency> allResults = new ArrayList<>();
         try {
             for (Table table : tables) {
-                RelationalInputGenerator input = getInputGenerator(table.getPath());
+                RelationalInputGenerator input = getInputGenerator(table);
                 ResultCache resultReceiver = new ResultCache("MetanomeMock", getAcceptedColumns(input));
 
                 HyFD hyFD = createHyFD(input, resultReceiver);
@@ -148,6 +147,7 @@ public class MetanomeImpl{
             }
         } catch (AlgorithmExecutionException | FileNotFoundException e) {
             e.printStackTrace();
+            return null;
         }
         return allResults;
     }
@@ -156,7 +156,7 @@ public class MetanomeImpl{
         List<UniqueColumnCombination> allResults = new ArrayList<>();
         try {
             for (Table table : tables) {
-                RelationalInputGenerator input = getInputGenerator(table.getPath());
+                RelationalInputGenerator input = getInputGenerator(table);
                 List<PartialKey> partialUCCs = new ArrayList<>();
 
                 Pyro pyro = createPyro(input, partialUCCs, null);
@@ -176,6 +176,7 @@ public class MetanomeImpl{
         }
         catch (AlgorithmExecutionException e) {
             e.printStackTrace();
+            return null;
         }
         return allResults;
     }
@@ -184,7 +185,7 @@ public class MetanomeImpl{
         List<FunctionalDependency> allResults = new ArrayList<>();
         try {
             for (Table table : tables) {
-                RelationalInputGenerator input = getInputGenerator(table.getPath());
+                RelationalInputGenerator input = getInputGenerator(table);
                 List<PartialFD> partialFDs = new ArrayList<>();
 
                 Pyro pyro = createPyro(input, null, partialFDs);
@@ -204,6 +205,7 @@ public class MetanomeImpl{
         }
         catch (AlgorithmExecutionException e) {
             e.printStackTrace();
+            return null;
         }
 
         return allResults;
@@ -217,7 +219,7 @@ public class MetanomeImpl{
             List<ColumnIdentifier> columnIdentifiers = new ArrayList<>();
 
             for (int i = 0; i < tables.size(); i++) {
-                inputs[i] =  getInputGenerator(tables.get(i).getPath());
+                inputs[i] =  getInputGenerator(tables.get(i));
                 columnIdentifiers.addAll(getAcceptedColumns(inputs[i]));
             }
 
@@ -306,20 +308,9 @@ public class MetanomeImpl{
         return pyro;
     }
 
-    private static RelationalInputGenerator getInputGenerator(String path) throws AlgorithmConfigurationException {
-        return new DefaultFileInputGenerator(new ConfigurationSettingFileInput(
-                path,
-                true,
-                ',',
-                '\"',
-                '\\',
-                false,
-                true,
-                0,
-                true,
-                true,
-                ""
-        ));
+    //Profilers read the already loaded columns of the table instead of parsing its file again
+    private static RelationalInputGenerator getInputGenerator(Table table) {
+        return new TableInputGenerator(table);
     }
 
     private static List<ColumnIdentifier> getAcceptedColumns(RelationalInputGenerator relationalInputGenerator) throws InputGenerationException, AlgorithmConfigurationException {
@@ -406,10 +397,18 @@ public class MetanomeImpl{
     }
 
     //BLAME THE AUTHORS @METANOME ALGORITHMS
+    // System.out is global, so profilers run one at a time while it is swapped
+    private static final Object SYSOUT_LOCK = new Object();
+
     private static void suppressSysout(Runnable method) throws RuntimeException{
-        PrintStream originalOut = System.out;
-        System.setOut(new PrintStream(new NullOutputStream()));
-        method.run();
-        System.setOut(originalOut);
+        synchronized (SYSOUT_LOCK) {
+            PrintStream originalOut = System.out;
+            System.setOut(new PrintStream(new NullOutputStream()));
+            try {
+                method.run();
+            } finally {
+                System.setOut(originalOut);
+            }
+        }
     }
 }
@@ -0,0 +1,46 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.DictionaryEncoding;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Partitions of single columns on a fixed set of rows, shared by all FDs scored on these rows. Partitions of column
+ * combinations are intersected from the cached partition of their first column.
+ */
+class PartitionCache {
+    // sampled rows of the table, null for all rows
+    private final int[] rows;
+    private final Map<Column, PositionListIndex> columnPartitions = new ConcurrentHashMap<>();
+
+    PartitionCache(int[] rows) {
+        this.rows = rows;
+    }
+
+    DictionaryEncoding getEncoding(Column column) {
+        return this.rows == null ? column.getEncoding() : column.getEncoding().select(this.rows);
+    }
+
+    PositionListIndex getPartition(Column column) {
+        return this.columnPartitions.computeIfAbsent(column, c -> PositionListIndex.of(getEncoding(c)));
+    }
+
+    /**
+     * @param numRows Number of rows, used for the partition of an empty column combination
+     */
+    PositionListIndex getPartition(Collection<Column> columns, int numRows) {
+        Iterator<Column> iterator = columns.iterator();
+        if (!iterator.hasNext()) {
+            return PositionListIndex.ofAllRows(numRows);
+        }
+        PositionListIndex partition = getPartition(iterator.next());
+        while (iterator.hasNext()) {
+            partition = partition.intersect(getEncoding(iterator.next()));
+        }
+        return partition;
+    }
+}
@@ -0,0 +1,210 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.uni_marburg.schematch.data.DictionaryEncoding;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stripped partition (position list index) of the rows of a table by the values of a column combination. Rows with
+ * equal values form a cluster, clusters of a single row are left out. Rows are stored as one array, cluster k holds
+ * the rows at {@code [clusterOffsets[k], clusterOffsets[k + 1])} in ascending order.
+ */
+class PositionListIndex {
+    private final int numRows;
+    private final int[] clusterRows;
+    private final int[] clusterOffsets;
+
+    private PositionListIndex(int numRows, int[] clusterRows, int[] clusterOffsets) {
+        this.numRows = numRows;
+        this.clusterRows = clusterRows;
+        this.clusterOffsets = clusterOffsets;
+    }
+
+    /**
+     * @return Partition of an empty column combination, all rows are equal
+     */
+    static PositionListIndex ofAllRows(int numRows) {
+        if (numRows < 2) {
+            return new PositionListIndex(numRows, new int[0], new int[]{0});
+        }
+        int[] clusterRows = new int[numRows];
+        Arrays.setAll(clusterRows, row -> row);
+        return new PositionListIndex(numRows, clusterRows, new int[]{0, numRows});
+    }
+
+    /**
+     * @return Partition of the rows by the values of a single column, clusters in order of their codes
+     */
+    static PositionListIndex of(DictionaryEncoding encoding) {
+        int[] codes = encoding.getCodes();
+        int[] frequencies = encoding.getFrequencies();
+
+        //Counting sort of the rows by code, codes of a single row are left out
+        int[] starts = new int[frequencies.length];
+        int numClusters = 0;
+        int numClusterRows = 0;
+        for (int code = 0; code < frequencies.length; code++) {
+            starts[code] = numClusterRows;
+            if (frequencies[code] > 1) {
+                numClusters++;
+                numClusterRows += frequencies[code];
+            }
+        }
+        int[] clusterOffsets = new int[numClusters + 1];
+        int cluster = 0;
+        for (int code = 0; code < frequencies.length; code++) {
+            if (frequencies[code] > 1) {
+                clusterOffsets[++cluster] = starts[code] + frequencies[code];
+            }
+        }
+        int[] clusterRows = new int[numClusterRows];
+        for (int row = 0; row < codes.length; row++) {
+            if (frequencies[codes[row]] > 1) {
+                clusterRows[starts[codes[row]]++] = row;
+            }
+        }
+        return new PositionListIndex(codes.length, clusterRows, clusterOffsets);
+    }
+
+    /**
+     * Intersects this partition with the partition of a column, i.e. splits every cluster by the codes of the column
+     * @return Partition by the values of this column combination and the column, each cluster is split into clusters
+     * in order of the first row of each part
+     */
+    PositionListIndex intersect(DictionaryEncoding encoding) {
+        int[] codes = encoding.getCodes();
+        int[] counts = new int[encoding.getNumDistinct()];
+        int[] starts = new int[encoding.getNumDistinct()];
+        // codes in order of their first row within the current cluster
+        int[] clusterCodes = new int[getMaxClusterSize()];
+
+        int[] newClusterRows = new int[this.clusterRows.length];
+        int[] newClusterOffsets = new int[this.clusterRows.length / 2 + 1];
+        int numNewClusters = 0;
+        int numNewClusterRows = 0;
+
+        for (int cluster = 0; cluster < getNumClusters(); cluster++) {
+            int from = this.clusterOffsets[cluster];
+            int to = this.clusterOffsets[cluster + 1];
+            int numClusterCodes = 0;
+            for (int i = from; i < to; i++) {
+                int code = codes[this.clusterRows[i]];
+                if (counts[code]++ == 0) {
+                    clusterCodes[numClusterCodes++] = code;
+                }
+            }
+
+            //Parts of more than one row become clusters, rows keep their order
+            for (int c = 0; c < numClusterCodes; c++) {
+                int code = clusterCodes[c];
+                if (counts[code] > 1) {
+                    starts[code] = numNewClusterRows;
+                    numNewClusterRows += counts[code];
+                    newClusterOffsets[++numNewClusters] = numNewClusterRows;
+                }
+            }
+            for (int i = from; i < to; i++) {
+                int row = this.clusterRows[i];
+                if (counts[codes[row]] > 1) {
+                    newClusterRows[starts[codes[row]]++] = row;
+                }
+            }
+            for (int c = 0; c < numClusterCodes; c++) {
+                counts[clusterCodes[c]] = 0;
+            }
+        }
+
+        return new PositionListIndex(this.numRows, Arrays.copyOf(newClusterRows, numNewClusterRows),
+                Arrays.copyOf(newClusterOffsets, numNewClusters + 1));
+    }
+
+    int getNumRows() {
+        return this.numRows;
+    }
+
+    int getNumClusters() {
+        return this.clusterOffsets.length - 1;
+    }
+
+    /**
+     * @return Number of distinct values of the column combination, including the values of a single row
+     */
+    int getNumDistinct() {
+        return getNumClusters() + this.numRows - this.clusterRows.length;
+    }
+
+    private int getMaxClusterSize() {
+        int maxClusterSize = 0;
+        for (int cluster = 0; cluster < getNumClusters(); cluster++) {
+            maxClusterSize = Math.max(maxClusterSize, this.clusterOffsets[cluster + 1] - this.clusterOffsets[cluster]);
+        }
+        return maxClusterSize;
+    }
+
+    /**
+     * @return Dense code of the value of the column combination per row, codes are numbered in order of the first row
+     * of each value (like dictionary codes)
+     */
+    int[] getRowCodes() {
+        int[] rowCodes = new int[this.numRows];
+        Arrays.fill(rowCodes, -1);
+        for (int cluster = 0; cluster < getNumClusters(); cluster++) {
+            for (int i = this.clusterOffsets[cluster]; i < this.clusterOffsets[cluster + 1]; i++) {
+                rowCodes[this.clusterRows[i]] = -2 - cluster;
+            }
+        }
+        int[] clusterCodes = new int[getNumClusters()];
+        Arrays.fill(clusterCodes, -1);
+        int numCodes = 0;
+        for (int row = 0; row < this.numRows; row++) {
+            if (rowCodes[row] == -1) {
+                rowCodes[row] = numCodes++;
+            } else {
+                int cluster = -2 - rowCodes[row];
+                if (clusterCodes[cluster] == -1) {
+                    clusterCodes[cluster] = numCodes++;
+                }
+                rowCodes[row] = clusterCodes[cluster];
+            }
+        }
+        return rowCodes;
+    }
+
+    /**
+     * @param encodingA Encoding of the dependant on the same rows
+     * @return Probabilistic dependency pdep(X, A): the sum over all values x of this partition of
+     * P(X=x) * sum over a of P(A=a|X=x)^2. The counts of (x, a) are accumulated in a HashMap keyed like on the
+     * composite row codes of the determinant, so the terms are summed up in the same order and the scores (compared
+     * against thresholds by the dependency filters) stay numerically identical.
+     */
+    double getProbabilisticDependency(DictionaryEncoding encodingA) {
+        int[] rowCodesX = getRowCodes();
+        int numX = getNumDistinct();
+        int[] rowCodesA = encodingA.getCodes();
+        int numA = encodingA.getNumDistinct();
+
+        int[] countsX = new int[numX];
+        Map<Long, Integer> countsXA = new HashMap<>();
+        for (int i = 0; i < this.numRows; i++) {
+            countsX[rowCodesX[i]]++;
+            countsXA.merge((long) rowCodesX[i] * numA + rowCodesA[i], 1, Integer::sum);
+        }
+
+        // sum over a of P(A=a|X=x)^2 for every x
+        double[] pdepAGivenX = new double[numX];
+        for (Map.Entry<Long, Integer> countXA : countsXA.entrySet()) {
+            int x = (int) (countXA.getKey() / numA);
+            double probabilityForAGivenX = (double) countXA.getValue() / countsX[x];
+            pdepAGivenX[x] = pdepAGivenX[x] + probabilityForAGivenX * probabilityForAGivenX;
+        }
+
+        double pdepXA = 0.0;
+        for (int x = 0; x < numX; x++) {
+            double probabilityForX = (double) countsX[x] / this.numRows;
+            pdepXA = pdepXA + probabilityForX * pdepAGivenX[x];
+        }
+        return pdepXA;
+    }
+}
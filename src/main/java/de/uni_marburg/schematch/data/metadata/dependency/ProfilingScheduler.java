@@ -0,0 +1,195 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.uni_marburg.schematch.data.Table;
+import de.uni_marburg.schematch.data.metadata.dependency.ProfilingWorker.Profiler;
+import de.uni_marburg.schematch.utils.ConfigUtils;
+import de.uni_marburg.schematch.utils.Configuration;
+import de.uni_marburg.schematch.utils.InputReader;
+import de.uni_marburg.schematch.utils.MetadataUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profiles the dependencies of each table in a separate JVM process ({@link ProfilingWorker}) with its own maximum
+ * heap and time limit, several tables are profiled at the same time. A table whose worker fails, runs out of memory
+ * or exceeds the time limit is profiled again with the approximate profiler, if both fail it has no dependencies.
+ * Only dependencies of the requested profiler are saved to the metadata folder, approximate ones of the fallback are
+ * not, so the table is profiled again in the next run. Pyro's memory watchdog only runs in the workers.
+ */
+public class ProfilingScheduler {
+    private static final Logger log = LogManager.getLogger(ProfilingScheduler.class);
+
+    private final int numWorkers;
+    // maximum heap of a worker in MB, values < 1 use the default of the JVM
+    private final int maxHeapMB;
+    // zero for no limit
+    private final Duration timeout;
+    private final String workerClassName;
+
+    public ProfilingScheduler(int numWorkers, int maxHeapMB, Duration timeout) {
+        this(numWorkers, maxHeapMB, timeout, ProfilingWorker.class);
+    }
+
+    /**
+     * @param workerClass Class with the main method the worker processes run, takes the arguments of
+     *                    {@link ProfilingWorker#main}
+     */
+    ProfilingScheduler(int numWorkers, int maxHeapMB, Duration timeout, Class<?> workerClass) {
+        if (numWorkers < 1) {
+            throw new IllegalArgumentException("number of profiling workers must be positive");
+        }
+        this.numWorkers = numWorkers;
+        this.maxHeapMB = maxHeapMB;
+        this.timeout = timeout;
+        this.workerClassName = workerClass.getName();
+    }
+
+    public static ProfilingScheduler fromConfiguration() {
+        Configuration config = Configuration.getInstance();
+        return new ProfilingScheduler(ConfigUtils.getNumProfilingWorkers(), config.getProfilingWorkerHeapMB(),
+                Duration.ofSeconds(Math.max(config.getProfilingWorkerTimeoutSeconds(), 0)));
+    }
+
+    public List<UniqueColumnCombination> executeUCC(List<Table> tables, Profiler profiler) {
+        return execute(tables, profiler, (path, table) -> InputReader.readUCCFile(path, table, new HashMap<>()),
+                MetadataUtils::saveUCCs);
+    }
+
+    public List<FunctionalDependency> executeFD(List<Table> tables, Profiler profiler) {
+        return execute(tables, profiler, (path, table) -> InputReader.readFDFile(path, table, new HashMap<>()),
+                MetadataUtils::saveFDs);
+    }
+
+    @FunctionalInterface
+    private interface ResultReader<T> {
+        Collection<T> read(Path resultFile, Table table) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ResultWriter<T> {
+        void write(Path metadataPath, Collection<T> dependencies);
+    }
+
+    private <T extends Dependency> List<T> execute(List<Table> tables, Profiler profiler, ResultReader<T> reader, ResultWriter<T> writer) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(Math.min(this.numWorkers, tables.size()), 1));
+        try {
+            List<Future<List<T>>> futures = new ArrayList<>(tables.size());
+            for (Table table : tables) {
+                futures.add(executor.submit(() -> {
+                    Profiled<T> profiled = profile(table, profiler, reader);
+                    Path metadataPath = MetadataUtils.getMetadataPathFromTable(Path.of(table.getPath()));
+                    if (Metanome.SAVE && metadataPath != null && profiled.profiler() == profiler) {
+                        writer.write(metadataPath, profiled.dependencies());
+                    }
+                    return profiled.dependencies();
+                }));
+            }
+
+            //Results are collected in order of the tables
+            List<T> allResults = new ArrayList<>();
+            for (Future<List<T>> future : futures) {
+                allResults.addAll(future.get());
+            }
+            return allResults;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @param profiler Profiler that found the dependencies, null if all profilers failed
+     */
+    private record Profiled<T>(List<T> dependencies, Profiler profiler) {
+    }
+
+    private <T extends Dependency> Profiled<T> profile(Table table, Profiler profiler, ResultReader<T> reader) throws InterruptedException {
+        for (Profiler current = profiler; current != null; current = current.getFallback()) {
+            List<T> dependencies = runWorker(table, current, reader);
+            if (dependencies != null) {
+                if (current != profiler) {
+                    log.warn("Profiled table {} with the fallback {} instead of {}, its dependencies are approximate and not saved",
+                            table.getName(), current, profiler);
+                }
+                return new Profiled<>(dependencies, current);
+            }
+        }
+        log.error("Could not profile table {} with {} or its fallback, continuing without its dependencies", table.getName(), profiler);
+        return new Profiled<>(List.of(), null);
+    }
+
+    /**
+     * @return Dependencies found by the worker or null if the worker failed
+     */
+    private <T extends Dependency> List<T> runWorker(Table table, Profiler profiler, ResultReader<T> reader) throws InterruptedException {
+        Process process = null;
+        Path resultFile = null;
+        try {
+            resultFile = Files.createTempFile("schematch_" + table.getName() + "_", ".txt");
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            if (this.maxHeapMB > 0) {
+                command.add("-Xmx" + this.maxHeapMB + "m");
+            }
+            command.add("-XX:+ExitOnOutOfMemoryError");
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(this.workerClassName);
+            command.add(profiler.name());
+            command.add(table.getPath());
+            command.add(resultFile.toString());
+
+            long start = System.currentTimeMillis();
+            //Workers log to their own console, profilers write to stdout
+            process = new ProcessBuilder(command)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+
+            if (this.timeout.isZero()) {
+                process.waitFor();
+            } else if (!process.waitFor(this.timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("{} exceeded the time limit of {} s on table {}", profiler, this.timeout.toSeconds(), table.getName());
+                return null;
+            }
+            if (process.exitValue() != 0) {
+                log.warn("{} failed on table {} with exit code {}", profiler, table.getName(), process.exitValue());
+                return null;
+            }
+
+            List<T> dependencies = new ArrayList<>(reader.read(resultFile, table));
+            log.debug("{} found {} dependencies in table {} in {} ms", profiler, dependencies.size(), table.getName(),
+                    System.currentTimeMillis() - start);
+            return dependencies;
+        } catch (IOException e) {
+            log.warn("{} failed on table {}", profiler, table.getName(), e);
+            return null;
+        } finally {
+            if (process != null && process.isAlive()) {
+                process.destroyForcibly();
+            }
+            if (resultFile != null) {
+                try {
+                    Files.deleteIfExists(resultFile);
+                } catch (IOException e) {
+                    log.warn("Could not delete {}", resultFile);
+                }
+            }
+        }
+    }
+}
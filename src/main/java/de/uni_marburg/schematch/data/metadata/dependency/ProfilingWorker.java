@@ -0,0 +1,73 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.uni_marburg.schematch.data.Table;
+import de.uni_marburg.schematch.utils.InputReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Entry point of the JVM processes {@link ProfilingScheduler} profiles single tables in.
+ * Arguments: profiler, path of the data file of the table, file the dependencies are written to (one per line, in the
+ * format of the metadata folder). The process exits with a non-zero status if the profiler fails.
+ */
+public class ProfilingWorker {
+    private static final Logger log = LogManager.getLogger(ProfilingWorker.class);
+
+    public enum Profiler {
+        HYUCC,
+        HYFD,
+        PYRO_UCC,
+        PYRO_FD;
+
+        List<? extends Dependency> execute(List<Table> tables) {
+            return switch (this) {
+                case HYUCC -> MetanomeImpl.executeUCC(tables);
+                case HYFD -> MetanomeImpl.executeFD(tables);
+                case PYRO_UCC -> MetanomeImpl.executePartialUCC(tables);
+                case PYRO_FD -> MetanomeImpl.executePartialFD(tables);
+            };
+        }
+
+        /**
+         * @return Approximate profiler used for tables the exact profiler fails on, null if there is none
+         */
+        Profiler getFallback() {
+            return switch (this) {
+                case HYUCC -> PYRO_UCC;
+                case HYFD -> PYRO_FD;
+                default -> null;
+            };
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: ProfilingWorker <profiler> <data file> <result file>");
+            System.exit(2);
+        }
+        Profiler profiler = Profiler.valueOf(args[0]);
+        Path resultPath = Path.of(args[2]);
+
+        try {
+            Table table = InputReader.readDataFile(args[1], null);
+            //Results are saved to the metadata folder by the scheduler
+            Metanome.SAVE = false;
+            List<? extends Dependency> dependencies = profiler.execute(List.of(table));
+            if (dependencies == null) {
+                throw new IllegalStateException(profiler + " failed on " + args[1]);
+            }
+            Files.write(resultPath, dependencies.stream().map(Dependency::toString).toList());
+        } catch (RuntimeException | IOException e) {
+            log.error("Profiling {} with {} failed", args[1], profiler, e);
+            System.exit(1);
+        }
+
+        // Workaround for {@link de.hpi.isg.pyro.util.MemoryWatchdog} not stopping the JVM
+        System.exit(0);
+    }
+}
@@ -0,0 +1,100 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.metanome.algorithm_integration.input.RelationalInput;
+import de.metanome.algorithm_integration.input.RelationalInputGenerator;
+import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.DictionaryEncoding;
+import de.uni_marburg.schematch.data.Table;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Input of Metanome profilers backed by the columns of an already loaded table, so profilers iterate over the
+ * dictionary encodings of the columns instead of parsing the data file again. Rows look like the ones of a
+ * {@code DefaultFileInputGenerator} on the data file: the relation is named like the file and empty values are null.
+ */
+class TableInputGenerator implements RelationalInputGenerator {
+    private final String relationName;
+    private final List<String> columnNames;
+    // dictionary per column with empty values replaced by null
+    private final String[][] dictionaries;
+    private final int[][] codes;
+    private final int numRows;
+
+    TableInputGenerator(Table table) {
+        this.relationName = table.getPath() == null ? table.getName() : Path.of(table.getPath()).getFileName().toString();
+        this.columnNames = List.copyOf(table.getLabels());
+
+        List<Column> columns = table.getColumns();
+        this.dictionaries = new String[columns.size()][];
+        this.codes = new int[columns.size()][];
+        for (int i = 0; i < columns.size(); i++) {
+            DictionaryEncoding encoding = columns.get(i).getEncoding();
+            String[] dictionary = encoding.getDictionary().clone();
+            for (int code = 0; code < dictionary.length; code++) {
+                if (dictionary[code].isEmpty()) {
+                    dictionary[code] = null;
+                }
+            }
+            this.dictionaries[i] = dictionary;
+            this.codes[i] = encoding.getCodes();
+        }
+        this.numRows = columns.isEmpty() ? 0 : this.codes[0].length;
+    }
+
+    @Override
+    public RelationalInput generateNewCopy() {
+        return new TableInput();
+    }
+
+    @Override
+    public void close() {
+        //Nothing to release, the columns belong to the table
+    }
+
+    private class TableInput implements RelationalInput {
+        private int row = 0;
+
+        @Override
+        public boolean hasNext() {
+            return this.row < numRows;
+        }
+
+        @Override
+        public List<String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            //Profilers may keep the rows, so every row is a new list
+            List<String> values = new ArrayList<>(dictionaries.length);
+            for (int i = 0; i < dictionaries.length; i++) {
+                values.add(dictionaries[i][codes[i][this.row]]);
+            }
+            this.row++;
+            return values;
+        }
+
+        @Override
+        public int numberOfColumns() {
+            return columnNames.size();
+        }
+
+        @Override
+        public String relationName() {
+            return relationName;
+        }
+
+        @Override
+        public List<String> columnNames() {
+            return columnNames;
+        }
+
+        @Override
+        public void close() {
+            //Nothing to release
+        }
+    }
+}
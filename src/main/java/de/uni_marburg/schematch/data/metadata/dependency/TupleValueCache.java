@@ -0,0 +1,49 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.DictionaryEncoding;
+import de.uni_marburg.schematch.data.RowSampling;
+import de.uni_marburg.schematch.data.metadata.DatabaseMetadata;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distinct values and average value lengths of the column combinations of INDs for one row sampling, shared by all
+ * INDs scored with it, e.g., a primary key referenced by several INDs is read once. Obtained from
+ * {@link DatabaseMetadata#getTupleValueCache(RowSampling)}, so the values are cached per database. INDs read foreign
+ * keys from the cache of their sampling and primary keys from the cache of all rows.
+ */
+public class TupleValueCache {
+    @Getter
+    private final RowSampling sampling;
+    // keyed by the columns sorted by label
+    private final Map<List<Column>, TupleValues> values = new ConcurrentHashMap<>();
+
+    public TupleValueCache(RowSampling sampling) {
+        this.sampling = sampling;
+    }
+
+    TupleValues getValues(Collection<Column> columnCombination) {
+        List<Column> sortedColumns = new ArrayList<>(columnCombination);
+        sortedColumns.sort(Comparator.comparing(Column::getLabel));
+
+        TupleValues tupleValues = this.values.get(sortedColumns);
+        if (tupleValues == null) {
+            // computed outside of the map, concurrent callers may compute the same values twice
+            tupleValues = TupleValues.of(sortedColumns, getSampledRows(sortedColumns.get(0)));
+            this.values.putIfAbsent(sortedColumns, tupleValues);
+        }
+        return tupleValues;
+    }
+
+    // rows are sampled once (stratified by the first column) and used for all columns, so tuples stay aligned
+    private int[] getSampledRows(Column firstColumn) {
+        DictionaryEncoding firstEncoding = firstColumn.getEncoding();
+        if (!this.sampling.isSampling(firstEncoding.getNumRows())) {
+            return null;
+        }
+        return this.sampling.sampleRows(firstEncoding);
+    }
+}
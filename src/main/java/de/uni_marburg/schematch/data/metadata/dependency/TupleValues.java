@@ -0,0 +1,157 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.DictionaryEncoding;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Values of a column combination as used by the foreign key score of INDs. The value of a row is the concatenation
+ * of the values of all columns separated by commas (as in {@link Util#getDistinctValues}), it is represented by a
+ * 64-bit polynomial hash of this string modulo 2^61 - 1. Hashes are composed from the hashes of the dictionary values
+ * of each column, so no string is built per row. Collisions of hashes are not resolved.
+ */
+class TupleValues {
+    private static final long MOD = (1L << 61) - 1;
+    private static final long BASE = 0x5DEECE66DL;
+
+    private final int numRows;
+    // sorted hashes of the distinct values
+    private final long[] distinctTuples;
+    // number of values that occur in exactly one row
+    private final int numSingletons;
+    private final double averageLength;
+
+    private TupleValues(int numRows, long[] distinctTuples, int numSingletons, double averageLength) {
+        this.numRows = numRows;
+        this.distinctTuples = distinctTuples;
+        this.numSingletons = numSingletons;
+        this.averageLength = averageLength;
+    }
+
+    /**
+     * @param columns Columns in the order their values are concatenated
+     * @param rows Rows of the table to use, null for all rows
+     */
+    static TupleValues of(List<Column> columns, int[] rows) {
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("The column collection must not be empty.");
+        }
+
+        int numRows = rows == null ? columns.get(0).getEncoding().getNumRows() : rows.length;
+        long[] tuples = new long[numRows];
+        long sumLength = (long) (columns.size() - 1) * numRows;
+        boolean first = true;
+        for (Column column : columns) {
+            DictionaryEncoding encoding = column.getEncoding();
+            String[] dictionary = encoding.getDictionary();
+            int[] codes = encoding.getCodes();
+
+            //Hash and BASE^length per dictionary value, a value is appended to a row by h * BASE^length + hash
+            long[] hashes = new long[dictionary.length];
+            long[] powers = new long[dictionary.length];
+            for (int code = 0; code < dictionary.length; code++) {
+                long hash = 0;
+                long power = 1;
+                String value = dictionary[code];
+                for (int i = 0; i < value.length(); i++) {
+                    hash = append(hash, value.charAt(i));
+                    power = multiply(power, BASE);
+                }
+                hashes[code] = hash;
+                powers[code] = power;
+            }
+
+            for (int i = 0; i < numRows; i++) {
+                int code = codes[rows == null ? i : rows[i]];
+                long tuple = first ? 0 : append(tuples[i], ',');
+                tuples[i] = add(multiply(tuple, powers[code]), hashes[code]);
+                sumLength += dictionary[code].length();
+            }
+            first = false;
+        }
+
+        double averageLength = numRows == 0 ? 0.0 : (double) sumLength / numRows;
+        Arrays.sort(tuples);
+        int numSingletons = countSingletons(tuples);
+        return new TupleValues(numRows, distinct(tuples), numSingletons, averageLength);
+    }
+
+    private static int countSingletons(long[] sorted) {
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if ((i == 0 || sorted[i] != sorted[i - 1]) && (i == sorted.length - 1 || sorted[i] != sorted[i + 1])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // compacts the sorted tuples in place
+    private static long[] distinct(long[] sorted) {
+        int numDistinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[numDistinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, numDistinct);
+    }
+
+    private static long append(long hash, char c) {
+        return add(multiply(hash, BASE), c);
+    }
+
+    private static long add(long a, long b) {
+        long sum = a + b;
+        return sum >= MOD ? sum - MOD : sum;
+    }
+
+    // a * b mod 2^61 - 1 for a, b < 2^61, uses 2^61 = 1 (mod 2^61 - 1)
+    private static long multiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        long result = (low & MOD) + (low >>> 61) + (high << 3);
+        result = (result & MOD) + (result >>> 61);
+        return result >= MOD ? result - MOD : result;
+    }
+
+    int getNumRows() {
+        return this.numRows;
+    }
+
+    int getNumDistinct() {
+        return this.distinctTuples.length;
+    }
+
+    int getNumSingletons() {
+        return this.numSingletons;
+    }
+
+    /**
+     * @return Average length of the (concatenated) values over all rows, 0 if there are no rows
+     */
+    double getAverageLength() {
+        return this.averageLength;
+    }
+
+    /**
+     * @return Number of distinct values of this column combination that are also values of the other one
+     */
+    int countDistinctValuesContainedIn(TupleValues other) {
+        long[] a = this.distinctTuples;
+        long[] b = other.distinctTuples;
+        int count = 0;
+        int j = 0;
+        for (long tuple : a) {
+            while (j < b.length && b[j] < tuple) {
+                j++;
+            }
+            if (j < b.length && b[j] == tuple) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
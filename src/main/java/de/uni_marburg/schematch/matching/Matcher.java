@@ -1,22 +1,38 @@
 package de.uni_marburg.schematch.matching;
 
+import de.uni_marburg.schematch.data.RowSampling;
 import de.uni_marburg.schematch.matchtask.MatchTask;
 import de.uni_marburg.schematch.matchtask.matchstep.MatchStep;
 import de.uni_marburg.schematch.matchtask.matchstep.MatchingStep;
 import de.uni_marburg.schematch.matchtask.tablepair.TablePair;
 import de.uni_marburg.schematch.utils.Configuration;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Matcher instances are created once per run and shared by all scenarios, which may be matched in parallel
+ * (numScenarioThreads). Fields hold configuration only, match methods must not keep per scenario state in them.
+ */
 @NoArgsConstructor
+@Getter
+@Setter
 public abstract class Matcher {
+    // row sampling used by instance-based matchers and dependency scorers, see RowSampling for strategies
+    private String samplingStrategy;
+    private int sampleSize;
+    private int sampleSeed;
+
     // this is required to make logs from abstract methods show the concrete class
     protected Logger getLogger() {
         return LogManager.getLogger(this.getClass());
@@ -30,6 +46,30 @@ public abstract class Matcher {
      */
     public abstract float[][] match(MatchTask matchTask, MatchingStep matchStep);
 
+    /**
+     * Matchers with equal batch keys can be run together by {@link #matchBatch}, e.g. because they share expensive
+     * intermediate results
+     *
+     * @return Batch key of this matcher, null if it is always run on its own
+     */
+    public Object getBatchKey() {
+        return null;
+    }
+
+    /**
+     * @param matchTask MatchTask to match
+     * @param matchStep Current MatchStep (MatchingStep)
+     * @param batch Matchers with the same batch key as this matcher (including this matcher)
+     * @return Similarity matrix of each matcher of the batch, in the same order
+     */
+    public List<float[][]> matchBatch(MatchTask matchTask, MatchingStep matchStep, List<Matcher> batch) {
+        List<float[][]> simMatrices = new ArrayList<>();
+        for (Matcher matcher : batch) {
+            simMatrices.add(matcher.match(matchTask, matchStep));
+        }
+        return simMatrices;
+    }
+
     /**
      * Sets all matcher fields according to the configuration (see first_line_matchers.yaml)
      *
@@ -42,20 +82,20 @@ public abstract class Matcher {
             Method setter;
             Class<?> fieldType;
             try {
-                fieldType = this.getClass().getDeclaredField(key).getType();
+                fieldType = findField(key).getType();
             } catch (NoSuchFieldException e) {
                 getLogger().error("Configuration error: Could not find field " + key + " for " + this);
                 throw new RuntimeException(e);
             }
             try {
                 String setterName = "set" + key.substring(0, 1).toUpperCase() + key.substring(1);
-                setter = this.getClass().getDeclaredMethod(setterName, fieldType);
+                setter = findSetter(setterName, fieldType);
             } catch (NoSuchMethodException e) {
                 getLogger().error("Configuration error: Could not find setter for field " + key + " for " + this);
                 throw new RuntimeException(e);
             }
             try {
-                if (value instanceof Integer) {
+                if (value instanceof Integer || value instanceof Boolean) {
                     setter.invoke(this, value);
                 } else if (value instanceof Double) {
                     setter.invoke(this, ((Double) value).floatValue());
@@ -69,6 +109,31 @@ public abstract class Matcher {
         }
     }
 
+    // matcher parameters may be declared by the concrete matcher class or one of its super classes
+    private Field findField(String name) throws NoSuchFieldException {
+        for (Class<?> c = this.getClass(); c != null; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+
+    private Method findSetter(String name, Class<?> parameterType) throws NoSuchMethodException {
+        for (Class<?> c = this.getClass(); c != null; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredMethod(name, parameterType);
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+    public RowSampling getRowSampling() {
+        return RowSampling.of(this.samplingStrategy, this.sampleSize, this.sampleSeed);
+    }
+
     @Override
     public String toString() {
         StringBuilder result = new StringBuilder(getClass().getSimpleName());
@@ -81,8 +146,13 @@ public abstract class Matcher {
             } catch (IllegalAccessException ignored) {
             } // Cannot happen, we have set the field to be accessible
         }
+        // sampled matchers produce different results, so the sampling is part of their name (and cache key)
+        RowSampling rowSampling = getRowSampling();
+        if (rowSampling != RowSampling.ALL) {
+            result.append("sampling=").append(rowSampling).append(", ");
+        }
         String res = result.toString();
-        if (getClass().getDeclaredFields().length > 0) {
+        if (res.endsWith(", ")) {
             res = res.substring(0, res.length() - 2);
         }
         return res + ")";
@@ -1,20 +1,39 @@
 package de.uni_marburg.schematch.matching;
 
+import de.uni_marburg.schematch.data.Column;
 import de.uni_marburg.schematch.data.Database;
 import de.uni_marburg.schematch.matchtask.MatchTask;
 import de.uni_marburg.schematch.matchtask.matchstep.MatchStep;
 import de.uni_marburg.schematch.matchtask.matchstep.MatchingStep;
 import de.uni_marburg.schematch.matchtask.tablepair.TablePair;
-import de.uni_marburg.schematch.utils.ArrayUtils;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 public abstract class TablePairMatcher extends Matcher {
-    public abstract float[][] match(TablePair tablePair);
+    /**
+     * Writes the similarity scores of the given table pair into {@code simMatrix}, starting at row {@code rowOffset}
+     * and column {@code columnOffset}. Table pairs cover disjoint blocks of the scenario sim matrix, so
+     * implementations must only write into their own block and can then be run concurrently.
+     */
+    public abstract void match(TablePair tablePair, float[][] simMatrix, int rowOffset, int columnOffset);
+
+    /**
+     * @return The given column reduced to the rows this matcher is configured to use, see {@link #getRowSampling()}
+     */
+    protected Column sample(Column column) {
+        return column.getSample(getRowSampling());
+    }
+
+    public float[][] match(TablePair tablePair) {
+        float[][] simMatrix = tablePair.getEmptySimMatrix();
+        this.match(tablePair, simMatrix, 0, 0);
+        return simMatrix;
+    }
 
     @Override
     public float[][] match(MatchTask matchTask, MatchingStep matchStep) {
@@ -22,11 +41,16 @@ public abstract class TablePairMatcher extends Matcher {
 
         float[][] simMatrix = matchTask.getEmptySimMatrix();
 
-        for (TablePair tablePair : tablePairs) {
-            float[][] tablePairSimMatrix = this.match(tablePair);
-            int sourceTableOffset = tablePair.getSourceTable().getOffset();
-            int targetTableOffset = tablePair.getTargetTable().getOffset();
-            ArrayUtils.insertSubmatrixInMatrix(tablePairSimMatrix, simMatrix, sourceTableOffset, targetTableOffset);
+        // each table pair writes straight into its own block of the sim matrix, so pairs can be matched in parallel
+        // in the matcher pool if parallel matchers are configured
+        ForkJoinPool pool = MatchingStep.getMatcherPool();
+        if (pool == null) {
+            for (TablePair tablePair : tablePairs) {
+                this.match(tablePair, simMatrix, tablePair.getSourceTable().getOffset(), tablePair.getTargetTable().getOffset());
+            }
+        } else {
+            pool.submit(() -> tablePairs.parallelStream().forEach(tablePair -> this.match(tablePair, simMatrix,
+                    tablePair.getSourceTable().getOffset(), tablePair.getTargetTable().getOffset()))).join();
         }
 
         return simMatrix;
@@ -4,27 +4,23 @@ import de.uni_marburg.schematch.data.Table;
 import de.uni_marburg.schematch.data.metadata.Datatype;
 import de.uni_marburg.schematch.matching.TablePairMatcher;
 import de.uni_marburg.schematch.matchtask.tablepair.TablePair;
-import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 import java.util.HashMap;
 
-@Data
 @EqualsAndHashCode(callSuper = true)
 public class DatatypeMatcher extends TablePairMatcher {
     @Override
-    public float[][] match(TablePair tablePair) {
+    public void match(TablePair tablePair, float[][] simMatrix, int rowOffset, int columnOffset) {
         Table sourceTable = tablePair.getSourceTable();
         Table targetTable = tablePair.getTargetTable();
-        float[][] simMatrix = tablePair.getEmptySimMatrix();
         for (int i = 0; i < sourceTable.getNumColumns(); i++) {
-            HashMap<Datatype, Double> datatypeScores_i = sourceTable.getColumn(i).getDataTypeScores();
+            HashMap<Datatype, Double> datatypeScores_i = sample(sourceTable.getColumn(i)).getDataTypeScores();
             for (int j = 0; j < targetTable.getNumColumns(); j++) {
-                HashMap<Datatype, Double> datatypeScores_j = targetTable.getColumn(j).getDataTypeScores();
-                simMatrix[i][j] = calculateSimilarity(datatypeScores_i, datatypeScores_j);
+                HashMap<Datatype, Double> datatypeScores_j = sample(targetTable.getColumn(j)).getDataTypeScores();
+                simMatrix[rowOffset + i][columnOffset + j] = calculateSimilarity(datatypeScores_i, datatypeScores_j);
             }
         }
-        return simMatrix;
     }
 
     private float calculateSimilarity(HashMap<Datatype, Double> scores_a, HashMap<Datatype, Double> scores_b) {
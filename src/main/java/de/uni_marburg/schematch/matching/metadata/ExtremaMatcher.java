@@ -6,7 +6,6 @@ import de.uni_marburg.schematch.data.metadata.Datatype;
 import de.uni_marburg.schematch.matching.TablePairMatcher;
 import de.uni_marburg.schematch.matchtask.tablepair.TablePair;
 import de.uni_marburg.schematch.utils.GeoLocation;
-import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 import java.text.ParseException;
@@ -16,42 +15,38 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
-@Data
 @EqualsAndHashCode(callSuper = true)
 public class ExtremaMatcher extends TablePairMatcher {
 
     @Override
-    public float[][] match(TablePair tablePair) {
+    public void match(TablePair tablePair, float[][] simMatrix, int rowOffset, int columnOffset) {
 
         Table sourceTable = tablePair.getSourceTable();
         Table targetTable = tablePair.getTargetTable();
 
-        float[][] simMatrix = tablePair.getEmptySimMatrix();
         for (int i = 0; i < sourceTable.getNumColumns(); i++) {
-            Datatype datatype_i = sourceTable.getColumn(i).getDatatype();
+            Column sourceColumn = sample(sourceTable.getColumn(i));
+            Datatype datatype_i = sourceColumn.getDatatype();
             for (int j = 0; j < targetTable.getNumColumns(); j++) {
-                Datatype datatype_j = targetTable.getColumn(j).getDatatype();
+                Column targetColumn = sample(targetTable.getColumn(j));
+                Datatype datatype_j = targetColumn.getDatatype();
 
                 if (datatype_i != datatype_j) {
-                    simMatrix[i][j] = 0;
+                    simMatrix[rowOffset + i][columnOffset + j] = 0;
                     continue;
                 }
 
-                Column sourceColumn = sourceTable.getColumn(i);
-                Column targetColumn = targetTable.getColumn(j);
-                switch (datatype_i) {
-                    case BOOLEAN -> simMatrix[i][j] = booleanExtrema(sourceColumn, targetColumn);
-                    case INTEGER -> simMatrix[i][j] = integerExtrema(sourceColumn, targetColumn);
-                    case FLOAT -> simMatrix[i][j] = floatExtrema(sourceColumn, targetColumn);
-                    case DATE -> simMatrix[i][j] = dateExtrema(sourceColumn, targetColumn);
-                    case GEO_LOCATION -> simMatrix[i][j] = geoExtrema(sourceColumn, targetColumn);
-                    case STRING, TEXT -> simMatrix[i][j] = stringExtrema(sourceColumn, targetColumn);
-                    default -> simMatrix[i][j] = 0;
-                }
+                simMatrix[rowOffset + i][columnOffset + j] = switch (datatype_i) {
+                    case BOOLEAN -> booleanExtrema(sourceColumn, targetColumn);
+                    case INTEGER -> integerExtrema(sourceColumn, targetColumn);
+                    case FLOAT -> floatExtrema(sourceColumn, targetColumn);
+                    case DATE -> dateExtrema(sourceColumn, targetColumn);
+                    case GEO_LOCATION -> geoExtrema(sourceColumn, targetColumn);
+                    case STRING, TEXT -> stringExtrema(sourceColumn, targetColumn);
+                    default -> 0;
+                };
             }
         }
-
-        return simMatrix;
     }
 
     private float booleanExtrema(Column sourceRaw, Column targetRaw) {
@@ -3,35 +3,30 @@ package de.uni_marburg.schematch.matching.metadata;
 import de.uni_marburg.schematch.data.Table;
 import de.uni_marburg.schematch.matching.TablePairMatcher;
 import de.uni_marburg.schematch.matchtask.tablepair.TablePair;
-import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 import java.util.ArrayList;
 
-@Data
 @EqualsAndHashCode(callSuper = true)
 public class NullPercentageMatcher extends TablePairMatcher {
 
     @Override
-    public float[][] match(TablePair tablePair) {
+    public void match(TablePair tablePair, float[][] simMatrix, int rowOffset, int columnOffset) {
 
-        final float[][] simMatrix = tablePair.getEmptySimMatrix();
         final Table sourceTable = tablePair.getSourceTable();
         final Table targetTable = tablePair.getTargetTable();
 
         for (int i = 0; i < sourceTable.getNumColumns(); i++) {
             for (int j = 0; j < targetTable.getNumColumns(); j++) {
 
-                ArrayList<String> sourceValues = new ArrayList<>(sourceTable.getColumn(i).getValues());
-                ArrayList<String> targetValues = new ArrayList<>(targetTable.getColumn(j).getValues());
+                ArrayList<String> sourceValues = new ArrayList<>(sample(sourceTable.getColumn(i)).getValues());
+                ArrayList<String> targetValues = new ArrayList<>(sample(targetTable.getColumn(j)).getValues());
 
                 var similarity = calculateSimilarity(sourceValues, targetValues);
 
-                simMatrix[i][j] = (float) similarity;
+                simMatrix[rowOffset + i][columnOffset + j] = (float) similarity;
             }
         }
-
-        return simMatrix;
     }
 
     private static double calculateSimilarity(ArrayList<String> sourceValues, ArrayList<String> targetValues) {
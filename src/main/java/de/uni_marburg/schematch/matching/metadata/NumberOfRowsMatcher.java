@@ -10,9 +10,8 @@ import lombok.EqualsAndHashCode;
 @EqualsAndHashCode(callSuper = true)
 public class NumberOfRowsMatcher extends TablePairMatcher {
     @Override
-    public float[][] match(TablePair tablePair) {
+    public void match(TablePair tablePair, float[][] simMatrix, int rowOffset, int columnOffset) {
 
-        final float[][] simMatrix = tablePair.getEmptySimMatrix();
         final Table sourceTable = tablePair.getSourceTable();
         final Table targetTable = tablePair.getTargetTable();
 
@@ -27,11 +26,9 @@ public class NumberOfRowsMatcher extends TablePairMatcher {
                 } else {
                     similarity = (float) sourceSize / targetSize;
                 }
-                simMatrix[i][j] = similarity;
+                simMatrix[rowOffset + i][columnOffset + j] = similarity;
             }
         }
-
-        return simMatrix;
     }
 
 }
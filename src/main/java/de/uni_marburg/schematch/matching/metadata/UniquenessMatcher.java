@@ -1,44 +1,36 @@
 package de.uni_marburg.schematch.matching.metadata;
 
+import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.DictionaryEncoding;
 import de.uni_marburg.schematch.data.Table;
 import de.uni_marburg.schematch.matching.TablePairMatcher;
 import de.uni_marburg.schematch.matchtask.tablepair.TablePair;
-import lombok.Data;
 import lombok.EqualsAndHashCode;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-
-@Data
 @EqualsAndHashCode(callSuper = true)
 public class UniquenessMatcher extends TablePairMatcher {
 
     @Override
-    public float[][] match(TablePair tablePair) {
+    public void match(TablePair tablePair, float[][] simMatrix, int rowOffset, int columnOffset) {
 
-        final float[][] simMatrix = tablePair.getEmptySimMatrix();
         final Table sourceTable = tablePair.getSourceTable();
         final Table targetTable = tablePair.getTargetTable();
 
         for (int i = 0; i < sourceTable.getNumColumns(); i++) {
+            final Column sourceColumn = sample(sourceTable.getColumn(i));
             for (int j = 0; j < targetTable.getNumColumns(); j++) {
-                ArrayList<String> sourceValues = new ArrayList<>(sourceTable.getColumn(i).getValues());
-                ArrayList<String> targetValues = new ArrayList<>(targetTable.getColumn(j).getValues());
-
-                simMatrix[i][j] = calculateSimilarity(sourceValues, targetValues);
+                simMatrix[rowOffset + i][columnOffset + j] = calculateSimilarity(sourceColumn, sample(targetTable.getColumn(j)));
             }
         }
-
-        return simMatrix;
     }
 
 
-    private float calculateSimilarity(ArrayList<String> sourceValues, ArrayList<String> targetValues) {
-        HashSet<String> sourceElements = new HashSet<>(sourceValues);
-        HashSet<String> targetElements = new HashSet<>(targetValues);
+    private float calculateSimilarity(Column sourceColumn, Column targetColumn) {
+        DictionaryEncoding sourceEncoding = sourceColumn.getEncoding();
+        DictionaryEncoding targetEncoding = targetColumn.getEncoding();
 
-        float sourceDistinctPercentage = (float) sourceElements.size() / sourceValues.size();
-        float targetDistinctPercentage = (float) targetElements.size() / targetValues.size();
+        float sourceDistinctPercentage = (float) sourceEncoding.getNumDistinct() / sourceEncoding.getNumRows();
+        float targetDistinctPercentage = (float) targetEncoding.getNumDistinct() / targetEncoding.getNumRows();
 
         return (float) (1.0 - Math.round(Math.abs(sourceDistinctPercentage - targetDistinctPercentage) * 100.0) / 100.0);
     }
@@ -7,7 +7,7 @@ import org.apache.commons.lang3.NotImplementedException;
 
 public abstract class InstanceSimilarityMatcher extends TablePairMatcher {
     @Override
-    public float[][] match(TablePair tablePair) {
+    public void match(TablePair tablePair, float[][] simMatrix, int rowOffset, int columnOffset) {
         throw new NotImplementedException("No instance matchers yet, use TokenizedInstanceSimilarityMatcher instead.");
     }
 }
@@ -16,15 +16,13 @@ public abstract class LabelSimilarityMatcher extends TablePairMatcher {
     }
 
     @Override
-    public float[][] match(TablePair tablePair) {
+    public void match(TablePair tablePair, float[][] simMatrix, int rowOffset, int columnOffset) {
         Table sourceTable = tablePair.getSourceTable();
         Table targetTable = tablePair.getTargetTable();
-        float[][] simMatrix = tablePair.getEmptySimMatrix();
         for (int i = 0; i < sourceTable.getNumColumns(); i++) {
             for (int j = 0; j < targetTable.getNumColumns(); j++) {
-                simMatrix[i][j] = similarityMeasure.compare(sourceTable.getLabels().get(i), targetTable.getLabels().get(j));
+                simMatrix[rowOffset + i][columnOffset + j] = similarityMeasure.compare(sourceTable.getLabels().get(i), targetTable.getLabels().get(j));
             }
         }
-        return simMatrix;
     }
 }
\ No newline at end of file
@@ -18,17 +18,15 @@ public abstract class TokenizedInstanceSimilarityMatcher extends TokenizedTableP
     }
 
     @Override
-    public float[][] match(TablePair tablePair) {
+    public void match(TablePair tablePair, float[][] simMatrix, int rowOffset, int columnOffset) {
         Table sourceTable = tablePair.getSourceTable();
         Table targetTable = tablePair.getTargetTable();
-        float[][] simMatrix = tablePair.getEmptySimMatrix();
         for (int i = 0; i < sourceTable.getNumColumns(); i++) {
-            Set<String> sourceTokens_i = new HashSet<>(sourceTable.getColumn(i).getValuesTokens(tokenizer));
+            Set<String> sourceTokens_i = new HashSet<>(sample(sourceTable.getColumn(i)).getValuesTokens(tokenizer));
             for (int j = 0; j < targetTable.getNumColumns(); j++) {
-                Set<String> targetTokens_j = new HashSet<>(targetTable.getColumn(j).getValuesTokens(tokenizer));
-                simMatrix[i][j] = similarityMeasure.compare(sourceTokens_i, targetTokens_j);
+                Set<String> targetTokens_j = new HashSet<>(sample(targetTable.getColumn(j)).getValuesTokens(tokenizer));
+                simMatrix[rowOffset + i][columnOffset + j] = similarityMeasure.compare(sourceTokens_i, targetTokens_j);
             }
         }
-        return simMatrix;
     }
 }
\ No newline at end of file
@@ -18,17 +18,15 @@ public abstract class TokenizedLabelSimilarityMatcher extends TokenizedTablePair
     }
 
     @Override
-    public float[][] match(TablePair tablePair) {
+    public void match(TablePair tablePair, float[][] simMatrix, int rowOffset, int columnOffset) {
         Table sourceTable = tablePair.getSourceTable();
         Table targetTable = tablePair.getTargetTable();
-        float[][] simMatrix = tablePair.getEmptySimMatrix();
         for (int i = 0; i < sourceTable.getNumColumns(); i++) {
             Set<String> sourceTokens_i = sourceTable.getColumn(i).getLabelTokens(tokenizer);
             for (int j = 0; j < targetTable.getNumColumns(); j++) {
                 Set<String> targetTokens_j = targetTable.getColumn(j).getLabelTokens(tokenizer);
-                simMatrix[i][j] = similarityMeasure.compare(sourceTokens_i, targetTokens_j);
+                simMatrix[rowOffset + i][columnOffset + j] = similarityMeasure.compare(sourceTokens_i, targetTokens_j);
             }
         }
-        return simMatrix;
     }
 }
\ No newline at end of file
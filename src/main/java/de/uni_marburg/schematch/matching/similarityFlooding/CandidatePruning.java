@@ -0,0 +1,71 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import de.uni_marburg.schematch.data.metadata.Datatype;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Pruning of the column pairs the connectivity graph is built for. Pairs of column nodes that are no candidates are
+ * left out of the connectivity graph (together with all edges between them), pairs of other nodes are kept.
+ * @param minInitialSimilarity Minimum similarity of a candidate in the matrix of the first line matcher, 0 to keep all
+ * @param topK Number of candidates with the highest similarity kept per source column, 0 to keep all
+ * @param compatibleDatatypesOnly Whether columns with incompatible datatypes are no candidates
+ */
+record CandidatePruning(float minInitialSimilarity, int topK, boolean compatibleDatatypesOnly) {
+
+    static final CandidatePruning NONE = new CandidatePruning(0, 0, false);
+
+    CandidatePruning {
+        if (minInitialSimilarity < 0 || topK < 0) {
+            throw new IllegalArgumentException("candidate pruning thresholds must not be negative");
+        }
+    }
+
+    boolean isEnabled() {
+        return this.minInitialSimilarity > 0 || this.topK > 0 || this.compatibleDatatypesOnly;
+    }
+
+    /**
+     * @param simMatrix Initial similarities of all column pairs
+     * @param sourceDatatypes Datatype per row of the matrix, only used if incompatible datatypes are pruned
+     * @param targetDatatypes Datatype per column of the matrix, only used if incompatible datatypes are pruned
+     * @return Whether the column pair of each cell of the matrix is a candidate
+     */
+    boolean[][] getCandidates(float[][] simMatrix, Datatype[] sourceDatatypes, Datatype[] targetDatatypes) {
+        boolean[][] candidates = new boolean[simMatrix.length][];
+        for (int i = 0; i < simMatrix.length; i++) {
+            float[] similarities = simMatrix[i];
+            candidates[i] = new boolean[similarities.length];
+            for (int j = 0; j < similarities.length; j++) {
+                candidates[i][j] = similarities[j] >= this.minInitialSimilarity &&
+                        (!this.compatibleDatatypesOnly || areCompatible(sourceDatatypes[i], targetDatatypes[j]));
+            }
+
+            //Only the most similar candidates are kept, ties are broken by the index of the target column
+            if (this.topK > 0) {
+                Integer[] order = new Integer[similarities.length];
+                Arrays.setAll(order, j -> j);
+                Arrays.sort(order, Comparator.comparingDouble((Integer j) -> -similarities[j]));
+                int numKept = 0;
+                for (int j : order) {
+                    if (candidates[i][j]) {
+                        candidates[i][j] = numKept++ < this.topK;
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Like {@link de.uni_marburg.schematch.matching.metadata.DatatypeMatcher}: equal types, integers and floats
+     * and strings with any type are compatible
+     */
+    static boolean areCompatible(Datatype a, Datatype b) {
+        if (a == b || a == Datatype.STRING || b == Datatype.STRING) {
+            return true;
+        }
+        return (a == Datatype.INTEGER && b == Datatype.FLOAT) || (a == Datatype.FLOAT && b == Datatype.INTEGER);
+    }
+}
@@ -0,0 +1,141 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import lombok.Getter;
+import org.jgrapht.Graph;
+
+import java.util.*;
+
+/**
+ * Propagation graph frozen into arrays for the fixpoint computation. Node pairs are indexed once and the incoming
+ * edges of every node pair are stored in CSR layout: the edges of node {@code k} are
+ * {@code [offsets[k], offsets[k + 1])}, each with the index of its source, its propagation coefficient and
+ * whether its source is a pair of constraint nodes.
+ * Node pairs, neighbors and residual terms are ordered exactly like the iteration order of the hash maps used by
+ * the map based implementation, so sums are evaluated in the same order and results are identical.
+ */
+@Getter
+class CompiledPropagationGraph {
+    // number of nodes per unit of work of a fixpoint iteration, independent of the number of threads
+    static final int BLOCK_SIZE = 1 << 12;
+
+    private final NodePair[] nodePairs;
+    private final double[] initialSigma;
+    private final int[] offsets;
+    private final int[] sources;
+    private final double[] coefficients;
+    private final boolean[] constraintSources;
+    // order in which the residual between two iterations is summed up
+    private final int[] residualOrder;
+
+    CompiledPropagationGraph(Graph<NodePair, CoefficientEdge> propagationGraph, Map<NodePair, Double> initialMapping) {
+        Map<NodePair, Double> sigma_0 = new HashMap<>();
+        for (NodePair node : propagationGraph.vertexSet()) {
+            sigma_0.put(node, initialMapping.getOrDefault(node, 0.0));
+        }
+
+        int numNodes = sigma_0.size();
+        this.nodePairs = new NodePair[numNodes];
+        this.initialSigma = new double[numNodes];
+        Map<NodePair, Integer> indices = new HashMap<>();
+        int k = 0;
+        for (Map.Entry<NodePair, Double> entry : sigma_0.entrySet()) {
+            this.nodePairs[k] = entry.getKey();
+            this.initialSigma[k] = entry.getValue();
+            indices.put(entry.getKey(), k);
+            k++;
+        }
+
+        this.residualOrder = new int[numNodes];
+        int r = 0;
+        for (NodePair node : new HashMap<>(sigma_0).keySet()) {
+            this.residualOrder[r++] = indices.get(node);
+        }
+
+        this.offsets = new int[numNodes + 1];
+        List<Integer> sourceList = new ArrayList<>();
+        List<Double> coefficientList = new ArrayList<>();
+        for (k = 0; k < numNodes; k++) {
+            NodePair node = this.nodePairs[k];
+            Set<NodePair> neighborNodes = new HashSet<>();
+            for (CoefficientEdge edge : propagationGraph.incomingEdgesOf(node)) {
+                neighborNodes.add(propagationGraph.getEdgeSource(edge));
+            }
+            for (NodePair neighbor : neighborNodes) {
+                Integer source = indices.get(neighbor);
+                if (source == null) {
+                    throw new IllegalStateException("Neighbor " + neighbor + " of " + node + " is not part of the propagation graph");
+                }
+                CoefficientEdge edge = propagationGraph.getEdge(neighbor, node);
+                sourceList.add(source);
+                coefficientList.add(edge == null ? 0.0 : edge.getCoefficient());
+            }
+            this.offsets[k + 1] = sourceList.size();
+        }
+
+        this.sources = new int[sourceList.size()];
+        this.coefficients = new double[coefficientList.size()];
+        this.constraintSources = new boolean[sourceList.size()];
+        for (int e = 0; e < this.sources.length; e++) {
+            this.sources[e] = sourceList.get(e);
+            this.coefficients[e] = coefficientList.get(e);
+            NodePair source = this.nodePairs[this.sources[e]];
+            this.constraintSources[e] = source.getFirstNode().getNodeType() == NodeType.CONSTRAINT &&
+                    source.getSecondNode().getNodeType() == NodeType.CONSTRAINT;
+        }
+    }
+
+    /**
+     * Compiled propagation graph of node pairs that are only identified by their index, see {@link ConnectivityGraph}
+     */
+    CompiledPropagationGraph(double[] initialSigma, int[] offsets, int[] sources, double[] coefficients, boolean[] constraintSources) {
+        this.nodePairs = null;
+        this.initialSigma = initialSigma;
+        this.offsets = offsets;
+        this.sources = sources;
+        this.coefficients = coefficients;
+        this.constraintSources = constraintSources;
+        this.residualOrder = new int[initialSigma.length];
+        for (int k = 0; k < this.residualOrder.length; k++) {
+            this.residualOrder[k] = k;
+        }
+    }
+
+    private CompiledPropagationGraph(CompiledPropagationGraph graph, double[] initialSigma) {
+        this.nodePairs = graph.nodePairs;
+        this.initialSigma = initialSigma;
+        this.offsets = graph.offsets;
+        this.sources = graph.sources;
+        this.coefficients = graph.coefficients;
+        this.constraintSources = graph.constraintSources;
+        this.residualOrder = graph.residualOrder;
+    }
+
+    /**
+     * @return Graph sharing the structure of this graph that starts from the given similarities
+     */
+    CompiledPropagationGraph withInitialSigma(double[] initialSigma) {
+        if (initialSigma.length != this.initialSigma.length) {
+            throw new IllegalArgumentException("Expected " + this.initialSigma.length + " initial similarities, got " + initialSigma.length);
+        }
+        return new CompiledPropagationGraph(this, initialSigma);
+    }
+
+    int getNumNodes() {
+        return this.initialSigma.length;
+    }
+
+    int getNumBlocks() {
+        return (this.initialSigma.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    /**
+     * @return Similarity values mapped to their node pairs, only for graphs compiled from JGraphT propagation graphs
+     */
+    Map<NodePair, Double> toMapping(double[] sigma) {
+        Map<NodePair, Double> mapping = new HashMap<>();
+        for (int k = 0; k < this.nodePairs.length; k++) {
+            mapping.put(this.nodePairs[k], sigma[k]);
+        }
+        return mapping;
+    }
+}
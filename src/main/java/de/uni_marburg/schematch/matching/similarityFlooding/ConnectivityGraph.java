@@ -0,0 +1,248 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Connectivity graph of two primitive schema graphs. Node pairs are interned to ints in the order they are added
+ * and edges are stored as parallel arrays, equivalent to
+ * {@link SchemaGraphBuilder#createConnectivityGraph} on JGraphT graphs.
+ */
+@Getter
+class ConnectivityGraph {
+    private final SchemaGraph graph1;
+    private final SchemaGraph graph2;
+    private final int numLabels;
+    // node of graph1 and node of graph2 per node pair
+    private int[] firstNodes;
+    private int[] secondNodes;
+    private int numNodePairs = 0;
+    private int[] edgeSources;
+    private int[] edgeTargets;
+    private int[] edgeLabels;
+    private int numEdges = 0;
+
+    ConnectivityGraph(SchemaGraph graph1, SchemaGraph graph2, int numLabels) {
+        this(graph1, graph2, numLabels, null);
+    }
+
+    /**
+     * @param candidates Whether a pair of columns (by their indices in the similarity matrix) is a candidate, see
+     *                   {@link CandidatePruning}. Pairs of column nodes that are no candidates are left out together
+     *                   with their edges, null to keep all pairs.
+     */
+    ConnectivityGraph(SchemaGraph graph1, SchemaGraph graph2, int numLabels, boolean[][] candidates) {
+        this.graph1 = graph1;
+        this.graph2 = graph2;
+        this.numLabels = numLabels;
+        this.firstNodes = new int[16];
+        this.secondNodes = new int[16];
+        this.edgeSources = new int[16];
+        this.edgeTargets = new int[16];
+        this.edgeLabels = new int[16];
+
+        //Only edges with equal labels are connected, so edges of graph2 are grouped by label
+        int[] labelOffsets = new int[numLabels + 1];
+        for (int label : graph2.getEdgeLabels()) {
+            labelOffsets[label + 1] += 1;
+        }
+        for (int label = 0; label < numLabels; label++) {
+            labelOffsets[label + 1] += labelOffsets[label];
+        }
+        int[] edgesByLabel = new int[graph2.getNumEdges()];
+        int[] nextPosition = Arrays.copyOf(labelOffsets, numLabels);
+        for (int edge2 = 0; edge2 < graph2.getNumEdges(); edge2++) {
+            edgesByLabel[nextPosition[graph2.getEdgeLabels()[edge2]]++] = edge2;
+        }
+
+        LongIntMap nodePairIds = new LongIntMap(graph1.getNumNodes() + graph2.getNumNodes());
+        LongIntMap edgeIds = new LongIntMap(graph1.getNumEdges() + graph2.getNumEdges());
+        for (int edge1 = 0; edge1 < graph1.getNumEdges(); edge1++) {
+            int label = graph1.getEdgeLabels()[edge1];
+            for (int position = labelOffsets[label]; position < labelOffsets[label + 1]; position++) {
+                int edge2 = edgesByLabel[position];
+                if (candidates != null && !(isCandidate(candidates, graph1.getEdgeSources()[edge1], graph2.getEdgeSources()[edge2]) &&
+                        isCandidate(candidates, graph1.getEdgeTargets()[edge1], graph2.getEdgeTargets()[edge2]))) {
+                    continue;
+                }
+                int source = addNodePair(nodePairIds, graph1.getEdgeSources()[edge1], graph2.getEdgeSources()[edge2]);
+                int target = addNodePair(nodePairIds, graph1.getEdgeTargets()[edge1], graph2.getEdgeTargets()[edge2]);
+                // at most one edge between two node pairs, the first one is kept
+                if (edgeIds.putIfAbsent(((long) source << 32) | target, this.numEdges) == this.numEdges) {
+                    addEdge(source, target, label);
+                }
+            }
+        }
+
+        this.firstNodes = Arrays.copyOf(this.firstNodes, this.numNodePairs);
+        this.secondNodes = Arrays.copyOf(this.secondNodes, this.numNodePairs);
+        this.edgeSources = Arrays.copyOf(this.edgeSources, this.numEdges);
+        this.edgeTargets = Arrays.copyOf(this.edgeTargets, this.numEdges);
+        this.edgeLabels = Arrays.copyOf(this.edgeLabels, this.numEdges);
+    }
+
+    private boolean isCandidate(boolean[][] candidates, int node1, int node2) {
+        int column1 = this.graph1.getColumnIndices()[node1];
+        int column2 = this.graph2.getColumnIndices()[node2];
+        return column1 < 0 || column2 < 0 || candidates[column1][column2];
+    }
+
+    private int addNodePair(LongIntMap nodePairIds, int node1, int node2) {
+        int nodePair = nodePairIds.putIfAbsent((long) node1 * this.graph2.getNumNodes() + node2, this.numNodePairs);
+        if (nodePair == this.numNodePairs) {
+            if (this.numNodePairs == this.firstNodes.length) {
+                this.firstNodes = Arrays.copyOf(this.firstNodes, 2 * this.numNodePairs);
+                this.secondNodes = Arrays.copyOf(this.secondNodes, 2 * this.numNodePairs);
+            }
+            this.firstNodes[this.numNodePairs] = node1;
+            this.secondNodes[this.numNodePairs] = node2;
+            this.numNodePairs++;
+        }
+        return nodePair;
+    }
+
+    private void addEdge(int source, int target, int label) {
+        if (this.numEdges == this.edgeSources.length) {
+            this.edgeSources = Arrays.copyOf(this.edgeSources, 2 * this.numEdges);
+            this.edgeTargets = Arrays.copyOf(this.edgeTargets, 2 * this.numEdges);
+            this.edgeLabels = Arrays.copyOf(this.edgeLabels, 2 * this.numEdges);
+        }
+        this.edgeSources[this.numEdges] = source;
+        this.edgeTargets[this.numEdges] = target;
+        this.edgeLabels[this.numEdges] = label;
+        this.numEdges++;
+    }
+
+    NodePair getNodePair(int nodePair) {
+        return new NodePair(this.graph1.getNodes()[this.firstNodes[nodePair]], this.graph2.getNodes()[this.secondNodes[nodePair]]);
+    }
+
+    /**
+     * @return Initial similarity of every node pair: the similarity of the represented columns in the given matrix
+     * for pairs of column name nodes, 0 otherwise
+     */
+    double[] getInitialSigma(float[][] simMatrix) {
+        double[] initialSigma = new double[this.numNodePairs];
+        for (int nodePair = 0; nodePair < this.numNodePairs; nodePair++) {
+            int node1 = this.firstNodes[nodePair];
+            int node2 = this.secondNodes[nodePair];
+            int column1 = this.graph1.getColumnIndices()[node1];
+            int column2 = this.graph2.getColumnIndices()[node2];
+            if (column1 >= 0 && column2 >= 0 && !this.graph1.getNodes()[node1].isIDNode() && !this.graph2.getNodes()[node2].isIDNode()) {
+                initialSigma[nodePair] = simMatrix[column1][column2];
+            }
+        }
+        return initialSigma;
+    }
+
+    /**
+     * Writes the similarities of all pairs of column id nodes to the cells of their columns
+     */
+    void populateSimMatrix(float[][] simMatrix, double[] sigma) {
+        for (int nodePair = 0; nodePair < this.numNodePairs; nodePair++) {
+            int node1 = this.firstNodes[nodePair];
+            int node2 = this.secondNodes[nodePair];
+            int column1 = this.graph1.getColumnIndices()[node1];
+            int column2 = this.graph2.getColumnIndices()[node2];
+            if (column1 >= 0 && column2 >= 0 && this.graph1.getNodes()[node1].isIDNode() && this.graph2.getNodes()[node2].isIDNode()) {
+                simMatrix[column1][column2] = (float) sigma[nodePair];
+            }
+        }
+    }
+
+    /**
+     * Induces the propagation graph like {@link SchemaGraphBuilder#inducePropagationGraph} and compiles it for the
+     * fixpoint computation. Node pairs keep their ids.
+     */
+    CompiledPropagationGraph inducePropagationGraph(PropagationCoefficientPolicy policy, double[] initialSigma) {
+        int[] countInLabelsGraph1 = this.graph1.countLabels(true, this.numLabels);
+        int[] countOutLabelsGraph1 = this.graph1.countLabels(false, this.numLabels);
+        int[] countInLabelsGraph2 = this.graph2.countLabels(true, this.numLabels);
+        int[] countOutLabelsGraph2 = this.graph2.countLabels(false, this.numLabels);
+
+        int[] incomingOffsets = new int[this.numNodePairs + 1];
+        int[] incomingEdges = groupEdges(this.edgeTargets, incomingOffsets);
+        int[] outgoingOffsets = new int[this.numNodePairs + 1];
+        int[] outgoingEdges = groupEdges(this.edgeSources, outgoingOffsets);
+
+        //Every connectivity edge induces an edge in both directions, at most one edge between two node pairs is kept
+        LongIntMap propagationEdgeIds = new LongIntMap(2 * this.numEdges);
+        int[] sources = new int[2 * this.numEdges];
+        int[] targets = new int[2 * this.numEdges];
+        double[] coefficients = new double[2 * this.numEdges];
+        int numPropagationEdges = 0;
+        for (int nodePair = 0; nodePair < this.numNodePairs; nodePair++) {
+            int node1 = this.firstNodes[nodePair];
+            int node2 = this.secondNodes[nodePair];
+            for (int i = incomingOffsets[nodePair]; i < incomingOffsets[nodePair + 1]; i++) {
+                int edge = incomingEdges[i];
+                int source = this.edgeSources[edge];
+                if (propagationEdgeIds.putIfAbsent(((long) nodePair << 32) | source, numPropagationEdges) == numPropagationEdges) {
+                    sources[numPropagationEdges] = nodePair;
+                    targets[numPropagationEdges] = source;
+                    coefficients[numPropagationEdges] = getCoefficient(policy, this.edgeLabels[edge], node1, node2,
+                            countInLabelsGraph1, countInLabelsGraph2);
+                    numPropagationEdges++;
+                }
+            }
+            for (int i = outgoingOffsets[nodePair]; i < outgoingOffsets[nodePair + 1]; i++) {
+                int edge = outgoingEdges[i];
+                int target = this.edgeTargets[edge];
+                if (propagationEdgeIds.putIfAbsent(((long) nodePair << 32) | target, numPropagationEdges) == numPropagationEdges) {
+                    sources[numPropagationEdges] = nodePair;
+                    targets[numPropagationEdges] = target;
+                    coefficients[numPropagationEdges] = getCoefficient(policy, this.edgeLabels[edge], node1, node2,
+                            countOutLabelsGraph1, countOutLabelsGraph2);
+                    numPropagationEdges++;
+                }
+            }
+        }
+
+        //Incoming edges per node pair for the fixpoint computation
+        int[] offsets = new int[this.numNodePairs + 1];
+        int[] edgesByTarget = groupEdges(Arrays.copyOf(targets, numPropagationEdges), offsets);
+        int[] compiledSources = new int[numPropagationEdges];
+        double[] compiledCoefficients = new double[numPropagationEdges];
+        boolean[] constraintSources = new boolean[numPropagationEdges];
+        for (int i = 0; i < numPropagationEdges; i++) {
+            int edge = edgesByTarget[i];
+            int source = sources[edge];
+            compiledSources[i] = source;
+            compiledCoefficients[i] = coefficients[edge];
+            constraintSources[i] = this.graph1.getNodes()[this.firstNodes[source]].getNodeType() == NodeType.CONSTRAINT &&
+                    this.graph2.getNodes()[this.secondNodes[source]].getNodeType() == NodeType.CONSTRAINT;
+        }
+        return new CompiledPropagationGraph(initialSigma, offsets, compiledSources, compiledCoefficients, constraintSources);
+    }
+
+    private double getCoefficient(PropagationCoefficientPolicy policy, int label, int node1, int node2,
+                                  int[] labelCountsGraph1, int[] labelCountsGraph2) {
+        double coefficient = policy.evaluate(labelCountsGraph1[node1 * this.numLabels + label],
+                labelCountsGraph2[node2 * this.numLabels + label]);
+        if (coefficient < 0 || coefficient > 1) {
+            throw new IllegalArgumentException("coefficient must be between 0 and 1");
+        }
+        return coefficient;
+    }
+
+    /**
+     * Groups the edges by node pair, keeping their order (counting sort)
+     * @param offsets Filled with the offsets of the groups, the edges of node pair k are at {@code [offsets[k], offsets[k + 1])}
+     */
+    private int[] groupEdges(int[] nodePairsOfEdges, int[] offsets) {
+        int numGroupedEdges = nodePairsOfEdges.length;
+        for (int edge = 0; edge < numGroupedEdges; edge++) {
+            offsets[nodePairsOfEdges[edge] + 1] += 1;
+        }
+        for (int nodePair = 0; nodePair < this.numNodePairs; nodePair++) {
+            offsets[nodePair + 1] += offsets[nodePair];
+        }
+        int[] groupedEdges = new int[numGroupedEdges];
+        int[] nextPosition = Arrays.copyOf(offsets, this.numNodePairs);
+        for (int edge = 0; edge < numGroupedEdges; edge++) {
+            groupedEdges[nextPosition[nodePairsOfEdges[edge]]++] = edge;
+        }
+        return groupedEdges;
+    }
+}
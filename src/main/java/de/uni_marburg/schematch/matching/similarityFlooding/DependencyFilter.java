@@ -1,8 +1,10 @@
 package de.uni_marburg.schematch.matching.similarityFlooding;
 
 import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.RowSampling;
 import de.uni_marburg.schematch.data.metadata.Datatype;
 import de.uni_marburg.schematch.data.metadata.dependency.FunctionalDependency;
+import de.uni_marburg.schematch.data.metadata.dependency.FunctionalDependencyScorer;
 import de.uni_marburg.schematch.data.metadata.dependency.InclusionDependency;
 import de.uni_marburg.schematch.data.metadata.dependency.UniqueColumnCombination;
 import lombok.Getter;
@@ -12,7 +14,7 @@ import org.apache.logging.log4j.Logger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Setter
@@ -23,11 +25,14 @@ public class DependencyFilter {
     private final String uccFilterThreshold;
     private final String indFilterThreshold;
     private final String fdFilterThreshold;
+    // rows used to score FDs and INDs
+    private final RowSampling sampling;
 
-    DependencyFilter(String uccFilterThreshold, String indFilterThreshold, String fdFilterThreshold) {
+    DependencyFilter(String uccFilterThreshold, String indFilterThreshold, String fdFilterThreshold, RowSampling sampling) {
         this.uccFilterThreshold = uccFilterThreshold;
         this.indFilterThreshold = indFilterThreshold;
         this.fdFilterThreshold = fdFilterThreshold;
+        this.sampling = sampling;
     }
 
     Collection<FunctionalDependency> filterFunctionalDependencies(Collection<FunctionalDependency> functionalDependencies) {
@@ -36,15 +41,21 @@ public class DependencyFilter {
 
         double threshold = Double.parseDouble(this.fdFilterThreshold);
 
-        for (FunctionalDependency fd : functionalDependencies) {
-
-            //Determinant should have at least one attribute
-            //Maximum determinant size of 3 (because large determinant often appear by chance)
-            if (!fd.getDeterminant().isEmpty() && fd.getDeterminant().size() <= 3) {
-                double score = fd.calculateNGPDEPScore();
-
-                if(score >= threshold) {
-                    filteredFDs.add(fd);
+        //Determinant should have at least one attribute
+        //Maximum determinant size of 3 (because large determinant often appear by chance)
+        List<FunctionalDependency> candidateFDs = functionalDependencies.stream()
+                .filter(fd -> !fd.getDeterminant().isEmpty() && fd.getDeterminant().size() <= 3)
+                .toList();
+
+        if (!candidateFDs.isEmpty()) {
+            //All FDs are of the same database, their scores are computed once per dependant and in parallel
+            FunctionalDependencyScorer scorer = candidateFDs.get(0).getDependant().getTable().getDatabase().getMetadata()
+                    .getFunctionalDependencyScorer(this.sampling);
+            double[] scores = scorer.getNGPDEPScores(candidateFDs);
+
+            for (int i = 0; i < candidateFDs.size(); i++) {
+                if (scores[i] >= threshold) {
+                    filteredFDs.add(candidateFDs.get(i));
                 }
             }
         }
@@ -82,19 +93,21 @@ public class DependencyFilter {
 
         double threshold = Double.parseDouble(this.indFilterThreshold);
 
-        for (InclusionDependency ind : inclusionDependencies) {
-
-            if (!ind.getDependant().isEmpty() && ind.getDependant().size() <= 3) { //Foreign Key Constraints very rarely consist of more than 3 attributes
-
-                Set<Datatype> datatypesInIND = ind.getReferenced().stream().map(Column::getDatatype).collect(Collectors.toSet());
-
-                if (!datatypesInIND.contains(Datatype.BOOLEAN)) { //No boolean column should be part of the ind, as these should not be a part of any keys
-                    double score = ind.getForeignKeyScore();
-
-                    if (score >= threshold) {
-                        filteredINDs.add(ind);
-                    }
-                }
+        //Foreign Key Constraints very rarely consist of more than 3 attributes
+        //No boolean column should be part of the ind, as these should not be a part of any keys
+        List<InclusionDependency> candidateINDs = inclusionDependencies.stream()
+                .filter(ind -> !ind.getDependant().isEmpty() && ind.getDependant().size() <= 3)
+                .filter(ind -> !ind.getReferenced().stream().map(Column::getDatatype).collect(Collectors.toSet()).contains(Datatype.BOOLEAN))
+                .toList();
+
+        //Values of column combinations are shared by all INDs of the database, so INDs can be scored in parallel
+        double[] scores = candidateINDs.parallelStream()
+                .mapToDouble(ind -> ind.getForeignKeyScore(this.sampling))
+                .toArray();
+
+        for (int i = 0; i < candidateINDs.size(); i++) {
+            if (scores[i] >= threshold) {
+                filteredINDs.add(candidateINDs.get(i));
             }
         }
 
@@ -0,0 +1,15 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+/**
+ * Acceleration schemes of the similarity flooding fixpoint computation, see {@link FixpointSolver}. Accelerated
+ * computations converge to the same fixpoint within the precision of convergence, but not to identical values.
+ */
+public enum FixpointAcceleration {
+    // plain (Jacobi) iterations: every node is computed from the values of the previous iteration
+    NONE,
+    // in-place iterations: nodes are computed from the values already updated in the current iteration,
+    // nodes are updated one after another, so the fixpoint pool is not used
+    GAUSS_SEIDEL,
+    // plain iterations, every three iterates are extrapolated componentwise with Aitken's delta-squared process
+    AITKEN
+}
@@ -1,223 +1,266 @@
 package de.uni_marburg.schematch.matching.similarityFlooding;
-import org.jgrapht.Graph;
-import java.util.Map;
-import java.util.Set;
 
+/**
+ * Fixpoint formulas of the similarity flooding algorithm. Each formula computes the (not yet normalized) next
+ * similarity values of the nodes {@code [from, to)} from the initial and the current similarity vector of a compiled
+ * propagation graph. Nodes only read the current vector, so disjoint node ranges can be evaluated in parallel.
+ */
 public enum FixpointFormula {
 
-    BASIC {
+    BASIC(false, false, false, true) {
         @Override
-        public double evaluate(NodePair node, Set<NodePair> neighborNodes, Map<NodePair, Double> sigma_0, Map<NodePair, Double> sigma_i, Graph<NodePair, CoefficientEdge> propagationGraph) {
+        void evaluate(CompiledPropagationGraph graph, double[] sigma_0, double[] sigma_i, double[] sigma_i_plus_1, int from, int to) {
+            int[] offsets = graph.getOffsets();
+            int[] sources = graph.getSources();
+            double[] coefficients = graph.getCoefficients();
 
-            double phi = 0;
+            for (int node = from; node < to; node++) {
+                double phi = 0;
 
-            for (NodePair neighbor : neighborNodes) {
-                double neighborValue = sigma_i.get(neighbor);
-
-                double propagationCoefficient;
-                try{
-                    propagationCoefficient = propagationGraph.getEdge(neighbor, node).getCoefficient();
-                } catch(Exception e) {
-                    propagationCoefficient = 0.0;
+                for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                    int neighbor = sources[e];
+                    phi += sigma_i[neighbor] * coefficients[e];
                 }
 
-                phi += neighborValue * propagationCoefficient;
+                sigma_i_plus_1[node] = sigma_i[node] + phi;
             }
-
-            return sigma_i.get(node) + phi;
         }
     },
 
-    BASIC_Lambda {
+    BASIC_Lambda(false, true, false, true) {
         @Override
-        public double evaluate(NodePair node, Set<NodePair> neighborNodes, Map<NodePair, Double> sigma_0, Map<NodePair, Double> sigma_i, Graph<NodePair, CoefficientEdge> propagationGraph) {
-
-            double phi = 0;
-
-            for (NodePair neighbor : neighborNodes) {
-                double neighborValue = sigma_i.get(neighbor);
-                double propagationCoefficient;
-
-                try{
-                    propagationCoefficient = propagationGraph.getEdge(neighbor, node).getCoefficient();
-                } catch(Exception e) {
-                    propagationCoefficient = 0.0;
+        void evaluate(CompiledPropagationGraph graph, double[] sigma_0, double[] sigma_i, double[] sigma_i_plus_1, int from, int to) {
+            int[] offsets = graph.getOffsets();
+            int[] sources = graph.getSources();
+            double[] coefficients = graph.getCoefficients();
+            boolean[] constraintSources = graph.getConstraintSources();
+
+            for (int node = from; node < to; node++) {
+                double phi = 0;
+
+                for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                    int neighbor = sources[e];
+                    if (constraintSources[e]) {
+                        phi += LAMBDA_D * coefficients[e] * sigma_i[neighbor];
+                    } else {
+                        phi += LAMBDA_E * coefficients[e] * sigma_i[neighbor];
+                    }
                 }
 
-                if(neighbor.getFirstNode().getNodeType().equals(NodeType.CONSTRAINT) && neighbor.getSecondNode().getNodeType().equals(NodeType.CONSTRAINT)) {
-                    phi += LAMBDA_D * propagationCoefficient * neighborValue;
-                } else {
-                    phi += LAMBDA_E * propagationCoefficient * neighborValue;
-                }
+                sigma_i_plus_1[node] = sigma_i[node] + phi;
             }
-
-            return sigma_i.get(node) + phi;
         }
     },
 
-    FORMULA_A {
+    FORMULA_A(false, false, true, false) {
         @Override
-        public double evaluate(NodePair node, Set<NodePair> neighborNodes, Map<NodePair, Double> sigma_0, Map<NodePair, Double> sigma_i, Graph<NodePair, CoefficientEdge> propagationGraph) {
-
-            double phi = 0;
+        void evaluate(CompiledPropagationGraph graph, double[] sigma_0, double[] sigma_i, double[] sigma_i_plus_1, int from, int to) {
+            int[] offsets = graph.getOffsets();
+            int[] sources = graph.getSources();
+            double[] coefficients = graph.getCoefficients();
 
-            for (NodePair neighbor : neighborNodes) {
-                double neighborValue = sigma_i.get(neighbor);
-                double propagationCoefficient;
+            for (int node = from; node < to; node++) {
+                double phi = 0;
 
-                try{
-                    propagationCoefficient = propagationGraph.getEdge(neighbor, node).getCoefficient();
-                } catch(Exception e) {
-                    propagationCoefficient = 0.0;
+                for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                    int neighbor = sources[e];
+                    phi += sigma_i[neighbor] * coefficients[e];
                 }
 
-                phi += neighborValue * propagationCoefficient;
+                sigma_i_plus_1[node] = sigma_0[node] + phi;
             }
-
-            return sigma_0.get(node) + phi;
         }
     },
 
     // Weighted variants for the Fixpoint Formulas
 
-    FORMULA_A_Lambda {
+    FORMULA_A_Lambda(false, true, true, false) {
         @Override
-        public double evaluate(NodePair node, Set<NodePair> neighborNodes, Map<NodePair, Double> sigma_0, Map<NodePair, Double> sigma_i, Graph<NodePair, CoefficientEdge> propagationGraph) {
-
-            double phi = 0;
-
-            for (NodePair neighbor : neighborNodes) {
-                double neighborValue = sigma_i.get(neighbor);
-                double propagationCoefficient;
-
-                try{
-                    propagationCoefficient = propagationGraph.getEdge(neighbor, node).getCoefficient();
-                } catch(Exception e) {
-                    propagationCoefficient = 0.0;
+        void evaluate(CompiledPropagationGraph graph, double[] sigma_0, double[] sigma_i, double[] sigma_i_plus_1, int from, int to) {
+            int[] offsets = graph.getOffsets();
+            int[] sources = graph.getSources();
+            double[] coefficients = graph.getCoefficients();
+            boolean[] constraintSources = graph.getConstraintSources();
+
+            for (int node = from; node < to; node++) {
+                double phi = 0;
+
+                for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                    int neighbor = sources[e];
+                    if (constraintSources[e]) {
+                        phi += LAMBDA_D * coefficients[e] * sigma_i[neighbor];
+                    } else {
+                        phi += LAMBDA_E * coefficients[e] * sigma_i[neighbor];
+                    }
                 }
 
-                if(neighbor.getFirstNode().getNodeType().equals(NodeType.CONSTRAINT) && neighbor.getSecondNode().getNodeType().equals(NodeType.CONSTRAINT)) {
-                    phi += LAMBDA_D * propagationCoefficient * neighborValue;
-                } else {
-                    phi += LAMBDA_E * propagationCoefficient * neighborValue;
-                }
+                sigma_i_plus_1[node] = sigma_0[node] + phi;
             }
-
-            return sigma_0.get(node) + phi;
         }
     },
 
-    FORMULA_B {
+    FORMULA_B(true, false, false, false) {
         @Override
-        public double evaluate(NodePair node, Set<NodePair> neighborNodes, Map<NodePair, Double> sigma_0, Map<NodePair, Double> sigma_i, Graph<NodePair, CoefficientEdge> propagationGraph) {
-
-            double phi = 0;
+        void evaluate(CompiledPropagationGraph graph, double[] sigma_0, double[] sigma_i, double[] sigma_i_plus_1, int from, int to) {
+            int[] offsets = graph.getOffsets();
+            int[] sources = graph.getSources();
+            double[] coefficients = graph.getCoefficients();
 
-            for (NodePair neighbor : neighborNodes) {
-                double neighborValue_0 = sigma_0.get(neighbor);
-                double neighborValue_i = sigma_i.get(neighbor);
-                double propagationCoefficient;
+            for (int node = from; node < to; node++) {
+                double phi = 0;
 
-                try{
-                    propagationCoefficient = propagationGraph.getEdge(neighbor, node).getCoefficient();
-                } catch(Exception e) {
-                    propagationCoefficient = 0.0;
+                for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                    int neighbor = sources[e];
+                    phi += (sigma_0[neighbor] + sigma_i[neighbor]) * coefficients[e];
                 }
 
-                phi += (neighborValue_0 + neighborValue_i) * propagationCoefficient;
+                sigma_i_plus_1[node] = phi;
             }
-
-            return phi;
         }
     },
 
-    FORMULA_B_Lambda {
+    FORMULA_B_Lambda(true, true, false, false) {
         @Override
-        public double evaluate(NodePair node, Set<NodePair> neighborNodes, Map<NodePair, Double> sigma_0, Map<NodePair, Double> sigma_i, Graph<NodePair, CoefficientEdge> propagationGraph) {
-
-            double phi = 0;
-
-            for (NodePair neighbor : neighborNodes) {
-                double neighborValue_0 = sigma_0.get(neighbor);
-                double neighborValue_i = sigma_i.get(neighbor);
-                double propagationCoefficient;
-
-                try{
-                    propagationCoefficient = propagationGraph.getEdge(neighbor, node).getCoefficient();
-                } catch(Exception e) {
-                    propagationCoefficient = 0.0;
+        void evaluate(CompiledPropagationGraph graph, double[] sigma_0, double[] sigma_i, double[] sigma_i_plus_1, int from, int to) {
+            int[] offsets = graph.getOffsets();
+            int[] sources = graph.getSources();
+            double[] coefficients = graph.getCoefficients();
+            boolean[] constraintSources = graph.getConstraintSources();
+
+            for (int node = from; node < to; node++) {
+                double phi = 0;
+
+                for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                    int neighbor = sources[e];
+                    if (constraintSources[e]) {
+                        phi += LAMBDA_D * (sigma_0[neighbor] + sigma_i[neighbor]) * coefficients[e];
+                    } else {
+                        phi += LAMBDA_E * (sigma_0[neighbor] + sigma_i[neighbor]) * coefficients[e];
+                    }
                 }
 
-                if(neighbor.getFirstNode().getNodeType().equals(NodeType.CONSTRAINT) && neighbor.getSecondNode().getNodeType().equals(NodeType.CONSTRAINT)) {
-                    phi += LAMBDA_D * (neighborValue_0 + neighborValue_i) * propagationCoefficient;
-                } else {
-                    phi += LAMBDA_E * (neighborValue_0 + neighborValue_i) * propagationCoefficient;
-                }
+                sigma_i_plus_1[node] = phi;
             }
-
-            return phi;
         }
     },
 
-    FORMULA_C {
+    FORMULA_C(true, false, true, true) {
         @Override
-        public double evaluate(NodePair node, Set<NodePair> neighborNodes, Map<NodePair, Double> sigma_0, Map<NodePair, Double> sigma_i, Graph<NodePair, CoefficientEdge> propagationGraph) {
-
-            double phi = 0;
-
-            for (NodePair neighbor : neighborNodes) {
+        void evaluate(CompiledPropagationGraph graph, double[] sigma_0, double[] sigma_i, double[] sigma_i_plus_1, int from, int to) {
+            int[] offsets = graph.getOffsets();
+            int[] sources = graph.getSources();
+            double[] coefficients = graph.getCoefficients();
 
-                double neighborValue_0 = sigma_0.get(neighbor);
-                double neighborValue_i = sigma_i.get(neighbor);
+            for (int node = from; node < to; node++) {
+                double phi = 0;
 
-                double propagationCoefficient;
-                try {
-                    propagationCoefficient = propagationGraph.getEdge(neighbor, node).getCoefficient();
-                } catch (Exception e) {
-                    propagationCoefficient = 0.0;
+                for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                    int neighbor = sources[e];
+                    phi += (sigma_0[neighbor] + sigma_i[neighbor]) * coefficients[e];
                 }
 
-                phi += (neighborValue_0 + neighborValue_i) * propagationCoefficient;
+                sigma_i_plus_1[node] = sigma_0[node] + sigma_i[node] + phi;
             }
-
-            return sigma_0.get(node) + sigma_i.get(node) + phi;
         }
     },
 
-    FORMULA_C_Lambda {
-
+    FORMULA_C_Lambda(true, true, true, true) {
         @Override
-        public double evaluate(NodePair node, Set<NodePair> neighborNodes, Map<NodePair, Double> sigma_0, Map<NodePair, Double> sigma_i, Graph<NodePair, CoefficientEdge> propagationGraph) {
-
-            double phi = 0;
-
-            for (NodePair neighbor : neighborNodes) {
-                double neighborValue_0 = sigma_0.get(neighbor);
-                double neighborValue_i = sigma_i.get(neighbor);
-                double propagationCoefficient;
-
-                try {
-                    propagationCoefficient = propagationGraph.getEdge(neighbor, node).getCoefficient();
-                } catch (Exception e) {
-                    propagationCoefficient = 0.0;
+        void evaluate(CompiledPropagationGraph graph, double[] sigma_0, double[] sigma_i, double[] sigma_i_plus_1, int from, int to) {
+            int[] offsets = graph.getOffsets();
+            int[] sources = graph.getSources();
+            double[] coefficients = graph.getCoefficients();
+            boolean[] constraintSources = graph.getConstraintSources();
+
+            for (int node = from; node < to; node++) {
+                double phi = 0;
+
+                for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                    int neighbor = sources[e];
+                    if (constraintSources[e]) {
+                        phi += LAMBDA_D * (sigma_0[neighbor] + sigma_i[neighbor]) * coefficients[e];
+                    } else {
+                        phi += LAMBDA_E * (sigma_0[neighbor] + sigma_i[neighbor]) * coefficients[e];
+                    }
                 }
 
-                if(neighbor.getFirstNode().getNodeType().equals(NodeType.CONSTRAINT) && neighbor.getSecondNode().getNodeType().equals(NodeType.CONSTRAINT)) {
-                    phi += LAMBDA_D * (neighborValue_0 + neighborValue_i) * propagationCoefficient;
-                } else {
-                    phi += LAMBDA_E * (neighborValue_0 + neighborValue_i) * propagationCoefficient;
-                }
+                sigma_i_plus_1[node] = sigma_0[node] + sigma_i[node] + phi;
             }
-
-            return sigma_0.get(node) + sigma_i.get(node) + phi;
         }
     };
 
     protected static final double LAMBDA_D = 1.0;
     protected static final double LAMBDA_E = 1.0;
 
-    public double evaluate(NodePair node, Set<NodePair> neighborNodes, Map<NodePair, Double> sigma_0, Map<NodePair, Double> sigma_i, Graph<NodePair, CoefficientEdge> propagationGraph) throws NoSuchMethodException {
-        throw new NoSuchMethodException("Not implemented");
+    // neighbors propagate sigma_0 + sigma_i instead of sigma_i
+    private final boolean propagatesInitial;
+    // propagated values are weighted by LAMBDA_D (constraint neighbors) or LAMBDA_E
+    private final boolean weighted;
+    // the next value of a node starts from its sigma_0 and/or its sigma_i
+    private final boolean keepsInitial;
+    private final boolean keepsCurrent;
+
+    FixpointFormula(boolean propagatesInitial, boolean weighted, boolean keepsInitial, boolean keepsCurrent) {
+        this.propagatesInitial = propagatesInitial;
+        this.weighted = weighted;
+        this.keepsInitial = keepsInitial;
+        this.keepsCurrent = keepsCurrent;
+    }
+
+    abstract void evaluate(CompiledPropagationGraph graph, double[] sigma_0, double[] sigma_i, double[] sigma_i_plus_1, int from, int to);
+
+    /**
+     * Evaluates the formulas at {@code active[0..numActive)} in a single pass over the incoming edges of the nodes
+     * {@code [from, to)}, with the same results as {@link #evaluate} of each formula. The current and next
+     * similarity vectors of all formulas are interleaved: the value of node {@code k} for formula {@code c} is at
+     * {@code k * formulas.length + c}. All formulas share sigma_0.
+     */
+    static void evaluate(CompiledPropagationGraph graph, FixpointFormula[] formulas, int[] active, int numActive,
+                         double[] sigma_0, double[] sigma_i, double[] sigma_i_plus_1, int from, int to) {
+        int[] offsets = graph.getOffsets();
+        int[] sources = graph.getSources();
+        double[] coefficients = graph.getCoefficients();
+        boolean[] constraintSources = graph.getConstraintSources();
+        int numFormulas = formulas.length;
+        double[] phi = new double[numFormulas];
+
+        for (int node = from; node < to; node++) {
+            for (int a = 0; a < numActive; a++) {
+                phi[active[a]] = 0;
+            }
+
+            for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                int neighbor = sources[e];
+                double coefficient = coefficients[e];
+                double lambda = constraintSources[e] ? LAMBDA_D : LAMBDA_E;
+                for (int a = 0; a < numActive; a++) {
+                    int c = active[a];
+                    FixpointFormula formula = formulas[c];
+                    double value = sigma_i[neighbor * numFormulas + c];
+                    if (formula.propagatesInitial) {
+                        value = sigma_0[neighbor] + value;
+                        phi[c] += formula.weighted ? lambda * value * coefficient : value * coefficient;
+                    } else {
+                        phi[c] += formula.weighted ? lambda * coefficient * value : value * coefficient;
+                    }
+                }
+            }
+
+            for (int a = 0; a < numActive; a++) {
+                int c = active[a];
+                FixpointFormula formula = formulas[c];
+                int k = node * numFormulas + c;
+                if (formula.keepsInitial && formula.keepsCurrent) {
+                    sigma_i_plus_1[k] = sigma_0[node] + sigma_i[k] + phi[c];
+                } else if (formula.keepsInitial) {
+                    sigma_i_plus_1[k] = sigma_0[node] + phi[c];
+                } else if (formula.keepsCurrent) {
+                    sigma_i_plus_1[k] = sigma_i[k] + phi[c];
+                } else {
+                    sigma_i_plus_1[k] = phi[c];
+                }
+            }
+        }
     }
 
 }
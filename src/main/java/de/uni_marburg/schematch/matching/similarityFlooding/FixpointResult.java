@@ -0,0 +1,50 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import lombok.Getter;
+
+/**
+ * Result of a fixpoint computation: the similarity per node of the compiled propagation graph, why the computation
+ * stopped and the residual of every iteration.
+ */
+@Getter
+class FixpointResult {
+
+    enum StopReason {
+        CONVERGED,
+        MAX_ITERATIONS,
+        TIME_BUDGET
+    }
+
+    private final double[] sigma;
+    private final StopReason stopReason;
+    // residual between the similarities before and after each iteration
+    private final double[] residuals;
+    private final FixpointAcceleration acceleration;
+    // true if the acceleration diverged and the computation continued with plain iterations
+    private final boolean fellBack;
+
+    FixpointResult(double[] sigma, StopReason stopReason, double[] residuals, FixpointAcceleration acceleration, boolean fellBack) {
+        this.sigma = sigma;
+        this.stopReason = stopReason;
+        this.residuals = residuals;
+        this.acceleration = acceleration;
+        this.fellBack = fellBack;
+    }
+
+    int getNumIterations() {
+        return this.residuals.length;
+    }
+
+    double getFinalResidual() {
+        return this.residuals.length == 0 ? Double.NaN : this.residuals[this.residuals.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        String result = this.stopReason + " after " + getNumIterations() + " iterations, residual " + getFinalResidual();
+        if (this.acceleration != FixpointAcceleration.NONE) {
+            result += ", acceleration " + this.acceleration + (this.fellBack ? " (fell back to plain iterations)" : "");
+        }
+        return result;
+    }
+}
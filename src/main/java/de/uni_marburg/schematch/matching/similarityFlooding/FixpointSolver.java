@@ -0,0 +1,227 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static de.uni_marburg.schematch.matching.similarityFlooding.SimilarityFloodingUtils.getMaxValue;
+import static de.uni_marburg.schematch.matching.similarityFlooding.SimilarityFloodingUtils.normalizeAndSumResiduals;
+
+/**
+ * Fixpoint computation of one formula on a compiled propagation graph. Every iteration computes the next similarity
+ * vector, normalizes it by its maximum and stops once the residual between two iterations falls below the precision
+ * of convergence. Plain iterations are computed in blocks of nodes and do not depend on the number of threads.
+ * An accelerated computation that diverges (the residual is not finite or has not improved for several iterations)
+ * restarts from the iterate with the lowest residual so far and continues with plain iterations.
+ */
+class FixpointSolver {
+    private static final Logger log = LogManager.getLogger(FixpointSolver.class);
+
+    // number of iterations without a new lowest residual after which an acceleration counts as diverged
+    private static final int DIVERGENCE_PATIENCE = 5;
+
+    private final CompiledPropagationGraph graph;
+    private final FixpointFormula formula;
+    private final ForkJoinPool pool;
+    private final int numNodes;
+    private final int numBlocks;
+    private final double[] sigma_0;
+    private double[] sigma_i;
+    private double[] sigma_i_plus_1;
+    private final double[] blockMaxValues;
+    private final double[] blockResiduals;
+    // factor the last iteration was normalized by
+    private double maxValue = 1.0;
+
+    /**
+     * @param pool Pool the blocks of each iteration are computed in, null to compute them on the calling thread
+     */
+    FixpointSolver(CompiledPropagationGraph graph, FixpointFormula formula, ForkJoinPool pool) {
+        this.graph = graph;
+        this.formula = formula;
+        this.pool = pool;
+        this.numNodes = graph.getNumNodes();
+        this.numBlocks = graph.getNumBlocks();
+        this.sigma_0 = graph.getInitialSigma();
+        this.blockMaxValues = new double[this.numBlocks];
+        this.blockResiduals = new double[this.numBlocks];
+    }
+
+    /**
+     * @param maxIterations Number of iterations after the first one at which the computation stops without convergence
+     * @param timeBudgetMillis Wall-clock time after which the computation stops without convergence, 0 for no limit.
+     *                         Results of computations stopped by it depend on the speed of the machine.
+     */
+    FixpointResult solve(FixpointAcceleration acceleration, int maxIterations, long timeBudgetMillis) {
+        long deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE;
+
+        //Termination conditions
+        boolean convergence = false;
+        boolean timeout = false;
+        int iterationCount = 0;
+        double[] residuals = new double[Math.min(maxIterations, 255) + 1];
+
+        this.sigma_i = this.sigma_0.clone();
+        this.sigma_i_plus_1 = new double[this.numNodes];
+
+        FixpointAcceleration currentAcceleration = acceleration;
+        boolean fellBack = false;
+        //Iterate with the lowest residual so far and the number of iterations since it
+        double[] checkpoint = acceleration == FixpointAcceleration.NONE ? null : this.sigma_i.clone();
+        double lowestResidual = Double.POSITIVE_INFINITY;
+        int numIterationsWithoutImprovement = 0;
+        //Iterates since the last extrapolation
+        double[][] iterates = acceleration == FixpointAcceleration.AITKEN ? new double[3][] : null;
+        int numIterates = 0;
+
+        while (!convergence && !timeout && iterationCount <= maxIterations) {
+            //The first iteration is always a plain one, it provides the normalization factor in-place iterations start with
+            double residual = currentAcceleration == FixpointAcceleration.GAUSS_SEIDEL && iterationCount > 0 ?
+                    gaussSeidelIteration() : jacobiIteration();
+            if (iterationCount == residuals.length) {
+                residuals = Arrays.copyOf(residuals, 2 * residuals.length);
+            }
+            residuals[iterationCount] = residual;
+            convergence = residual < SimilarityFlooding.PRECISION_OF_CONVERGENCE;
+            iterationCount++;
+
+            if (currentAcceleration != FixpointAcceleration.NONE && !convergence) {
+                if (residual < lowestResidual) {
+                    lowestResidual = residual;
+                    numIterationsWithoutImprovement = 0;
+                    System.arraycopy(this.sigma_i, 0, checkpoint, 0, this.numNodes);
+                } else {
+                    numIterationsWithoutImprovement++;
+                }
+
+                if (!Double.isFinite(residual) || numIterationsWithoutImprovement >= DIVERGENCE_PATIENCE) {
+                    log.debug("{} diverged after {} iterations, continuing with plain iterations", currentAcceleration, iterationCount);
+                    System.arraycopy(checkpoint, 0, this.sigma_i, 0, this.numNodes);
+                    currentAcceleration = FixpointAcceleration.NONE;
+                    fellBack = true;
+                } else if (currentAcceleration == FixpointAcceleration.AITKEN) {
+                    if (iterates[numIterates] == null) {
+                        iterates[numIterates] = new double[this.numNodes];
+                    }
+                    System.arraycopy(this.sigma_i, 0, iterates[numIterates++], 0, this.numNodes);
+                    if (numIterates == 3) {
+                        extrapolate(iterates[0], iterates[1], iterates[2], this.sigma_i);
+                        //The extrapolated iterate is the first of the next three
+                        System.arraycopy(this.sigma_i, 0, iterates[0], 0, this.numNodes);
+                        numIterates = 1;
+                    }
+                }
+            }
+
+            timeout = System.nanoTime() >= deadline;
+        }
+
+        FixpointResult.StopReason stopReason = convergence ? FixpointResult.StopReason.CONVERGED :
+                timeout ? FixpointResult.StopReason.TIME_BUDGET : FixpointResult.StopReason.MAX_ITERATIONS;
+        FixpointResult result = new FixpointResult(this.sigma_i, stopReason, Arrays.copyOf(residuals, iterationCount), acceleration, fellBack);
+        log.info("Ran {} Iterations for {} Nodes ({})", result.getNumIterations(), this.numNodes, result);
+        log.debug("Residuals: {}", Arrays.toString(result.getResiduals()));
+        return result;
+    }
+
+    /**
+     * Plain iteration: all nodes are computed from sigma_i, nodes are processed in blocks of fixed size and partial
+     * results are combined in block order
+     * @return Residual between sigma_i before and after the iteration
+     */
+    private double jacobiIteration() {
+        double[] sigma_current = this.sigma_i;
+        double[] sigma_next = this.sigma_i_plus_1;
+        int[] residualOrder = this.graph.getResidualOrder();
+
+        //Neue Werte für alle Nodes auf Basis der Nachbarn berechnen und MaxWert je Block speichern
+        SimilarityFlooding.forEachBlock(this.pool, this.numBlocks, block -> {
+            int from = block * CompiledPropagationGraph.BLOCK_SIZE;
+            int to = Math.min(from + CompiledPropagationGraph.BLOCK_SIZE, this.numNodes);
+            this.formula.evaluate(this.graph, this.sigma_0, sigma_current, sigma_next, from, to);
+            this.blockMaxValues[block] = getMaxValue(sigma_next, from, to);
+        });
+
+        double maxValueCurrentIteration = Double.MIN_VALUE;
+        for (double blockMaxValue : this.blockMaxValues) {
+            if (blockMaxValue > maxValueCurrentIteration) {
+                maxValueCurrentIteration = blockMaxValue;
+            }
+        }
+
+        //Normalisieren für die aktuelle Iteration und Residuum(sigma_i, sigma_i+1) je Block berechnen
+        double maxValue = maxValueCurrentIteration;
+        SimilarityFlooding.forEachBlock(this.pool, this.numBlocks, block -> {
+            int from = block * CompiledPropagationGraph.BLOCK_SIZE;
+            int to = Math.min(from + CompiledPropagationGraph.BLOCK_SIZE, this.numNodes);
+            this.blockResiduals[block] = normalizeAndSumResiduals(sigma_current, sigma_next, maxValue, residualOrder, from, to);
+        });
+
+        double residualSum = 0;
+        for (double blockResidual : this.blockResiduals) {
+            residualSum = residualSum + blockResidual;
+        }
+
+        //sigma_i+1 wird in der nächsten Iteration vollständig überschrieben
+        this.sigma_i = sigma_next;
+        this.sigma_i_plus_1 = sigma_current;
+        this.maxValue = maxValue;
+        return Math.sqrt(residualSum);
+    }
+
+    /**
+     * In-place iteration: nodes are computed one after another from the values of the nodes computed before them.
+     * Computed values are scaled by the normalization factor of the previous iteration, so they are comparable to
+     * the values not computed yet, and the whole vector is normalized at the end of the iteration.
+     * @return Residual between sigma_i before and after the iteration
+     */
+    private double gaussSeidelIteration() {
+        double[] sigma_current = this.sigma_i;
+        double[] sigma_next = this.sigma_i_plus_1;
+        System.arraycopy(sigma_current, 0, sigma_next, 0, this.numNodes);
+
+        double scale = this.maxValue;
+        for (int node = 0; node < this.numNodes; node++) {
+            this.formula.evaluate(this.graph, this.sigma_0, sigma_next, sigma_next, node, node + 1);
+            sigma_next[node] = sigma_next[node] / scale;
+        }
+
+        double maxValue = getMaxValue(sigma_next, 0, this.numNodes);
+        double residualSum = normalizeAndSumResiduals(sigma_current, sigma_next, maxValue, this.graph.getResidualOrder(), 0, this.numNodes);
+
+        this.sigma_i = sigma_next;
+        this.sigma_i_plus_1 = sigma_current;
+        this.maxValue = scale * maxValue;
+        return Math.sqrt(residualSum);
+    }
+
+    /**
+     * Extrapolates three consecutive iterates componentwise with Aitken's delta-squared process and normalizes the
+     * result. Only components that converge monotonically (both differences have the same sign and the second one is
+     * smaller) are extrapolated, all others keep their last value.
+     */
+    private static void extrapolate(double[] x0, double[] x1, double[] x2, double[] target) {
+        double maxValue = Double.MIN_VALUE;
+        for (int node = 0; node < target.length; node++) {
+            double delta1 = x1[node] - x0[node];
+            double delta2 = x2[node] - x1[node];
+            double value = x2[node];
+            double ratio = delta2 / delta1;
+            if (ratio > 0 && ratio < 1) {
+                double extrapolated = x2[node] + delta2 * ratio / (1 - ratio);
+                if (extrapolated >= 0) {
+                    value = extrapolated;
+                }
+            }
+            target[node] = value;
+            if (value > maxValue) {
+                maxValue = value;
+            }
+        }
+        for (int node = 0; node < target.length; node++) {
+            target[node] = target[node] / maxValue;
+        }
+    }
+}
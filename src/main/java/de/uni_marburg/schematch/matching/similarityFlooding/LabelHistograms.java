@@ -0,0 +1,71 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import org.jgrapht.Graph;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Number of incoming and outgoing edges per label for every node of the two schema graphs of a match, computed once
+ * so propagation coefficients are array lookups. Labels of both graphs are interned to the same small ints.
+ */
+class LabelHistograms {
+    private final Map<String, Integer> labelIds = new HashMap<>();
+    private final Map<Node, int[]> incomingGraph1;
+    private final Map<Node, int[]> outgoingGraph1;
+    private final Map<Node, int[]> incomingGraph2;
+    private final Map<Node, int[]> outgoingGraph2;
+    private final int[] noEdges;
+
+    LabelHistograms(Graph<Node, LabelEdge> graph1, Graph<Node, LabelEdge> graph2) {
+        for (Graph<Node, LabelEdge> graph : List.of(graph1, graph2)) {
+            for (LabelEdge edge : graph.edgeSet()) {
+                this.labelIds.putIfAbsent(edge.getLabel(), this.labelIds.size());
+            }
+        }
+        this.noEdges = new int[this.labelIds.size()];
+
+        this.incomingGraph1 = new HashMap<>();
+        this.outgoingGraph1 = new HashMap<>();
+        countLabels(graph1, this.incomingGraph1, this.outgoingGraph1);
+        this.incomingGraph2 = new HashMap<>();
+        this.outgoingGraph2 = new HashMap<>();
+        countLabels(graph2, this.incomingGraph2, this.outgoingGraph2);
+    }
+
+    private void countLabels(Graph<Node, LabelEdge> graph, Map<Node, int[]> incoming, Map<Node, int[]> outgoing) {
+        int numLabels = this.labelIds.size();
+        for (LabelEdge edge : graph.edgeSet()) {
+            int labelId = this.labelIds.get(edge.getLabel());
+            incoming.computeIfAbsent(graph.getEdgeTarget(edge), node -> new int[numLabels])[labelId] += 1;
+            outgoing.computeIfAbsent(graph.getEdgeSource(edge), node -> new int[numLabels])[labelId] += 1;
+        }
+    }
+
+    /**
+     * @return Id of the label or -1 if no edge of the schema graphs has this label
+     */
+    int getLabelId(String label) {
+        return this.labelIds.getOrDefault(label, -1);
+    }
+
+    /**
+     * @return Number of incoming edges of the node of graph1 per label id
+     */
+    int[] getIncomingGraph1(Node node) {
+        return this.incomingGraph1.getOrDefault(node, this.noEdges);
+    }
+
+    int[] getOutgoingGraph1(Node node) {
+        return this.outgoingGraph1.getOrDefault(node, this.noEdges);
+    }
+
+    int[] getIncomingGraph2(Node node) {
+        return this.incomingGraph2.getOrDefault(node, this.noEdges);
+    }
+
+    int[] getOutgoingGraph2(Node node) {
+        return this.outgoingGraph2.getOrDefault(node, this.noEdges);
+    }
+}
@@ -0,0 +1,85 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from non-negative long keys to int values, used to intern node pairs and edges of the
+ * primitive graphs without boxing.
+ */
+class LongIntMap {
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private int[] values;
+    private int size = 0;
+
+    LongIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        Arrays.fill(this.keys, EMPTY);
+        this.values = new int[capacity];
+    }
+
+    /**
+     * @return Value of the key or missingValue if the map does not contain the key
+     */
+    int get(long key, int missingValue) {
+        int mask = this.keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (this.keys[slot] == key) {
+                return this.values[slot];
+            }
+            if (this.keys[slot] == EMPTY) {
+                return missingValue;
+            }
+        }
+    }
+
+    /**
+     * @return Value of the key, the key is added with the given value if the map does not contain it yet
+     */
+    int putIfAbsent(long key, int value) {
+        int mask = this.keys.length - 1;
+        int slot = hash(key) & mask;
+        while (this.keys[slot] != EMPTY) {
+            if (this.keys[slot] == key) {
+                return this.values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        if (++this.size * 2 > this.keys.length) {
+            grow();
+        }
+        return value;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    private void grow() {
+        long[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        this.keys = new long[oldKeys.length * 2];
+        Arrays.fill(this.keys, EMPTY);
+        this.values = new int[oldValues.length * 2];
+        int mask = this.keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (this.keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
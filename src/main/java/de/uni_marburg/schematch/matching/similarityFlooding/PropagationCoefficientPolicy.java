@@ -1,99 +1,58 @@
 package de.uni_marburg.schematch.matching.similarityFlooding;
 
-import org.jgrapht.Graph;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.function.BinaryOperator;
-
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Policies for the propagation coefficient of an edge of the propagation graph. A coefficient is computed from the
+ * number of edges with the edge's label at the node of graph1 and at the node of graph2 (both either incoming or
+ * outgoing), a count of 0 means the node has no such edges.
+ */
 public enum PropagationCoefficientPolicy {
 
     INVERSE_AVERAGE {
         @Override
-        public List<Map<String, Double>> evaluate(Node nodeGraph1, Node nodeGraph2, Graph<Node, LabelEdge> graph1, Graph<Node, LabelEdge> graph2) throws NoSuchMethodException {
-
-            // Count incoming and outgoing labels for nodes in each graph
-            Map<String, Double> countInLabelsGraph1 = countLabels(graph1, nodeGraph1, true);
-            Map<String, Double> countOutLabelsGraph1 = countLabels(graph1, nodeGraph1, false);
-            Map<String, Double> countInLabelsGraph2 = countLabels(graph2, nodeGraph2, true);
-            Map<String, Double> countOutLabelsGraph2 = countLabels(graph2, nodeGraph2, false);
-
-            // Combine counts from both graphs
-            BinaryOperator<Double> sumMergeFunction = Double::sum;
-            Map<String, Double> countInLabelsTotal = mergeMaps(countInLabelsGraph1, countInLabelsGraph2, sumMergeFunction);
-            Map<String, Double> countOutLabelsTotal = mergeMaps(countOutLabelsGraph1, countOutLabelsGraph2, sumMergeFunction);
-
-            // Inverse label values
-            invertMapValues(countInLabelsTotal, 2.0);
-            invertMapValues(countOutLabelsTotal, 2.0);
-
-            return List.of(countInLabelsTotal, countOutLabelsTotal);
+        public double evaluate(int labelCountGraph1, int labelCountGraph2) {
+            // Combine counts from both graphs and inverse them
+            return invert(2.0, (double) labelCountGraph1 + labelCountGraph2);
         }
     },
 
     INVERSE_PRODUCT {
         @Override
-        public List<Map<String, Double>> evaluate(Node nodeGraph1, Node nodeGraph2, Graph<Node, LabelEdge> graph1, Graph<Node, LabelEdge> graph2) throws NoSuchMethodException {
-
-            // Count incoming and outgoing labels for nodes in each graph
-            Map<String, Double> countInLabelsGraph1 = countLabels(graph1, nodeGraph1, true);
-            Map<String, Double> countOutLabelsGraph1 = countLabels(graph1, nodeGraph1, false);
-            Map<String, Double> countInLabelsGraph2 = countLabels(graph2, nodeGraph2, true);
-            Map<String, Double> countOutLabelsGraph2 = countLabels(graph2, nodeGraph2, false);
-
-            // Combine counts from both graphs
-            BinaryOperator<Double> productMergeFunction = (a, b) -> a * b;
-            Map<String, Double> countInLabelsTotal = mergeMaps(countInLabelsGraph1, countInLabelsGraph2, productMergeFunction);
-            Map<String, Double> countOutLabelsTotal = mergeMaps(countOutLabelsGraph1, countOutLabelsGraph2, productMergeFunction);
-
-            // Inverse label values
-            invertMapValues(countInLabelsTotal, 1.0);
-            invertMapValues(countOutLabelsTotal, 1.0);
-
-            return List.of(countInLabelsTotal, countOutLabelsTotal);
+        public double evaluate(int labelCountGraph1, int labelCountGraph2) {
+            // Combine counts from both graphs (a label of only one node keeps its count) and inverse them
+            double labelCountTotal;
+            if (labelCountGraph1 == 0) {
+                labelCountTotal = labelCountGraph2;
+            } else if (labelCountGraph2 == 0) {
+                labelCountTotal = labelCountGraph1;
+            } else {
+                labelCountTotal = (double) labelCountGraph1 * labelCountGraph2;
+            }
+            return invert(1.0, labelCountTotal);
         }
     },
 
     CONSTANT_ONE {
         @Override
-        public List<Map<String, Double>> evaluate(Node nodeGraph1, Node nodeGraph2, Graph<Node, LabelEdge> graph1, Graph<Node, LabelEdge> graph2) throws NoSuchMethodException {
-            return new ArrayList<>();
+        public double evaluate(int labelCountGraph1, int labelCountGraph2) {
+            return 1.0;
         }
     };
 
-    public List<Map<String, Double>> evaluate(Node nodeGraph1, Node nodeGraph2, Graph<Node, LabelEdge> graph1, Graph<Node, LabelEdge> graph2) throws NoSuchMethodException {
-        throw new NoSuchMethodException("Not Implemented");
-    }
-
-    // Method to count either incoming or outgoing labels
-    private static Map<String, Double> countLabels(Graph<Node, LabelEdge> graph, Node node, boolean incoming) {
-        Map<String, Double> labelCount = new HashMap<>();
-        for (LabelEdge edge : incoming ? graph.incomingEdgesOf(node) : graph.outgoingEdgesOf(node)) {
-            String label = edge.getLabel();
-            labelCount.put(label, labelCount.getOrDefault(label, 0.0) + 1);
-        }
-        return labelCount;
-    }
+    private static final Logger log = LogManager.getLogger(PropagationCoefficientPolicy.class);
 
-    // Method to merge two maps with a specified merge function
-    private static Map<String, Double> mergeMaps(Map<String, Double> map1, Map<String, Double> map2, BinaryOperator<Double> mergeFunction) {
-        Map<String, Double> mergedMap = new HashMap<>(map1);
-        map2.forEach((key, value) -> mergedMap.merge(key, value, mergeFunction));
-        return mergedMap;
-    }
+    public abstract double evaluate(int labelCountGraph1, int labelCountGraph2);
 
-    // Method to invert values in a map, with error handling for division by zero
-    private static void invertMapValues(Map<String, Double> map, double numerator) {
-        map.replaceAll((key, value) -> {
-            if (value != 0.0) {
-                return numerator / value;
-            } else {
-                System.out.println("Warning: Division by zero for key " + key);
-                return 0.0;
-            }
-        });
+    // Method to invert a label count, with error handling for division by zero
+    private static double invert(double numerator, double labelCount) {
+        if (labelCount != 0.0) {
+            return numerator / labelCount;
+        } else {
+            log.warn("Division by zero for label count");
+            return 0.0;
+        }
     }
 
 }
@@ -0,0 +1,119 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import de.uni_marburg.schematch.data.RowSampling;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * Graphs built by {@link SimilarityFlooding} for one scenario. Only the propagation coefficient policy, the
+ * dependency filters and the candidate column pairs (which the candidate pruning selects from the similarities of the
+ * first line matcher) change the structure of the graphs, so configurations differing in the fixpoint formula only
+ * rerun the fixpoint computation on the same graphs. The cache keeps the graphs of the most
+ * recently used keys only, as every policy and filter threshold yields graphs of their own.
+ */
+public class PropagationGraphCache {
+    private static final Logger log = LogManager.getLogger(PropagationGraphCache.class);
+
+    /**
+     * @param candidateRows Candidate column pairs per source column, null without candidate pruning
+     */
+    record Key(PropagationCoefficientPolicy policy, String uccFilterThreshold, String indFilterThreshold,
+               String fdFilterThreshold, RowSampling rowSampling, CandidatePruning pruning, List<BitSet> candidateRows) {
+
+        // bit sets compare by value, unlike the rows of the candidate matrix
+        static List<BitSet> toCandidateRows(boolean[][] candidates) {
+            if (candidates == null) {
+                return null;
+            }
+            List<BitSet> candidateRows = new ArrayList<>(candidates.length);
+            for (boolean[] row : candidates) {
+                BitSet candidateRow = new BitSet(row.length);
+                for (int j = 0; j < row.length; j++) {
+                    candidateRow.set(j, row[j]);
+                }
+                candidateRows.add(candidateRow);
+            }
+            return candidateRows;
+        }
+    }
+
+    record Graphs(ConnectivityGraph connectivityGraph, CompiledPropagationGraph propagationGraph) {
+    }
+
+    public static final int DEFAULT_MAX_ENTRIES = 4;
+
+    // graphs in access order, built outside the lock
+    private final LinkedHashMap<Key, FutureTask<Graphs>> graphs;
+
+    public PropagationGraphCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries Maximum number of keys whose graphs are kept, least recently used ones are evicted first
+     */
+    public PropagationGraphCache(int maxEntries) {
+        this.graphs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, FutureTask<Graphs>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param builder Builds the graphs if there are none for the key yet, concurrent calls for the same key wait
+     *                for it instead of building them again
+     */
+    Graphs get(Key key, Supplier<Graphs> builder) {
+        FutureTask<Graphs> task;
+        boolean build = false;
+        synchronized (this.graphs) {
+            task = this.graphs.get(key);
+            if (task == null) {
+                task = new FutureTask<>(() -> {
+                    log.debug("Building similarity flooding graphs for {}", key);
+                    return builder.get();
+                });
+                this.graphs.put(key, task);
+                build = true;
+            }
+        }
+        if (build) {
+            task.run();
+        }
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            //Failed builds are not cached
+            synchronized (this.graphs) {
+                this.graphs.remove(key, task);
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    public int size() {
+        synchronized (this.graphs) {
+            return this.graphs.size();
+        }
+    }
+}
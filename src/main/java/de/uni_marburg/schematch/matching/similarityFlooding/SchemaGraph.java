@@ -0,0 +1,80 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import de.uni_marburg.schematch.data.Column;
+import lombok.Getter;
+import org.jgrapht.Graph;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Schema graph frozen into primitive arrays: nodes are interned to ints (in vertex order of the graph it was built
+ * from), labels to the ids of a label dictionary shared by the schema graphs of a match, and edges are stored as
+ * parallel arrays (in edge order of the graph it was built from).
+ */
+@Getter
+class SchemaGraph {
+    private final Node[] nodes;
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final int[] edgeLabels;
+    // index of the represented column in the similarity matrix for column name and column id nodes, -1 otherwise
+    private final int[] columnIndices;
+
+    /**
+     * @param labelIds Label dictionary, labels that are not part of it yet are added
+     */
+    SchemaGraph(Graph<Node, LabelEdge> graph, Map<String, Integer> labelIds) {
+        Map<Node, Integer> nodeIds = new HashMap<>();
+        this.nodes = graph.vertexSet().toArray(new Node[0]);
+        this.columnIndices = new int[this.nodes.length];
+        for (int node = 0; node < this.nodes.length; node++) {
+            nodeIds.put(this.nodes[node], node);
+            this.columnIndices[node] = getColumnIndex(this.nodes[node]);
+        }
+
+        int numEdges = graph.edgeSet().size();
+        this.edgeSources = new int[numEdges];
+        this.edgeTargets = new int[numEdges];
+        this.edgeLabels = new int[numEdges];
+        int edge = 0;
+        for (LabelEdge labelEdge : graph.edgeSet()) {
+            this.edgeSources[edge] = nodeIds.get(graph.getEdgeSource(labelEdge));
+            this.edgeTargets[edge] = nodeIds.get(graph.getEdgeTarget(labelEdge));
+            this.edgeLabels[edge] = labelIds.computeIfAbsent(labelEdge.getLabel(), label -> labelIds.size());
+            edge++;
+        }
+    }
+
+    private static int getColumnIndex(Node node) {
+        if (node.getNodeType() != NodeType.COLUMN) {
+            return -1;
+        }
+        Node nameNode = node.isIDNode() ? node.getNameNode() : node;
+        Column column = nameNode == null ? null : nameNode.getRepresentedColumn();
+        if (column == null) {
+            return -1;
+        }
+        return column.getTable().getOffset() + column.getTable().getColumnIndex(column);
+    }
+
+    int getNumNodes() {
+        return this.nodes.length;
+    }
+
+    int getNumEdges() {
+        return this.edgeSources.length;
+    }
+
+    /**
+     * @return Number of incoming (or outgoing) edges per node and label at {@code node * numLabels + label}
+     */
+    int[] countLabels(boolean incoming, int numLabels) {
+        int[] labelCounts = new int[this.nodes.length * numLabels];
+        int[] nodesOfEdges = incoming ? this.edgeTargets : this.edgeSources;
+        for (int edge = 0; edge < nodesOfEdges.length; edge++) {
+            labelCounts[nodesOfEdges[edge] * numLabels + this.edgeLabels[edge]] += 1;
+        }
+        return labelCounts;
+    }
+}
@@ -2,6 +2,7 @@ package de.uni_marburg.schematch.matching.similarityFlooding;
 
 import de.uni_marburg.schematch.data.Column;
 import de.uni_marburg.schematch.data.Database;
+import de.uni_marburg.schematch.data.RowSampling;
 import de.uni_marburg.schematch.data.Table;
 import de.uni_marburg.schematch.data.metadata.dependency.FunctionalDependency;
 import de.uni_marburg.schematch.data.metadata.dependency.InclusionDependency;
@@ -11,43 +12,93 @@ import org.apache.logging.log4j.Logger;
 import org.jgrapht.Graph;
 import org.jgrapht.graph.DefaultDirectedWeightedGraph;
 import java.util.*;
+import java.util.function.Supplier;
 
 class SchemaGraphBuilder {
     private static final Logger log = LogManager.getLogger(SchemaGraphBuilder.class);
+    // number of joined edge pairs from which the label partitions of the connectivity graph are joined in parallel
+    private static final long PARALLEL_JOIN_THRESHOLD = 100_000;
     private final DependencyFilter dependencyFilter;
 
-    SchemaGraphBuilder(String uccFilterThreshold, String indFilterThreshold, String fdFilterThreshold) {
-        this.dependencyFilter = new DependencyFilter(uccFilterThreshold, indFilterThreshold, fdFilterThreshold);
+    SchemaGraphBuilder(String uccFilterThreshold, String indFilterThreshold, String fdFilterThreshold, RowSampling sampling) {
+        this.dependencyFilter = new DependencyFilter(uccFilterThreshold, indFilterThreshold, fdFilterThreshold, sampling);
     }
 
     static Graph<NodePair, LabelEdge> createConnectivityGraph(Graph<Node, LabelEdge> graph1, Graph<Node, LabelEdge> graph2) {
+        return createConnectivityGraph(graph1, graph2, PARALLEL_JOIN_THRESHOLD);
+    }
 
-        Graph<NodePair, LabelEdge> connectivityGraph = new DefaultDirectedWeightedGraph<>(LabelEdge.class);
+    /**
+     * @param parallelJoinThreshold Number of joined edge pairs from which the label partitions are joined in parallel
+     */
+    static Graph<NodePair, LabelEdge> createConnectivityGraph(Graph<Node, LabelEdge> graph1, Graph<Node, LabelEdge> graph2, long parallelJoinThreshold) {
 
-        for (LabelEdge label1 : graph1.edgeSet()) {
-            for (LabelEdge label2 : graph2.edgeSet()) {
-                if (label1 != label2 && label1.equals(label2)) {
+        Graph<NodePair, LabelEdge> connectivityGraph = new DefaultDirectedWeightedGraph<>(LabelEdge.class);
 
-                    Node sourceVertex1 = graph1.getEdgeSource(label1);
-                    Node targetVertex1 = graph1.getEdgeTarget(label1);
+        //Only edges with equal labels are connected, so edges are joined within their label partition
+        Map<String, List<LabelEdge>> edgesByLabel2 = new HashMap<>();
+        for (LabelEdge label2 : graph2.edgeSet()) {
+            edgesByLabel2.computeIfAbsent(label2.getLabel(), label -> new ArrayList<>()).add(label2);
+        }
 
-                    Node sourceVertex2 = graph2.getEdgeSource(label2);
-                    Node targetVertex2 = graph2.getEdgeTarget(label2);
+        List<LabelEdge> edges1 = new ArrayList<>(graph1.edgeSet());
+        Map<String, List<Integer>> partitions1 = new HashMap<>();
+        long numJoinedEdges = 0;
+        for (int i = 0; i < edges1.size(); i++) {
+            List<LabelEdge> partition2 = edgesByLabel2.get(edges1.get(i).getLabel());
+            if (partition2 != null) {
+                partitions1.computeIfAbsent(edges1.get(i).getLabel(), label -> new ArrayList<>()).add(i);
+                numJoinedEdges += partition2.size();
+            }
+        }
 
-                    NodePair connectedSourceNode = new NodePair(sourceVertex1, sourceVertex2);
-                    NodePair connectedTargetNode = new NodePair(targetVertex1, targetVertex2);
+        //Connected node pairs per edge of graph1, so they are added in the same order for any partitioning
+        NodePair[][] connectedNodes = new NodePair[edges1.size()][];
+        (numJoinedEdges > parallelJoinThreshold ? partitions1.values().parallelStream() : partitions1.values().stream())
+                .forEach(partition1 -> {
+                    for (int i : partition1) {
+                        LabelEdge label1 = edges1.get(i);
+                        connectedNodes[i] = joinEdge(label1, edgesByLabel2.get(label1.getLabel()), graph1, graph2);
+                    }
+                });
+
+        for (int i = 0; i < edges1.size(); i++) {
+            if (connectedNodes[i] == null) {
+                continue;
+            }
+            for (int j = 0; j < connectedNodes[i].length; j += 2) {
+                NodePair connectedSourceNode = connectedNodes[i][j];
+                NodePair connectedTargetNode = connectedNodes[i][j + 1];
 
-                    connectivityGraph.addVertex(connectedSourceNode);
-                    connectivityGraph.addVertex(connectedTargetNode);
+                connectivityGraph.addVertex(connectedSourceNode);
+                connectivityGraph.addVertex(connectedTargetNode);
 
-                    connectivityGraph.addEdge(connectedSourceNode, connectedTargetNode, new LabelEdge(label1.getLabel()));
-                }
+                connectivityGraph.addEdge(connectedSourceNode, connectedTargetNode, new LabelEdge(edges1.get(i).getLabel()));
             }
         }
 
         return connectivityGraph;
     }
 
+    /**
+     * @return Source and target node pair of each edge of the connectivity graph induced by label1 and the edges of
+     * graph2 with the same label, alternating
+     */
+    private static NodePair[] joinEdge(LabelEdge label1, List<LabelEdge> partition2, Graph<Node, LabelEdge> graph1, Graph<Node, LabelEdge> graph2) {
+        Node sourceVertex1 = graph1.getEdgeSource(label1);
+        Node targetVertex1 = graph1.getEdgeTarget(label1);
+
+        NodePair[] connectedNodes = new NodePair[2 * partition2.size()];
+        int j = 0;
+        for (LabelEdge label2 : partition2) {
+            if (label1 != label2) {
+                connectedNodes[j++] = new NodePair(sourceVertex1, graph2.getEdgeSource(label2));
+                connectedNodes[j++] = new NodePair(targetVertex1, graph2.getEdgeTarget(label2));
+            }
+        }
+        return j == connectedNodes.length ? connectedNodes : Arrays.copyOf(connectedNodes, j);
+    }
+
     static Graph<NodePair, CoefficientEdge> inducePropagationGraph
             (Graph<NodePair, LabelEdge> connectivityGraph, Graph<Node, LabelEdge> graph1, Graph<Node, LabelEdge> graph2, PropagationCoefficientPolicy policy) {
 
@@ -57,65 +108,86 @@ class SchemaGraphBuilder {
             propagationGraph.addVertex(nodePair);
         }
 
-        for (NodePair nodePair : connectivityGraph.vertexSet()) {
-
-            Node nodeGraph1 = nodePair.getFirstNode();
-            Node nodeGraph2 = nodePair.getSecondNode();
-
-            List<Map<String, Double>> propagationCoefficients = new ArrayList<>();
-
-            try {
-                propagationCoefficients = policy.evaluate(nodeGraph1, nodeGraph2, graph1, graph2);
-            } catch (Exception e) {
-                log.info("Not a valid propagation coefficient calculation policy");
-            }
-
-            Map<String, Double> countInLabelsTotal = propagationCoefficients.get(0);
-            Map<String, Double> countOutLabelsTotal = propagationCoefficients.get(1);
-
-            for (LabelEdge edge : connectivityGraph.incomingEdgesOf(nodePair)) {
-                NodePair sourceNodePair = connectivityGraph.getEdgeSource(edge);
-                NodePair targetNodePair = connectivityGraph.getEdgeTarget(edge);
-                propagationGraph.addEdge(targetNodePair, sourceNodePair, new CoefficientEdge(countInLabelsTotal.get(edge.getLabel())));
-            }
-
-            for (LabelEdge edge : connectivityGraph.outgoingEdgesOf(nodePair)) {
-                NodePair sourceNodePair = connectivityGraph.getEdgeSource(edge);
-                NodePair targetNodePair = connectivityGraph.getEdgeTarget(edge);
-                propagationGraph.addEdge(sourceNodePair, targetNodePair, new CoefficientEdge(countOutLabelsTotal.get(edge.getLabel())));
+        //Label counts of all schema graph nodes are computed once, coefficients are looked up per edge
+        LabelHistograms labelHistograms = new LabelHistograms(graph1, graph2);
+
+        //Every connectivity edge induces an edge in both directions in a single pass over the edges. Of two edges
+        //between the same node pairs, the one induced by an incoming edge of its source is kept (like in ConnectivityGraph)
+        for (LabelEdge edge : connectivityGraph.edgeSet()) {
+            NodePair sourceNodePair = connectivityGraph.getEdgeSource(edge);
+            NodePair targetNodePair = connectivityGraph.getEdgeTarget(edge);
+            int labelId = labelHistograms.getLabelId(edge.getLabel());
+
+            double backwardCoefficient = getCoefficient(policy, labelId,
+                    labelHistograms.getIncomingGraph1(targetNodePair.getFirstNode()),
+                    labelHistograms.getIncomingGraph2(targetNodePair.getSecondNode()));
+            propagationGraph.addEdge(targetNodePair, sourceNodePair, new CoefficientEdge(backwardCoefficient));
+
+            if (!connectivityGraph.containsEdge(targetNodePair, sourceNodePair)) {
+                double forwardCoefficient = getCoefficient(policy, labelId,
+                        labelHistograms.getOutgoingGraph1(sourceNodePair.getFirstNode()),
+                        labelHistograms.getOutgoingGraph2(sourceNodePair.getSecondNode()));
+                propagationGraph.addEdge(sourceNodePair, targetNodePair, new CoefficientEdge(forwardCoefficient));
             }
         }
 
         return propagationGraph;
     }
 
+    private static double getCoefficient(PropagationCoefficientPolicy policy, int labelId, int[] labelCountsGraph1, int[] labelCountsGraph2) {
+        if (labelId < 0) {
+            throw new IllegalStateException("Label of the connectivity graph is no label of the schema graphs");
+        }
+        return policy.evaluate(labelCountsGraph1[labelId], labelCountsGraph2[labelId]);
+    }
+
     Graph<Node, LabelEdge> transformIntoGraphRepresentationSchema(Database db) {
 
         Graph<Node, LabelEdge> graphRepresentation = new DefaultDirectedWeightedGraph<>(LabelEdge.class);
 
-        buildGraphRepresentation(db, graphRepresentation);
+        Map<Column, Node> columnIdNodes = buildGraphRepresentation(db, graphRepresentation);
 
         //Extending the schema-graph with dependency information:
 
         Node constraintNode = new Node("Constraint", NodeType.CONSTRAINT, null, false, null, null, null);
         graphRepresentation.addVertex(constraintNode);
 
+        //Dependencies are filtered first, the extensions only read the column index and are built concurrently
+        List<Supplier<GraphExtension>> extensions = new ArrayList<>();
+
         if(!this.dependencyFilter.getFdFilterThreshold().isEmpty()) {
-            functionalDependencies(db, graphRepresentation, constraintNode);
+            Collection<FunctionalDependency> functionalDependencies = dependencyFilter.filterFunctionalDependencies(
+                    db.getMetadata().getMeaningfulFunctionalDependencies()); //only use fds that are not a UCC themselves, as keys are trivial fds
+            extensions.add(() -> functionalDependencies(functionalDependencies, columnIdNodes, constraintNode));
         }
 
         if(!this.dependencyFilter.getUccFilterThreshold().isEmpty()) {
-            uniqueColumnCombinations(db, graphRepresentation, constraintNode);
+            Collection<UniqueColumnCombination> uniqueColumnCombinations = dependencyFilter.filterUniqueColumnCombinations(
+                    db.getMetadata().getUccs().stream().toList());
+            extensions.add(() -> uniqueColumnCombinations(uniqueColumnCombinations, columnIdNodes, constraintNode));
         }
 
         if(!this.dependencyFilter.getIndFilterThreshold().isEmpty()) {
-            inclusionDependencies(db, graphRepresentation, constraintNode);
+            Collection<InclusionDependency> inclusionDependencies = dependencyFilter.filterInclusionDependencies(
+                    db.getMetadata().getInds().stream().toList());
+            extensions.add(() -> inclusionDependencies(inclusionDependencies, columnIdNodes, constraintNode));
+        }
+
+        //Extensions are added in a fixed order, so the graph does not depend on the order they are built in
+        for (GraphExtension extension : extensions.parallelStream().map(Supplier::get).toList()) {
+            extension.addTo(graphRepresentation);
         }
 
         return graphRepresentation;
     }
 
-    private void buildGraphRepresentation(Database db, Graph<Node, LabelEdge> graphRepresentation) {
+    /**
+     * @return Column id node per column of the database
+     */
+    private Map<Column, Node> buildGraphRepresentation(Database db, Graph<Node, LabelEdge> graphRepresentation) {
+        //Dependencies reference the column objects of the tables of the database
+        Map<Column, Node> columnIdNodes = new IdentityHashMap<>();
+
         Node schemaNode = new Node("Schema", NodeType.DATABASE, null, false, null, null, null);
         Node tableNode = new Node("Table", NodeType.TABLE, null, false, null, null, null);
         Node columnNode = new Node("Column", NodeType.COLUMN, null, false, null, null, null);
@@ -156,6 +228,7 @@ class SchemaGraphBuilder {
 
                 Node currentColumnNode = new Node("NodeID" + uniqueID++, NodeType.COLUMN, column.getDatatype(), true, columnName, table, null);
                 graphRepresentation.addVertex(currentColumnNode);
+                columnIdNodes.put(column, currentColumnNode);
 
                 graphRepresentation.addEdge(currentTableNode, currentColumnNode, new LabelEdge("column"));
                 graphRepresentation.addEdge(currentColumnNode, columnNode, new LabelEdge("type"));
@@ -183,45 +256,53 @@ class SchemaGraphBuilder {
                 }
             }
         }
+
+        return columnIdNodes;
     }
 
-    private void inclusionDependencies(Database db, Graph<Node, LabelEdge> graphRepresentation, Node constraintNode) {
-        List<InclusionDependency> inclusionDependencies = db.getMetadata().getInds().stream().toList();
+    private static Node getColumnIdNode(Map<Column, Node> columnIdNodes, Column column) {
+        Node columnIdNode = columnIdNodes.get(column);
+        if (columnIdNode == null) {
+            throw new IllegalStateException("Column of dependency is not part of the schema graph: " + column);
+        }
+        return columnIdNode;
+    }
+
+    private GraphExtension inclusionDependencies(Collection<InclusionDependency> inclusionDependencies, Map<Column, Node> columnIdNodes, Node constraintNode) {
+        GraphExtension extension = new GraphExtension();
         int indID = 1;
 
-        for (InclusionDependency inclusionDependency : dependencyFilter.filterInclusionDependencies(inclusionDependencies)) {
+        for (InclusionDependency inclusionDependency : inclusionDependencies) {
 
             List<Node> dependantIdNodes = new ArrayList<>();
             List<Node> referencedIdNodes = new ArrayList<>();
 
             for (Column dependant : inclusionDependency.getDependant()) {
-                LabelEdge edgeFromIDtoDependant = graphRepresentation.incomingEdgesOf(new Node(dependant.getLabel(), NodeType.COLUMN, dependant.getDatatype(), false, null, dependant.getTable(), null)).stream().findFirst().get();
-                Node dependantIDNode = graphRepresentation.getEdgeSource(edgeFromIDtoDependant);
-                dependantIdNodes.add(dependantIDNode);
+                dependantIdNodes.add(getColumnIdNode(columnIdNodes, dependant));
             }
 
             for (Column referenced : inclusionDependency.getReferenced()) {
-                LabelEdge edgeFromIDtoReferenced = graphRepresentation.incomingEdgesOf(new Node(referenced.getLabel(), NodeType.COLUMN, referenced.getDatatype(), false, null, referenced.getTable(), null)).stream().findFirst().get();
-                Node referencedIDNode = graphRepresentation.getEdgeSource(edgeFromIDtoReferenced);
-                referencedIdNodes.add(referencedIDNode);
+                referencedIdNodes.add(getColumnIdNode(columnIdNodes, referenced));
             }
 
             Node indNode = new Node("IND" + indID++, NodeType.CONSTRAINT, null, true, null, null, null);
-            graphRepresentation.addVertex(indNode);
-            graphRepresentation.addEdge(indNode, constraintNode, new LabelEdge("type"));
+            extension.addVertex(indNode);
+            extension.addEdge(indNode, constraintNode, new LabelEdge("type"));
 
             for (Node referencedIDNode : referencedIdNodes) {
-                graphRepresentation.addEdge(indNode, referencedIDNode, new LabelEdge("referenced"));
+                extension.addEdge(indNode, referencedIDNode, new LabelEdge("referenced"));
             }
 
             for (Node dependantIDNode : dependantIdNodes) {
-                graphRepresentation.addEdge(indNode, dependantIDNode, new LabelEdge("dependant"));
+                extension.addEdge(indNode, dependantIDNode, new LabelEdge("dependant"));
             }
         }
+
+        return extension;
     }
 
     @Deprecated
-    private void uniqueColumnCombinationsLegacy(Database db, Graph<Node, LabelEdge> graphRepresentation, Node constraintNode) {
+    private void uniqueColumnCombinationsLegacy(Database db, Graph<Node, LabelEdge> graphRepresentation, Map<Column, Node> columnIdNodes, Node constraintNode) {
         //Legacy way of extending the graph representation with ucc info
         List<UniqueColumnCombination> uniqueColumnCombinations = db.getMetadata().getUccs().stream().toList();
         int uccID = 1;
@@ -244,9 +325,7 @@ class SchemaGraphBuilder {
             List<Node> nodesPartOfUcc = new ArrayList<>();
 
             for (Column nodePartOfUcc : ucc.getColumnCombination()) {
-                LabelEdge edgeFromIDtoUccNode = graphRepresentation.incomingEdgesOf(new Node(nodePartOfUcc.getLabel(), NodeType.COLUMN, nodePartOfUcc.getDatatype(), false, null, nodePartOfUcc.getTable(), null)).stream().findFirst().get();
-                Node uccIDNode = graphRepresentation.getEdgeSource(edgeFromIDtoUccNode);
-                nodesPartOfUcc.add(uccIDNode);
+                nodesPartOfUcc.add(getColumnIdNode(columnIdNodes, nodePartOfUcc));
             }
 
             for (Node nodePartOfUcc : nodesPartOfUcc) {
@@ -255,25 +334,20 @@ class SchemaGraphBuilder {
         }
     }
 
-    private void uniqueColumnCombinations(Database db, Graph<Node, LabelEdge> graphRepresentation, Node constraintNode) {
-        Collection<UniqueColumnCombination> uniqueColumnCombinations;
-
-        uniqueColumnCombinations = db.getMetadata().getUccs().stream().toList();
-
+    private GraphExtension uniqueColumnCombinations(Collection<UniqueColumnCombination> uniqueColumnCombinations, Map<Column, Node> columnIdNodes, Node constraintNode) {
+        GraphExtension extension = new GraphExtension();
         int uccID = 1;
 
-        for (UniqueColumnCombination uniqueColumnCombination : dependencyFilter.filterUniqueColumnCombinations(uniqueColumnCombinations)) {
+        for (UniqueColumnCombination uniqueColumnCombination : uniqueColumnCombinations) {
 
             Node uccNode = new Node("UCC" + uccID++, NodeType.CONSTRAINT, null, true, null, null, null);
-            graphRepresentation.addVertex(uccNode);
-            graphRepresentation.addEdge(uccNode, constraintNode, new LabelEdge("type"));
+            extension.addVertex(uccNode);
+            extension.addEdge(uccNode, constraintNode, new LabelEdge("type"));
 
             List<Node> nodesPartOfUcc = new ArrayList<>();
 
             for(Column columnPartOfUCC : uniqueColumnCombination.getColumnCombination()) {
-                LabelEdge edgeFromIDtoColumn = graphRepresentation.incomingEdgesOf(new Node(columnPartOfUCC.getLabel(), NodeType.COLUMN, columnPartOfUCC.getDatatype(), false, null, columnPartOfUCC.getTable(), null)).stream().findFirst().get();
-                Node uccColumnIDNode = graphRepresentation.getEdgeSource(edgeFromIDtoColumn);
-                nodesPartOfUcc.add(uccColumnIDNode);
+                nodesPartOfUcc.add(getColumnIdNode(columnIdNodes, columnPartOfUCC));
             }
 
             Table tableOfUCC = nodesPartOfUcc.get(0).getNameNode().getRepresentedColumn().getTable();
@@ -281,8 +355,7 @@ class SchemaGraphBuilder {
             List<Node> nodesNotPartOfUCC = new ArrayList<>();
 
             for(Column columnInTableOfUCC : tableOfUCC.getColumns()) {
-                LabelEdge edgeFromIDtoColumn = graphRepresentation.incomingEdgesOf(new Node(columnInTableOfUCC.getLabel(), NodeType.COLUMN, columnInTableOfUCC.getDatatype(), false, null, columnInTableOfUCC.getTable(), null)).stream().findFirst().get();
-                Node columnIDNode = graphRepresentation.getEdgeSource(edgeFromIDtoColumn);
+                Node columnIDNode = getColumnIdNode(columnIdNodes, columnInTableOfUCC);
 
                 if(!nodesPartOfUcc.contains(columnIDNode)) {
                     nodesNotPartOfUCC.add(columnIDNode);
@@ -290,46 +363,71 @@ class SchemaGraphBuilder {
             }
 
             for(Node IDNode : nodesPartOfUcc) {
-                graphRepresentation.addEdge(uccNode, IDNode, new LabelEdge("unique"));
+                extension.addEdge(uccNode, IDNode, new LabelEdge("unique"));
             }
 
             for(Node IDNode : nodesNotPartOfUCC) {
-                graphRepresentation.addEdge(uccNode, IDNode, new LabelEdge("notunique"));
+                extension.addEdge(uccNode, IDNode, new LabelEdge("notunique"));
             }
         }
-    }
-
-    private void functionalDependencies(Database db, Graph<Node, LabelEdge> graphRepresentation, Node constraintNode) {
-        Collection<FunctionalDependency> functionalDependencies;
 
-        functionalDependencies = db.getMetadata().getMeaningfulFunctionalDependencies(); //only use fds that are not a UCC themselves, as keys are trivial fds
+        return extension;
+    }
 
+    private GraphExtension functionalDependencies(Collection<FunctionalDependency> functionalDependencies, Map<Column, Node> columnIdNodes, Node constraintNode) {
+        GraphExtension extension = new GraphExtension();
         int fdID = 1;
 
-        for (FunctionalDependency functionalDependency : dependencyFilter.filterFunctionalDependencies(functionalDependencies)) {
+        for (FunctionalDependency functionalDependency : functionalDependencies) {
 
             Node fdNode = new Node("FD" + fdID++, NodeType.CONSTRAINT, null, true, null, null, null);
-            graphRepresentation.addVertex(fdNode);
-            graphRepresentation.addEdge(fdNode, constraintNode, new LabelEdge("type"));
+            extension.addVertex(fdNode);
+            extension.addEdge(fdNode, constraintNode, new LabelEdge("type"));
 
             List<Node> determinantIdNodes = new ArrayList<>();
 
             for (Column determinant : functionalDependency.getDeterminant()) {
-                LabelEdge edgeFromIDtoDeterminant = graphRepresentation.incomingEdgesOf(new Node(determinant.getLabel(), NodeType.COLUMN, determinant.getDatatype(), false, null, determinant.getTable(), null)).stream().findFirst().get();
-                Node determinantIDNode = graphRepresentation.getEdgeSource(edgeFromIDtoDeterminant);
-                determinantIdNodes.add(determinantIDNode);
+                determinantIdNodes.add(getColumnIdNode(columnIdNodes, determinant));
             }
 
-            Column dependant = functionalDependency.getDependant();
-
-            LabelEdge edgeFromIDtoDependant = graphRepresentation.incomingEdgesOf(new Node(dependant.getLabel(), NodeType.COLUMN, dependant.getDatatype(), false, null, dependant.getTable(), null)).stream().findFirst().get();
-            Node dependantIDNode = graphRepresentation.getEdgeSource(edgeFromIDtoDependant);
+            Node dependantIDNode = getColumnIdNode(columnIdNodes, functionalDependency.getDependant());
 
             for (Node determinantIDNode : determinantIdNodes) {
-                graphRepresentation.addEdge(fdNode, determinantIDNode, new LabelEdge("determinant"));
+                extension.addEdge(fdNode, determinantIDNode, new LabelEdge("determinant"));
             }
 
-            graphRepresentation.addEdge(fdNode, dependantIDNode, new LabelEdge("dependant"));
+            extension.addEdge(fdNode, dependantIDNode, new LabelEdge("dependant"));
+        }
+
+        return extension;
+    }
+
+    /**
+     * Vertices and edges a type of dependency adds to a schema graph, kept in the order they are added
+     */
+    private static class GraphExtension {
+        private final List<Node> vertices = new ArrayList<>();
+        private final List<Node> edgeSources = new ArrayList<>();
+        private final List<Node> edgeTargets = new ArrayList<>();
+        private final List<LabelEdge> edges = new ArrayList<>();
+
+        void addVertex(Node vertex) {
+            this.vertices.add(vertex);
+        }
+
+        void addEdge(Node source, Node target, LabelEdge edge) {
+            this.edgeSources.add(source);
+            this.edgeTargets.add(target);
+            this.edges.add(edge);
+        }
+
+        void addTo(Graph<Node, LabelEdge> graph) {
+            for (Node vertex : this.vertices) {
+                graph.addVertex(vertex);
+            }
+            for (int i = 0; i < this.edges.size(); i++) {
+                graph.addEdge(this.edgeSources.get(i), this.edgeTargets.get(i), this.edges.get(i));
+            }
         }
     }
 
@@ -2,12 +2,14 @@ package de.uni_marburg.schematch.matching.similarityFlooding;
 
 import de.uni_marburg.schematch.data.Column;
 import de.uni_marburg.schematch.data.Database;
-import de.uni_marburg.schematch.data.Table;
+import de.uni_marburg.schematch.data.RowSampling;
+import de.uni_marburg.schematch.data.metadata.Datatype;
 import de.uni_marburg.schematch.matching.Matcher;
 import de.uni_marburg.schematch.matchtask.MatchTask;
 import de.uni_marburg.schematch.matchtask.matchstep.MatchStep;
 import de.uni_marburg.schematch.matchtask.matchstep.MatchingStep;
 import de.uni_marburg.schematch.similarity.string.Levenshtein;
+import de.uni_marburg.schematch.utils.ConfigUtils;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -17,10 +19,12 @@ import org.apache.logging.log4j.Logger;
 import org.jgrapht.Graph;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
-import static de.uni_marburg.schematch.matching.similarityFlooding.SchemaGraphBuilder.createConnectivityGraph;
-import static de.uni_marburg.schematch.matching.similarityFlooding.SchemaGraphBuilder.inducePropagationGraph;
 import static de.uni_marburg.schematch.matching.similarityFlooding.SimilarityFloodingUtils.*;
 
 @NoArgsConstructor
@@ -34,8 +38,8 @@ public class SimilarityFlooding extends Matcher {
     //Fixed parameters
     private static final double LABEL_SCORE_WEIGHT = 0.5;
     public static final double SELECT_THRESHOLD_WEIGHT = 0.95;
-    private static final double PRECISION_OF_CONVERGENCE = 0.0001;
-    private static final int MAX_ITERATIONS = 200;
+    static final double PRECISION_OF_CONVERGENCE = 0.0001;
+    static final int MAX_ITERATIONS = 200;
 
     //Free parameters
     private String propCoeffPolicy;
@@ -44,66 +48,190 @@ public class SimilarityFlooding extends Matcher {
     private String indFilterThreshold;
     private String fdFilterThreshold;
 
-    private static Map<NodePair, Double> similarityFlooding
-            (Graph<NodePair, CoefficientEdge> propagationGraph, Map<NodePair, Double> initialMapping, FixpointFormula formula) {
+    //Options are transient, they are only part of the name (and cache key) if set
 
-        //Termination conditions
-        boolean convergence = false;
-        int iterationCount = 0;
+    //Fixpoint solver options
+    private transient String acceleration;
+    private transient int maxIterations;
+    private transient int timeBudgetMillis;
 
-        //First, current and next similarity maps
-        Map<NodePair, Double> sigma_0 = new HashMap<>();
-        for (NodePair node : propagationGraph.vertexSet()) {
-            sigma_0.put(node, initialMapping.getOrDefault(node, 0.0));
-        }
+    //Candidate pruning options
+    private transient float minInitialSimilarity;
+    private transient int topKCandidates;
+    private transient boolean compatibleDatatypesOnly;
 
-        Map<NodePair, Double> sigma_i_plus_1 = new HashMap<>();
-        Map<NodePair, Double> sigma_i = new HashMap<>(sigma_0);
+    // shared by all similarity flooding runs, null if fixpoints are computed on the calling thread
+    private static ForkJoinPool fixpointPool = null;
 
-        while (!convergence && iterationCount <= MAX_ITERATIONS) {
+    private static synchronized ForkJoinPool getFixpointPool() {
+        int numFixpointThreads = ConfigUtils.getNumFixpointThreads();
+        if (fixpointPool == null && numFixpointThreads > 1) {
+            fixpointPool = new ForkJoinPool(numFixpointThreads);
+        }
+        return fixpointPool;
+    }
 
-            double maxValueCurrentIteration = Double.MIN_VALUE;
+    /**
+     * @param pool Pool the blocks of each iteration are computed in, null to compute them on the calling thread
+     */
+    static Map<NodePair, Double> similarityFlooding
+            (Graph<NodePair, CoefficientEdge> propagationGraph, Map<NodePair, Double> initialMapping, FixpointFormula formula, ForkJoinPool pool) {
+        CompiledPropagationGraph graph = new CompiledPropagationGraph(propagationGraph, initialMapping);
+        return graph.toMapping(similarityFlooding(graph, formula, pool));
+    }
 
-            for (NodePair node : sigma_0.keySet()) {
+    /**
+     * @param pool Pool the blocks of each iteration are computed in, null to compute them on the calling thread
+     * @return Similarity per node of the compiled graph
+     */
+    static double[] similarityFlooding(CompiledPropagationGraph graph, FixpointFormula formula, ForkJoinPool pool) {
+        return similarityFlooding(graph, formula, FixpointAcceleration.NONE, MAX_ITERATIONS, 0, pool).getSigma();
+    }
 
-                //Alle Nachbarn bekommen
-                Set<CoefficientEdge> incomingEdges = propagationGraph.incomingEdgesOf(node); //Only neighbors from incoming edges
-//                Set<NodePair> neighborNodes = incomingEdges.stream().map(propagationGraph::getEdgeSource).collect(Collectors.toSet());
-                Set<NodePair> neighborNodes = new HashSet<>();
-                for (CoefficientEdge edge : incomingEdges) {
-                    NodePair source = propagationGraph.getEdgeSource(edge);
-                    neighborNodes.add(source);
-                }
+    /**
+     * @param maxIterations Number of iterations after the first one at which the computation stops without convergence
+     * @param timeBudgetMillis Wall-clock time after which the computation stops without convergence, 0 for no limit
+     * @param pool Pool the blocks of each iteration are computed in, null to compute them on the calling thread
+     */
+    static FixpointResult similarityFlooding(CompiledPropagationGraph graph, FixpointFormula formula, FixpointAcceleration acceleration,
+                                             int maxIterations, long timeBudgetMillis, ForkJoinPool pool) {
+        return new FixpointSolver(graph, formula, pool).solve(acceleration, maxIterations, timeBudgetMillis);
+    }
 
-                //Neuen Wert für Node auf Basis der Nachbarn berechnen
-                double newValue;
-                try {
-                    newValue = formula.evaluate(node, neighborNodes, sigma_0, sigma_i, propagationGraph);
-                } catch (NoSuchMethodException e) {
-                    throw new RuntimeException(e);
-                }
+    /**
+     * Runs the fixpoint computation of several formulas on the same graph, each iteration traverses the edges once
+     * for all formulas that have not converged yet. Every formula stops on its own and its result is identical to
+     * {@link #similarityFlooding(CompiledPropagationGraph, FixpointFormula, ForkJoinPool)}.
+     * @param pool Pool the blocks of each iteration are computed in, null to compute them on the calling thread
+     * @return Similarity per formula and node of the compiled graph
+     */
+    static double[][] similarityFlooding(CompiledPropagationGraph graph, FixpointFormula[] formulas, ForkJoinPool pool) {
+        return Arrays.stream(similarityFlooding(graph, formulas, MAX_ITERATIONS, 0, pool))
+                .map(FixpointResult::getSigma)
+                .toArray(double[][]::new);
+    }
 
-                //MaxWert der aktuellen Iteration speichern, damit später normalisieren möglich
-                if (newValue > maxValueCurrentIteration) {
-                    maxValueCurrentIteration = newValue;
+    /**
+     * Like {@link #similarityFlooding(CompiledPropagationGraph, FixpointFormula[], ForkJoinPool)} with plain
+     * iterations and the given budgets, see {@link FixpointSolver#solve}
+     * @return Result per formula
+     */
+    static FixpointResult[] similarityFlooding(CompiledPropagationGraph graph, FixpointFormula[] formulas,
+                                               int maxIterations, long timeBudgetMillis, ForkJoinPool pool) {
+        long deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE;
+        int numFormulas = formulas.length;
+        int numNodes = graph.getNumNodes();
+        int numBlocks = graph.getNumBlocks();
+        int[] residualOrder = graph.getResidualOrder();
+
+        //Similarity vectors of all formulas interleaved per node, the value of node k for formula c is at k * numFormulas + c
+        double[] sigma_0 = graph.getInitialSigma();
+        double[] sigma_i = new double[numNodes * numFormulas];
+        for (int node = 0; node < numNodes; node++) {
+            Arrays.fill(sigma_i, node * numFormulas, (node + 1) * numFormulas, sigma_0[node]);
+        }
+        double[] sigma_i_plus_1 = new double[sigma_i.length];
+
+        //Formulas that have not converged yet
+        int[] active = IntStream.range(0, numFormulas).toArray();
+        int numActive = numFormulas;
+        FixpointResult[] results = new FixpointResult[numFormulas];
+        double[][] residuals = new double[numFormulas][Math.min(maxIterations, 255) + 1];
+        double[] blockMaxValues = new double[numBlocks * numFormulas];
+        double[] blockResiduals = new double[numBlocks * numFormulas];
+        double[] maxValues = new double[numFormulas];
+        int iterationCount = 0;
+        boolean timeout = false;
+
+        while (numActive > 0 && !timeout && iterationCount <= maxIterations) {
+            double[] sigma_current = sigma_i;
+            double[] sigma_next = sigma_i_plus_1;
+            int numActiveCurrent = numActive;
+
+            forEachBlock(pool, numBlocks, block -> {
+                int from = block * CompiledPropagationGraph.BLOCK_SIZE;
+                int to = Math.min(from + CompiledPropagationGraph.BLOCK_SIZE, numNodes);
+                FixpointFormula.evaluate(graph, formulas, active, numActiveCurrent, sigma_0, sigma_current, sigma_next, from, to);
+                for (int a = 0; a < numActiveCurrent; a++) {
+                    int c = active[a];
+                    blockMaxValues[block * numFormulas + c] = getMaxValue(sigma_next, numFormulas, c, from, to);
+                }
+            });
+
+            for (int a = 0; a < numActive; a++) {
+                int c = active[a];
+                maxValues[c] = Double.MIN_VALUE;
+                for (int block = 0; block < numBlocks; block++) {
+                    if (blockMaxValues[block * numFormulas + c] > maxValues[c]) {
+                        maxValues[c] = blockMaxValues[block * numFormulas + c];
+                    }
                 }
-
-                sigma_i_plus_1.put(node, newValue);
             }
 
-            //Normalisieren für die aktuelle Iteration
-            for (NodePair node : sigma_0.keySet()) {
-                sigma_i_plus_1.put(node, (sigma_i_plus_1.get(node) / maxValueCurrentIteration));
+            forEachBlock(pool, numBlocks, block -> {
+                int from = block * CompiledPropagationGraph.BLOCK_SIZE;
+                int to = Math.min(from + CompiledPropagationGraph.BLOCK_SIZE, numNodes);
+                for (int a = 0; a < numActiveCurrent; a++) {
+                    int c = active[a];
+                    blockResiduals[block * numFormulas + c] = normalizeAndSumResiduals(sigma_current, sigma_next,
+                            maxValues[c], residualOrder, numFormulas, c, from, to);
+                }
+            });
+
+            //Converged formulas keep their result and are not iterated any further
+            int numStillActive = 0;
+            for (int a = 0; a < numActive; a++) {
+                int c = active[a];
+                double residualSum = 0;
+                for (int block = 0; block < numBlocks; block++) {
+                    residualSum = residualSum + blockResiduals[block * numFormulas + c];
+                }
+                if (iterationCount == residuals[c].length) {
+                    residuals[c] = Arrays.copyOf(residuals[c], 2 * residuals[c].length);
+                }
+                residuals[c][iterationCount] = Math.sqrt(residualSum);
+                if (residuals[c][iterationCount] < PRECISION_OF_CONVERGENCE) {
+                    results[c] = new FixpointResult(extract(sigma_next, numFormulas, c), FixpointResult.StopReason.CONVERGED,
+                            Arrays.copyOf(residuals[c], iterationCount + 1), FixpointAcceleration.NONE, false);
+                    log.info("Ran {} Iterations for {} Nodes ({}: {})", iterationCount + 1, numNodes, formulas[c], results[c]);
+                } else {
+                    active[numStillActive++] = c;
+                }
             }
+            numActive = numStillActive;
 
-            //Prüfen ob Residuum(sigma_i, sigma_i+1) konvergiert
-            convergence = hasConverged(sigma_i, sigma_i_plus_1, PRECISION_OF_CONVERGENCE);
-            sigma_i.putAll(sigma_i_plus_1);
+            sigma_i = sigma_next;
+            sigma_i_plus_1 = sigma_current;
             iterationCount++;
+            timeout = System.nanoTime() >= deadline;
+        }
+
+        FixpointResult.StopReason stopReason = timeout ? FixpointResult.StopReason.TIME_BUDGET : FixpointResult.StopReason.MAX_ITERATIONS;
+        for (int a = 0; a < numActive; a++) {
+            int c = active[a];
+            results[c] = new FixpointResult(extract(sigma_i, numFormulas, c), stopReason,
+                    Arrays.copyOf(residuals[c], iterationCount), FixpointAcceleration.NONE, false);
+            log.info("Ran {} Iterations for {} Nodes ({}: {})", iterationCount, numNodes, formulas[c], results[c]);
         }
+        return results;
+    }
 
-        log.info("Ran {} Iterations for {} Nodes", iterationCount - 1, initialMapping.size());
-        return sigma_i_plus_1;
+    private static double[] extract(double[] interleavedSigma, int stride, int offset) {
+        double[] sigma = new double[interleavedSigma.length / stride];
+        for (int node = 0; node < sigma.length; node++) {
+            sigma[node] = interleavedSigma[node * stride + offset];
+        }
+        return sigma;
+    }
+
+    static void forEachBlock(ForkJoinPool pool, int numBlocks, IntConsumer action) {
+        if (pool == null || numBlocks < 2) {
+            for (int block = 0; block < numBlocks; block++) {
+                action.accept(block);
+            }
+        } else {
+            pool.submit(() -> IntStream.range(0, numBlocks).parallel().forEach(action)).join();
+        }
     }
 
     public static Map<String, Collection<String>> getPossibleValues() {
@@ -117,17 +245,83 @@ public class SimilarityFlooding extends Matcher {
     @Override
     public float[][] match(MatchTask matchTask, MatchingStep matchStep) {
 
-        PropagationCoefficientPolicy policy;
-        FixpointFormula formula;
+        FixpointFormula formula = getFixpointFormula();
+        PropagationGraphCache.Graphs graphs = getGraphs(matchTask, matchStep);
+
+        //Run the similarity-flooding algorithm
+        FixpointResult floodingResults = similarityFlooding(graphs.propagationGraph(), formula, getFixpointAcceleration(),
+                getIterationBudget(), this.timeBudgetMillis, getFixpointPool());
+
+        //Apply constraints/filters to the result: only matches between column id nodes are kept
+        float[][] simMatrix = matchTask.getEmptySimMatrix();
+        graphs.connectivityGraph().populateSimMatrix(simMatrix, floodingResults.getSigma());
+
+        return simMatrix;
+    }
+
+    @Override
+    public Object getBatchKey() {
+        //Batched fixpoints only run plain iterations
+        if (getFixpointAcceleration() != FixpointAcceleration.NONE) {
+            return null;
+        }
+        //Configurations that only differ in the fixpoint formula run on the same propagation graph
+        return Arrays.asList(getClass(), this.propCoeffPolicy, this.uccFilterThreshold, this.indFilterThreshold, this.fdFilterThreshold,
+                getRowSampling(), getCandidatePruning(), getIterationBudget(), this.timeBudgetMillis);
+    }
+
+    @Override
+    public List<float[][]> matchBatch(MatchTask matchTask, MatchingStep matchStep, List<Matcher> batch) {
+
+        FixpointFormula[] formulas = new FixpointFormula[batch.size()];
+        for (int i = 0; i < formulas.length; i++) {
+            formulas[i] = ((SimilarityFlooding) batch.get(i)).getFixpointFormula();
+        }
+        PropagationGraphCache.Graphs graphs = getGraphs(matchTask, matchStep);
+
+        //Run the similarity-flooding algorithm for all formulas at once
+        FixpointResult[] floodingResults = similarityFlooding(graphs.propagationGraph(), formulas, getIterationBudget(),
+                this.timeBudgetMillis, getFixpointPool());
+
+        List<float[][]> simMatrices = new ArrayList<>();
+        for (FixpointResult floodingResult : floodingResults) {
+            float[][] simMatrix = matchTask.getEmptySimMatrix();
+            graphs.connectivityGraph().populateSimMatrix(simMatrix, floodingResult.getSigma());
+            simMatrices.add(simMatrix);
+        }
+        return simMatrices;
+    }
 
-        policy = switch (propCoeffPolicy) {
+    private PropagationCoefficientPolicy getPropagationCoefficientPolicy() {
+        return switch (propCoeffPolicy) {
             case "INV_AVG" -> PropagationCoefficientPolicy.INVERSE_AVERAGE;
             case "INV_PROD" -> PropagationCoefficientPolicy.INVERSE_PRODUCT;
             case "CONSTANT_ONE" -> PropagationCoefficientPolicy.CONSTANT_ONE;
             default -> throw new RuntimeException("No such propagation coefficient policy: " + propCoeffPolicy);
         };
+    }
+
+    private FixpointAcceleration getFixpointAcceleration() {
+        if (acceleration == null || acceleration.isEmpty()) {
+            return FixpointAcceleration.NONE;
+        }
+        try {
+            return FixpointAcceleration.valueOf(acceleration.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("No such fixpoint acceleration: " + acceleration);
+        }
+    }
+
+    private CandidatePruning getCandidatePruning() {
+        return new CandidatePruning(minInitialSimilarity, topKCandidates, compatibleDatatypesOnly);
+    }
+
+    private int getIterationBudget() {
+        return maxIterations > 0 ? maxIterations : MAX_ITERATIONS;
+    }
 
-        formula = switch (fixpoint) {
+    private FixpointFormula getFixpointFormula() {
+        return switch (fixpoint) {
             case "BASIC" -> FixpointFormula.BASIC;
             case "A" -> FixpointFormula.FORMULA_A;
             case "B" -> FixpointFormula.FORMULA_B;
@@ -138,8 +332,15 @@ public class SimilarityFlooding extends Matcher {
             case "C_Lambda" -> FixpointFormula.FORMULA_C_Lambda;
             default -> throw new RuntimeException("No such fixpoint formula: " + fixpoint);
         };
+    }
 
-        float[][] simMatrix = matchTask.getEmptySimMatrix();
+    /**
+     * @return Connectivity graph and propagation graph of the scenario, the propagation graph starts from the
+     * similarities of the first line matcher
+     */
+    private PropagationGraphCache.Graphs getGraphs(MatchTask matchTask, MatchingStep matchStep) {
+
+        PropagationCoefficientPolicy policy = getPropagationCoefficientPolicy();
 
         Database sourceDb = matchTask.getScenario().getSourceDatabase();
         Database targetDb = matchTask.getScenario().getTargetDatabase();
@@ -163,33 +364,56 @@ public class SimilarityFlooding extends Matcher {
         Matcher firstLineMatcher = matcher.get(0);
         float [][] prevMatrix = matchTask.getSimMatrixFromPreviousMatchStep(matchStep, firstLineMatcher);
 
-        SchemaGraphBuilder schemaGraphBuilder = new SchemaGraphBuilder(this.uccFilterThreshold, this.indFilterThreshold, this.fdFilterThreshold);
+        //Column pairs left out of the connectivity-graph depend on the similarities of the first line matcher
+        CandidatePruning pruning = getCandidatePruning();
+        boolean[][] candidates = getCandidates(sourceDb, targetDb, pruning, prevMatrix);
 
-        Graph<Node, LabelEdge> sourceGraph = schemaGraphBuilder.transformIntoGraphRepresentationSchema(sourceDb);
-        Graph<Node, LabelEdge> targetGraph = schemaGraphBuilder.transformIntoGraphRepresentationSchema(targetDb);
+        //The graphs only depend on the scenario, the propagation coefficient policy, the dependency filters and the candidate
+        //column pairs, so they are built once per scenario and reused by configurations that only differ in the fixpoint formula
+        PropagationGraphCache.Key key = new PropagationGraphCache.Key(policy, this.uccFilterThreshold, this.indFilterThreshold,
+                this.fdFilterThreshold, getRowSampling(), pruning, PropagationGraphCache.Key.toCandidateRows(candidates));
+        PropagationGraphCache.Graphs graphs = matchTask.getPropagationGraphCache().get(key, () -> buildGraphs(sourceDb, targetDb, policy, pruning, candidates));
+        ConnectivityGraph connectivityGraph = graphs.connectivityGraph();
 
-        //Combine both Graphs into a connectivity-graph
-        Graph<NodePair, LabelEdge> connectivityGraph = createConnectivityGraph(sourceGraph, targetGraph);
-
-        //Transform the connectivity-graph into the propagation-graph on which the algorithm executes
-        Graph<NodePair, CoefficientEdge> propagationGraph = inducePropagationGraph(connectivityGraph, sourceGraph, targetGraph, policy);
+        //The initial mapping (similarity) values are taken from the first line matcher
+        CompiledPropagationGraph propagationGraph = graphs.propagationGraph().withInitialSigma(connectivityGraph.getInitialSigma(prevMatrix));
+        return new PropagationGraphCache.Graphs(connectivityGraph, propagationGraph);
+    }
 
-        //Calculate the initial mapping (similarity) values
-        Map<NodePair, Double> initialMapping = buildInitialMappingFromMatrix(prevMatrix,sourceDb, targetDb);
+    /**
+     * @return Whether each column pair is a candidate, null without candidate pruning
+     */
+    private static boolean[][] getCandidates(Database sourceDb, Database targetDb, CandidatePruning pruning, float[][] prevMatrix) {
+        if (!pruning.isEnabled()) {
+            return null;
+        }
+        Datatype[] sourceDatatypes = sourceDb.getColumns().stream().map(Column::getDatatype).toArray(Datatype[]::new);
+        Datatype[] targetDatatypes = targetDb.getColumns().stream().map(Column::getDatatype).toArray(Datatype[]::new);
+        return pruning.getCandidates(prevMatrix, sourceDatatypes, targetDatatypes);
+    }
 
-        //Run the similarity-flooding algorithm
-        Map<NodePair, Double> floodingResults = similarityFlooding(propagationGraph, initialMapping, formula);
+    /**
+     * @param candidates Column pairs kept in the connectivity-graph, null for all
+     */
+    private PropagationGraphCache.Graphs buildGraphs(Database sourceDb, Database targetDb, PropagationCoefficientPolicy policy,
+                                                     CandidatePruning pruning, boolean[][] candidates) {
+        SchemaGraphBuilder schemaGraphBuilder = new SchemaGraphBuilder(this.uccFilterThreshold, this.indFilterThreshold, this.fdFilterThreshold, getRowSampling());
 
-        //Apply constraints/filters to the result
-        Map<NodePair, Double> filteredFloodingResults = filterMapping(floodingResults);
+        //Schema graphs are frozen into primitive graphs sharing one label dictionary
+        Map<String, Integer> labelIds = new HashMap<>();
+        SchemaGraph sourceGraph = new SchemaGraph(schemaGraphBuilder.transformIntoGraphRepresentationSchema(sourceDb), labelIds);
+        SchemaGraph targetGraph = new SchemaGraph(schemaGraphBuilder.transformIntoGraphRepresentationSchema(targetDb), labelIds);
 
-        for (Table sourceTable : matchTask.getScenario().getSourceDatabase().getTables()) {
-            for (Table targetTable : matchTask.getScenario().getTargetDatabase().getTables()) {
-                populateSimMatrix(simMatrix, filteredFloodingResults, sourceTable, targetTable);
-            }
+        //Combine both Graphs into a connectivity-graph
+        ConnectivityGraph connectivityGraph = new ConnectivityGraph(sourceGraph, targetGraph, labelIds.size(), candidates);
+        if (pruning.isEnabled()) {
+            log.debug("Connectivity graph with {} node pairs and {} edges after {}", connectivityGraph.getNumNodePairs(),
+                    connectivityGraph.getNumEdges(), pruning);
         }
 
-        return simMatrix;
+        //Transform the connectivity-graph into the propagation-graph on which the algorithm executes
+        CompiledPropagationGraph propagationGraph = connectivityGraph.inducePropagationGraph(policy, new double[connectivityGraph.getNumNodePairs()]);
+        return new PropagationGraphCache.Graphs(connectivityGraph, propagationGraph);
     }
 
     private Map<NodePair, Double> calculateInitialMapping(Graph<NodePair, CoefficientEdge> propagationGraph) {
@@ -243,7 +467,11 @@ public class SimilarityFlooding extends Matcher {
 
         Field[] fields = getClass().getDeclaredFields();
 
-        for (int i = 1; i < fields.length; i++) {
+        //Constants, the shared fixpoint pool and unset options are not part of the name (and cache key)
+        for (int i = 0; i < fields.length; i++) {
+            if (Modifier.isStatic(fields[i].getModifiers()) || Modifier.isTransient(fields[i].getModifiers())) {
+                continue;
+            }
             try {
                 fields[i].setAccessible(true);
                 result.append(fields[i].getName()).append("=").append(fields[i].get(this)).append(" &  ");
@@ -251,6 +479,31 @@ public class SimilarityFlooding extends Matcher {
             } catch (IllegalAccessException ignored) {
             } // Cannot happen, we have set the field to be accessible
         }
+        // dependency scores depend on the sampled rows, so the sampling is part of the cache key
+        RowSampling rowSampling = getRowSampling();
+        if (rowSampling != RowSampling.ALL) {
+            result.append("sampling=").append(rowSampling).append(" &  ");
+        }
+        // accelerated or budgeted fixpoints stop at different values
+        if (getFixpointAcceleration() != FixpointAcceleration.NONE) {
+            result.append("acceleration=").append(getFixpointAcceleration()).append(" &  ");
+        }
+        if (this.maxIterations > 0) {
+            result.append("maxIterations=").append(this.maxIterations).append(" &  ");
+        }
+        if (this.timeBudgetMillis > 0) {
+            result.append("timeBudgetMillis=").append(this.timeBudgetMillis).append(" &  ");
+        }
+        // pruned graphs give different results
+        if (this.minInitialSimilarity > 0) {
+            result.append("minInitialSimilarity=").append(this.minInitialSimilarity).append(" &  ");
+        }
+        if (this.topKCandidates > 0) {
+            result.append("topKCandidates=").append(this.topKCandidates).append(" &  ");
+        }
+        if (this.compatibleDatatypesOnly) {
+            result.append("compatibleDatatypesOnly=true &  ");
+        }
         String res = result.toString();
         if (getClass().getDeclaredFields().length > 0) {
             res = res.substring(0, res.length() - 4);
@@ -282,35 +535,6 @@ public class SimilarityFlooding extends Matcher {
         }
     }
 
-    private Map<NodePair, Double> buildInitialMappingFromMatrix(float[][] simMatrix, Database sourceDb, Database targetDb) {
-        Map<NodePair, Double> initialMapping = new HashMap<>();
-
-        for (Table sourceTable : sourceDb.getTables()) {
-            for (Table targetTable : targetDb.getTables()) {
-
-                List<Column> sourceColumns = sourceTable.getColumns();
-                List<Column> targetColumns = targetTable.getColumns();
-
-                for (int i = 0; i < sourceColumns.size(); i++) {
-
-                    String sourceLabel = sourceColumns.get(i).getLabel();
-                    Node sourceNode = new Node(sourceLabel, NodeType.COLUMN, null, false, null, sourceTable, null);
-
-                    for (int j = 0; j < targetColumns.size(); j++) {
-
-                        String targetLabel = targetColumns.get(j).getLabel();
-                        Node targetNode = new Node(targetLabel, NodeType.COLUMN, null, false, null, targetTable, null);
-
-                        float value = simMatrix[sourceTable.getOffset() + i] [targetTable.getOffset() + j];
-                        initialMapping.put(new NodePair(sourceNode,targetNode), (double) value);
-                    }
-                }
-            }
-        }
-
-        return initialMapping;
-    }
-
     public enum Param {
         PROP_COEFF_POLICY("propCoeffPolicy", List.of("INV_AVG", "INV_PROD")),
         FIXPOINT("fixpoint", List.of("BASIC","A", "B", "C")),
@@ -27,6 +27,68 @@ public class SimilarityFloodingUtils {
     }
 
 
+    /**
+     * @return Maximum of the values {@code [from, to)} that is greater than {@link Double#MIN_VALUE}, otherwise {@link Double#MIN_VALUE}
+     */
+    static double getMaxValue(double[] sigma, int from, int to) {
+        double maxValue = Double.MIN_VALUE;
+        for (int node = from; node < to; node++) {
+            if (sigma[node] > maxValue) {
+                maxValue = sigma[node];
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Like {@link #getMaxValue(double[], int, int)} for interleaved vectors, the value of node {@code k} is at
+     * {@code k * stride + offset}
+     */
+    static double getMaxValue(double[] sigma, int stride, int offset, int from, int to) {
+        double maxValue = Double.MIN_VALUE;
+        for (int node = from; node < to; node++) {
+            if (sigma[node * stride + offset] > maxValue) {
+                maxValue = sigma[node * stride + offset];
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Normalizes the values of the nodes {@code order[from..to)} of sigma_i_plus_1 by maxValue
+     * @return Sum of the squared differences of these nodes between sigma_i and the normalized sigma_i_plus_1
+     */
+    static double normalizeAndSumResiduals(double[] sigma_i, double[] sigma_i_plus_1, double maxValue, int[] order, int from, int to) {
+
+        double residualSum = 0;
+
+        for (int i = from; i < to; i++) {
+            int node = order[i];
+            sigma_i_plus_1[node] = sigma_i_plus_1[node] / maxValue;
+            residualSum = residualSum + Math.pow((sigma_i[node] - sigma_i_plus_1[node]), 2);
+        }
+
+        return residualSum;
+    }
+
+    /**
+     * Like {@link #normalizeAndSumResiduals(double[], double[], double, int[], int, int)} for interleaved vectors, the
+     * value of node {@code k} is at {@code k * stride + offset}
+     */
+    static double normalizeAndSumResiduals(double[] sigma_i, double[] sigma_i_plus_1, double maxValue, int[] order,
+                                           int stride, int offset, int from, int to) {
+
+        double residualSum = 0;
+
+        for (int i = from; i < to; i++) {
+            int k = order[i] * stride + offset;
+            sigma_i_plus_1[k] = sigma_i_plus_1[k] / maxValue;
+            residualSum = residualSum + Math.pow((sigma_i[k] - sigma_i_plus_1[k]), 2);
+        }
+
+        return residualSum;
+    }
+
     public static void populateSimMatrix(float[][] simMatrix, Map<NodePair, Double> mapping, Table sourceTable, Table targetTable) {
 
         List<Column> sourceColumns = sourceTable.getColumns();
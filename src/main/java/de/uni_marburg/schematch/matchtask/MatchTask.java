@@ -6,6 +6,7 @@ import de.uni_marburg.schematch.evaluation.Evaluator;
 import de.uni_marburg.schematch.evaluation.metric.Metric;
 import de.uni_marburg.schematch.evaluation.performance.Performance;
 import de.uni_marburg.schematch.matching.Matcher;
+import de.uni_marburg.schematch.matching.similarityFlooding.PropagationGraphCache;
 import de.uni_marburg.schematch.matchtask.matchstep.MatchStep;
 import de.uni_marburg.schematch.matchtask.matchstep.MatchingStep;
 import de.uni_marburg.schematch.matchtask.matchstep.SimMatrixBoostingStep;
@@ -20,6 +21,7 @@ import java.io.File;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Central class for the schema matching process. For each scenario, there is a match task which
@@ -41,6 +43,9 @@ public class MatchTask {
     private Evaluator evaluator;
     private int cacheRead;
     private int cacheWrite;
+    private int cacheMiss;
+    // graphs of similarity flooding, shared by all its configurations for this scenario
+    private final PropagationGraphCache propagationGraphCache;
 
     public MatchTask(Dataset dataset, Scenario scenario, List<MatchStep> matchSteps, List<Metric> metrics) {
         this.dataset = dataset;
@@ -56,6 +61,8 @@ public class MatchTask {
         }
         this.cacheRead = 0;
         this.cacheWrite = 0;
+        this.cacheMiss = 0;
+        this.propagationGraphCache = new PropagationGraphCache();
     }
 
     /**
@@ -65,7 +72,8 @@ public class MatchTask {
      */
     public void runSteps() {
         for (MatchStep matchStep : matchSteps) {
-            this.simMatrices.put(matchStep, new HashMap<>());
+            // matchers of a step may store their results concurrently
+            this.simMatrices.put(matchStep, new ConcurrentHashMap<>());
             for (Metric metric : metrics) {
                 this.performances.get(metric).put(matchStep, new HashMap<>());
             }
@@ -78,7 +86,7 @@ public class MatchTask {
             matchStep.evaluate(this);
         }
         if (ConfigUtils.anyReadCache()) {
-            log.info("Read " + this.cacheRead + " similarity matrices from cache for scenario " + this.getScenario().getPath());
+            log.info("Read " + this.cacheRead + " similarity matrices from cache (" + this.cacheMiss + " misses) for scenario " + this.getScenario().getPath());
         }
         if (ConfigUtils.anyWriteCache()) {
             log.info("Wrote " + (this.cacheWrite  - this.cacheRead) + " new similarity matrices to cache for scenario " + this.getScenario().getPath());
@@ -186,11 +194,15 @@ public class MatchTask {
         return this.performances.get(metric);
     }
 
-    public void incrementCacheRead() {
+    public synchronized void incrementCacheRead() {
         this.cacheRead += 1;
     }
 
-    public void incrementCacheWrite() {
+    public synchronized void incrementCacheWrite() {
         this.cacheWrite += 1;
     }
+
+    public synchronized void incrementCacheMiss() {
+        this.cacheMiss += 1;
+    }
 }
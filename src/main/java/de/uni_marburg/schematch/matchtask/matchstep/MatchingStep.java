@@ -4,6 +4,7 @@ import de.uni_marburg.schematch.evaluation.metric.Metric;
 import de.uni_marburg.schematch.evaluation.performance.Performance;
 import de.uni_marburg.schematch.matching.Matcher;
 import de.uni_marburg.schematch.matchtask.MatchTask;
+import de.uni_marburg.schematch.utils.ConfigUtils;
 import de.uni_marburg.schematch.utils.Configuration;
 import de.uni_marburg.schematch.utils.InputReader;
 import de.uni_marburg.schematch.utils.OutputWriter;
@@ -14,8 +15,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 @Getter
 @EqualsAndHashCode(callSuper = true)
@@ -25,6 +30,20 @@ public class MatchingStep extends MatchStep {
     private final int line;
     private final List<Matcher> matchers;
 
+    // shared by the matching steps of all scenarios, null if matchers run sequentially
+    private static ForkJoinPool matcherPool = null;
+
+    /**
+     * @return Pool matchers (and the table pairs of a matcher) run in, null if they run sequentially
+     */
+    public static synchronized ForkJoinPool getMatcherPool() {
+        int numMatcherThreads = ConfigUtils.getNumMatcherThreads();
+        if (matcherPool == null && numMatcherThreads > 1) {
+            matcherPool = new ForkJoinPool(numMatcherThreads);
+        }
+        return matcherPool;
+    }
+
     public MatchingStep(boolean doSave, boolean doEvaluate, int line, List<Matcher> matchers) {
         super(doSave, doEvaluate);
         this.line = line;
@@ -40,18 +59,66 @@ public class MatchingStep extends MatchStep {
     public void run(MatchTask matchTask) {
         log.debug("Running " + this.line + ". line matching on scenario: " + matchTask.getScenario().getPath());
 
-        for (Matcher matcher : this.matchers) {
-            float[][] simMatrix = null;
-            if ((line == 1 && Configuration.getInstance().isReadCacheFirstLineMatchers()) ||
-                    line == 2 && Configuration.getInstance().isReadCacheSecondLineMatchers()) {
-                simMatrix = InputReader.readCache(matchTask,this, matcher);
+        // matchers only read the scenario and outputs of previous steps, so they can run in parallel
+        ForkJoinPool pool = getMatcherPool();
+        if (pool == null) {
+            List<Matcher> uncachedMatchers = this.matchers.stream()
+                    .filter(matcher -> !readCache(matchTask, matcher))
+                    .toList();
+            getBatches(uncachedMatchers).forEach(batch -> runBatch(matchTask, batch));
+        } else {
+            pool.submit(() -> {
+                List<Matcher> uncachedMatchers = this.matchers.parallelStream()
+                        .filter(matcher -> !readCache(matchTask, matcher))
+                        .toList();
+                getBatches(uncachedMatchers).parallelStream().forEach(batch -> runBatch(matchTask, batch));
+            }).join();
+        }
+    }
+
+    private void runBatch(MatchTask matchTask, List<Matcher> batch) {
+        log.debug("Processing " + this.line + ". line matchers " + batch);
+        List<float[][]> simMatrices = batch.size() == 1 ?
+                Collections.singletonList(batch.get(0).match(matchTask, this)) : batch.get(0).matchBatch(matchTask, this, batch);
+        for (int i = 0; i < batch.size(); i++) {
+            matchTask.setSimMatrix(this, batch.get(i), simMatrices.get(i));
+        }
+    }
+
+    /**
+     * @return True if the similarity matrix of the matcher was read from the cache
+     */
+    private boolean readCache(MatchTask matchTask, Matcher matcher) {
+        if ((line == 1 && Configuration.getInstance().isReadCacheFirstLineMatchers()) ||
+                line == 2 && Configuration.getInstance().isReadCacheSecondLineMatchers()) {
+            float[][] simMatrix = InputReader.readCache(matchTask, this, matcher);
+            if (simMatrix != null) {
+                matchTask.setSimMatrix(this, matcher, simMatrix);
+                return true;
             }
-            if (simMatrix == null) {
-                log.debug("Processing " + this.line + ". line matcher " + matcher.toString());
-                simMatrix = matcher.match(matchTask, this);
+        }
+        return false;
+    }
+
+    /**
+     * Groups matchers with equal batch keys (see {@link Matcher#getBatchKey}) if batching is enabled
+     */
+    private List<List<Matcher>> getBatches(List<Matcher> matchers) {
+        List<List<Matcher>> batches = new ArrayList<>();
+        Map<Object, List<Matcher>> batchesByKey = new HashMap<>();
+        for (Matcher matcher : matchers) {
+            Object batchKey = Configuration.getInstance().isBatchMatchers() ? matcher.getBatchKey() : null;
+            if (batchKey == null) {
+                batches.add(List.of(matcher));
+            } else {
+                batchesByKey.computeIfAbsent(batchKey, key -> {
+                    List<Matcher> batch = new ArrayList<>();
+                    batches.add(batch);
+                    return batch;
+                }).add(matcher);
             }
-            matchTask.setSimMatrix(this, matcher, simMatrix);
         }
+        return batches;
     }
 
     @Override
@@ -61,11 +128,9 @@ public class MatchingStep extends MatchStep {
                 line == 2 && Configuration.getInstance().isWriteCacheSecondLineMatchers()) {
             log.debug("Caching  " + this.line + ". line matching output for scenario: " + matchTask.getScenario().getPath());
 
-            Path outputMatchStepPath = ResultsUtils.getCachePathForMatchStepInScenario(matchTask, this);
-
             for (Matcher matcher : this.matchers) {
                 float[][] simMatrix = matchTask.getSimMatrix(this, matcher);
-                OutputWriter.writeSimMatrix(outputMatchStepPath, matchTask, matcher.toString(), simMatrix);
+                OutputWriter.writeCache(matchTask, this, matcher, simMatrix);
                 matchTask.incrementCacheWrite();
             }
         }
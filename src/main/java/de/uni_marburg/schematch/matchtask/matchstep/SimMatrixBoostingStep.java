@@ -61,11 +61,9 @@ public class SimMatrixBoostingStep extends MatchStep {
                 line == 2 && Configuration.getInstance().isWriteCacheSimMatrixBoostingOnSecondLineMatchers()) {
             log.debug("Caching similarity matrix boosting (line=" + this.line + ") output for scenario: " + matchTask.getScenario().getPath());
 
-            Path outputMatchStepPath = ResultsUtils.getCachePathForMatchStepInScenario(matchTask, this);
-
             for (Matcher matcher : matchTask.getMatchersForLine(this.line)) {
                 float[][] simMatrix = matchTask.getSimMatrix(this, matcher);
-                OutputWriter.writeSimMatrix(outputMatchStepPath, matchTask, matcher.toString(), simMatrix);
+                OutputWriter.writeCache(matchTask, this, matcher, simMatrix);
                 matchTask.incrementCacheWrite();
             }
         }
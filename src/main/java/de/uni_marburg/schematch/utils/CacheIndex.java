@@ -0,0 +1,344 @@
+package de.uni_marburg.schematch.utils;
+
+import de.uni_marburg.schematch.data.Scenario;
+import de.uni_marburg.schematch.matching.Matcher;
+import de.uni_marburg.schematch.matchtask.MatchTask;
+import de.uni_marburg.schematch.matchtask.matchstep.MatchStep;
+import de.uni_marburg.schematch.matchtask.matchstep.MatchingStep;
+import de.uni_marburg.schematch.matchtask.matchstep.SimMatrixBoostingStep;
+import lombok.Getter;
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Index of the content-addressed similarity matrix cache. Cache entries are keyed by a hash of everything a
+ * similarity matrix depends on: the scenario's input files (path, size, modification time and content hash), the
+ * match steps up to the current one, the matcher configuration (including its tokenizer) and, for second line
+ * steps, the first line matchers. Changed inputs thus lead to new keys instead of stale cache hits.
+ * The index keeps entries in LRU order (persisted across runs via the files' modification times) and evicts the
+ * least recently used entries once the cache exceeds its size limit. Temporary files left behind by interrupted
+ * writes are deleted when the index is loaded. Content hashes of input files are kept in a sidecar file of the cache
+ * directory and only recomputed when path, size or modification time of a file change.
+ */
+public class CacheIndex {
+    private static final Logger log = LogManager.getLogger(CacheIndex.class);
+
+    public static final String TMP_FILE_EXTENSION = ".tmp";
+    // temporary files younger than this may still be written by a concurrent run
+    private static final long STALE_TMP_FILE_AGE_MILLIS = 60 * 60 * 1000;
+    // path, size, modification time and content hash of input files, tab separated
+    public static final String CONTENT_HASHES_FILE_NAME = "content-hashes.tsv";
+
+    private static CacheIndex instance = null;
+
+    private final Path cacheDir;
+    private final long maxSizeBytes;
+    // cache key -> file size, in access order
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes = 0;
+    @Getter
+    private int numHits = 0;
+    @Getter
+    private int numMisses = 0;
+    @Getter
+    private int numEvictions = 0;
+
+    // scenario path -> fingerprint of its input files
+    private final Map<String, String> scenarioFingerprints = new ConcurrentHashMap<>();
+    // absolute path of an input file -> its fingerprint, persisted in CONTENT_HASHES_FILE_NAME
+    private final Map<Path, FileFingerprint> fileFingerprints = new ConcurrentHashMap<>();
+
+    private record FileFingerprint(long size, long lastModified, String contentHash) {
+    }
+
+    public static synchronized CacheIndex getInstance() {
+        if (instance == null) {
+            Configuration config = Configuration.getInstance();
+            instance = new CacheIndex(Path.of(config.getCacheDir()), ConfigUtils.getMaxCacheSizeBytes());
+        }
+        return instance;
+    }
+
+    /**
+     * @param maxSizeBytes Maximum total size of all cache files, values < 1 disable eviction
+     */
+    public CacheIndex(Path cacheDir, long maxSizeBytes) {
+        this.cacheDir = cacheDir;
+        this.maxSizeBytes = maxSizeBytes;
+        load();
+    }
+
+    private void load() {
+        if (!Files.isDirectory(this.cacheDir)) {
+            return;
+        }
+        List<Path> files;
+        List<Path> tmpFiles;
+        try (Stream<Path> paths = Files.walk(this.cacheDir)) {
+            List<Path> allFiles = paths.filter(Files::isRegularFile).toList();
+            files = allFiles.stream()
+                    .filter(p -> p.toString().endsWith(SimMatrixCache.FILE_EXTENSION))
+                    .sorted(Comparator.comparingLong(CacheIndex::getLastModified))
+                    .toList();
+            tmpFiles = allFiles.stream().filter(p -> p.toString().endsWith(TMP_FILE_EXTENSION)).toList();
+        } catch (IOException e) {
+            log.error("Could not read cache directory " + this.cacheDir + ": " + e.getMessage());
+            return;
+        }
+        deleteStaleTmpFiles(tmpFiles);
+        loadFileFingerprints();
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            String key = fileName.substring(0, fileName.length() - SimMatrixCache.FILE_EXTENSION.length());
+            if (file.equals(getPath(key))) {
+                long size = file.toFile().length();
+                this.entries.put(key, size);
+                this.sizeBytes += size;
+            }
+        }
+        log.debug("Loaded cache index with " + this.entries.size() + " entries (" + this.sizeBytes + " bytes)");
+    }
+
+    private static void deleteStaleTmpFiles(List<Path> tmpFiles) {
+        long staleBefore = System.currentTimeMillis() - STALE_TMP_FILE_AGE_MILLIS;
+        for (Path tmpFile : tmpFiles) {
+            if (getLastModified(tmpFile) >= staleBefore) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(tmpFile);
+                log.debug("Deleted stale temporary cache file " + tmpFile);
+            } catch (IOException e) {
+                log.error("Could not delete stale temporary cache file " + tmpFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void loadFileFingerprints() {
+        Path contentHashesFile = this.cacheDir.resolve(CONTENT_HASHES_FILE_NAME);
+        if (!Files.isRegularFile(contentHashesFile)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(contentHashesFile, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t");
+                if (fields.length != 4) {
+                    continue;
+                }
+                this.fileFingerprints.put(Path.of(fields[0]),
+                        new FileFingerprint(Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[3]));
+            }
+        } catch (IOException | RuntimeException e) {
+            // content hashes are recomputed
+            log.error("Could not read content hashes " + contentHashesFile + ": " + e.getMessage());
+            this.fileFingerprints.clear();
+        }
+    }
+
+    private synchronized void saveFileFingerprints() {
+        Path contentHashesFile = this.cacheDir.resolve(CONTENT_HASHES_FILE_NAME);
+        Path tmpFile = this.cacheDir.resolve(CONTENT_HASHES_FILE_NAME + "." + UUID.randomUUID() + TMP_FILE_EXTENSION);
+        StringBuilder lines = new StringBuilder();
+        for (Map.Entry<Path, FileFingerprint> entry : this.fileFingerprints.entrySet()) {
+            FileFingerprint fileFingerprint = entry.getValue();
+            lines.append(entry.getKey()).append('\t').append(fileFingerprint.size())
+                    .append('\t').append(fileFingerprint.lastModified())
+                    .append('\t').append(fileFingerprint.contentHash()).append('\n');
+        }
+        try {
+            Files.createDirectories(this.cacheDir);
+            Files.writeString(tmpFile, lines.toString(), StandardCharsets.UTF_8);
+            Files.move(tmpFile, contentHashesFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Could not write content hashes " + contentHashesFile + ": " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException e) {
+                log.error("Could not delete temporary file " + tmpFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static long getLastModified(Path path) {
+        return path.toFile().lastModified();
+    }
+
+    /**
+     * @return Path of the cache file for the given key
+     */
+    public Path getPath(String key) {
+        return this.cacheDir.resolve(key.substring(0, 2)).resolve(key + SimMatrixCache.FILE_EXTENSION);
+    }
+
+    /**
+     * @return Path of the cache file for the given key or null if there is no entry for it
+     */
+    public synchronized Path lookup(String key) {
+        if (this.entries.get(key) == null) {
+            this.numMisses += 1;
+            return null;
+        }
+        this.numHits += 1;
+        Path path = getPath(key);
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // entry was removed from disk in the meantime
+            this.sizeBytes -= this.entries.remove(key);
+            this.numHits -= 1;
+            this.numMisses += 1;
+            return null;
+        }
+        return path;
+    }
+
+    /**
+     * Registers a cache file that was written to {@link #getPath} and evicts least recently used entries if the
+     * cache exceeds its size limit.
+     */
+    public synchronized void add(String key) {
+        long size = getPath(key).toFile().length();
+        Long previousSize = this.entries.put(key, size);
+        this.sizeBytes += size - (previousSize == null ? 0 : previousSize);
+        evict(key);
+    }
+
+    private void evict(String keep) {
+        if (this.maxSizeBytes < 1) {
+            return;
+        }
+        Iterator<Map.Entry<String, Long>> iterator = this.entries.entrySet().iterator();
+        while (this.sizeBytes > this.maxSizeBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(getPath(entry.getKey()));
+            } catch (IOException e) {
+                log.error("Could not evict cache file " + getPath(entry.getKey()) + ": " + e.getMessage());
+                continue;
+            }
+            this.sizeBytes -= entry.getValue();
+            this.numEvictions += 1;
+            iterator.remove();
+        }
+    }
+
+    public synchronized int getNumEntries() {
+        return this.entries.size();
+    }
+
+    public synchronized long getSizeBytes() {
+        return this.sizeBytes;
+    }
+
+    /**
+     * @return Cache key of the similarity matrix of the matcher in the given match step
+     */
+    public String getKey(MatchTask matchTask, MatchStep matchStep, Matcher matcher) {
+        StringBuilder key = new StringBuilder();
+        key.append(getScenarioFingerprint(matchTask.getScenario())).append('\n');
+        // results of a step depend on the results of all previous steps
+        for (MatchStep step : matchTask.getMatchSteps()) {
+            key.append(describe(step)).append('\n');
+            if (step == matchStep) {
+                break;
+            }
+        }
+        key.append(matcher.toString()).append('\n');
+        if (matchStep instanceof MatchingStep ms && ms.getLine() == 2 ||
+                matchStep instanceof SimMatrixBoostingStep smbs && smbs.getLine() == 2) {
+            for (Matcher firstLineMatcher : matchTask.getFirstLineMatchers()) {
+                key.append(firstLineMatcher.toString()).append('\n');
+            }
+        }
+        return sha256(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String describe(MatchStep matchStep) {
+        if (matchStep instanceof SimMatrixBoostingStep smbs) {
+            return matchStep + ":" + ReflectionToStringBuilder.toString(smbs.getSimMatrixBoosting(), ToStringStyle.SHORT_PREFIX_STYLE);
+        }
+        return matchStep.toString();
+    }
+
+    /**
+     * @return Hash over path, size, modification time and content hash of all input files of the scenario (data and
+     * metadata, but not the ground truth), computed once per scenario
+     */
+    public String getScenarioFingerprint(Scenario scenario) {
+        return this.scenarioFingerprints.computeIfAbsent(scenario.getPath(), scenarioPath -> {
+            Path scenarioDir = Path.of(scenarioPath);
+            Path groundTruthDir = scenarioDir.resolve(Configuration.getInstance().getDefaultGroundTruthDir());
+            StringBuilder fingerprint = new StringBuilder();
+            boolean hashed = false;
+            try (Stream<Path> paths = Files.walk(scenarioDir)) {
+                for (Path file : paths.filter(Files::isRegularFile).filter(p -> !p.startsWith(groundTruthDir)).sorted().toList()) {
+                    Path absoluteFile = file.toAbsolutePath().normalize();
+                    long size = Files.size(file);
+                    long lastModified = getLastModified(file);
+                    FileFingerprint fileFingerprint = this.fileFingerprints.get(absoluteFile);
+                    if (fileFingerprint == null || fileFingerprint.size() != size || fileFingerprint.lastModified() != lastModified) {
+                        fileFingerprint = new FileFingerprint(size, lastModified, getContentHash(file));
+                        this.fileFingerprints.put(absoluteFile, fileFingerprint);
+                        hashed = true;
+                    }
+                    fingerprint.append(scenarioDir.relativize(file).toString().replace(File.separatorChar, '/'))
+                            .append(',').append(fileFingerprint.size())
+                            .append(',').append(fileFingerprint.lastModified())
+                            .append(',').append(fileFingerprint.contentHash())
+                            .append('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (hashed) {
+                saveFileFingerprints();
+            }
+            return sha256(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    private static String getContentHash(Path file) throws IOException {
+        MessageDigest digest = getSha256();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            byte[] buffer = new byte[1 << 16];
+            int n;
+            while ((n = inputStream.read(buffer)) > 0) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(getSha256().digest(bytes));
+    }
+
+    private static MessageDigest getSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -29,6 +29,42 @@ public class ConfigUtils {
                 (config.isRunSimMatrixBoostingOnSecondLineMatchers() && config.isEvaluateSimMatrixBoostingOnSecondLineMatchers());
     }
 
+    public static int getNumScenarioThreads() {
+        int numScenarioThreads = Configuration.getInstance().getNumScenarioThreads();
+        if (numScenarioThreads < 1) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return numScenarioThreads;
+    }
+
+    public static int getNumMatcherThreads() {
+        int numMatcherThreads = Configuration.getInstance().getNumMatcherThreads();
+        if (numMatcherThreads < 1) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return numMatcherThreads;
+    }
+
+    public static int getNumFixpointThreads() {
+        int numFixpointThreads = Configuration.getInstance().getNumFixpointThreads();
+        if (numFixpointThreads < 1) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return numFixpointThreads;
+    }
+
+    public static int getNumProfilingWorkers() {
+        int numProfilingWorkers = Configuration.getInstance().getNumProfilingWorkers();
+        if (numProfilingWorkers < 1) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return numProfilingWorkers;
+    }
+
+    public static long getMaxCacheSizeBytes() {
+        return Configuration.getInstance().getMaxCacheSizeMB() * 1024L * 1024L;
+    }
+
     public static boolean anyEvaluate() {
         Configuration config = Configuration.getInstance();
         return config.isEvaluateTablePairGeneration() || config.isEvaluateFirstLineMatchers() ||
@@ -54,6 +54,25 @@ public class Configuration {
     // FIXME: refactor to use log4j custom log level instead
     private int logLevelResults;
 
+    // number of scenarios that are matched in parallel, values < 1 use all available processors
+    private int numScenarioThreads = 1;
+    // number of matchers of a matching step (and table pairs of a matcher) that run in parallel, 1 runs them sequentially, values < 1 use all available processors
+    private int numMatcherThreads = 1;
+    // number of threads a similarity flooding fixpoint computation is split across, values < 1 use all available processors
+    private int numFixpointThreads = 1;
+    // run matchers that can share their work (see Matcher#getBatchKey) together, e.g. similarity flooding configurations that only differ in the fixpoint formula
+    private boolean batchMatchers;
+    // maximum size of the similarity matrix cache in MB, least recently used entries are evicted first, values < 1 disable eviction
+    private int maxCacheSizeMB;
+    // profile dependencies (HyFD, HyUCC, Pyro) of each table in a separate JVM process, see ProfilingScheduler
+    private boolean profileInWorkers;
+    // number of profiling worker processes that run at the same time, values < 1 use all available processors
+    private int numProfilingWorkers;
+    // maximum heap of a profiling worker process in MB, values < 1 use the default of the JVM
+    private int profilingWorkerHeapMB;
+    // time after which a profiling worker is stopped and the table is profiled with the approximate profiler, values < 1 disable the limit
+    private int profilingWorkerTimeoutSeconds;
+
     private boolean evaluateAttributes;
     private boolean saveOutputPerTablePair;
     private boolean saveOutputVerbose;
@@ -95,9 +114,6 @@ public class Configuration {
     private Map<String, List<TokenizerConfiguration>> firstLineTokenizerConfigurations = new HashMap<>();
     private Map<String, List<MatcherConfiguration>> secondLineMatcherConfigurations = new HashMap<>();
 
-    // FIXME: read dependencies on demand, atm this boolean gets set to true whenenver runSimMatrixBoosting is set to true
-    private boolean readDependencies;
-
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -200,8 +216,6 @@ public class Configuration {
             throw new RuntimeException();
         }
         Configuration config = yaml.load(inputStream);
-        // FIXME: read dependencies on demand
-        config.setReadDependencies(config.isRunSimMatrixBoostingOnFirstLineMatchers() || config.isRunSimMatrixBoostingOnSecondLineMatchers());
         log.debug("General configuration: " + config.toString());
 
         // load datasets configuration
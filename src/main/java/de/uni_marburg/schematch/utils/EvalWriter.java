@@ -96,9 +96,16 @@ public class EvalWriter {
         }
     }
 
+    /**
+     * Writes the performance of a single scenario and adds it up to the current dataset performance.
+     * Can be called concurrently for scenarios of the same dataset: scenario output paths are disjoint,
+     * only adding up to the dataset performances is serialized.
+     */
     public void writeScenarioPerformance(MatchTask matchTask) {
         Path scenarioPerformancePath = ResultsUtils.getPerformancePathForScenario(matchTask);
-        writePerformance(EvaluationLevel.SCENARIO, scenarioPerformancePath, matchTask.getPerformances());
+        synchronized (this) {
+            writePerformance(EvaluationLevel.SCENARIO, scenarioPerformancePath, matchTask.getPerformances());
+        }
 
         if (Configuration.getInstance().isEvaluateAttributes()) {
             // FIXME: find a better place to do the mapping of column indices to column labels
@@ -216,14 +223,14 @@ public class EvalWriter {
         }
     }
 
-    public void writeDatasetPerformance(Dataset dataset) {
+    public synchronized void writeDatasetPerformance(Dataset dataset) {
         averagePerformances(this.datasetPerformances, dataset.getScenarioNames().size());
         Path datasetPerformancePath = ResultsUtils.getPerformancePathForDataset(dataset);
         writePerformance(EvaluationLevel.DATASET, datasetPerformancePath, this.datasetPerformances);
         initializePerformances(this.datasetPerformances);
     }
 
-    public void writeOverallPerformance(int numDatasets) {
+    public synchronized void writeOverallPerformance(int numDatasets) {
         averagePerformances(this.overallPerformances, numDatasets);
         Path overallPerformancePath = ResultsUtils.getPerformancePathForOverall();
         writePerformance(EvaluationLevel.OVERALL, overallPerformancePath, this.overallPerformances);
@@ -2,12 +2,13 @@ package de.uni_marburg.schematch.utils;
 
 import de.uni_marburg.schematch.data.Column;
 import de.uni_marburg.schematch.data.Database;
+import de.uni_marburg.schematch.data.DictionaryEncoding;
 import de.uni_marburg.schematch.data.Table;
-import de.uni_marburg.schematch.data.metadata.DatabaseMetadata;
 import de.uni_marburg.schematch.data.metadata.ScenarioMetadata;
+import de.uni_marburg.schematch.data.metadata.dependency.Dependency;
+import de.uni_marburg.schematch.data.metadata.dependency.DependencyStore;
 import de.uni_marburg.schematch.data.metadata.dependency.FunctionalDependency;
 import de.uni_marburg.schematch.data.metadata.dependency.InclusionDependency;
-import de.uni_marburg.schematch.data.metadata.dependency.Metanome;
 import de.uni_marburg.schematch.data.metadata.dependency.UniqueColumnCombination;
 import de.uni_marburg.schematch.matching.Matcher;
 import de.uni_marburg.schematch.matchtask.MatchTask;
@@ -31,19 +32,16 @@ public class InputReader {
     }
 
     public static List<Table> readDataDir(String inputPath, String separator, Database database) {
-        List<Table> tables = new ArrayList<>();
-
         File dir = new File(inputPath);
         File[] listOfFiles = dir.listFiles();
         Arrays.sort(listOfFiles);
 
-        for (File file : listOfFiles) {
-            if (file.isFile()) {
-                Table table = readDataFile(file.getAbsolutePath(), separator, database);
-                tables.add(table);
-            }
-        }
-        return tables;
+        // tables are parsed in parallel, the resulting list keeps the sorted file order
+        return Arrays.stream(listOfFiles)
+                .parallel()
+                .filter(File::isFile)
+                .map(file -> readDataFile(file.getAbsolutePath(), separator, database))
+                .toList();
     }
 
     public static Table readDataFile(String inputPath, Database database) {
@@ -51,59 +49,92 @@ public class InputReader {
     }
 
     public static Table readDataFile(String inputPath, String separator, Database database) {
-        CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
-                .setHeader()
-                .setDelimiter(separator)
-                .setAllowMissingColumnNames(true)
-                .build();
-
         File file = new File(inputPath);
         String fileName = StringUtils.getFileName(file);
         log.trace("Reading file " + file.getAbsolutePath());
 
-        List<String> labels;
+        List<String> labels = new ArrayList<>();
+        // values are dictionary encoded while reading, so every distinct value is kept only once per column
+        List<DictionaryEncoding.Builder> encodingBuilders = new ArrayList<>();
+
+        try {
+            if (separator.length() == 1) {
+                streamDataFile(inputPath, separator.charAt(0), labels, encodingBuilders);
+            } else {
+                parseDataFile(inputPath, separator, labels, encodingBuilders);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
         List<Column> columns = new ArrayList<>();
+        for (int j = 0; j < encodingBuilders.size(); j++) {
+            columns.add(new Column(labels.get(j), encodingBuilders.get(j).build()));
+        }
+
+        return new Table(fileName, labels, columns, inputPath, database);
+    }
+
+    /**
+     * Reads the data file with {@link StreamingCsvReader}, feeding values straight into the column encodings.
+     */
+    private static void streamDataFile(String inputPath, char separator, List<String> labels,
+                                       List<DictionaryEncoding.Builder> encodingBuilders) throws IOException {
+        StreamingCsvReader.read(Path.of(inputPath), separator, new StreamingCsvReader.FieldConsumer() {
+            private boolean isHeader = true;
+
+            @Override
+            public void accept(int fieldIndex, String value) {
+                if (isHeader) {
+                    labels.add(value);
+                } else if (fieldIndex < encodingBuilders.size()) {
+                    encodingBuilders.get(fieldIndex).add(value);
+                }
+            }
+
+            @Override
+            public void endRecord(int numFields) {
+                if (isHeader) {
+                    isHeader = false;
+                    for (int j = 0; j < labels.size(); j++) {
+                        encodingBuilders.add(new DictionaryEncoding.Builder());
+                    }
+                } else if (numFields < encodingBuilders.size()) {
+                    throw new IllegalStateException("Record with " + numFields + " values but " +
+                            encodingBuilders.size() + " columns in file: " + inputPath);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads the data file with commons-csv, used for separators the streaming reader does not support.
+     */
+    private static void parseDataFile(String inputPath, String separator, List<String> labels,
+                                      List<DictionaryEncoding.Builder> encodingBuilders) throws IOException {
+        CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setDelimiter(separator)
+                .setAllowMissingColumnNames(true)
+                .build();
 
         try (Reader reader = new FileReader(inputPath)) {
             CSVParser csvParser = new CSVParser(reader, csvFormat);
             // parse labels
             // TODO: set labels to null if they are all empty strings
-            /*if (csvParser.getHeaderMap().keySet().size() == 1 &&
-                csvParser.getHeaderNames().get(0) == "") {
-                labels = null;
-            } else {
-                labels = csvParser.getHeaderNames();
-            }*/
-            labels = csvParser.getHeaderNames();
+            labels.addAll(csvParser.getHeaderNames());
             // parse records
             int numColumns = csvParser.getHeaderNames().size();
-            List<List<String>> valueLists = new ArrayList<>();
             for (int j = 0; j < numColumns; j++) {
-                valueLists.add(new ArrayList<>());
+                encodingBuilders.add(new DictionaryEncoding.Builder());
             }
             for (CSVRecord csvRecord : csvParser) {
                for (int j = 0; j < numColumns; j++) {
-                   valueLists.get(j).add(csvRecord.get(j));
+                   encodingBuilders.get(j).add(csvRecord.get(j));
                }
             }
             // TODO: work with null labels instead of empty strings
-            /*if (labels == null) {
-                for (int j = 0; j < valueLists.size(); j++) {
-                    columns.add(new Column(null, valueLists.get(j)));
-                }
-            } else {
-                for (int j = 0; j < valueLists.size(); j++) {
-                    columns.add(new Column(labels.get(j), valueLists.get(j)));
-                }
-            }*/
-            for (int j = 0; j < valueLists.size(); j++) {
-                columns.add(new Column(labels.get(j), valueLists.get(j)));
-            }
-        } catch (IOException e) {
-            throw new RuntimeException(e);
         }
-
-        return new Table(fileName, labels, columns, inputPath, database);
     }
 
     public static List<String> fetchGroundTruthTablePairNames(String inputPath) {
@@ -174,58 +205,15 @@ public class InputReader {
         }
     }
 
-    public static DatabaseMetadata readDatabaseMetadata(Database database) {
-        try {
-            String inputPath = database.getPath();
-            String folderName = StringUtils.getFolderName(inputPath);
-            Path metadataFolderPath = Paths.get(new File(inputPath).getParent(), "metadata", folderName);
-            Path indFilePath = metadataFolderPath.resolve("inds.txt"); //getIndFilePath
-
-            Map<Column, Collection<InclusionDependency>> indMap = new HashMap<>();
-            Map<Column, Collection<FunctionalDependency>> fdMap = new HashMap<>();
-            Map<Column, Collection<UniqueColumnCombination>> uccMap = new HashMap<>();
-
-            Collection<InclusionDependency> inds = readINDFile(indFilePath, database, database, indMap);
-            //Added that INDs are calculated
-//            if(inds.isEmpty()) {
-//                inds = Metanome.executePartialIND(database.getTables());
-//            }
-
-            Collection<FunctionalDependency> fds = new ArrayList<>();
-            Collection<UniqueColumnCombination> uccs = new ArrayList<>();
-
-            for (Table table : database.getTables()) {
-                Path fdFilePath = metadataFolderPath.resolve(table.getName()).resolve("FD_results.txt");
-                Path uccFilePath = metadataFolderPath.resolve(table.getName()).resolve("UCC_results.txt");
-
-                Collection<FunctionalDependency> datasetFDs = readFDFile(fdFilePath, table, fdMap);
-//                if(datasetFDs.isEmpty()) {
-//                    // datasetFDs = Metanome.executeFD(List.of(table));
-//                    datasetFDs = Metanome.executePartialFD(List.of(table));
-//                }
-//                for (FunctionalDependency fd : datasetFDs) {
-//                    fd.setPdepTriple(MetadataUtils.getPdep(fd));
-//                }
-                Collection<UniqueColumnCombination> datasetUCCs = readUCCFile(uccFilePath, table, uccMap);
-//                if(datasetUCCs.isEmpty()) {
-//                    // datasetUCCs = Metanome.executeUCC(List.of(table));
-//                    datasetUCCs = Metanome.executePartialUCC(List.of(table));
-//                }
-                fds.addAll(datasetFDs);
-                uccs.addAll(datasetUCCs);
-            }
-            DatabaseMetadata metadata = new DatabaseMetadata(uccs, fds, inds);
-            metadata.getIndMap().putAll(indMap);
-            metadata.getFdMap().putAll(fdMap);
-            metadata.getUccMap().putAll(uccMap);
-
-            return metadata;
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     * @return Folder holding the dependency files of the database, e.g., scenario/metadata/source for scenario/source
+     */
+    public static Path getMetadataFolderPath(Database database) {
+        String inputPath = database.getPath();
+        String folderName = StringUtils.getFolderName(inputPath);
+        return Paths.get(new File(inputPath).getParent(), "metadata", folderName);
     }
 
-
     public static ScenarioMetadata readScenarioMetadata(String inputPath, Database sourceDatabase, Database targetDatabase){
         try {
             Path metadataFolderPath = Paths.get(inputPath, "metadata");
@@ -235,8 +223,8 @@ public class InputReader {
             Map<Column, Collection<InclusionDependency>> sourceContentMap = new HashMap<>();
             Map<Column, Collection<InclusionDependency>> targetContentMap = new HashMap<>();
 
-            Collection<InclusionDependency> sourceContent = readINDFile(sourceFilePath, sourceDatabase, targetDatabase, sourceContentMap);
-            Collection<InclusionDependency> targetContent = readINDFile(targetFilePath, targetDatabase, sourceDatabase, targetContentMap);
+            Collection<InclusionDependency> sourceContent = readINDs(sourceFilePath, sourceDatabase, targetDatabase, sourceContentMap);
+            Collection<InclusionDependency> targetContent = readINDs(targetFilePath, targetDatabase, sourceDatabase, targetContentMap);
 
             ScenarioMetadata metadata = new ScenarioMetadata(sourceContent, targetContent);
             metadata.getSourceToTargetMap().putAll(sourceContentMap);
@@ -248,11 +236,76 @@ public class InputReader {
     }
     
     
+    @FunctionalInterface
+    private interface DependencyFileReader<T> {
+        Collection<T> read(Path path, Map<Column, Collection<T>> map) throws IOException;
+    }
+
+    /**
+     * Reads the dependencies of a text file of the metadata folder from its binary {@link DependencyStore}. If there
+     * is no store or the text file changed since it was written, the text file is read and converted.
+     */
+    private static <T extends Dependency> Collection<T> readDependencies(Path filePath, Map<Column, Collection<T>> map,
+                                                                         DependencyFileReader<T> storeReader,
+                                                                         DependencyFileReader<T> textReader) throws IOException {
+        Path storePath = DependencyStore.getStorePath(filePath);
+        //The map is filled once reading succeeded
+        Map<Column, Collection<T>> fileMap = new HashMap<>();
+        Collection<T> dependencies = null;
+        if (DependencyStore.isUpToDate(filePath)) {
+            try {
+                dependencies = storeReader.read(storePath, fileMap);
+            } catch (IOException e) {
+                log.warn("Could not read dependency store {}, reading {} instead", storePath, filePath, e);
+                fileMap.clear();
+            }
+        }
+
+        if (dependencies == null) {
+            dependencies = textReader.read(filePath, fileMap);
+            if (filePath.toFile().exists()) {
+                try {
+                    DependencyStore.write(storePath, dependencies);
+                } catch (IOException e) {
+                    log.warn("Could not write dependency store {}", storePath, e);
+                }
+            }
+        }
+        fileMap.forEach((column, columnDependencies) -> map.computeIfAbsent(column, k -> new ArrayList<>()).addAll(columnDependencies));
+        return dependencies;
+    }
+
+    /**
+     * Same as {@link #readFDFile} but reads the binary {@link DependencyStore} of the file, converting it if needed
+     */
+    public static Collection<FunctionalDependency> readFDs(Path filePath, Table table, Map<Column, Collection<FunctionalDependency>> map) throws IOException {
+        return readDependencies(filePath, map,
+                (path, fileMap) -> DependencyStore.readFDs(path, table, fileMap),
+                (path, fileMap) -> readFDFile(path, table, fileMap));
+    }
+
+    /**
+     * Same as {@link #readUCCFile} but reads the binary {@link DependencyStore} of the file, converting it if needed
+     */
+    public static Collection<UniqueColumnCombination> readUCCs(Path filePath, Table table, Map<Column, Collection<UniqueColumnCombination>> map) throws IOException {
+        return readDependencies(filePath, map,
+                (path, fileMap) -> DependencyStore.readUCCs(path, table, fileMap),
+                (path, fileMap) -> readUCCFile(path, table, fileMap));
+    }
+
+    /**
+     * Same as {@link #readINDFile} but reads the binary {@link DependencyStore} of the file, converting it if needed
+     */
+    public static Collection<InclusionDependency> readINDs(Path filePath, Database leftDatabase, Database rightDatabase, Map<Column, Collection<InclusionDependency>> map) throws IOException {
+        return readDependencies(filePath, map,
+                (path, fileMap) -> DependencyStore.readINDs(path, leftDatabase.getTables(), rightDatabase.getTables(), fileMap),
+                (path, fileMap) -> readINDFile(path, leftDatabase, rightDatabase, fileMap));
+    }
+
     public static Collection<FunctionalDependency> readFDFile(Path filePath, Table table, Map<Column, Collection<FunctionalDependency>> map) throws IOException{
         Set<FunctionalDependency> fds = new HashSet<>();
         if(!filePath.toFile().exists()) {
-            filePath.toFile().getParentFile().mkdirs();
-            filePath.toFile().createNewFile();
+            return fds;
         }
         List<String> lines = Files.readAllLines(filePath);
         for (String line : lines) {
@@ -292,8 +345,7 @@ public class InputReader {
     public static Collection<UniqueColumnCombination> readUCCFile(Path filePath, Table table, Map<Column, Collection<UniqueColumnCombination>> map) throws IOException{
         Set<UniqueColumnCombination> uccs = new HashSet<>();
         if(!filePath.toFile().exists()) {
-            filePath.toFile().getParentFile().mkdirs();
-            filePath.toFile().createNewFile();
+            return uccs;
         }
         List<String> lines = Files.readAllLines(filePath);
         for (String line : lines) {
@@ -327,8 +379,7 @@ public class InputReader {
     public static Collection<InclusionDependency> readINDFile(Path filePath, List<Table> leftDatabase, List<Table> rightDatabase, Map<Column, Collection<InclusionDependency>> map) throws IOException{
         Set<InclusionDependency> inds = new HashSet<>();
         if(!filePath.toFile().exists()) {
-            filePath.toFile().getParentFile().mkdirs();
-            filePath.toFile().createNewFile();
+            return inds;
         }
 
         List<String> lines = Files.readAllLines(filePath);
@@ -402,38 +453,36 @@ public class InputReader {
         return columnList;
     }
 
-    public static float[][] readCache(MatchTask matchTask, MatchStep matchStep, Matcher matcher, String separator) {
-        float[][] simMatrix = matchTask.getEmptySimMatrix();
-
-        CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
-                .setHeader()
-                .setDelimiter(separator)
-                .setAllowMissingColumnNames(true)
-                .build();
-
-        File file = ResultsUtils.getCachePathForMatchStepInScenario(matchTask, matchStep).resolve(matcher.toString() + ".csv").toFile();
-
-        try (Reader reader = new FileReader(file.getAbsolutePath())) {
-            log.trace("Reading cache file " + file.getAbsolutePath());
-            matchTask.incrementCacheRead();
-            CSVParser csvParser = new CSVParser(reader, csvFormat);
-            // parse records
-            int i = 0;
-            for (CSVRecord csvRecord : csvParser) {
-                for (int j = 0; j < simMatrix[0].length; j++) {
-                    simMatrix[i][j] = Float.parseFloat(csvRecord.get(j));
-                }
-                i += 1;
-            }
-        } catch (IOException e) {
+    /**
+     * @return Cached similarity matrix of the matcher in the given match step or null if there is no valid cache file
+     */
+    public static float[][] readCache(MatchTask matchTask, MatchStep matchStep, Matcher matcher) {
+        CacheIndex cacheIndex = CacheIndex.getInstance();
+        Path file = cacheIndex.lookup(cacheIndex.getKey(matchTask, matchStep, matcher));
+        if (file == null) {
             // no cache for matcher in matchstep
+            matchTask.incrementCacheMiss();
             return null;
         }
 
-        return simMatrix;
-    }
-
-    public static float[][] readCache(MatchTask matchTask, MatchStep matchStep, Matcher matcher) {
-        return readCache(matchTask, matchStep, matcher, Configuration.getInstance().getDefaultSeparator());
+        try {
+            log.trace("Reading cache file " + file.toAbsolutePath());
+            float[][] simMatrix = SimMatrixCache.read(file, matcher.toString(),
+                    SimMatrixCache.getFingerprint(matchTask.getScenario()),
+                    matchTask.getScenario().getSourceDatabase().getNumColumns(),
+                    matchTask.getScenario().getTargetDatabase().getNumColumns());
+            if (simMatrix == null) {
+                log.debug("Ignoring outdated cache file " + file.toAbsolutePath());
+                matchTask.incrementCacheMiss();
+                return null;
+            }
+            matchTask.incrementCacheRead();
+            return simMatrix;
+        } catch (IOException | RuntimeException e) {
+            // corrupt cache files count as misses, the matcher is run instead
+            log.error("Could not read cache file " + file.toAbsolutePath(), e);
+            matchTask.incrementCacheMiss();
+            return null;
+        }
     }
 }
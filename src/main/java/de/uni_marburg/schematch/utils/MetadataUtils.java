@@ -1,6 +1,7 @@
 package de.uni_marburg.schematch.utils;
 
 import de.uni_marburg.schematch.data.metadata.dependency.Dependency;
+import de.uni_marburg.schematch.data.metadata.dependency.DependencyStore;
 import de.uni_marburg.schematch.data.metadata.dependency.FunctionalDependency;
 import de.uni_marburg.schematch.data.metadata.dependency.InclusionDependency;
 import de.uni_marburg.schematch.data.metadata.dependency.UniqueColumnCombination;
@@ -81,6 +82,9 @@ public class MetadataUtils {
         return null;
     }
 
+    /**
+     * Saves the dependencies as text file and as binary {@link DependencyStore} the metadata is read from
+     */
     public static void saveDeps(Path path, Collection<? extends Dependency> objects, String fileName) {
         Path filePath = path.resolve(fileName);
 
@@ -92,6 +96,13 @@ public class MetadataUtils {
         } catch (IOException e) {
             e.printStackTrace();
         }
+
+        //Written after the text file, so it is not older than it
+        try {
+            DependencyStore.write(DependencyStore.getStorePath(filePath), objects);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
     public static void saveINDs(Path path, Collection<? extends InclusionDependency> inds) {
@@ -14,19 +14,18 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 public class OutputWriter {
     private final static Logger log = LogManager.getLogger(OutputWriter.class);
 
     public static void writeSimMatrix(Path path, MatchTask matchTask, String matcherInfo, float[][] simMatrix) {
         Path pathToFile = path.resolve(matcherInfo + ".csv");
-        boolean isCacheFile = path.toString().startsWith(Configuration.getInstance().getCacheDir());
 
         try {
             Files.createDirectories(pathToFile.getParent());
             BufferedWriter writer = new BufferedWriter(new FileWriter(pathToFile.toString()));
-            if (Configuration.getInstance().isSaveOutputVerbose() &&
-                    !isCacheFile) { // always cache plain sim matrices
+            if (Configuration.getInstance().isSaveOutputVerbose()) {
                 StringBuilder line = new StringBuilder();
                 line.append("Source\\Target");
                 for (Table table : matchTask.getScenario().getTargetDatabase().getTables()) {
@@ -41,8 +40,7 @@ public class OutputWriter {
             for (int i = 0; i < simMatrix.length; i++) {
                 float[] scoreList = simMatrix[i];
                 StringBuilder line = new StringBuilder();
-                if (Configuration.getInstance().isSaveOutputVerbose() &&
-                        !isCacheFile) { // always cache plain sim matrices
+                if (Configuration.getInstance().isSaveOutputVerbose()) {
                     line.append(matchTask.getScenario().getSourceDatabase().getFullColumnNameByIndex(i));
                     line.append(Configuration.getInstance().getDefaultSeparator());
                 }
@@ -62,6 +60,31 @@ public class OutputWriter {
         }
     }
 
+    /**
+     * Writes the similarity matrix of the matcher in the given match step to the cache, see {@link SimMatrixCache}
+     * for the file format and {@link CacheIndex} for the cache keys
+     */
+    public static void writeCache(MatchTask matchTask, MatchStep matchStep, Matcher matcher, float[][] simMatrix) {
+        CacheIndex cacheIndex = CacheIndex.getInstance();
+        String key = cacheIndex.getKey(matchTask, matchStep, matcher);
+        Path pathToFile = cacheIndex.getPath(key);
+        // scenarios with equal inputs may write the same entry concurrently, so write to a temporary file first
+        Path tmpFile = pathToFile.resolveSibling(pathToFile.getFileName() + "." + Thread.currentThread().getId() + CacheIndex.TMP_FILE_EXTENSION);
+        try {
+            SimMatrixCache.write(tmpFile, matcher.toString(), SimMatrixCache.getFingerprint(matchTask.getScenario()), simMatrix);
+            Files.move(tmpFile, pathToFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            cacheIndex.add(key);
+        } catch (IOException e) {
+            log.error("Could not write cache file " + pathToFile, e);
+        } finally {
+            try {
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException e) {
+                log.error("Could not delete temporary cache file " + tmpFile, e);
+            }
+        }
+    }
+
     private static void writeTablePairSimMatrices(Path path, MatchTask matchTask, String matcherInfo, float[][] simMatrix) {
         Path pathToTablePairs = path.resolve("tablepairs");
         Path pathToMatcher = pathToTablePairs.resolve(matcherInfo);
@@ -31,14 +31,6 @@ public class ResultsUtils {
         return getOutputPathForScenario(matchTask).resolve(matchStep.toString());
     }
 
-    // Cache paths
-    public static Path getCachePathForMatchStepInScenario(MatchTask matchTask, MatchStep matchingStep) {
-        return Path.of(config.getCacheDir())
-                .resolve(matchTask.getDataset().getName())
-                .resolve(matchTask.getScenario().getName())
-                .resolve(matchingStep.toString());
-    }
-
     // Performance paths
     public static Path getPerformancePathForOverall() {
         return getBaseResultsPath().resolve(config.getPerformanceDir());
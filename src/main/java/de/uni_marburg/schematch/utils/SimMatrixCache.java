@@ -0,0 +1,138 @@
+package de.uni_marburg.schematch.utils;
+
+import de.uni_marburg.schematch.data.Database;
+import de.uni_marburg.schematch.data.Scenario;
+import de.uni_marburg.schematch.data.Table;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary cache file format for similarity matrices. A file consists of a header (magic number, version,
+ * dimensions, scenario fingerprint and matcher id) followed by the raw matrix scores as little-endian floats
+ * in row-major order. Files are read via a memory-mapped {@link FileChannel}.
+ */
+public class SimMatrixCache {
+    public static final String FILE_EXTENSION = ".bin";
+
+    private static final int MAGIC = 0x534D4346; // "SMCF"
+    private static final int VERSION = 1;
+    private static final int FIXED_HEADER_SIZE = 4 * Integer.BYTES + Long.BYTES;
+
+    public static void write(Path path, String matcherId, long scenarioFingerprint, float[][] simMatrix) throws IOException {
+        int numRows = simMatrix.length;
+        int numColumns = numRows == 0 ? 0 : simMatrix[0].length;
+        byte[] matcherIdBytes = matcherId.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_SIZE + Integer.BYTES + matcherIdBytes.length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(numRows).putInt(numColumns).putLong(scenarioFingerprint);
+        header.putInt(matcherIdBytes.length).put(matcherIdBytes);
+        header.flip();
+
+        long scoresSize = (long) numRows * numColumns * Float.BYTES;
+        if (scoresSize > Integer.MAX_VALUE - header.limit()) {
+            throw new IOException("Similarity matrix of " + numRows + "x" + numColumns + " is too large to cache: " + path);
+        }
+        ByteBuffer scores = ByteBuffer.allocate((int) scoresSize).order(ByteOrder.LITTLE_ENDIAN);
+        FloatBuffer floatScores = scores.asFloatBuffer();
+        for (float[] row : simMatrix) {
+            floatScores.put(row);
+        }
+
+        Files.createDirectories(path.getParent());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (scores.hasRemaining()) {
+                channel.write(scores);
+            }
+        }
+    }
+
+    /**
+     * @return Cached similarity matrix or null if the file was written for a different matcher, scenario or
+     * matrix dimensions
+     * @throws IOException if the file does not exist or is not a valid cache file, e.g., a truncated one
+     */
+    public static float[][] read(Path path, String matcherId, long scenarioFingerprint, int numRows, int numColumns) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a similarity matrix cache file: " + path);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < FIXED_HEADER_SIZE + Integer.BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a similarity matrix cache file: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported similarity matrix cache version " + version + ": " + path);
+            }
+            int cachedNumRows = buffer.getInt();
+            int cachedNumColumns = buffer.getInt();
+            long cachedFingerprint = buffer.getLong();
+            int matcherIdLength = buffer.getInt();
+            if (cachedNumRows < 0 || cachedNumColumns < 0 || matcherIdLength < 0 || matcherIdLength > buffer.remaining()) {
+                throw new IOException("Corrupt similarity matrix cache file: " + path);
+            }
+            byte[] matcherIdBytes = new byte[matcherIdLength];
+            buffer.get(matcherIdBytes);
+            if (cachedNumRows != numRows || cachedNumColumns != numColumns || cachedFingerprint != scenarioFingerprint ||
+                    !Arrays.equals(matcherIdBytes, matcherId.getBytes(StandardCharsets.UTF_8))) {
+                return null;
+            }
+            if ((long) numRows * numColumns * Float.BYTES > buffer.remaining()) {
+                throw new IOException("Truncated similarity matrix cache file: " + path);
+            }
+
+            FloatBuffer scores = buffer.asFloatBuffer();
+            float[][] simMatrix = new float[numRows][numColumns];
+            for (float[] row : simMatrix) {
+                scores.get(row);
+            }
+            return simMatrix;
+        }
+    }
+
+    /**
+     * @return Fingerprint of the schemas (table names, labels and row counts) of both databases of the scenario,
+     * so cache files of a scenario whose data changed are not used
+     */
+    public static long getFingerprint(Scenario scenario) {
+        long hash = 0xcbf29ce484222325L;
+        for (Database database : new Database[]{scenario.getSourceDatabase(), scenario.getTargetDatabase()}) {
+            hash = fnv1a(hash, database.getName());
+            for (Table table : database.getTables()) {
+                hash = fnv1a(hash, table.getName());
+                for (String label : table.getLabels()) {
+                    hash = fnv1a(hash, label);
+                }
+                int numRows = table.getNumColumns() == 0 ? 0 : table.getColumn(0).getValues().size();
+                hash = fnv1a(hash, String.valueOf(numRows));
+            }
+        }
+        return hash;
+    }
+
+    private static long fnv1a(long hash, String s) {
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        // separator, so consecutive strings cannot be confused
+        hash ^= 0xff;
+        hash *= 0x100000001b3L;
+        return hash;
+    }
+}
@@ -0,0 +1,166 @@
+package de.uni_marburg.schematch.utils;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming parser for CSV data files. Files are memory-mapped chunk by chunk and scanned for delimiters,
+ * quotes and line breaks directly on the mapped (UTF-8 encoded) bytes, only the bytes of a field are copied. Every parsed field is handed to a
+ * {@link FieldConsumer} right away, so no intermediate rows are materialized.
+ * Follows the rules of {@link org.apache.commons.csv.CSVFormat#DEFAULT}: fields may be enclosed in double
+ * quotes, quotes inside them are escaped by doubling, records end with LF, CR or CRLF and empty lines are skipped.
+ */
+public class StreamingCsvReader {
+    private static final int CHUNK_SIZE = 64 * 1024 * 1024;
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    public interface FieldConsumer {
+        void accept(int fieldIndex, String value);
+
+        void endRecord(int numFields);
+    }
+
+    private enum State {
+        FIELD_START,
+        UNQUOTED,
+        QUOTED,
+        QUOTE_IN_QUOTED
+    }
+
+    private final byte delimiter;
+    private final FieldConsumer consumer;
+    private State state = State.FIELD_START;
+    // bytes of the current field
+    private byte[] field = new byte[256];
+    private int fieldLength = 0;
+    private int fieldIndex = 0;
+    private long recordIndex = 0;
+    private boolean skipLineFeed = false;
+
+    private StreamingCsvReader(char delimiter, FieldConsumer consumer) {
+        if (delimiter > 127 || delimiter == QUOTE || delimiter == CR || delimiter == LF) {
+            throw new IllegalArgumentException("Unsupported delimiter: " + delimiter);
+        }
+        this.delimiter = (byte) delimiter;
+        this.consumer = consumer;
+    }
+
+    public static void read(Path path, char delimiter, FieldConsumer consumer) throws IOException {
+        new StreamingCsvReader(delimiter, consumer).read(path);
+    }
+
+    private void read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += CHUNK_SIZE) {
+                int length = (int) Math.min(CHUNK_SIZE, size - position);
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                scan(chunk, length);
+            }
+            finish();
+        }
+    }
+
+    private void scan(MappedByteBuffer chunk, int length) throws IOException {
+        int i = 0;
+        while (i < length) {
+            byte b = chunk.get(i);
+            if (this.skipLineFeed) {
+                this.skipLineFeed = false;
+                if (b == LF) {
+                    i++;
+                    continue;
+                }
+            }
+            switch (this.state) {
+                case FIELD_START -> {
+                    if (b == QUOTE) {
+                        this.state = State.QUOTED;
+                        i++;
+                    } else if (this.fieldIndex == 0 && (b == CR || b == LF)) {
+                        // empty line
+                        this.skipLineFeed = b == CR;
+                        i++;
+                    } else {
+                        this.state = State.UNQUOTED;
+                    }
+                }
+                case UNQUOTED -> {
+                    int end = i;
+                    byte c;
+                    while (end < length && (c = chunk.get(end)) != this.delimiter && c != CR && c != LF) {
+                        end++;
+                    }
+                    append(chunk, i, end - i);
+                    if (end < length) {
+                        endField(decodeField(), chunk.get(end));
+                    }
+                    i = end + 1;
+                }
+                case QUOTED -> {
+                    int end = i;
+                    while (end < length && chunk.get(end) != QUOTE) {
+                        end++;
+                    }
+                    append(chunk, i, end - i);
+                    if (end < length) {
+                        this.state = State.QUOTE_IN_QUOTED;
+                    }
+                    i = end + 1;
+                }
+                case QUOTE_IN_QUOTED -> {
+                    if (b == QUOTE) {
+                        // escaped quote
+                        append(chunk, i, 1);
+                        this.state = State.QUOTED;
+                    } else if (b == this.delimiter || b == CR || b == LF) {
+                        endField(decodeField(), b);
+                    } else {
+                        throw new IOException("Invalid character between quoted field and delimiter in record " + this.recordIndex);
+                    }
+                    i++;
+                }
+            }
+        }
+    }
+
+    private void finish() throws IOException {
+        if (this.state == State.QUOTED) {
+            throw new IOException("Reached end of file before quoted field in record " + this.recordIndex + " was closed");
+        }
+        if (this.state != State.FIELD_START || this.fieldIndex > 0) {
+            endField(decodeField(), LF);
+        }
+    }
+
+    private void endField(String value, byte terminator) {
+        this.consumer.accept(this.fieldIndex++, value);
+        this.fieldLength = 0;
+        this.state = State.FIELD_START;
+        if (terminator != this.delimiter) {
+            this.consumer.endRecord(this.fieldIndex);
+            this.fieldIndex = 0;
+            this.recordIndex++;
+            this.skipLineFeed = terminator == CR;
+        }
+    }
+
+    private void append(MappedByteBuffer chunk, int offset, int length) {
+        if (this.fieldLength + length > this.field.length) {
+            this.field = Arrays.copyOf(this.field, Math.max(2 * this.field.length, this.fieldLength + length));
+        }
+        chunk.get(offset, this.field, this.fieldLength, length);
+        this.fieldLength += length;
+    }
+
+    private String decodeField() {
+        return new String(this.field, 0, this.fieldLength, StandardCharsets.UTF_8);
+    }
+}
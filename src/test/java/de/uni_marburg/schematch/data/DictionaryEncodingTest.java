@@ -0,0 +1,39 @@
+package de.uni_marburg.schematch.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DictionaryEncodingTest {
+
+    @Test
+    void encode() {
+        List<String> values = List.of("b", "a", "b", "", "a", "b");
+        DictionaryEncoding encoding = DictionaryEncoding.encode(values);
+
+        assertEquals(6, encoding.getNumRows());
+        assertEquals(3, encoding.getNumDistinct());
+        assertArrayEquals(new String[]{"b", "a", ""}, encoding.getDictionary());
+        assertArrayEquals(new int[]{0, 1, 0, 2, 1, 0}, encoding.getCodes());
+        assertArrayEquals(new int[]{3, 2, 1}, encoding.getFrequencies());
+        assertEquals(1, encoding.getCode("a"));
+        assertEquals(-1, encoding.getCode("c"));
+        assertEquals(values, encoding.getValues());
+
+        DictionaryEncoding selected = encoding.select(new int[]{3, 1});
+        assertEquals(1, selected.getCode("a"));
+        assertTrue(selected.contains(""));
+        assertFalse(selected.contains("b"));
+    }
+
+    @Test
+    void columnValuesView() {
+        Column column = new Column("test", DictionaryEncoding.encode(List.of("x", "y", "x")));
+
+        assertEquals(List.of("x", "y", "x"), column.getValues());
+        assertEquals(2, column.getNumDistinctValues());
+        assertThrows(UnsupportedOperationException.class, () -> column.getValues().add("z"));
+    }
+}
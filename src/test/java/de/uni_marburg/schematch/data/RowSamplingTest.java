@@ -0,0 +1,72 @@
+package de.uni_marburg.schematch.data;
+
+import de.uni_marburg.schematch.matching.metadata.DistinctCountMatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowSamplingTest {
+
+    private static DictionaryEncoding createEncoding(int numRows) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < numRows; i++) {
+            // 3/4 of the rows are "a", the rest are distinct
+            values.add(i % 4 == 0 ? String.valueOf(i) : "a");
+        }
+        return DictionaryEncoding.encode(values);
+    }
+
+    @Test
+    void sampleRows() {
+        DictionaryEncoding encoding = createEncoding(1000);
+
+        assertArrayEquals(new int[]{0, 1, 2}, new RowSampling(RowSampling.Strategy.FIRST_N, 3, 0).sampleRows(encoding));
+        assertEquals(1000, RowSampling.ALL.sampleRows(encoding).length);
+        assertEquals(1000, new RowSampling(RowSampling.Strategy.RESERVOIR, 2000, 0).sampleRows(encoding).length);
+
+        for (RowSampling.Strategy strategy : List.of(RowSampling.Strategy.RESERVOIR, RowSampling.Strategy.STRATIFIED)) {
+            int[] rows = new RowSampling(strategy, 100, 42).sampleRows(encoding);
+            assertEquals(100, rows.length);
+            for (int k = 1; k < rows.length; k++) {
+                assertTrue(rows[k - 1] < rows[k]);
+            }
+            // same seed, same sample
+            assertArrayEquals(rows, new RowSampling(strategy, 100, 42).sampleRows(encoding));
+        }
+
+        int[] stratifiedRows = new RowSampling(RowSampling.Strategy.STRATIFIED, 100, 42).sampleRows(encoding);
+        long numA = 0;
+        for (int row : stratifiedRows) {
+            if (encoding.getValue(row).equals("a")) {
+                numA++;
+            }
+        }
+        assertEquals(75, numA);
+    }
+
+    @Test
+    void columnSample() {
+        Column column = new Column("test", createEncoding(1000));
+        RowSampling sampling = RowSampling.of("first_n", 8, 0);
+
+        Column sample = column.getSample(sampling);
+        assertEquals(List.of("0", "a", "a", "a", "4", "a", "a", "a"), sample.getValues());
+        assertEquals(3, sample.getNumDistinctValues());
+        assertSame(sample, column.getSample(RowSampling.of("first_n", 8, 0)));
+        assertSame(column, column.getSample(RowSampling.ALL));
+    }
+
+    @Test
+    void samplingInMatcherName() {
+        DistinctCountMatcher matcher = new DistinctCountMatcher();
+        assertEquals("DistinctCountMatcher()", matcher.toString());
+
+        matcher.setSamplingStrategy("reservoir");
+        matcher.setSampleSize(1000);
+        matcher.setSampleSeed(7);
+        assertEquals("DistinctCountMatcher(sampling=reservoir(1000,7))", matcher.toString());
+    }
+}
@@ -0,0 +1,89 @@
+package de.uni_marburg.schematch.data.metadata;
+
+import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.Database;
+import de.uni_marburg.schematch.data.Table;
+import de.uni_marburg.schematch.data.metadata.dependency.FunctionalDependency;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseMetadataTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path sourcePath;
+    private Path metadataPath;
+
+    private Database createDatabase() throws IOException {
+        sourcePath = tempDir.resolve("scenario").resolve("source");
+        metadataPath = tempDir.resolve("scenario").resolve("metadata").resolve("source");
+        Files.createDirectories(sourcePath);
+        Files.writeString(sourcePath.resolve("customers.csv"), "id,name,city\n1,Ann,Berlin\n2,Bob,Paris\n3,Cid,Paris\n");
+        Files.writeString(sourcePath.resolve("orders.csv"), "order_id,customer_id\n1,1\n2,1\n3,2\n");
+
+        Files.createDirectories(metadataPath.resolve("customers"));
+        Files.writeString(metadataPath.resolve("customers").resolve("FD_results.txt"),
+                "[customers.id] --> customers.name, customers.city\n[customers.name] --> customers.city\n");
+        Files.writeString(metadataPath.resolve("customers").resolve("UCC_results.txt"), "[customers.id]\n[customers.name]\n");
+        Files.writeString(metadataPath.resolve("inds.txt"), "[customers.id] [= [orders.customer_id]\n");
+        return new Database(sourcePath.toString());
+    }
+
+    private static Set<String> toStrings(Collection<?> dependencies) {
+        return dependencies.stream().map(Object::toString).collect(Collectors.toSet());
+    }
+
+    @Test
+    void readDependenciesOfAllTables() throws IOException {
+        Database db = createDatabase();
+        DatabaseMetadata metadata = db.getMetadata();
+
+        assertEquals(Set.of("[customers.id] --> customers.name", "[customers.id] --> customers.city",
+                "[customers.name] --> customers.city"), toStrings(metadata.getFds()));
+        assertEquals(Set.of("[customers.id]", "[customers.name]"), toStrings(metadata.getUccs()));
+        assertEquals(Set.of("[orders.customer_id] [= [customers.id]"), toStrings(metadata.getInds()));
+
+        Column name = db.getTableByName("customers").getColumn(1);
+        assertEquals(Set.of("[customers.id] --> customers.name", "[customers.name] --> customers.city"),
+                toStrings(metadata.getFunctionalDependencies(name)));
+        assertEquals(Set.of("[customers.name]"), toStrings(metadata.getUniqueColumnCombinations(name)));
+        Column customerId = db.getTableByName("orders").getColumn(1);
+        assertEquals(Set.of("[orders.customer_id] [= [customers.id]"), toStrings(metadata.getInclusionDependencies(customerId)));
+    }
+
+    @Test
+    void readTablesOnDemand() throws IOException {
+        Database db = createDatabase();
+        Table customers = db.getTableByName("customers");
+
+        //Dependencies of a table are read on first access, missing files are not created
+        assertEquals(2, db.getMetadata().getFunctionalDependencies(customers.getColumn(0)).size());
+        assertNull(db.getMetadata().getFunctionalDependencies(db.getTableByName("orders").getColumn(0)));
+        assertFalse(Files.exists(metadataPath.resolve("orders")));
+
+        //Concurrent first accesses see the same dependencies
+        DatabaseMetadata metadata = new DatabaseMetadata(db);
+        List<Collection<FunctionalDependency>> results = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> metadata.getFunctionalDependencies(customers.getColumn(2))))
+                .toList().stream()
+                .map(CompletableFuture::join)
+                .toList();
+        for (Collection<FunctionalDependency> result : results) {
+            assertSame(results.get(0), result);
+        }
+        assertEquals(List.of("customers"), metadata.getFds().stream().map(fd -> fd.getDependant().getTable().getName()).distinct().toList());
+    }
+}
@@ -0,0 +1,163 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.Database;
+import de.uni_marburg.schematch.data.Table;
+import de.uni_marburg.schematch.utils.InputReader;
+import de.uni_marburg.schematch.utils.MetadataUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path metadataPath;
+
+    private Database createDatabase() throws IOException {
+        Path sourcePath = tempDir.resolve("scenario").resolve("source");
+        metadataPath = tempDir.resolve("scenario").resolve("metadata").resolve("source");
+        Files.createDirectories(sourcePath);
+        Files.writeString(sourcePath.resolve("customers.csv"), "id,name,city\n1,Ann,Berlin\n2,Bob,Paris\n3,Cid,Paris\n");
+        Files.writeString(sourcePath.resolve("orders.csv"), "order_id,customer_id\n1,1\n2,1\n3,2\n");
+
+        Files.createDirectories(metadataPath.resolve("customers"));
+        Files.writeString(metadataPath.resolve("customers").resolve("FD_results.txt"),
+                "[customers.id] --> customers.name, customers.city\n[customers.name, customers.id] --> customers.city\n");
+        Files.writeString(metadataPath.resolve("customers").resolve("UCC_results.txt"), "[customers.id]\n[customers.name]\n");
+        Files.writeString(metadataPath.resolve("inds.txt"), "[customers.id] [= [orders.customer_id], [orders.order_id]\n");
+        return new Database(sourcePath.toString());
+    }
+
+    private static Set<String> toStrings(Collection<?> dependencies) {
+        return dependencies.stream().map(Object::toString).collect(Collectors.toSet());
+    }
+
+    private static <T> Map<String, Set<String>> toStrings(Map<Column, Collection<T>> map) {
+        Map<String, Set<String>> result = new HashMap<>();
+        map.forEach((column, dependencies) -> result.put(column.getTable().getName() + "." + column.getLabel(), toStrings(dependencies)));
+        return result;
+    }
+
+    @Test
+    void convertTextFiles() throws IOException {
+        Database db = createDatabase();
+        Table customers = db.getTableByName("customers");
+        Path fdFile = metadataPath.resolve("customers").resolve("FD_results.txt");
+        Path indFile = metadataPath.resolve("inds.txt");
+
+        Map<Column, Collection<FunctionalDependency>> textFdMap = new HashMap<>();
+        Collection<FunctionalDependency> textFds = InputReader.readFDFile(fdFile, customers, textFdMap);
+        Map<Column, Collection<InclusionDependency>> textIndMap = new HashMap<>();
+        Collection<InclusionDependency> textInds = InputReader.readINDFile(indFile, db, db, textIndMap);
+
+        //First read converts the text files, second read uses the stores
+        for (int i = 0; i < 2; i++) {
+            Map<Column, Collection<FunctionalDependency>> fdMap = new HashMap<>();
+            Collection<FunctionalDependency> fds = InputReader.readFDs(fdFile, customers, fdMap);
+            assertTrue(Files.exists(metadataPath.resolve("customers").resolve("FD_results.bin")));
+            assertEquals(toStrings(textFds), toStrings(fds));
+            assertEquals(toStrings(textFdMap), toStrings(fdMap));
+            for (FunctionalDependency fd : fds) {
+                assertSame(customers, fd.getDependant().getTable());
+            }
+
+            Map<Column, Collection<InclusionDependency>> indMap = new HashMap<>();
+            Collection<InclusionDependency> inds = InputReader.readINDs(indFile, db, db, indMap);
+            assertTrue(Files.exists(metadataPath.resolve("inds.bin")));
+            assertEquals(toStrings(textInds), toStrings(inds));
+            assertEquals(toStrings(textIndMap), toStrings(indMap));
+        }
+        assertEquals(3, textFds.size());
+        assertEquals(2, textInds.size());
+
+        //Missing text files are not converted
+        Path ordersUccFile = metadataPath.resolve("orders").resolve("UCC_results.txt");
+        assertTrue(InputReader.readUCCs(ordersUccFile, db.getTableByName("orders"), new HashMap<>()).isEmpty());
+        assertFalse(Files.exists(metadataPath.resolve("orders")));
+    }
+
+    @Test
+    void savedStoreIsRead() throws IOException {
+        Database db = createDatabase();
+        Table customers = db.getTableByName("customers");
+        Path tableMetadataPath = metadataPath.resolve("customers");
+        List<UniqueColumnCombination> uccs = List.of(new UniqueColumnCombination(List.of(customers.getColumn(2), customers.getColumn(0))));
+
+        MetadataUtils.saveUCCs(tableMetadataPath, uccs);
+        //Store is read even if the text file cannot be parsed
+        Path uccFile = tableMetadataPath.resolve("UCC_results.txt");
+        Files.writeString(uccFile, "not a ucc\n");
+        Files.setLastModifiedTime(uccFile, Files.getLastModifiedTime(DependencyStore.getStorePath(uccFile)));
+
+        Map<Column, Collection<UniqueColumnCombination>> map = new HashMap<>();
+        Collection<UniqueColumnCombination> read = InputReader.readUCCs(uccFile, customers, map);
+        assertEquals(uccs, new ArrayList<>(read));
+        assertEquals(read, map.get(customers.getColumn(0)));
+        assertNull(map.get(customers.getColumn(1)));
+
+        //Changed text files are converted again
+        Files.writeString(uccFile, "[customers.name]\n");
+        Files.setLastModifiedTime(uccFile, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        assertEquals(Set.of("[customers.name]"), toStrings(InputReader.readUCCs(uccFile, customers, new HashMap<>())));
+        assertEquals(Set.of("[customers.name]"), toStrings(DependencyStore.readUCCs(DependencyStore.getStorePath(uccFile), customers, new HashMap<>())));
+    }
+
+    @Test
+    void resolveColumnsOfBothDatabases() throws IOException {
+        Database db = createDatabase();
+        Table orders = db.getTableByName("orders");
+        Table otherOrders = InputReader.readDataFile(tempDir.resolve("scenario").resolve("source").resolve("orders.csv").toString(), null);
+        InclusionDependency ind = new InclusionDependency(List.of(otherOrders.getColumn(1)), List.of(orders.getColumn(0)));
+        Path storeFile = tempDir.resolve("inds.bin");
+
+        DependencyStore.write(storeFile, List.of(ind));
+        Map<Column, Collection<InclusionDependency>> map = new HashMap<>();
+        InclusionDependency read = DependencyStore.readINDs(storeFile, List.of(orders), List.of(otherOrders), map).get(0);
+
+        assertSame(otherOrders.getColumn(1), read.getDependant().iterator().next());
+        assertSame(orders.getColumn(0), read.getReferenced().iterator().next());
+        assertEquals(List.of(read), map.get(otherOrders.getColumn(1)));
+        assertEquals(List.of(read), map.get(orders.getColumn(0)));
+        assertThrows(IOException.class, () -> DependencyStore.readFDs(storeFile, orders, new HashMap<>()));
+    }
+
+    @Test
+    void corruptStoreFallsBackToTextFile() throws IOException {
+        Database db = createDatabase();
+        Table customers = db.getTableByName("customers");
+        Path fdFile = metadataPath.resolve("customers").resolve("FD_results.txt");
+        Path storeFile = DependencyStore.getStorePath(fdFile);
+        Set<String> textFds = toStrings(InputReader.readFDFile(fdFile, customers, new HashMap<>()));
+        InputReader.readFDs(fdFile, customers, new HashMap<>());
+        byte[] store = Files.readAllBytes(storeFile);
+
+        //Negative number of columns, posting of a dependency that does not exist and a truncated store
+        byte[] negativeCount = store.clone();
+        ByteBuffer.wrap(negativeCount).putInt(8, -1);
+        byte[] invalidPosting = store.clone();
+        ByteBuffer.wrap(invalidPosting).putInt(store.length - 4, Integer.MAX_VALUE);
+        byte[] truncated = Arrays.copyOf(store, store.length - 2);
+        for (byte[] corrupt : List.of(negativeCount, invalidPosting, truncated)) {
+            Files.write(storeFile, corrupt);
+            assertThrows(IOException.class, () -> DependencyStore.readFDs(storeFile, customers, new HashMap<>()));
+
+            Map<Column, Collection<FunctionalDependency>> fdMap = new HashMap<>();
+            assertEquals(textFds, toStrings(InputReader.readFDs(fdFile, customers, fdMap)));
+            assertEquals(textFds, toStrings(fdMap.get(customers.getColumn(0))));
+            //The store is written again from the text file
+            assertArrayEquals(store, Files.readAllBytes(storeFile));
+        }
+    }
+}
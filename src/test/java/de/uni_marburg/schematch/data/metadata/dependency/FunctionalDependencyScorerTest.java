@@ -0,0 +1,82 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.Database;
+import de.uni_marburg.schematch.data.RowSampling;
+import de.uni_marburg.schematch.data.Table;
+import de.uni_marburg.schematch.data.metadata.DatabaseMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FunctionalDependencyScorerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Database createDatabase() throws IOException {
+        Path dir = tempDir.resolve("db");
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("people.csv"), "id,name,city,zip,country\n" +
+                "1,Ann,Berlin,10115,DE\n2,Bob,Berlin,10117,DE\n3,Cid,Paris,75001,FR\n4,Dan,Paris,75001,FR\n" +
+                "5,Eve,Rome,00118,IT\n6,Fay,Berlin,10115,DE\n7,Gus,Lyon,69001,FR\n8,Hal,Rome,00118,IT\n");
+        Database db = new Database(dir.toString());
+        Table people = db.getTableByName("people");
+        Column id = people.getColumn(0);
+        Column name = people.getColumn(1);
+        Column city = people.getColumn(2);
+        Column zip = people.getColumn(3);
+        Column country = people.getColumn(4);
+        db.setMetadata(new DatabaseMetadata(List.of(new UniqueColumnCombination(List.of(id))), List.of(
+                new FunctionalDependency(List.of(city), country),
+                new FunctionalDependency(List.of(zip), country),
+                new FunctionalDependency(List.of(name), country),
+                new FunctionalDependency(List.of(zip), city),
+                new FunctionalDependency(List.of(city, country), zip),
+                new FunctionalDependency(List.of(), city)), List.of()));
+        return db;
+    }
+
+    // NGPDEP as defined on all FDs of the database with the same dependant
+    private static double expectedNGPDEPScore(FunctionalDependency fd, DatabaseMetadata metadata, RowSampling sampling) {
+        if (fd.getDeterminant().isEmpty()) {
+            return 0.0;
+        }
+        double sum = metadata.getFunctionalDependenciesWithGivenDependent(fd.getDependant()).stream()
+                .mapToDouble(other -> other.calculateGPDEPScore(sampling))
+                .sum();
+        return sum == 0.0 ? 0.0 : Math.max(fd.calculateGPDEPScore(sampling) / sum, 0.0);
+    }
+
+    @Test
+    void sameScoresAsPerFunctionalDependency() throws IOException {
+        DatabaseMetadata metadata = createDatabase().getMetadata();
+        List<FunctionalDependency> fds = List.copyOf(metadata.getFds());
+
+        for (RowSampling sampling : List.of(RowSampling.ALL, new RowSampling(RowSampling.Strategy.STRATIFIED, 5, 3))) {
+            FunctionalDependencyScorer scorer = metadata.getFunctionalDependencyScorer(sampling);
+            double[] scores = scorer.getNGPDEPScores(fds);
+            for (int i = 0; i < fds.size(); i++) {
+                double expected = expectedNGPDEPScore(fds.get(i), metadata, sampling);
+                assertEquals(expected, scores[i], 0.0, fds.get(i).toString());
+                assertEquals(expected, fds.get(i).calculateNGPDEPScore(sampling), 0.0, fds.get(i).toString());
+            }
+        }
+        assertTrue(metadata.getFds().stream().anyMatch(fd -> fd.calculateNGPDEPScore() > 0));
+    }
+
+    @Test
+    void scorersCachedPerSampling() throws IOException {
+        DatabaseMetadata metadata = createDatabase().getMetadata();
+
+        assertSame(metadata.getFunctionalDependencyScorer(RowSampling.ALL), metadata.getFunctionalDependencyScorer(RowSampling.of("", 0, 0)));
+        assertNotSame(metadata.getFunctionalDependencyScorer(RowSampling.ALL),
+                metadata.getFunctionalDependencyScorer(new RowSampling(RowSampling.Strategy.FIRST_N, 4, 0)));
+    }
+}
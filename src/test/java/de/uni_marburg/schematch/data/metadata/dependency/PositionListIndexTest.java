@@ -0,0 +1,141 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.DictionaryEncoding;
+import de.uni_marburg.schematch.data.RowSampling;
+import de.uni_marburg.schematch.data.Table;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionListIndexTest {
+
+    private static List<Column> createColumns(Random random, int numRows, int[] numValues) {
+        List<Column> columns = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        for (int c = 0; c < numValues.length; c++) {
+            List<String> values = new ArrayList<>();
+            for (int row = 0; row < numRows; row++) {
+                values.add(String.valueOf(random.nextInt(numValues[c])));
+            }
+            columns.add(new Column("c" + c, values));
+            labels.add("c" + c);
+        }
+        new Table("t", labels, columns, null, null);
+        return columns;
+    }
+
+    // clusters of rows with equal values in all columns, including single rows
+    private static Set<Set<Integer>> groupRows(List<Column> columns, int numRows) {
+        Map<List<String>, Set<Integer>> groups = new HashMap<>();
+        for (int row = 0; row < numRows; row++) {
+            List<String> key = new ArrayList<>();
+            for (Column column : columns) {
+                key.add(column.getEncoding().getValue(row));
+            }
+            groups.computeIfAbsent(key, k -> new TreeSet<>()).add(row);
+        }
+        return new HashSet<>(groups.values());
+    }
+
+    // GPDEP on composite row codes as computed before partitions were introduced
+    private static double referenceGPDEPScore(Collection<Column> determinant, Column dependant) {
+        DictionaryEncoding encodingA = dependant.getEncoding();
+        int rowCount = encodingA.getNumRows();
+        int[] rowCodesX = new int[rowCount];
+        int numX = 1;
+        boolean first = true;
+        for (Column column : determinant) {
+            DictionaryEncoding encoding = column.getEncoding();
+            if (first) {
+                first = false;
+                rowCodesX = Arrays.copyOf(encoding.getCodes(), rowCount);
+                numX = encoding.getNumDistinct();
+                continue;
+            }
+            Map<Long, Integer> combinedCodes = new HashMap<>();
+            for (int i = 0; i < rowCount; i++) {
+                long key = (long) rowCodesX[i] * encoding.getNumDistinct() + encoding.getCodes()[i];
+                Integer code = combinedCodes.putIfAbsent(key, combinedCodes.size());
+                rowCodesX[i] = code == null ? combinedCodes.size() - 1 : code;
+            }
+            numX = combinedCodes.size();
+        }
+        int[] rowCodesA = encodingA.getCodes();
+        int numA = encodingA.getNumDistinct();
+
+        int[] countsX = new int[numX];
+        Map<Long, Integer> countsXA = new HashMap<>();
+        for (int i = 0; i < rowCount; i++) {
+            countsX[rowCodesX[i]]++;
+            countsXA.merge((long) rowCodesX[i] * numA + rowCodesA[i], 1, Integer::sum);
+        }
+        double[] pdepAGivenX = new double[numX];
+        for (Map.Entry<Long, Integer> countXA : countsXA.entrySet()) {
+            int x = (int) (countXA.getKey() / numA);
+            double probabilityForAGivenX = (double) countXA.getValue() / countsX[x];
+            pdepAGivenX[x] = pdepAGivenX[x] + probabilityForAGivenX * probabilityForAGivenX;
+        }
+        double pdepXA = 0.0;
+        for (int x = 0; x < numX; x++) {
+            pdepXA = pdepXA + (double) countsX[x] / rowCount * pdepAGivenX[x];
+        }
+        double selfDependencyScoreA = 0.0;
+        for (int frequency : encodingA.getFrequencies()) {
+            double probabilityForA = (double) frequency / rowCount;
+            selfDependencyScoreA = selfDependencyScoreA + probabilityForA * probabilityForA;
+        }
+        double epdepXA = selfDependencyScoreA + ((numX - 1.0) / (rowCount - 1.0)) * (1 - selfDependencyScoreA);
+        return pdepXA - epdepXA;
+    }
+
+    @Test
+    void intersectPartitions() {
+        List<Column> columns = createColumns(new Random(20), 200, new int[]{6, 4, 50});
+        PositionListIndex partition = PositionListIndex.of(columns.get(0).getEncoding());
+        assertEquals(6, partition.getNumDistinct());
+
+        PartitionCache partitions = new PartitionCache(null);
+        for (List<Column> combination : List.of(columns.subList(0, 2), columns, List.of(columns.get(2), columns.get(0)))) {
+            PositionListIndex intersection = partitions.getPartition(combination, 200);
+            Set<Set<Integer>> expected = groupRows(combination, 200);
+            assertEquals(expected.size(), intersection.getNumDistinct());
+            assertEquals(expected.stream().filter(group -> group.size() > 1).count(), intersection.getNumClusters());
+        }
+        assertEquals(1, partitions.getPartition(List.of(), 200).getNumDistinct());
+        assertSame(partitions.getPartition(columns.get(1)), partitions.getPartition(columns.get(1)));
+    }
+
+    // scores are compared exactly, the dependency filters compare them against thresholds
+    @Test
+    void sameScoresAsRowCodes() {
+        Random random = new Random(21);
+        List<Column> columns = createColumns(random, 500, new int[]{3, 7, 20, 200, 2});
+        for (int a = 0; a < columns.size(); a++) {
+            Column dependant = columns.get(a);
+            List<Column> others = new ArrayList<>(columns);
+            others.remove(dependant);
+            for (List<Column> determinant : List.of(List.<Column>of(), others.subList(0, 1), others.subList(1, 3), others)) {
+                FunctionalDependency fd = new FunctionalDependency(determinant, dependant);
+                assertEquals(referenceGPDEPScore(determinant, dependant), fd.calculateGPDEPScore(), fd.toString());
+            }
+        }
+    }
+
+    @Test
+    void sampledScoresUseSameRowsForAllColumns() {
+        List<Column> columns = createColumns(new Random(22), 300, new int[]{5, 9, 4});
+        RowSampling sampling = new RowSampling(RowSampling.Strategy.STRATIFIED, 60, 7);
+        FunctionalDependency fd = new FunctionalDependency(columns.subList(0, 2), columns.get(2));
+
+        int[] rows = FunctionalDependency.getSampledRows(columns.get(2), sampling);
+        List<Column> sampledColumns = new ArrayList<>();
+        for (Column column : columns) {
+            sampledColumns.add(new Column(column.getLabel(), column.getEncoding().select(rows)));
+        }
+        assertEquals(referenceGPDEPScore(sampledColumns.subList(0, 2), sampledColumns.get(2)), fd.calculateGPDEPScore(sampling));
+        assertNull(FunctionalDependency.getSampledRows(columns.get(2), RowSampling.ALL));
+    }
+}
@@ -0,0 +1,82 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.uni_marburg.schematch.data.Table;
+import de.uni_marburg.schematch.data.metadata.dependency.ProfilingWorker.Profiler;
+import de.uni_marburg.schematch.utils.InputReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingSchedulerTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Worker that finds a -> b with the exact and b -> a with the approximate profiler. It fails with the exact
+     * profiler on tables named broken and does not terminate on tables named slow.
+     */
+    public static class FakeWorker {
+        public static void main(String[] args) throws Exception {
+            Profiler profiler = Profiler.valueOf(args[0]);
+            String tableName = Path.of(args[1]).getFileName().toString().replace(".csv", "");
+            if (profiler.getFallback() != null && tableName.equals("broken")) {
+                System.exit(1);
+            }
+            if (profiler.getFallback() != null && tableName.equals("slow")) {
+                Thread.sleep(Long.MAX_VALUE);
+            }
+            String fd = profiler.getFallback() != null ? "[" + tableName + ".a] --> " + tableName + ".b" :
+                    "[" + tableName + ".b] --> " + tableName + ".a";
+            Files.write(Path.of(args[2]), List.of(fd));
+        }
+    }
+
+    private Table createTable(String name) throws IOException {
+        return createTable(tempDir, name);
+    }
+
+    private static Table createTable(Path dir, String name) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve(name + ".csv");
+        Files.writeString(file, "a,b\n1,x\n2,y\n");
+        return InputReader.readDataFile(file.toString(), null);
+    }
+
+    @Test
+    void fallBackToApproximateProfiler() throws IOException {
+        List<Table> tables = List.of(createTable("good"), createTable("broken"), createTable("slow"));
+        ProfilingScheduler scheduler = new ProfilingScheduler(3, 256, Duration.ofSeconds(5), FakeWorker.class);
+
+        List<FunctionalDependency> fds = scheduler.executeFD(tables, Profiler.HYFD);
+
+        assertEquals(List.of("[good.a] --> good.b", "[broken.b] --> broken.a", "[slow.b] --> slow.a"),
+                fds.stream().map(FunctionalDependency::toString).toList());
+        for (int i = 0; i < tables.size(); i++) {
+            assertSame(tables.get(i), fds.get(i).getDependant().getTable());
+        }
+    }
+
+    @Test
+    void saveOnlyResultsOfRequestedProfiler() throws IOException {
+        Path metadataDir = tempDir.resolve("metadata").resolve("source");
+        for (String name : List.of("good", "broken")) {
+            Files.createDirectories(metadataDir.resolve(name));
+        }
+        List<Table> tables = List.of(createTable(tempDir.resolve("source"), "good"), createTable(tempDir.resolve("source"), "broken"));
+        ProfilingScheduler scheduler = new ProfilingScheduler(2, 256, Duration.ofSeconds(5), FakeWorker.class);
+
+        assertEquals(2, scheduler.executeFD(tables, Profiler.HYFD).size());
+
+        assertEquals(List.of("[good.a] --> good.b"), Files.readAllLines(metadataDir.resolve("good").resolve("FD_results.txt")));
+        // approximate dependencies of the fallback are not taken for exact ones in the next run
+        assertFalse(Files.exists(metadataDir.resolve("broken").resolve("FD_results.txt")));
+    }
+}
@@ -0,0 +1,45 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.metanome.algorithm_integration.input.RelationalInput;
+import de.uni_marburg.schematch.data.Database;
+import de.uni_marburg.schematch.data.Table;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableInputGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rowsOfLoadedTable() throws Exception {
+        Path dir = tempDir.resolve("db");
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("orders.csv"), "order_id,customer_id,note\n" +
+                "1,7,\"a,b\"\n2,,a\n3,7,\n");
+        Table orders = new Database(dir.toString()).getTableByName("orders");
+
+        TableInputGenerator generator = new TableInputGenerator(orders);
+        for (int copy = 0; copy < 2; copy++) {
+            RelationalInput input = generator.generateNewCopy();
+            assertEquals("orders.csv", input.relationName());
+            assertEquals(List.of("order_id", "customer_id", "note"), input.columnNames());
+            assertEquals(3, input.numberOfColumns());
+
+            List<List<String>> rows = new ArrayList<>();
+            while (input.hasNext()) {
+                rows.add(input.next());
+            }
+            //Empty values are null like in inputs read from files
+            assertEquals(List.of(List.of("1", "7", "a,b"), Arrays.asList("2", null, "a"), Arrays.asList("3", "7", null)), rows);
+        }
+    }
+}
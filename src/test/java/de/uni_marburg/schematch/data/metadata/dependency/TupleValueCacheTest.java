@@ -0,0 +1,133 @@
+package de.uni_marburg.schematch.data.metadata.dependency;
+
+import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.Database;
+import de.uni_marburg.schematch.data.DictionaryEncoding;
+import de.uni_marburg.schematch.data.RowSampling;
+import de.uni_marburg.schematch.data.Table;
+import de.uni_marburg.schematch.data.metadata.DatabaseMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TupleValueCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Database createDatabase() throws IOException {
+        Path dir = tempDir.resolve("db");
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("customers.csv"), "customer_id,branch_id,name\n" +
+                "1,101,Alice\n2,102,Bob\n3,103,Charlie\n4,104,David\n5,105,Eve\n6,101,Fay\n");
+        Files.writeString(dir.resolve("orders.csv"), "order_id,customer_id,branch_id,note\n" +
+                "1,1,101,\"a,b\"\n2,1,101,a\n3,2,102,\"b,c\"\n4,3,103,\n5,7,109,c\n6,4,104,a\n7,2,102,\"a,b\"\n8,5,105,b\n");
+        Database db = new Database(dir.toString());
+        Table customers = db.getTableByName("customers");
+        Table orders = db.getTableByName("orders");
+        List<Column> primaryKey = List.of(customers.getColumn(0), customers.getColumn(1));
+        db.setMetadata(new DatabaseMetadata(List.of(), List.of(), List.of(
+                new InclusionDependency(List.of(orders.getColumn(1), orders.getColumn(2)), primaryKey),
+                new InclusionDependency(List.of(orders.getColumn(2), orders.getColumn(1)), primaryKey),
+                new InclusionDependency(List.of(orders.getColumn(1), orders.getColumn(3)), primaryKey),
+                new InclusionDependency(List.of(orders.getColumn(0), orders.getColumn(1), orders.getColumn(2)),
+                        List.of(customers.getColumn(0), customers.getColumn(1), customers.getColumn(2))))));
+        return db;
+    }
+
+    // concatenated values of the columns (sorted by label) per row, as scored before the values were cached
+    private static List<String> getTupleValues(Collection<Column> columnCombination, RowSampling sampling) {
+        List<Column> sortedColumns = new ArrayList<>(columnCombination);
+        sortedColumns.sort(Comparator.comparing(Column::getLabel));
+        DictionaryEncoding firstEncoding = sortedColumns.get(0).getEncoding();
+        if (!sampling.isSampling(firstEncoding.getNumRows())) {
+            return Util.getDistinctValues(sortedColumns, firstEncoding.getNumRows());
+        }
+        int[] rows = sampling.sampleRows(firstEncoding);
+        List<Column> sampledColumns = new ArrayList<>();
+        for (Column column : sortedColumns) {
+            sampledColumns.add(new Column(column.getLabel(), column.getEncoding().select(rows)));
+        }
+        return Util.getDistinctValues(sampledColumns, rows.length);
+    }
+
+    @Test
+    void sameValuesAsConcatenatedStrings() throws IOException {
+        DatabaseMetadata metadata = createDatabase().getMetadata();
+
+        for (RowSampling sampling : List.of(RowSampling.ALL, new RowSampling(RowSampling.Strategy.RESERVOIR, 5, 7))) {
+            TupleValueCache cache = metadata.getTupleValueCache(sampling);
+            for (InclusionDependency ind : metadata.getInds()) {
+                for (Collection<Column> columns : List.of(ind.getDependant(), ind.getReferenced())) {
+                    List<String> expectedValues = getTupleValues(columns, sampling);
+                    TupleValues values = cache.getValues(columns);
+                    assertEquals(expectedValues.size(), values.getNumRows());
+                    assertEquals(new HashSet<>(expectedValues).size(), values.getNumDistinct());
+                    assertEquals(expectedValues.stream().mapToInt(String::length).average().orElse(0.0), values.getAverageLength(), 1e-12);
+                }
+
+                Set<String> foreignKeyValues = new HashSet<>(getTupleValues(ind.getDependant(), sampling));
+                Set<String> primaryKeyValues = new HashSet<>(getTupleValues(ind.getReferenced(), sampling));
+                long expectedCommon = foreignKeyValues.stream().filter(primaryKeyValues::contains).count();
+                assertEquals(expectedCommon, cache.getValues(ind.getDependant()).countDistinctValuesContainedIn(cache.getValues(ind.getReferenced())));
+                assertEquals(expectedCommon, cache.getValues(ind.getReferenced()).countDistinctValuesContainedIn(cache.getValues(ind.getDependant())));
+            }
+        }
+    }
+
+    @Test
+    void valuesSharedByInclusionDependencies() throws IOException {
+        DatabaseMetadata metadata = createDatabase().getMetadata();
+        List<InclusionDependency> inds = List.copyOf(metadata.getInds());
+        TupleValueCache cache = metadata.getTupleValueCache(RowSampling.ALL);
+
+        assertSame(cache, metadata.getTupleValueCache(RowSampling.of("", 0, 0)));
+        assertSame(cache.getValues(inds.get(0).getReferenced()), cache.getValues(inds.get(2).getReferenced()));
+        //Columns are concatenated in order of their labels
+        assertSame(cache.getValues(inds.get(0).getDependant()), cache.getValues(inds.get(1).getDependant()));
+
+        InclusionDependency ind = inds.get(0);
+        assertEquals(5.0 / 6.0, ind.coverageScore(), 1e-12);
+        assertEquals(1.0 - 1.0 / 6.0, ind.outOfRangeScore(), 1e-12);
+        assertEquals(1.0, ind.valueLengthDifferenceScore(), 1e-12);
+    }
+
+    @Test
+    void sampleOnlyForeignKeys() throws IOException {
+        Path dir = tempDir.resolve("keys");
+        Files.createDirectories(dir);
+        StringBuilder customers = new StringBuilder("customer_id,branch_id\n");
+        StringBuilder orders = new StringBuilder("order_id,customer_id,branch_id,first_customer_id\n");
+        for (int i = 0; i < 200; i++) {
+            customers.append(i).append(',').append(i % 7).append('\n');
+            orders.append(i).append(',').append(i).append(',').append(i % 7).append(',').append(i % 100).append('\n');
+        }
+        Files.writeString(dir.resolve("customers.csv"), customers.toString());
+        Files.writeString(dir.resolve("orders.csv"), orders.toString());
+        Database db = new Database(dir.toString());
+        Table customerTable = db.getTableByName("customers");
+        Table orderTable = db.getTableByName("orders");
+        RowSampling sampling = new RowSampling(RowSampling.Strategy.RESERVOIR, 20, 3);
+
+        //Unique primary keys, every foreign key value is contained
+        for (InclusionDependency ind : List.of(
+                new InclusionDependency(List.of(orderTable.getColumn(1)), List.of(customerTable.getColumn(0))),
+                new InclusionDependency(List.of(orderTable.getColumn(1), orderTable.getColumn(2)),
+                        List.of(customerTable.getColumn(0), customerTable.getColumn(1))))) {
+            assertEquals(1.0, ind.coverageScore(sampling), 1e-12);
+            assertEquals(1.0, ind.outOfRangeScore(sampling), 1e-12);
+            assertEquals(ind.getForeignKeyScore(), ind.getForeignKeyScore(sampling), 0.05);
+        }
+
+        //Half of the primary key values are referenced, estimated from the sampled foreign key
+        InclusionDependency ind = new InclusionDependency(List.of(orderTable.getColumn(3)), List.of(customerTable.getColumn(0)));
+        assertEquals(0.5, ind.outOfRangeScore(), 1e-12);
+        assertEquals(0.5, ind.outOfRangeScore(sampling), 0.05);
+    }
+}
@@ -0,0 +1,54 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import de.uni_marburg.schematch.data.metadata.Datatype;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandidatePruningTest {
+
+    private static final float[][] SIM_MATRIX = {
+            {0.9f, 0.0f, 0.4f, 0.4f},
+            {0.01f, 0.3f, 0.6f, 0.2f}
+    };
+    private static final Datatype[] SOURCE_DATATYPES = {Datatype.INTEGER, Datatype.DATE};
+    private static final Datatype[] TARGET_DATATYPES = {Datatype.FLOAT, Datatype.STRING, Datatype.BOOLEAN, Datatype.DATE};
+
+    @Test
+    void noPruning() {
+        assertFalse(CandidatePruning.NONE.isEnabled());
+        for (boolean[] row : CandidatePruning.NONE.getCandidates(SIM_MATRIX, SOURCE_DATATYPES, TARGET_DATATYPES)) {
+            assertArrayEquals(new boolean[]{true, true, true, true}, row);
+        }
+    }
+
+    @Test
+    void pruneByInitialSimilarity() {
+        boolean[][] candidates = new CandidatePruning(0.3f, 0, false).getCandidates(SIM_MATRIX, null, null);
+        assertArrayEquals(new boolean[]{true, false, true, true}, candidates[0]);
+        assertArrayEquals(new boolean[]{false, true, true, false}, candidates[1]);
+    }
+
+    @Test
+    void keepTopKCandidates() {
+        //Ties are broken by the index of the target column
+        boolean[][] candidates = new CandidatePruning(0, 2, false).getCandidates(SIM_MATRIX, null, null);
+        assertArrayEquals(new boolean[]{true, false, true, false}, candidates[0]);
+        assertArrayEquals(new boolean[]{false, true, true, false}, candidates[1]);
+
+        //Top k are chosen among the pairs left by the other filters
+        candidates = new CandidatePruning(0, 1, true).getCandidates(SIM_MATRIX, SOURCE_DATATYPES, TARGET_DATATYPES);
+        assertArrayEquals(new boolean[]{true, false, false, false}, candidates[0]);
+        assertArrayEquals(new boolean[]{false, true, false, false}, candidates[1]);
+    }
+
+    @Test
+    void pruneIncompatibleDatatypes() {
+        boolean[][] candidates = new CandidatePruning(0, 0, true).getCandidates(SIM_MATRIX, SOURCE_DATATYPES, TARGET_DATATYPES);
+        assertArrayEquals(new boolean[]{true, true, false, false}, candidates[0]);
+        assertArrayEquals(new boolean[]{false, true, false, true}, candidates[1]);
+        assertTrue(CandidatePruning.areCompatible(Datatype.TEXT, Datatype.STRING));
+        assertFalse(CandidatePruning.areCompatible(Datatype.TEXT, Datatype.INTEGER));
+        assertThrows(IllegalArgumentException.class, () -> new CandidatePruning(-1, 0, false));
+    }
+}
@@ -0,0 +1,199 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultDirectedWeightedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledPropagationGraphTest {
+
+    private static Graph<NodePair, CoefficientEdge> createPropagationGraph(Random random, List<NodePair> nodePairs) {
+        Graph<NodePair, CoefficientEdge> propagationGraph = new DefaultDirectedWeightedGraph<>(CoefficientEdge.class);
+        NodeType[] nodeTypes = {NodeType.COLUMN, NodeType.TABLE, NodeType.CONSTRAINT};
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 5; j++) {
+                Node a = new Node("a" + i, nodeTypes[i % 3], null, false, null, null, null);
+                Node b = new Node("b" + j, nodeTypes[(i + j) % 3], null, false, null, null, null);
+                NodePair nodePair = new NodePair(a, b);
+                nodePairs.add(nodePair);
+                propagationGraph.addVertex(nodePair);
+            }
+        }
+        for (int e = 0; e < 120; e++) {
+            NodePair source = nodePairs.get(random.nextInt(nodePairs.size()));
+            NodePair target = nodePairs.get(random.nextInt(nodePairs.size()));
+            if (source != target && !propagationGraph.containsEdge(source, target)) {
+                propagationGraph.addEdge(source, target, new CoefficientEdge(1.0 / (1 + random.nextInt(7))));
+            }
+        }
+        return propagationGraph;
+    }
+
+    // map based evaluation of a single node as in the original implementation
+    private static double evaluate(FixpointFormula formula, NodePair node, Map<NodePair, Double> sigma_0,
+                                   Map<NodePair, Double> sigma_i, Graph<NodePair, CoefficientEdge> propagationGraph) {
+        Set<NodePair> neighborNodes = new HashSet<>();
+        for (CoefficientEdge edge : propagationGraph.incomingEdgesOf(node)) {
+            neighborNodes.add(propagationGraph.getEdgeSource(edge));
+        }
+        boolean lambda = formula.name().endsWith("_Lambda");
+        boolean withInitial = formula == FixpointFormula.FORMULA_B || formula == FixpointFormula.FORMULA_B_Lambda ||
+                formula == FixpointFormula.FORMULA_C || formula == FixpointFormula.FORMULA_C_Lambda;
+        double phi = 0;
+        for (NodePair neighbor : neighborNodes) {
+            double coefficient = propagationGraph.getEdge(neighbor, node).getCoefficient();
+            boolean constraint = neighbor.getFirstNode().getNodeType().equals(NodeType.CONSTRAINT) &&
+                    neighbor.getSecondNode().getNodeType().equals(NodeType.CONSTRAINT);
+            double weight = constraint ? FixpointFormula.LAMBDA_D : FixpointFormula.LAMBDA_E;
+            if (withInitial) {
+                double value = sigma_0.get(neighbor) + sigma_i.get(neighbor);
+                phi += lambda ? weight * value * coefficient : value * coefficient;
+            } else {
+                double value = sigma_i.get(neighbor);
+                phi += lambda ? weight * coefficient * value : value * coefficient;
+            }
+        }
+        return switch (formula) {
+            case BASIC, BASIC_Lambda -> sigma_i.get(node) + phi;
+            case FORMULA_A, FORMULA_A_Lambda -> sigma_0.get(node) + phi;
+            case FORMULA_B, FORMULA_B_Lambda -> phi;
+            case FORMULA_C, FORMULA_C_Lambda -> sigma_0.get(node) + sigma_i.get(node) + phi;
+        };
+    }
+
+    @Test
+    void evaluateLikeMapBasedFormulas() {
+        Random random = new Random(7);
+        List<NodePair> nodePairs = new ArrayList<>();
+        Graph<NodePair, CoefficientEdge> propagationGraph = createPropagationGraph(random, nodePairs);
+        Map<NodePair, Double> initialMapping = new HashMap<>();
+        for (NodePair nodePair : nodePairs) {
+            if (random.nextBoolean()) {
+                initialMapping.put(nodePair, random.nextDouble());
+            }
+        }
+
+        CompiledPropagationGraph graph = new CompiledPropagationGraph(propagationGraph, initialMapping);
+        assertEquals(nodePairs.size(), graph.getNumNodes());
+        assertEquals(propagationGraph.edgeSet().size(), graph.getSources().length);
+
+        Map<NodePair, Double> sigma_0 = new HashMap<>();
+        Map<NodePair, Double> sigma_i = new HashMap<>();
+        double[] sigma_i_array = new double[graph.getNumNodes()];
+        for (int k = 0; k < graph.getNumNodes(); k++) {
+            NodePair nodePair = graph.getNodePairs()[k];
+            assertEquals(initialMapping.getOrDefault(nodePair, 0.0), graph.getInitialSigma()[k]);
+            sigma_0.put(nodePair, graph.getInitialSigma()[k]);
+            sigma_i_array[k] = random.nextDouble();
+            sigma_i.put(nodePair, sigma_i_array[k]);
+        }
+
+        for (FixpointFormula formula : FixpointFormula.values()) {
+            double[] sigma_i_plus_1 = new double[graph.getNumNodes()];
+            formula.evaluate(graph, graph.getInitialSigma(), sigma_i_array, sigma_i_plus_1, 0, graph.getNumNodes());
+            for (int k = 0; k < graph.getNumNodes(); k++) {
+                NodePair nodePair = graph.getNodePairs()[k];
+                assertEquals(evaluate(formula, nodePair, sigma_0, sigma_i, propagationGraph), sigma_i_plus_1[k], 0.0, formula.name());
+            }
+        }
+
+        Map<NodePair, Double> sigma_i_plus_1 = graph.toMapping(graph.getInitialSigma());
+        double residualSum = SimilarityFloodingUtils.normalizeAndSumResiduals(sigma_i_array, graph.getInitialSigma().clone(),
+                1.0, graph.getResidualOrder(), 0, graph.getNumNodes());
+        assertEquals(SimilarityFloodingUtils.calcResidualVector(new HashMap<>(sigma_i), sigma_i_plus_1), Math.sqrt(residualSum), 0.0);
+    }
+
+    @Test
+    void resultsIndependentOfThreads() {
+        Random random = new Random(11);
+        Graph<NodePair, CoefficientEdge> propagationGraph = new DefaultDirectedWeightedGraph<>(CoefficientEdge.class);
+        List<NodePair> nodePairs = new ArrayList<>();
+        Map<NodePair, Double> initialMapping = new HashMap<>();
+        for (int i = 0; i < 3 * CompiledPropagationGraph.BLOCK_SIZE; i++) {
+            Node a = new Node("a" + i, NodeType.COLUMN, null, false, null, null, null);
+            Node b = new Node("b" + i, NodeType.COLUMN, null, false, null, null, null);
+            NodePair nodePair = new NodePair(a, b);
+            nodePairs.add(nodePair);
+            propagationGraph.addVertex(nodePair);
+            initialMapping.put(nodePair, random.nextDouble());
+        }
+        for (int e = 0; e < 4 * nodePairs.size(); e++) {
+            NodePair source = nodePairs.get(random.nextInt(nodePairs.size()));
+            NodePair target = nodePairs.get(random.nextInt(nodePairs.size()));
+            if (source != target && !propagationGraph.containsEdge(source, target)) {
+                propagationGraph.addEdge(source, target, new CoefficientEdge(1.0 / (1 + random.nextInt(4))));
+            }
+        }
+
+        Map<NodePair, Double> sequential = SimilarityFlooding.similarityFlooding(propagationGraph, initialMapping, FixpointFormula.FORMULA_C, null);
+        for (int numThreads : new int[]{2, 5}) {
+            ForkJoinPool pool = new ForkJoinPool(numThreads);
+            try {
+                assertEquals(sequential, SimilarityFlooding.similarityFlooding(propagationGraph, initialMapping, FixpointFormula.FORMULA_C, pool));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void batchedLikeSingleFormulas() {
+        Random random = new Random(15);
+        List<NodePair> nodePairs = new ArrayList<>();
+        Graph<NodePair, CoefficientEdge> propagationGraph = createPropagationGraph(random, nodePairs);
+        Map<NodePair, Double> initialMapping = new HashMap<>();
+        for (NodePair nodePair : nodePairs) {
+            initialMapping.put(nodePair, random.nextDouble());
+        }
+        CompiledPropagationGraph graph = new CompiledPropagationGraph(propagationGraph, initialMapping);
+
+        FixpointFormula[] formulas = FixpointFormula.values();
+        double[][] batched = SimilarityFlooding.similarityFlooding(graph, formulas, null);
+        for (int c = 0; c < formulas.length; c++) {
+            assertArrayEquals(SimilarityFlooding.similarityFlooding(graph, formulas[c], null), batched[c], formulas[c].name());
+        }
+
+        FixpointFormula[] subset = {FixpointFormula.FORMULA_C, FixpointFormula.BASIC, FixpointFormula.FORMULA_C};
+        double[][] batchedSubset = SimilarityFlooding.similarityFlooding(graph, subset, null);
+        assertArrayEquals(batched[FixpointFormula.FORMULA_C.ordinal()], batchedSubset[0]);
+        assertArrayEquals(batched[FixpointFormula.BASIC.ordinal()], batchedSubset[1]);
+        assertArrayEquals(batched[FixpointFormula.FORMULA_C.ordinal()], batchedSubset[2]);
+    }
+
+    @Test
+    void batchedResultsIndependentOfThreads() {
+        Random random = new Random(16);
+        int numNodes = 2 * CompiledPropagationGraph.BLOCK_SIZE + 17;
+        double[] initialSigma = random.doubles(numNodes).toArray();
+        int[] offsets = new int[numNodes + 1];
+        int[] sources = new int[3 * numNodes];
+        double[] coefficients = new double[3 * numNodes];
+        boolean[] constraintSources = new boolean[3 * numNodes];
+        for (int node = 0; node < numNodes; node++) {
+            for (int e = 3 * node; e < 3 * node + 3; e++) {
+                sources[e] = random.nextInt(numNodes);
+                coefficients[e] = 1.0 / (1 + random.nextInt(4));
+                constraintSources[e] = random.nextBoolean();
+            }
+            offsets[node + 1] = 3 * node + 3;
+        }
+        CompiledPropagationGraph graph = new CompiledPropagationGraph(initialSigma, offsets, sources, coefficients, constraintSources);
+
+        FixpointFormula[] formulas = {FixpointFormula.FORMULA_A, FixpointFormula.FORMULA_B_Lambda, FixpointFormula.FORMULA_C};
+        double[][] sequential = SimilarityFlooding.similarityFlooding(graph, formulas, null);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            double[][] parallel = SimilarityFlooding.similarityFlooding(graph, formulas, pool);
+            for (int c = 0; c < formulas.length; c++) {
+                assertArrayEquals(SimilarityFlooding.similarityFlooding(graph, formulas[c], null), sequential[c], formulas[c].name());
+                assertArrayEquals(sequential[c], parallel[c], formulas[c].name());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
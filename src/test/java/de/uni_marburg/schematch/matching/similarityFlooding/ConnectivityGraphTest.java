@@ -0,0 +1,214 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import de.uni_marburg.schematch.data.Database;
+import de.uni_marburg.schematch.data.RowSampling;
+import de.uni_marburg.schematch.data.Table;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultDirectedWeightedGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectivityGraphTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Graph<Node, LabelEdge> createSchemaGraph(Random random, String prefix, int numNodes, int numEdges, String[] labels) {
+        Graph<Node, LabelEdge> graph = new DefaultDirectedWeightedGraph<>(LabelEdge.class);
+        List<Node> nodes = new ArrayList<>();
+        NodeType[] nodeTypes = {NodeType.COLUMN, NodeType.TABLE, NodeType.CONSTRAINT};
+        for (int i = 0; i < numNodes; i++) {
+            Node node = new Node(prefix + i, nodeTypes[i % 3], null, false, null, null, null);
+            nodes.add(node);
+            graph.addVertex(node);
+        }
+        for (int e = 0; e < numEdges; e++) {
+            graph.addEdge(nodes.get(random.nextInt(numNodes)), nodes.get(random.nextInt(numNodes)),
+                    new LabelEdge(labels[random.nextInt(labels.length)]));
+        }
+        return graph;
+    }
+
+    @Test
+    void sameGraphsAsJGraphT() {
+        Random random = new Random(13);
+        String[] labels = {"column", "type", "name", "table"};
+        Graph<Node, LabelEdge> graph1 = createSchemaGraph(random, "a", 20, 70, labels);
+        Graph<Node, LabelEdge> graph2 = createSchemaGraph(random, "b", 15, 50, labels);
+        Graph<NodePair, LabelEdge> expected = SchemaGraphBuilder.createConnectivityGraph(graph1, graph2);
+
+        Map<String, Integer> labelIds = new HashMap<>();
+        ConnectivityGraph connectivityGraph = new ConnectivityGraph(new SchemaGraph(graph1, labelIds), new SchemaGraph(graph2, labelIds), labelIds.size());
+
+        List<NodePair> nodePairs = new ArrayList<>();
+        for (int nodePair = 0; nodePair < connectivityGraph.getNumNodePairs(); nodePair++) {
+            nodePairs.add(connectivityGraph.getNodePair(nodePair));
+        }
+        assertIterableEquals(expected.vertexSet(), nodePairs);
+        assertEquals(expected.edgeSet().size(), connectivityGraph.getNumEdges());
+        int edge = 0;
+        for (LabelEdge labelEdge : expected.edgeSet()) {
+            assertEquals(expected.getEdgeSource(labelEdge), nodePairs.get(connectivityGraph.getEdgeSources()[edge]));
+            assertEquals(expected.getEdgeTarget(labelEdge), nodePairs.get(connectivityGraph.getEdgeTargets()[edge]));
+            edge++;
+        }
+
+        Map<NodePair, Double> initialMapping = new HashMap<>();
+        double[] initialSigma = new double[nodePairs.size()];
+        for (int nodePair = 0; nodePair < nodePairs.size(); nodePair++) {
+            initialSigma[nodePair] = random.nextDouble();
+            initialMapping.put(nodePairs.get(nodePair), initialSigma[nodePair]);
+        }
+        for (PropagationCoefficientPolicy policy : List.of(PropagationCoefficientPolicy.INVERSE_AVERAGE, PropagationCoefficientPolicy.INVERSE_PRODUCT)) {
+            Graph<NodePair, CoefficientEdge> propagationGraph = SchemaGraphBuilder.inducePropagationGraph(expected, graph1, graph2, policy);
+            CompiledPropagationGraph compiledGraph = connectivityGraph.inducePropagationGraph(policy, initialSigma);
+            assertEquals(propagationGraph.edgeSet().size(), compiledGraph.getSources().length);
+
+            for (FixpointFormula formula : List.of(FixpointFormula.FORMULA_C, FixpointFormula.FORMULA_A_Lambda)) {
+                Map<NodePair, Double> expectedSigma = SimilarityFlooding.similarityFlooding(propagationGraph, initialMapping, formula, null);
+                double[] sigma = SimilarityFlooding.similarityFlooding(compiledGraph, formula, null);
+                for (int nodePair = 0; nodePair < nodePairs.size(); nodePair++) {
+                    assertEquals(expectedSigma.get(nodePairs.get(nodePair)), sigma[nodePair], 1e-12);
+                }
+            }
+        }
+    }
+
+    private Database createDatabase(String name, Map<String, String> tables) throws IOException {
+        Path dir = tempDir.resolve(name);
+        Files.createDirectories(dir);
+        for (Map.Entry<String, String> table : tables.entrySet()) {
+            Files.writeString(dir.resolve(table.getKey() + ".csv"), table.getValue());
+        }
+        return new Database(dir.toString());
+    }
+
+    @Test
+    void mapColumnsLikeJGraphT() throws IOException {
+        Database sourceDb = createDatabase("source", Map.of(
+                "authors", "aid,name,born\n1,Ann,1970\n2,Bob,1980\n",
+                "books", "bid,title,author\n1,Java,1\n2,Graphs,2\n"));
+        Database targetDb = createDatabase("target", Map.of(
+                "writer", "id,fullname\n1,Ann\n2,Bob\n",
+                "publication", "pid,name,writer,year\n1,Java,1,2001\n2,Graphs,2,2002\n"));
+        int numSourceColumns = sourceDb.getTables().stream().mapToInt(Table::getNumColumns).sum();
+        int numTargetColumns = targetDb.getTables().stream().mapToInt(Table::getNumColumns).sum();
+        Random random = new Random(17);
+        float[][] prevMatrix = new float[numSourceColumns][numTargetColumns];
+        for (float[] row : prevMatrix) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] = random.nextFloat();
+            }
+        }
+
+        SchemaGraphBuilder schemaGraphBuilder = new SchemaGraphBuilder("", "", "", RowSampling.ALL);
+        Graph<Node, LabelEdge> sourceGraph = schemaGraphBuilder.transformIntoGraphRepresentationSchema(sourceDb);
+        Graph<Node, LabelEdge> targetGraph = schemaGraphBuilder.transformIntoGraphRepresentationSchema(targetDb);
+
+        // JGraphT pipeline
+        Graph<NodePair, LabelEdge> expectedConnectivityGraph = SchemaGraphBuilder.createConnectivityGraph(sourceGraph, targetGraph);
+        Graph<NodePair, CoefficientEdge> propagationGraph = SchemaGraphBuilder.inducePropagationGraph(expectedConnectivityGraph,
+                sourceGraph, targetGraph, PropagationCoefficientPolicy.INVERSE_AVERAGE);
+        Map<NodePair, Double> initialMapping = new HashMap<>();
+        for (Table sourceTable : sourceDb.getTables()) {
+            for (Table targetTable : targetDb.getTables()) {
+                for (int i = 0; i < sourceTable.getNumColumns(); i++) {
+                    Node sourceNode = new Node(sourceTable.getColumn(i).getLabel(), NodeType.COLUMN, null, false, null, sourceTable, null);
+                    for (int j = 0; j < targetTable.getNumColumns(); j++) {
+                        Node targetNode = new Node(targetTable.getColumn(j).getLabel(), NodeType.COLUMN, null, false, null, targetTable, null);
+                        initialMapping.put(new NodePair(sourceNode, targetNode),
+                                (double) prevMatrix[sourceTable.getOffset() + i][targetTable.getOffset() + j]);
+                    }
+                }
+            }
+        }
+        Map<NodePair, Double> filteredMapping = SimilarityFloodingUtils.filterMapping(
+                SimilarityFlooding.similarityFlooding(propagationGraph, initialMapping, FixpointFormula.FORMULA_C, null));
+        float[][] expected = new float[numSourceColumns][numTargetColumns];
+        for (Table sourceTable : sourceDb.getTables()) {
+            for (Table targetTable : targetDb.getTables()) {
+                SimilarityFloodingUtils.populateSimMatrix(expected, filteredMapping, sourceTable, targetTable);
+            }
+        }
+
+        // primitive pipeline
+        Map<String, Integer> labelIds = new HashMap<>();
+        ConnectivityGraph connectivityGraph = new ConnectivityGraph(new SchemaGraph(sourceGraph, labelIds),
+                new SchemaGraph(targetGraph, labelIds), labelIds.size());
+        CompiledPropagationGraph compiledGraph = connectivityGraph.inducePropagationGraph(PropagationCoefficientPolicy.INVERSE_AVERAGE,
+                connectivityGraph.getInitialSigma(prevMatrix));
+        float[][] simMatrix = new float[numSourceColumns][numTargetColumns];
+        connectivityGraph.populateSimMatrix(simMatrix, SimilarityFlooding.similarityFlooding(compiledGraph, FixpointFormula.FORMULA_C, null));
+
+        for (int i = 0; i < numSourceColumns; i++) {
+            assertArrayEquals(expected[i], simMatrix[i], 1e-6f);
+        }
+        assertTrue(Arrays.stream(simMatrix).anyMatch(row -> {
+            for (float score : row) {
+                if (score > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }));
+    }
+
+    @Test
+    void pruneColumnPairs() throws IOException {
+        Database sourceDb = createDatabase("source", Map.of(
+                "authors", "aid,name,born\n1,Ann,1970\n2,Bob,1980\n"));
+        Database targetDb = createDatabase("target", Map.of(
+                "writer", "id,fullname,year\n1,Ann,1970\n2,Bob,1980\n"));
+        float[][] prevMatrix = {{0.9f, 0.1f, 0.2f}, {0.1f, 0.8f, 0.0f}, {0.3f, 0.0f, 0.7f}};
+
+        SchemaGraphBuilder schemaGraphBuilder = new SchemaGraphBuilder("", "", "", RowSampling.ALL);
+        Map<String, Integer> labelIds = new HashMap<>();
+        SchemaGraph sourceGraph = new SchemaGraph(schemaGraphBuilder.transformIntoGraphRepresentationSchema(sourceDb), labelIds);
+        SchemaGraph targetGraph = new SchemaGraph(schemaGraphBuilder.transformIntoGraphRepresentationSchema(targetDb), labelIds);
+        ConnectivityGraph unpruned = new ConnectivityGraph(sourceGraph, targetGraph, labelIds.size());
+
+        boolean[][] allCandidates = new boolean[3][3];
+        for (boolean[] row : allCandidates) {
+            Arrays.fill(row, true);
+        }
+        ConnectivityGraph notPruned = new ConnectivityGraph(sourceGraph, targetGraph, labelIds.size(), allCandidates);
+        assertArrayEquals(unpruned.getFirstNodes(), notPruned.getFirstNodes());
+        assertArrayEquals(unpruned.getSecondNodes(), notPruned.getSecondNodes());
+        assertArrayEquals(unpruned.getEdgeSources(), notPruned.getEdgeSources());
+
+        boolean[][] candidates = new CandidatePruning(0, 1, false).getCandidates(prevMatrix, null, null);
+        ConnectivityGraph pruned = new ConnectivityGraph(sourceGraph, targetGraph, labelIds.size(), candidates);
+        assertTrue(pruned.getNumNodePairs() < unpruned.getNumNodePairs());
+        assertTrue(pruned.getNumEdges() < unpruned.getNumEdges());
+        Set<List<Integer>> columnPairs = new HashSet<>();
+        for (int nodePair = 0; nodePair < pruned.getNumNodePairs(); nodePair++) {
+            int column1 = sourceGraph.getColumnIndices()[pruned.getFirstNodes()[nodePair]];
+            int column2 = targetGraph.getColumnIndices()[pruned.getSecondNodes()[nodePair]];
+            if (column1 >= 0 && column2 >= 0) {
+                assertTrue(candidates[column1][column2]);
+                columnPairs.add(List.of(column1, column2));
+            }
+        }
+        assertEquals(Set.of(List.of(0, 0), List.of(1, 1), List.of(2, 2)), columnPairs);
+
+        //Pruned column pairs keep a similarity of 0
+        CompiledPropagationGraph compiledGraph = pruned.inducePropagationGraph(PropagationCoefficientPolicy.INVERSE_AVERAGE,
+                pruned.getInitialSigma(prevMatrix));
+        float[][] simMatrix = new float[3][3];
+        pruned.populateSimMatrix(simMatrix, SimilarityFlooding.similarityFlooding(compiledGraph, FixpointFormula.FORMULA_C, null));
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                if (i != j) {
+                    assertEquals(0.0f, simMatrix[i][j]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixpointSolverTest {
+
+    private static CompiledPropagationGraph createGraph(Random random, int numNodes, int numEdgesPerNode) {
+        double[] initialSigma = new double[numNodes];
+        for (int node = 0; node < numNodes; node++) {
+            initialSigma[node] = random.nextInt(3) == 0 ? random.nextDouble() : 0.0;
+        }
+        int[] offsets = new int[numNodes + 1];
+        int[] sources = new int[numEdgesPerNode * numNodes];
+        double[] coefficients = new double[sources.length];
+        boolean[] constraintSources = new boolean[sources.length];
+        for (int node = 0; node < numNodes; node++) {
+            for (int e = numEdgesPerNode * node; e < numEdgesPerNode * (node + 1); e++) {
+                sources[e] = random.nextInt(numNodes);
+                coefficients[e] = 1.0 / (1 + random.nextInt(4));
+                constraintSources[e] = random.nextInt(5) == 0;
+            }
+            offsets[node + 1] = numEdgesPerNode * (node + 1);
+        }
+        return new CompiledPropagationGraph(initialSigma, offsets, sources, coefficients, constraintSources);
+    }
+
+    @Test
+    void plainIterationsReportResiduals() {
+        CompiledPropagationGraph graph = createGraph(new Random(16), 300, 3);
+
+        FixpointResult result = new FixpointSolver(graph, FixpointFormula.FORMULA_C, null)
+                .solve(FixpointAcceleration.NONE, SimilarityFlooding.MAX_ITERATIONS, 0);
+        assertArrayEquals(SimilarityFlooding.similarityFlooding(graph, FixpointFormula.FORMULA_C, null), result.getSigma());
+        assertEquals(FixpointResult.StopReason.CONVERGED, result.getStopReason());
+        assertFalse(result.isFellBack());
+        assertTrue(result.getNumIterations() > 1);
+        assertTrue(result.getFinalResidual() < SimilarityFlooding.PRECISION_OF_CONVERGENCE);
+        for (int i = 0; i < result.getNumIterations() - 1; i++) {
+            assertTrue(result.getResiduals()[i] >= SimilarityFlooding.PRECISION_OF_CONVERGENCE);
+        }
+    }
+
+    @Test
+    void acceleratedIterationsReachSameFixpoint() {
+        CompiledPropagationGraph graph = createGraph(new Random(17), 500, 4);
+
+        for (FixpointFormula formula : new FixpointFormula[]{FixpointFormula.BASIC, FixpointFormula.FORMULA_A, FixpointFormula.FORMULA_C}) {
+            FixpointResult plain = new FixpointSolver(graph, formula, null).solve(FixpointAcceleration.NONE, 1000, 0);
+            assertEquals(FixpointResult.StopReason.CONVERGED, plain.getStopReason(), formula.name());
+            for (FixpointAcceleration acceleration : new FixpointAcceleration[]{FixpointAcceleration.GAUSS_SEIDEL, FixpointAcceleration.AITKEN}) {
+                FixpointResult accelerated = new FixpointSolver(graph, formula, null).solve(acceleration, 1000, 0);
+                assertEquals(FixpointResult.StopReason.CONVERGED, accelerated.getStopReason(), formula + " " + acceleration);
+                assertEquals(acceleration, accelerated.getAcceleration());
+                assertArrayEquals(plain.getSigma(), accelerated.getSigma(), 0.01, formula + " " + acceleration);
+            }
+        }
+    }
+
+    @Test
+    void iterationAndTimeBudgets() {
+        CompiledPropagationGraph graph = createGraph(new Random(18), 300, 3);
+
+        FixpointResult result = new FixpointSolver(graph, FixpointFormula.FORMULA_C, null).solve(FixpointAcceleration.NONE, 2, 0);
+        assertEquals(FixpointResult.StopReason.MAX_ITERATIONS, result.getStopReason());
+        assertEquals(3, result.getNumIterations());
+
+        FixpointResult[] batched = SimilarityFlooding.similarityFlooding(graph,
+                new FixpointFormula[]{FixpointFormula.FORMULA_C, FixpointFormula.BASIC}, 2, 0, null);
+        assertArrayEquals(result.getSigma(), batched[0].getSigma());
+        assertArrayEquals(result.getResiduals(), batched[0].getResiduals());
+
+        CompiledPropagationGraph largeGraph = createGraph(new Random(19), 200_000, 4);
+        FixpointResult timedOut = new FixpointSolver(largeGraph, FixpointFormula.FORMULA_C, null)
+                .solve(FixpointAcceleration.NONE, Integer.MAX_VALUE - 1, 1);
+        assertEquals(FixpointResult.StopReason.TIME_BUDGET, timedOut.getStopReason());
+        assertTrue(timedOut.getNumIterations() >= 1);
+    }
+}
@@ -0,0 +1,137 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import de.uni_marburg.schematch.data.RowSampling;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultDirectedWeightedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropagationGraphCacheTest {
+
+    private static SchemaGraph createSchemaGraph(Random random, String prefix, Map<String, Integer> labelIds) {
+        Graph<Node, LabelEdge> graph = new DefaultDirectedWeightedGraph<>(LabelEdge.class);
+        String[] labels = {"column", "type", "name"};
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Node node = new Node(prefix + i, NodeType.COLUMN, null, false, null, null, null);
+            nodes.add(node);
+            graph.addVertex(node);
+        }
+        for (int e = 0; e < 30; e++) {
+            graph.addEdge(nodes.get(random.nextInt(nodes.size())), nodes.get(random.nextInt(nodes.size())),
+                    new LabelEdge(labels[random.nextInt(labels.length)]));
+        }
+        return new SchemaGraph(graph, labelIds);
+    }
+
+    @Test
+    void reuseGraphsForSameStructure() {
+        PropagationGraphCache cache = new PropagationGraphCache();
+        AtomicInteger numBuilds = new AtomicInteger();
+        PropagationGraphCache.Graphs graphs = new PropagationGraphCache.Graphs(null, null);
+
+        PropagationGraphCache.Key key = new PropagationGraphCache.Key(PropagationCoefficientPolicy.INVERSE_AVERAGE,
+                "0.5", null, null, RowSampling.ALL, CandidatePruning.NONE, null);
+        assertSame(graphs, cache.get(key, () -> {
+            numBuilds.incrementAndGet();
+            return graphs;
+        }));
+        PropagationGraphCache.Key equalKey = new PropagationGraphCache.Key(PropagationCoefficientPolicy.INVERSE_AVERAGE,
+                "0.5", null, null, RowSampling.of("ALL", 0, 0), new CandidatePruning(0, 0, false), null);
+        assertSame(graphs, cache.get(equalKey, () -> {
+            numBuilds.incrementAndGet();
+            return new PropagationGraphCache.Graphs(null, null);
+        }));
+        assertEquals(1, numBuilds.get());
+
+        PropagationGraphCache.Key otherKey = new PropagationGraphCache.Key(PropagationCoefficientPolicy.INVERSE_PRODUCT,
+                "0.5", null, null, RowSampling.ALL, CandidatePruning.NONE, null);
+        assertNotSame(graphs, cache.get(otherKey, () -> new PropagationGraphCache.Graphs(null, null)));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void separateGraphsForDifferentCandidates() {
+        PropagationGraphCache cache = new PropagationGraphCache();
+        CandidatePruning pruning = new CandidatePruning(0, 1, false);
+        PropagationGraphCache.Graphs graphs = new PropagationGraphCache.Graphs(null, null);
+
+        //Same pruning, but different similarities of the first line matcher
+        boolean[][] candidates = pruning.getCandidates(new float[][]{{0.9f, 0.1f}, {0.2f, 0.8f}}, null, null);
+        boolean[][] otherCandidates = pruning.getCandidates(new float[][]{{0.1f, 0.9f}, {0.2f, 0.8f}}, null, null);
+        PropagationGraphCache.Key key = new PropagationGraphCache.Key(PropagationCoefficientPolicy.INVERSE_AVERAGE,
+                "0.5", null, null, RowSampling.ALL, pruning, PropagationGraphCache.Key.toCandidateRows(candidates));
+        assertSame(graphs, cache.get(key, () -> graphs));
+
+        PropagationGraphCache.Key equalKey = new PropagationGraphCache.Key(PropagationCoefficientPolicy.INVERSE_AVERAGE,
+                "0.5", null, null, RowSampling.ALL, pruning, PropagationGraphCache.Key.toCandidateRows(
+                        pruning.getCandidates(new float[][]{{0.7f, 0.3f}, {0.2f, 0.8f}}, null, null)));
+        assertSame(graphs, cache.get(equalKey, () -> new PropagationGraphCache.Graphs(null, null)));
+
+        PropagationGraphCache.Key otherKey = new PropagationGraphCache.Key(PropagationCoefficientPolicy.INVERSE_AVERAGE,
+                "0.5", null, null, RowSampling.ALL, pruning, PropagationGraphCache.Key.toCandidateRows(otherCandidates));
+        assertNotSame(graphs, cache.get(otherKey, () -> new PropagationGraphCache.Graphs(null, null)));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void evictLeastRecentlyUsedGraphs() {
+        PropagationGraphCache cache = new PropagationGraphCache(2);
+        AtomicInteger numBuilds = new AtomicInteger();
+        PropagationGraphCache.Key[] keys = new PropagationGraphCache.Key[3];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new PropagationGraphCache.Key(PropagationCoefficientPolicy.INVERSE_AVERAGE,
+                    String.valueOf(i), null, null, RowSampling.ALL, CandidatePruning.NONE, null);
+        }
+        Supplier<PropagationGraphCache.Graphs> builder = () -> {
+            numBuilds.incrementAndGet();
+            return new PropagationGraphCache.Graphs(null, null);
+        };
+
+        PropagationGraphCache.Graphs graphs0 = cache.get(keys[0], builder);
+        cache.get(keys[1], builder);
+        assertSame(graphs0, cache.get(keys[0], builder));
+        // keys[1] is the least recently used key
+        cache.get(keys[2], builder);
+        assertEquals(2, cache.size());
+        assertEquals(3, numBuilds.get());
+        assertSame(graphs0, cache.get(keys[0], builder));
+        cache.get(keys[1], builder);
+        assertEquals(4, numBuilds.get());
+
+        // failed builds are not cached
+        assertThrows(IllegalStateException.class, () -> cache.get(keys[2], () -> {
+            throw new IllegalStateException();
+        }));
+        assertNotNull(cache.get(keys[2], builder));
+        assertEquals(5, numBuilds.get());
+    }
+
+    @Test
+    void cachedGraphWithInitialSigma() {
+        Random random = new Random(14);
+        Map<String, Integer> labelIds = new HashMap<>();
+        SchemaGraph graph1 = createSchemaGraph(random, "a", labelIds);
+        SchemaGraph graph2 = createSchemaGraph(random, "b", labelIds);
+        ConnectivityGraph connectivityGraph = new ConnectivityGraph(graph1, graph2, labelIds.size());
+        CompiledPropagationGraph cachedGraph = connectivityGraph.inducePropagationGraph(PropagationCoefficientPolicy.INVERSE_AVERAGE,
+                new double[connectivityGraph.getNumNodePairs()]);
+
+        for (FixpointFormula formula : List.of(FixpointFormula.BASIC, FixpointFormula.FORMULA_C)) {
+            double[] initialSigma = random.doubles(connectivityGraph.getNumNodePairs()).toArray();
+            CompiledPropagationGraph expectedGraph = connectivityGraph.inducePropagationGraph(PropagationCoefficientPolicy.INVERSE_AVERAGE, initialSigma);
+            assertArrayEquals(SimilarityFlooding.similarityFlooding(expectedGraph, formula, null),
+                    SimilarityFlooding.similarityFlooding(cachedGraph.withInitialSigma(initialSigma), formula, null));
+        }
+        assertThrows(IllegalArgumentException.class, () -> cachedGraph.withInitialSigma(new double[1]));
+    }
+}
@@ -0,0 +1,185 @@
+package de.uni_marburg.schematch.matching.similarityFlooding;
+
+import de.uni_marburg.schematch.data.Column;
+import de.uni_marburg.schematch.data.Database;
+import de.uni_marburg.schematch.data.RowSampling;
+import de.uni_marburg.schematch.data.Table;
+import de.uni_marburg.schematch.data.metadata.DatabaseMetadata;
+import de.uni_marburg.schematch.data.metadata.dependency.FunctionalDependency;
+import de.uni_marburg.schematch.data.metadata.dependency.InclusionDependency;
+import de.uni_marburg.schematch.data.metadata.dependency.UniqueColumnCombination;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultDirectedWeightedGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaGraphBuilderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Graph<Node, LabelEdge> createSchemaGraph(Random random, String prefix, int numNodes, int numEdges, String[] labels) {
+        Graph<Node, LabelEdge> graph = new DefaultDirectedWeightedGraph<>(LabelEdge.class);
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < numNodes; i++) {
+            Node node = new Node(prefix + i, NodeType.COLUMN, null, false, null, null, null);
+            nodes.add(node);
+            graph.addVertex(node);
+        }
+        for (int e = 0; e < numEdges; e++) {
+            graph.addEdge(nodes.get(random.nextInt(numNodes)), nodes.get(random.nextInt(numNodes)),
+                    new LabelEdge(labels[random.nextInt(labels.length)]));
+        }
+        return graph;
+    }
+
+    // cross product of all edges as in the original implementation
+    private static Graph<NodePair, LabelEdge> createConnectivityGraphNaive(Graph<Node, LabelEdge> graph1, Graph<Node, LabelEdge> graph2) {
+        Graph<NodePair, LabelEdge> connectivityGraph = new DefaultDirectedWeightedGraph<>(LabelEdge.class);
+        for (LabelEdge label1 : graph1.edgeSet()) {
+            for (LabelEdge label2 : graph2.edgeSet()) {
+                if (label1 != label2 && label1.equals(label2)) {
+                    NodePair connectedSourceNode = new NodePair(graph1.getEdgeSource(label1), graph2.getEdgeSource(label2));
+                    NodePair connectedTargetNode = new NodePair(graph1.getEdgeTarget(label1), graph2.getEdgeTarget(label2));
+                    connectivityGraph.addVertex(connectedSourceNode);
+                    connectivityGraph.addVertex(connectedTargetNode);
+                    connectivityGraph.addEdge(connectedSourceNode, connectedTargetNode, new LabelEdge(label1.getLabel()));
+                }
+            }
+        }
+        return connectivityGraph;
+    }
+
+    private static void assertSameGraph(Graph<NodePair, LabelEdge> expected, Graph<NodePair, LabelEdge> actual) {
+        assertIterableEquals(expected.vertexSet(), actual.vertexSet());
+        List<String> expectedEdges = new ArrayList<>();
+        for (LabelEdge edge : expected.edgeSet()) {
+            expectedEdges.add(expected.getEdgeSource(edge) + "->" + expected.getEdgeTarget(edge) + ":" + edge.getLabel());
+        }
+        List<String> actualEdges = new ArrayList<>();
+        for (LabelEdge edge : actual.edgeSet()) {
+            actualEdges.add(actual.getEdgeSource(edge) + "->" + actual.getEdgeTarget(edge) + ":" + edge.getLabel());
+        }
+        assertEquals(expectedEdges, actualEdges);
+    }
+
+    @Test
+    void createConnectivityGraph() {
+        Random random = new Random(3);
+        String[] labels = {"column", "type", "SQLtype", "name", "table", "constraint"};
+        Graph<Node, LabelEdge> graph1 = createSchemaGraph(random, "a", 30, 80, labels);
+        Graph<Node, LabelEdge> graph2 = createSchemaGraph(random, "b", 25, 60, new String[]{"column", "type", "name", "other"});
+
+        assertSameGraph(createConnectivityGraphNaive(graph1, graph2), SchemaGraphBuilder.createConnectivityGraph(graph1, graph2));
+    }
+
+    @Test
+    void createConnectivityGraphInParallel() {
+        Random random = new Random(5);
+        String[] labels = {"column", "type", "name"};
+        Graph<Node, LabelEdge> graph1 = createSchemaGraph(random, "a", 20, 90, labels);
+        Graph<Node, LabelEdge> graph2 = createSchemaGraph(random, "b", 20, 60, labels);
+
+        assertSameGraph(createConnectivityGraphNaive(graph1, graph2), SchemaGraphBuilder.createConnectivityGraph(graph1, graph2, 0));
+    }
+
+    // label count of the node as computed per node pair in the original implementation
+    private static double countLabel(Graph<Node, LabelEdge> graph, Node node, String label, boolean incoming) {
+        double count = 0;
+        for (LabelEdge edge : incoming ? graph.incomingEdgesOf(node) : graph.outgoingEdgesOf(node)) {
+            if (edge.getLabel().equals(label)) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void inducePropagationGraph() {
+        Random random = new Random(9);
+        String[] labels = {"column", "type", "name"};
+        Graph<Node, LabelEdge> graph1 = createSchemaGraph(random, "a", 12, 40, labels);
+        Graph<Node, LabelEdge> graph2 = createSchemaGraph(random, "b", 10, 30, labels);
+        Graph<NodePair, LabelEdge> connectivityGraph = SchemaGraphBuilder.createConnectivityGraph(graph1, graph2);
+
+        for (PropagationCoefficientPolicy policy : PropagationCoefficientPolicy.values()) {
+            Graph<NodePair, CoefficientEdge> propagationGraph = SchemaGraphBuilder.inducePropagationGraph(connectivityGraph, graph1, graph2, policy);
+            assertIterableEquals(connectivityGraph.vertexSet(), propagationGraph.vertexSet());
+
+            for (LabelEdge edge : connectivityGraph.edgeSet()) {
+                NodePair source = connectivityGraph.getEdgeSource(edge);
+                NodePair target = connectivityGraph.getEdgeTarget(edge);
+                if (connectivityGraph.containsEdge(target, source) || source.equals(target)) {
+                    // coefficient of the edge that was added first
+                    continue;
+                }
+                double out1 = countLabel(graph1, source.getFirstNode(), edge.getLabel(), false);
+                double out2 = countLabel(graph2, source.getSecondNode(), edge.getLabel(), false);
+                double in1 = countLabel(graph1, target.getFirstNode(), edge.getLabel(), true);
+                double in2 = countLabel(graph2, target.getSecondNode(), edge.getLabel(), true);
+                double expectedForward = switch (policy) {
+                    case INVERSE_AVERAGE -> 2.0 / (out1 + out2);
+                    case INVERSE_PRODUCT -> 1.0 / (out1 * out2);
+                    case CONSTANT_ONE -> 1.0;
+                };
+                double expectedBackward = switch (policy) {
+                    case INVERSE_AVERAGE -> 2.0 / (in1 + in2);
+                    case INVERSE_PRODUCT -> 1.0 / (in1 * in2);
+                    case CONSTANT_ONE -> 1.0;
+                };
+                assertEquals(expectedForward, propagationGraph.getEdge(source, target).getCoefficient(), 0.0);
+                assertEquals(expectedBackward, propagationGraph.getEdge(target, source).getCoefficient(), 0.0);
+            }
+        }
+    }
+
+    // columns of the id nodes the dependency node links to with the given label
+    private static List<Column> getLinkedColumns(Graph<Node, LabelEdge> graph, String dependencyNode, String label) {
+        Node node = graph.vertexSet().stream().filter(vertex -> vertex.getValue().equals(dependencyNode)).findFirst().orElseThrow();
+        List<Column> columns = new ArrayList<>();
+        for (LabelEdge edge : graph.outgoingEdgesOf(node)) {
+            if (edge.getLabel().equals(label)) {
+                columns.add(graph.getEdgeTarget(edge).getNameNode().getRepresentedColumn());
+            }
+        }
+        return columns;
+    }
+
+    @Test
+    void linkDependenciesToColumnIdNodes() throws IOException {
+        Path dir = tempDir.resolve("db");
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("authors.csv"), "aid,name,born,city\n1,Ann,1970,A\n2,Bob,1980,B\n3,Cid,1970,A\n");
+        Files.writeString(dir.resolve("books.csv"), "bid,title,author,year\n1,Java,1,2001\n2,Graphs,2,2002\n3,More,2,2001\n");
+        Database db = new Database(dir.toString());
+        Table authors = db.getTableByName("authors");
+        Table books = db.getTableByName("books");
+        db.setMetadata(new DatabaseMetadata(
+                List.of(new UniqueColumnCombination(List.of(books.getColumn(0)))),
+                List.of(new FunctionalDependency(List.of(books.getColumn(1), books.getColumn(3)), books.getColumn(2))),
+                List.of(new InclusionDependency(List.of(books.getColumn(2)), List.of(authors.getColumn(0))))));
+
+        Graph<Node, LabelEdge> graph = new SchemaGraphBuilder("-1000", "-1000", "-1000", RowSampling.ALL)
+                .transformIntoGraphRepresentationSchema(db);
+
+        assertEquals(List.of(books.getColumn(1), books.getColumn(3)), getLinkedColumns(graph, "FD1", "determinant"));
+        assertEquals(List.of(books.getColumn(2)), getLinkedColumns(graph, "FD1", "dependant"));
+        assertEquals(List.of(books.getColumn(0)), getLinkedColumns(graph, "UCC1", "unique"));
+        assertEquals(List.of(books.getColumn(1), books.getColumn(2), books.getColumn(3)), getLinkedColumns(graph, "UCC1", "notunique"));
+        assertEquals(List.of(books.getColumn(2)), getLinkedColumns(graph, "IND1", "dependant"));
+        assertEquals(List.of(authors.getColumn(0)), getLinkedColumns(graph, "IND1", "referenced"));
+
+        //Dependency nodes are added after all schema nodes, FDs first
+        List<String> values = graph.vertexSet().stream().map(Node::getValue).toList();
+        assertEquals(List.of("Constraint", "FD1", "UCC1", "IND1"), values.subList(values.size() - 4, values.size()));
+    }
+}
@@ -1,5 +1,6 @@
 package de.uni_marburg.schematch.matching.similarityFlooding;
 
+import de.uni_marburg.schematch.utils.Configuration;
 import org.jgrapht.Graph;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.junit.jupiter.api.Assertions;
@@ -50,4 +51,35 @@ class SimilarityFloodingTest {
         assertTrue(possibleValues.containsKey("indFilterThreshold"));
         assertTrue(possibleValues.get("indFilterThreshold").contains("normalizedValue"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testToStringSkipsStaticFields() {
+        SimilarityFlooding sf = new SimilarityFlooding();
+        sf.setPropCoeffPolicy("INV_AVG");
+        sf.setFixpoint("C");
+
+        String name = sf.toString();
+        assertTrue(name.startsWith("SimilarityFlooding(propCoeffPolicy=INV_AVG"), name);
+        assertTrue(name.contains("fixpoint=C"));
+        assertTrue(name.endsWith("fdFilterThreshold=null)"), name);
+        Assertions.assertFalse(name.contains("Pool"), name);
+        Assertions.assertFalse(name.contains("LABEL_SCORE_WEIGHT"), name);
+        Assertions.assertFalse(name.contains("maxIterations"), name);
+
+        // options are only part of the name if set
+        sf.setMaxIterations(50);
+        sf.setTopKCandidates(3);
+        name = sf.toString();
+        assertTrue(name.endsWith("fdFilterThreshold=null &  maxIterations=50 &  topKCandidates=3)"), name);
+    }
+
+    @Test
+    void testConfigureCandidatePruning() {
+        SimilarityFlooding sf = new SimilarityFlooding();
+        sf.configure(new Configuration.MatcherConfiguration("SimilarityFlooding", "similarityFlooding",
+                Map.of("topKCandidates", 2, "compatibleDatatypesOnly", true)));
+
+        assertTrue(sf.isCompatibleDatatypesOnly());
+        assertTrue(sf.toString().endsWith("topKCandidates=2 &  compatibleDatatypesOnly=true)"), sf.toString());
+    }
+}
@@ -0,0 +1,104 @@
+package de.uni_marburg.schematch.utils;
+
+import de.uni_marburg.schematch.data.Scenario;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static void writeEntry(CacheIndex cacheIndex, String key, int size) throws IOException {
+        Path path = cacheIndex.getPath(key);
+        Files.createDirectories(path.getParent());
+        Files.write(path, new byte[size]);
+        cacheIndex.add(key);
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        CacheIndex cacheIndex = new CacheIndex(cacheDir, 250);
+
+        writeEntry(cacheIndex, "aa01", 100);
+        writeEntry(cacheIndex, "bb02", 100);
+        assertNotNull(cacheIndex.lookup("aa01"));
+        writeEntry(cacheIndex, "cc03", 100);
+
+        // bb02 is the least recently used entry
+        assertNull(cacheIndex.lookup("bb02"));
+        assertFalse(Files.exists(cacheIndex.getPath("bb02")));
+        assertNotNull(cacheIndex.lookup("aa01"));
+        assertNotNull(cacheIndex.lookup("cc03"));
+        assertEquals(3, cacheIndex.getNumHits());
+        assertEquals(1, cacheIndex.getNumMisses());
+        assertEquals(1, cacheIndex.getNumEvictions());
+        assertEquals(200, cacheIndex.getSizeBytes());
+
+        // entries are restored from the cache directory
+        CacheIndex reloadedCacheIndex = new CacheIndex(cacheDir, 250);
+        assertEquals(2, reloadedCacheIndex.getNumEntries());
+        assertNotNull(reloadedCacheIndex.lookup("cc03"));
+    }
+
+    @Test
+    void deleteStaleTmpFiles() throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        CacheIndex cacheIndex = new CacheIndex(cacheDir, 0);
+        writeEntry(cacheIndex, "aa01", 100);
+        Path staleTmpFile = cacheIndex.getPath("bb02").resolveSibling("bb02" + SimMatrixCache.FILE_EXTENSION + ".1" + CacheIndex.TMP_FILE_EXTENSION);
+        Path recentTmpFile = cacheIndex.getPath("bb02").resolveSibling("bb02" + SimMatrixCache.FILE_EXTENSION + ".2" + CacheIndex.TMP_FILE_EXTENSION);
+        Files.createDirectories(staleTmpFile.getParent());
+        Files.write(staleTmpFile, new byte[100]);
+        Files.write(recentTmpFile, new byte[100]);
+        Files.setLastModifiedTime(staleTmpFile, FileTime.fromMillis(System.currentTimeMillis() - 24 * 60 * 60 * 1000));
+
+        CacheIndex reloadedCacheIndex = new CacheIndex(cacheDir, 0);
+        assertFalse(Files.exists(staleTmpFile));
+        // may still be written by a concurrent run
+        assertTrue(Files.exists(recentTmpFile));
+        assertEquals(1, reloadedCacheIndex.getNumEntries());
+        assertEquals(100, reloadedCacheIndex.getSizeBytes());
+    }
+
+    @Test
+    void scenarioFingerprint() throws IOException {
+        Path scenarioDir = tempDir.resolve("scenario");
+        Configuration config = Configuration.getInstance();
+        Files.createDirectories(scenarioDir.resolve(config.getDefaultSourceDatabaseDir()));
+        Files.createDirectories(scenarioDir.resolve(config.getDefaultTargetDatabaseDir()));
+        Files.createDirectories(scenarioDir.resolve(config.getDefaultGroundTruthDir()));
+        Path sourceFile = scenarioDir.resolve(config.getDefaultSourceDatabaseDir()).resolve("a.csv");
+        Files.writeString(sourceFile, "x,y\n1,2\n");
+        Files.writeString(scenarioDir.resolve(config.getDefaultTargetDatabaseDir()).resolve("b.csv"), "z\n3\n");
+        Path groundTruthFile = scenarioDir.resolve(config.getDefaultGroundTruthDir()).resolve("a___b.csv");
+        Scenario scenario = new Scenario(scenarioDir.toString());
+
+        String fingerprint = new CacheIndex(tempDir.resolve("cache"), 0).getScenarioFingerprint(scenario);
+
+        // ground truth is no input of the matchers
+        Files.writeString(groundTruthFile, "1\n0\n");
+        assertEquals(fingerprint, new CacheIndex(tempDir.resolve("cache"), 0).getScenarioFingerprint(scenario));
+
+        // same size and modification time, but different content
+        FileTime lastModified = Files.getLastModifiedTime(sourceFile);
+        Files.writeString(sourceFile, "x,y\n1,3\n");
+        Files.setLastModifiedTime(sourceFile, lastModified);
+        assertNotEquals(fingerprint, new CacheIndex(tempDir.resolve("other-cache"), 0).getScenarioFingerprint(scenario));
+
+        // content hashes are reused from the sidecar file as long as size and modification time are unchanged
+        assertTrue(Files.isRegularFile(tempDir.resolve("cache").resolve(CacheIndex.CONTENT_HASHES_FILE_NAME)));
+        assertEquals(fingerprint, new CacheIndex(tempDir.resolve("cache"), 0).getScenarioFingerprint(scenario));
+
+        Files.writeString(sourceFile, "x,y\n1,23\n");
+        assertNotEquals(fingerprint, new CacheIndex(tempDir.resolve("cache"), 0).getScenarioFingerprint(scenario));
+    }
+}
@@ -0,0 +1,61 @@
+package de.uni_marburg.schematch.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimMatrixCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeAndRead() throws IOException {
+        float[][] simMatrix = {{0.0f, 0.5f, 1.0f}, {0.25f, Float.MIN_VALUE, 0.123456789f}};
+        Path file = tempDir.resolve("step").resolve("Matcher(a=1)" + SimMatrixCache.FILE_EXTENSION);
+
+        SimMatrixCache.write(file, "Matcher(a=1)", 42L, simMatrix);
+
+        assertEquals(Files.size(file), 4 * Integer.BYTES + Long.BYTES + Integer.BYTES + "Matcher(a=1)".length() + 6 * Float.BYTES);
+        assertArrayEquals(simMatrix, SimMatrixCache.read(file, "Matcher(a=1)", 42L, 2, 3));
+        // outdated cache files are ignored
+        assertNull(SimMatrixCache.read(file, "Matcher(a=2)", 42L, 2, 3));
+        assertNull(SimMatrixCache.read(file, "Matcher(a=1)", 43L, 2, 3));
+        assertNull(SimMatrixCache.read(file, "Matcher(a=1)", 42L, 3, 2));
+    }
+
+    @Test
+    void readInvalidFile() throws IOException {
+        Path file = tempDir.resolve("invalid.bin");
+        Files.writeString(file, "0.5,0.5\n0.5,0.5\n");
+
+        assertThrows(IOException.class, () -> SimMatrixCache.read(file, "Matcher()", 0L, 2, 2));
+        assertThrows(IOException.class, () -> SimMatrixCache.read(tempDir.resolve("missing.bin"), "Matcher()", 0L, 2, 2));
+    }
+
+    @Test
+    void readCorruptFile() throws IOException {
+        Path file = tempDir.resolve("corrupt.bin");
+        SimMatrixCache.write(file, "Matcher()", 0L, new float[][]{{0.5f, 0.5f}, {0.5f, 0.5f}});
+        byte[] bytes = Files.readAllBytes(file);
+
+        // truncated scores
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> SimMatrixCache.read(file, "Matcher()", 0L, 2, 2));
+        // truncated matcher id
+        Files.write(file, Arrays.copyOf(bytes, 4 * Integer.BYTES + Long.BYTES + Integer.BYTES + 2));
+        assertThrows(IOException.class, () -> SimMatrixCache.read(file, "Matcher()", 0L, 2, 2));
+        // negative matcher id length
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(4 * Integer.BYTES + Long.BYTES, -1);
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> SimMatrixCache.read(file, "Matcher()", 0L, 2, 2));
+    }
+}
@@ -0,0 +1,85 @@
+package de.uni_marburg.schematch.utils;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingCsvReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<List<String>> readStreaming(String content, char delimiter) throws IOException {
+        Path file = tempDir.resolve("test.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StreamingCsvReader.read(file, delimiter, new StreamingCsvReader.FieldConsumer() {
+            @Override
+            public void accept(int fieldIndex, String value) {
+                assertEquals(record.size(), fieldIndex);
+                record.add(value);
+            }
+
+            @Override
+            public void endRecord(int numFields) {
+                assertEquals(record.size(), numFields);
+                records.add(new ArrayList<>(record));
+                record.clear();
+            }
+        });
+        return records;
+    }
+
+    private List<List<String>> readCommonsCsv(String content, char delimiter) throws IOException {
+        CSVFormat csvFormat = CSVFormat.DEFAULT.builder().setDelimiter(delimiter).build();
+        List<List<String>> records = new ArrayList<>();
+        try (CSVParser csvParser = new CSVParser(new StringReader(content), csvFormat)) {
+            for (CSVRecord csvRecord : csvParser) {
+                records.add(csvRecord.toList());
+            }
+        }
+        return records;
+    }
+
+    @Test
+    void readSameAsCommonsCsv() throws IOException {
+        List<String> contents = List.of(
+                "a,b,c\n1,2,3\n4,5,6\n",
+                "a,b,c\r\n1,2,3\r\n4,5,6",
+                "a,b\r1,2\r",
+                "a,b\n\n1,2\n\n\n3,4\n",
+                "a,b\n\"x,y\",\"say \"\"hi\"\"\"\n\"multi\nline\",\"\"\n",
+                "a,b,\n1,,\n,2,\n",
+                "name,city\nJürgen,Köln\nŁukasz,Wrocław\n"
+        );
+        for (String content : contents) {
+            assertEquals(readCommonsCsv(content, ','), readStreaming(content, ','), content);
+        }
+        String semicolon = "a;b\n\"1;2\";3\n";
+        assertEquals(readCommonsCsv(semicolon, ';'), readStreaming(semicolon, ';'));
+    }
+
+    @Test
+    void readEmptyFile() throws IOException {
+        assertTrue(readStreaming("", ',').isEmpty());
+    }
+
+    @Test
+    void readInvalidQuotes() {
+        assertThrows(IOException.class, () -> readStreaming("a,b\n\"1\"x,2\n", ','));
+        assertThrows(IOException.class, () -> readStreaming("a,b\n\"1,2\n", ','));
+    }
+}